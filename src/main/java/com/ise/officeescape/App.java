@@ -9,10 +9,12 @@ import javafx.stage.Stage;
 
 public class App extends Application {
 
+    private GameController controller;
+
     @Override
     public void start(Stage stage) throws Exception {
         GameView view = new GameView();
-        GameController controller = new GameController(view);
+        controller = new GameController(view);
 
         Scene scene = new Scene(view, 1366, 768);
         stage.setScene(scene);
@@ -23,6 +25,14 @@ public class App extends Application {
         view.requestFocus();
     }
 
+    @Override
+    public void stop() {
+        // Make sure the last autosave reaches the disk before exiting
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
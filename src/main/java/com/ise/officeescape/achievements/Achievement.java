@@ -0,0 +1,68 @@
+package com.ise.officeescape.achievements;
+
+import java.util.List;
+
+/**
+ * An achievement, unlocked once a statistic reaches a threshold.
+ */
+public class Achievement {
+    private final String id;
+    private final String title;
+    private final String description;
+    private final Statistic statistic;
+    private final long threshold;
+
+    public Achievement(String id, String title, String description, Statistic statistic, long threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Achievement threshold must be positive: " + id);
+        }
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.statistic = statistic;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the achievements of the built-in game.
+     */
+    public static List<Achievement> defaults() {
+        return List.of(
+            new Achievement("gettingAround", "Getting Around", "Visit 3 different rooms", Statistic.ROOMS_VISITED, 3),
+            new Achievement("seenItAll", "Seen It All", "Visit every room in the office", Statistic.ROOMS_VISITED, 6),
+            new Achievement("pacing", "Pacing the Halls", "Walk into rooms 25 times", Statistic.ROOMS_ENTERED, 25),
+            new Achievement("closeEnough", "Close Enough", "Get a ticket quiz question wrong", Statistic.WRONG_ANSWERS, 1),
+            new Achievement("professionalGuesser", "Professional Guesser", "Get 10 ticket quiz questions wrong", Statistic.WRONG_ANSWERS, 10),
+            new Achievement("busted", "Busted", "Get caught by the security guard", Statistic.TIMES_CAUGHT, 1),
+            new Achievement("repeatOffender", "Repeat Offender", "Get caught by the security guard 5 times", Statistic.TIMES_CAUGHT, 5),
+            new Achievement("smallTalk", "Small Talk", "Explore 3 branches of the guard's dialogue", Statistic.DIALOGUE_BRANCHES_EXPLORED, 3),
+            new Achievement("chatterbox", "Chatterbox", "Explore 10 branches of the guard's dialogue", Statistic.DIALOGUE_BRANCHES_EXPLORED, 10),
+            new Achievement("survivor", "Bureaucracy Survivor", "Solve every puzzle", Statistic.PUZZLES_SOLVED, 4)
+        );
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Statistic getStatistic() {
+        return statistic;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public String toString() {
+        return title + " - " + description;
+    }
+}
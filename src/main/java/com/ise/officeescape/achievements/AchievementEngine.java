@@ -0,0 +1,86 @@
+package com.ise.officeescape.achievements;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Evaluates achievements incrementally from game events.
+ *
+ * The rule tables are built once: for each event type, the statistics it feeds, and
+ * for each statistic, its achievements sorted by threshold. An event then only touches
+ * the counters of its statistics and checks the next locked achievement of each, so no
+ * state is ever rescanned. Each player has an AchievementSession holding their counters;
+ * totals over all sessions are kept in striped counters so many sessions can report
+ * from different threads at once.
+ */
+public class AchievementEngine {
+
+    private final List<Achievement> achievements;
+    final Statistic[][] statisticsByEvent; // Indexed by GameEventType ordinal
+    final Achievement[][] achievementsByStatistic; // Indexed by Statistic ordinal, sorted by threshold
+    final StripedCounters statisticTotals;
+    final StripedCounters unlockTotals; // Indexed like achievements
+
+    public AchievementEngine(List<Achievement> achievements) {
+        this.achievements = List.copyOf(achievements);
+
+        GameEventType[] events = GameEventType.values();
+        Statistic[] statistics = Statistic.values();
+        statisticsByEvent = new Statistic[events.length][];
+        for (GameEventType event : events) {
+            List<Statistic> fed = new ArrayList<>();
+            for (Statistic statistic : statistics) {
+                if (statistic.getEvent() == event) {
+                    fed.add(statistic);
+                }
+            }
+            statisticsByEvent[event.ordinal()] = fed.toArray(new Statistic[0]);
+        }
+
+        achievementsByStatistic = new Achievement[statistics.length][];
+        for (Statistic statistic : statistics) {
+            achievementsByStatistic[statistic.ordinal()] = this.achievements.stream()
+                .filter(achievement -> achievement.getStatistic() == statistic)
+                .sorted(Comparator.comparingLong(Achievement::getThreshold))
+                .toArray(Achievement[]::new);
+        }
+
+        statisticTotals = new StripedCounters(statistics.length);
+        unlockTotals = new StripedCounters(this.achievements.size());
+    }
+
+    public static AchievementEngine withDefaults() {
+        return new AchievementEngine(Achievement.defaults());
+    }
+
+    /**
+     * Starts tracking a new player session.
+     */
+    public AchievementSession newSession() {
+        return new AchievementSession(this);
+    }
+
+    /**
+     * Gets a statistic summed over every session of this engine.
+     */
+    public long getTotal(Statistic statistic) {
+        return statisticTotals.sum(statistic.ordinal());
+    }
+
+    /**
+     * Gets how many sessions have unlocked an achievement.
+     */
+    public long getUnlockCount(Achievement achievement) {
+        int index = achievements.indexOf(achievement);
+        return index < 0 ? 0 : unlockTotals.sum(index);
+    }
+
+    int indexOf(Achievement achievement) {
+        return achievements.indexOf(achievement);
+    }
+
+    public List<Achievement> getAchievements() {
+        return achievements;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ise.officeescape.achievements;
+
+import com.ise.officeescape.eventSystem.*;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.puzzles.QueueGaurdPuzzle;
+import com.ise.officeescape.model.puzzles.SecurityPuzzle;
+import com.ise.officeescape.model.puzzles.TicketPuzzle;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * One player's statistics and unlocked achievements.
+ * A session is updated from a single (game) thread; only the engine-wide totals are shared.
+ */
+public class AchievementSession {
+
+    private final AchievementEngine engine;
+    private final long[] counters; // Indexed by Statistic ordinal
+    private final BitSet[] seenKeys; // Keys already counted, for distinct statistics only
+    private final int[] nextAchievement; // Per statistic, index of the first locked achievement
+    private final List<Achievement> unlocked = new ArrayList<>();
+    private final Set<Puzzle> watchedPuzzles = Collections.newSetFromMap(new WeakHashMap<>());
+
+    // Fired when an achievement is unlocked
+    public Event<OnAchievementUnlockedEventArgs> OnAchievementUnlocked = new Event<>();
+    public static class OnAchievementUnlockedEventArgs extends EventArgs {
+        public final Achievement achievement;
+        public OnAchievementUnlockedEventArgs(Achievement achievement) {
+            this.achievement = achievement;
+        }
+    }
+
+    AchievementSession(AchievementEngine engine) {
+        this.engine = engine;
+        Statistic[] statistics = Statistic.values();
+        this.counters = new long[statistics.length];
+        this.seenKeys = new BitSet[statistics.length];
+        this.nextAchievement = new int[statistics.length];
+        for (Statistic statistic : statistics) {
+            if (statistic.isDistinct()) {
+                seenKeys[statistic.ordinal()] = new BitSet();
+            }
+        }
+    }
+
+    /**
+     * Records a game event, updating only the statistics and achievements it affects.
+     *
+     * @param type The kind of event
+     * @param key Event key (see GameEventType), must not be negative
+     */
+    public void record(GameEventType type, int key) {
+        for (Statistic statistic : engine.statisticsByEvent[type.ordinal()]) {
+            int s = statistic.ordinal();
+            if (seenKeys[s] != null) {
+                if (seenKeys[s].get(key)) {
+                    continue;
+                }
+                seenKeys[s].set(key);
+            }
+            long value = ++counters[s];
+            engine.statisticTotals.increment(s);
+
+            Achievement[] candidates = engine.achievementsByStatistic[s];
+            while (nextAchievement[s] < candidates.length && candidates[nextAchievement[s]].getThreshold() <= value) {
+                unlock(candidates[nextAchievement[s]++]);
+            }
+        }
+    }
+
+    private void unlock(Achievement achievement) {
+        unlocked.add(achievement);
+        engine.unlockTotals.increment(engine.indexOf(achievement));
+        System.out.println("[AchievementSession] Achievement unlocked: " + achievement);
+        OnAchievementUnlocked.invoke(this, new OnAchievementUnlockedEventArgs(achievement));
+    }
+
+    /**
+     * Subscribes to a puzzle's in-puzzle events (wrong answers, getting caught, dialogue).
+     * Watching the same puzzle instance again has no effect.
+     */
+    public void watch(Puzzle puzzle) {
+        if (!watchedPuzzles.add(puzzle)) {
+            return;
+        }
+        if (puzzle instanceof TicketPuzzle) {
+            ((TicketPuzzle) puzzle).OnAnswerChecked.addListener((sender, args) -> {
+                if (!args.correct) {
+                    record(GameEventType.QUIZ_ANSWERED_WRONG, args.questionIndex);
+                }
+            });
+        } else if (puzzle instanceof SecurityPuzzle) {
+            ((SecurityPuzzle) puzzle).OnCaught.addListener(
+                (sender, args) -> record(GameEventType.CAUGHT_BY_SECURITY, 0)
+            );
+        } else if (puzzle instanceof QueueGaurdPuzzle) {
+            ((QueueGaurdPuzzle) puzzle).OnDialogueNodeEntered.addListener(
+                (sender, args) -> record(GameEventType.DIALOGUE_NODE_ENTERED, args.nodeIndex)
+            );
+        }
+    }
+
+    public long get(Statistic statistic) {
+        return counters[statistic.ordinal()];
+    }
+
+    public boolean isUnlocked(Achievement achievement) {
+        return unlocked.contains(achievement);
+    }
+
+    /**
+     * Gets the unlocked achievements, in unlock order.
+     */
+    public List<Achievement> getUnlocked() {
+        return Collections.unmodifiableList(unlocked);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ise.officeescape.achievements;
+
+/**
+ * Gameplay events the achievement engine listens to.
+ * Each event carries an int key (e.g. a room Symbol id or a dialogue node index).
+ */
+public enum GameEventType {
+    ROOM_ENTERED,           // Key: room Symbol id
+    QUIZ_ANSWERED_WRONG,    // Key: question index in the ticket quiz
+    CAUGHT_BY_SECURITY,     // Key: unused
+    DIALOGUE_NODE_ENTERED,  // Key: guard dialogue node index
+    PUZZLE_SOLVED           // Key: puzzle Symbol id
+}
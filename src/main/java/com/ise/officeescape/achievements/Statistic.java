@@ -0,0 +1,30 @@
+package com.ise.officeescape.achievements;
+
+/**
+ * Player statistics, each fed by exactly one event type.
+ * A distinct statistic only counts the first event for each key.
+ */
+public enum Statistic {
+    ROOMS_ENTERED(GameEventType.ROOM_ENTERED, false),
+    ROOMS_VISITED(GameEventType.ROOM_ENTERED, true),
+    WRONG_ANSWERS(GameEventType.QUIZ_ANSWERED_WRONG, false),
+    TIMES_CAUGHT(GameEventType.CAUGHT_BY_SECURITY, false),
+    DIALOGUE_BRANCHES_EXPLORED(GameEventType.DIALOGUE_NODE_ENTERED, true),
+    PUZZLES_SOLVED(GameEventType.PUZZLE_SOLVED, true);
+
+    private final GameEventType event;
+    private final boolean distinct;
+
+    Statistic(GameEventType event, boolean distinct) {
+        this.event = event;
+        this.distinct = distinct;
+    }
+
+    public GameEventType getEvent() {
+        return event;
+    }
+
+    public boolean isDistinct() {
+        return distinct;
+    }
+}
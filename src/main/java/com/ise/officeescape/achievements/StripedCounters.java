@@ -0,0 +1,56 @@
+package com.ise.officeescape.achievements;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed set of long counters that many threads can add to without contending.
+ * Each counter is split over several stripes (one per group of threads), and each
+ * stripe sits on its own cache lines. Reading a counter sums its stripes.
+ */
+public class StripedCounters {
+
+    private static final int LONGS_PER_CACHE_LINE = 8;
+
+    private final int counterCount;
+    private final int stride; // Longs per stripe, rounded up to whole cache lines
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+
+    public StripedCounters(int counterCount) {
+        this.counterCount = counterCount;
+        this.stride = (counterCount + LONGS_PER_CACHE_LINE - 1) / LONGS_PER_CACHE_LINE * LONGS_PER_CACHE_LINE
+            + LONGS_PER_CACHE_LINE; // One extra line keeps neighbouring stripes apart
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripeMask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * stride);
+    }
+
+    public void add(int counter, long delta) {
+        int stripe = (int) mixThreadId(Thread.currentThread().threadId()) & stripeMask;
+        cells.getAndAdd(stripe * stride + counter, delta);
+    }
+
+    public void increment(int counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Gets the current total of a counter. Not atomic with respect to concurrent adds.
+     */
+    public long sum(int counter) {
+        long total = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            total += cells.get(stripe * stride + counter);
+        }
+        return total;
+    }
+
+    public int getCounterCount() {
+        return counterCount;
+    }
+
+    private static long mixThreadId(long id) {
+        id *= 0x9E3779B97F4A7C15L;
+        return id ^ (id >>> 32);
+    }
+}
@@ -0,0 +1,181 @@
+package com.ise.officeescape.analysis;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe hash set of fixed-width tuples of primitive longs (a single long when the
+ * width is 1), used as the visited set of parallel searches over packed game states.
+ * The set is split into independently locked segments (lock striping) of open-addressing
+ * tables, so threads adding different states rarely contend and nothing is boxed.
+ * Long.MIN_VALUE is reserved as the empty marker and cannot be the first word of a tuple.
+ */
+public class ConcurrentLongSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int SEGMENT_COUNT = 64;
+
+    private final int width;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ConcurrentLongSet(int expectedSize) {
+        this(1, expectedSize);
+    }
+
+    /**
+     * @param width Number of longs in each tuple
+     */
+    public ConcurrentLongSet(int width, int expectedSize) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Width must be at least 1: " + width);
+        }
+        this.width = width;
+        int perSegment = Math.max(16, expectedSize / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(width, perSegment);
+        }
+    }
+
+    /**
+     * Adds a value to a set of width 1.
+     *
+     * @return true if the value was not already present
+     */
+    public boolean add(long value) {
+        return add(new long[] {value}, 0);
+    }
+
+    public boolean contains(long value) {
+        return contains(new long[] {value}, 0);
+    }
+
+    /**
+     * Adds the tuple stored at values[offset .. offset + width).
+     *
+     * @return true if the tuple was not already present
+     */
+    public boolean add(long[] values, int offset) {
+        if (values[offset] == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be stored as the first word");
+        }
+        long hash = hash(values, offset, width);
+        return segments[(int) (hash >>> 58)].add(values, offset, hash);
+    }
+
+    public boolean contains(long[] values, int offset) {
+        long hash = hash(values, offset, width);
+        return segments[(int) (hash >>> 58)].contains(values, offset, hash);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private static long hash(long[] values, int offset, int width) {
+        long h = mix(values[offset]);
+        for (int i = 1; i < width; i++) {
+            h = mix(h ^ values[offset + i]);
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static class Segment extends ReentrantLock {
+        private final int width;
+        private long[] table; // Slot i holds the tuple at table[i * width ..]
+        private int size;
+
+        Segment(int width, int expectedSize) {
+            this.width = width;
+            int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+            table = newTable(capacity, width);
+        }
+
+        boolean add(long[] values, int offset, long hash) {
+            lock();
+            try {
+                if (insert(table, width, values, offset, hash)) {
+                    size++;
+                    if (size * 2 > table.length / width) {
+                        grow();
+                    }
+                    return true;
+                }
+                return false;
+            } finally {
+                unlock();
+            }
+        }
+
+        boolean contains(long[] values, int offset, long hash) {
+            lock();
+            try {
+                int mask = table.length / width - 1;
+                for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                    if (table[i * width] == EMPTY) {
+                        return false;
+                    }
+                    if (Arrays.equals(table, i * width, i * width + width, values, offset, offset + width)) {
+                        return true;
+                    }
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        int size() {
+            lock();
+            try {
+                return size;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void grow() {
+            long[] old = table;
+            table = newTable(old.length / width * 2, width);
+            for (int i = 0; i < old.length; i += width) {
+                if (old[i] != EMPTY) {
+                    insert(table, width, old, i, hash(old, i, width));
+                }
+            }
+        }
+
+        private static boolean insert(long[] table, int width, long[] values, int offset, long hash) {
+            int mask = table.length / width - 1;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                int slot = i * width;
+                if (table[slot] == EMPTY) {
+                    System.arraycopy(values, offset, table, slot, width);
+                    return true;
+                }
+                if (Arrays.equals(table, slot, slot + width, values, offset, offset + width)) {
+                    return false;
+                }
+            }
+        }
+
+        private static long[] newTable(int capacity, int width) {
+            long[] table = new long[capacity * width];
+            for (int i = 0; i < table.length; i += width) {
+                table[i] = EMPTY;
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package com.ise.officeescape.analysis;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.Symbol;
+import com.ise.officeescape.model.conditions.Condition;
+import com.ise.officeescape.model.conditions.ProgressFlags;
+import com.ise.officeescape.service.RoomDataService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Abstract model of the game used by analysis tools.
+ * A complete game state (current room, where every item is, which puzzles are solved)
+ * is bit-packed into getStateWords() longs, and successors() enumerates every state one
+ * player action away. Instances are immutable once built, so they can be shared between threads.
+ *
+ * States are passed as (array, offset) pairs so searches can keep them in flat long[]
+ * buffers without allocating per state. Fields are packed from the lowest bit of word 0 up:
+ *   [current room][location of item 0][location of item 1]...[puzzle solved flags]
+ * A field never straddles two words, and only the low 63 bits of each word are used, so
+ * the first word of a state is never Long.MIN_VALUE (see ConcurrentLongSet).
+ * Item locations are NOWHERE (not created yet / used up), PLAYER, or ROOM_BASE + room index.
+ *
+ * Gate and puzzle conditions are projected onto local progress flags (item i is flag i,
+ * puzzle p is flag itemCount + p), so testing them does not depend on how many flags
+ * the rest of the game has registered.
+ */
+public class GameStateSpace {
+
+    public static final int NOWHERE = 0;
+    public static final int PLAYER = 1;
+    public static final int ROOM_BASE = 2;
+
+    // Action kinds, packed into the high bits of an action code
+    public static final int MOVE = 0;
+    public static final int TAKE = 1;
+    public static final int DROP = 2;
+    public static final int SOLVE = 3;
+    private static final int ACTION_SHIFT = 24;
+    private static final int WORD_BITS = Long.SIZE - 1;
+
+    private final RoomGraph graph;
+    private final int goalRoom;
+    private final int startRoom;
+
+    private final Condition[] entryConditions; // Per room, null when always open
+
+    private final String[] itemNames;
+    private final Map<String, Integer> itemIndex = new HashMap<>();
+    private final String[] itemDescriptions;
+    private final int[] initialItemLocations;
+
+    private final String[] puzzleIds;
+    private final int[] puzzleRooms;
+    private final Condition[] puzzleStartConditions;
+    private final Condition[] puzzleSolveConditions;
+    private final int[] puzzleRewards; // Item index or -1
+    private final int[] puzzleConsumes; // Item index or -1
+
+    private final int[] triggerRooms;
+    private final int[] triggerItems;
+    private final int[] triggerRewards;
+
+    private final int roomBits;
+    private final int locationBits;
+    private final int[] itemWords; // Word and bit offset of each item's location field
+    private final int[] itemShifts;
+    private final int[] puzzleWords; // Word and bit of each puzzle's solved flag
+    private final int[] puzzleShifts;
+    private final int stateWords;
+    private final int progressWords;
+
+    private GameStateSpace(Builder builder) {
+        this.graph = builder.graph;
+        this.startRoom = builder.startRoom;
+        this.goalRoom = builder.goalRoom;
+
+        int itemCount = builder.items.size();
+        this.itemNames = builder.items.keySet().toArray(new String[0]);
+        this.itemDescriptions = new String[itemCount];
+        this.initialItemLocations = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemIndex.put(itemNames[i], i);
+            itemDescriptions[i] = builder.items.get(itemNames[i]).getDescription();
+            initialItemLocations[i] = builder.itemLocations.get(itemNames[i]);
+        }
+
+        int puzzleCount = builder.puzzles.size();
+        this.puzzleIds = new String[puzzleCount];
+        this.puzzleRooms = new int[puzzleCount];
+        Map<String, Integer> puzzleIndex = new HashMap<>();
+        for (int p = 0; p < puzzleCount; p++) {
+            puzzleIds[p] = builder.puzzles.get(p).getId();
+            puzzleRooms[p] = builder.puzzleRooms.get(p);
+            puzzleIndex.putIfAbsent(puzzleIds[p], p);
+        }
+        this.progressWords = (itemCount + puzzleCount + 63) >>> 6;
+        IntUnaryOperator toLocal = flag -> {
+            String itemName = ProgressFlags.itemName(flag);
+            if (itemName != null) {
+                return indexOfItem(itemName);
+            }
+            Integer puzzle = puzzleIndex.get(ProgressFlags.solvedPuzzleId(flag));
+            return puzzle != null ? itemCount + puzzle : -1;
+        };
+
+        int rooms = graph.getRoomCount();
+        this.entryConditions = new Condition[rooms];
+        for (int r = 0; r < rooms; r++) {
+            Room room = graph.getRoom(r);
+            if (room.getEntryRule() != null) {
+                entryConditions[r] = room.getEntryRule().getCondition().project(toLocal);
+            }
+        }
+
+        this.puzzleStartConditions = new Condition[puzzleCount];
+        this.puzzleSolveConditions = new Condition[puzzleCount];
+        this.puzzleRewards = new int[puzzleCount];
+        this.puzzleConsumes = new int[puzzleCount];
+        for (int p = 0; p < puzzleCount; p++) {
+            Puzzle puzzle = builder.puzzles.get(p);
+            puzzleStartConditions[p] = puzzle.getStartCondition().project(toLocal);
+            puzzleSolveConditions[p] = puzzle.getSolveCondition().project(toLocal);
+            puzzleRewards[p] = indexOfItem(puzzle.getRewardItemName());
+            puzzleConsumes[p] = indexOfItem(puzzle.getConsumedItemName());
+        }
+
+        int triggerCount = builder.triggers.size();
+        this.triggerRooms = new int[triggerCount];
+        this.triggerItems = new int[triggerCount];
+        this.triggerRewards = new int[triggerCount];
+        for (int t = 0; t < triggerCount; t++) {
+            String[] trigger = builder.triggers.get(t);
+            triggerRooms[t] = graph.indexOf(builder.roomsByName.get(trigger[0]));
+            triggerItems[t] = indexOfItem(trigger[1]);
+            triggerRewards[t] = indexOfItem(trigger[2]);
+        }
+
+        this.roomBits = bitsFor(rooms);
+        this.locationBits = bitsFor(ROOM_BASE + rooms);
+        this.itemWords = new int[itemCount];
+        this.itemShifts = new int[itemCount];
+        this.puzzleWords = new int[puzzleCount];
+        this.puzzleShifts = new int[puzzleCount];
+        int word = 0;
+        int used = roomBits;
+        for (int i = 0; i < itemCount; i++) {
+            if (used + locationBits > WORD_BITS) {
+                word++;
+                used = 0;
+            }
+            itemWords[i] = word;
+            itemShifts[i] = used;
+            used += locationBits;
+        }
+        for (int p = 0; p < puzzleCount; p++) {
+            if (used == WORD_BITS) {
+                word++;
+                used = 0;
+            }
+            puzzleWords[p] = word;
+            puzzleShifts[p] = used++;
+        }
+        this.stateWords = word + 1;
+    }
+
+    private static int bitsFor(int values) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(values - 1));
+    }
+
+    private int indexOfItem(String name) {
+        Integer index = name != null ? itemIndex.get(name) : null;
+        return index != null ? index : -1;
+    }
+
+    // Encoding
+
+    /**
+     * Gets the number of longs a packed state takes.
+     */
+    public int getStateWords() {
+        return stateWords;
+    }
+
+    public long[] initialState() {
+        long[] state = new long[stateWords];
+        setRoom(state, 0, startRoom);
+        for (int i = 0; i < itemNames.length; i++) {
+            setItemLocation(state, 0, i, initialItemLocations[i]);
+        }
+        return state;
+    }
+
+    /**
+     * Encodes the live game model: the player's room and inventory, every room's inventory
+     * and the player's solved puzzles. Items unknown to this state space are ignored.
+     */
+    public long[] encode(Player player) {
+        long[] state = new long[stateWords];
+        setRoom(state, 0, graph.indexOf(player.getCurrentRoom()));
+        for (String itemName : player.getInventory().getInvetoryMap().keySet()) {
+            int item = indexOfItem(itemName);
+            if (item >= 0) {
+                setItemLocation(state, 0, item, PLAYER);
+            }
+        }
+        for (int r = 0; r < graph.getRoomCount(); r++) {
+            for (String itemName : graph.getRoom(r).getInventory().getInvetoryMap().keySet()) {
+                int item = indexOfItem(itemName);
+                // An item listed in both places counts as held
+                if (item >= 0 && itemLocation(state, 0, item) != PLAYER) {
+                    setItemLocation(state, 0, item, ROOM_BASE + r);
+                }
+            }
+        }
+        for (int p = 0; p < puzzleIds.length; p++) {
+            if (player.getProgress().isSolved(puzzleIds[p])) {
+                setSolved(state, 0, p);
+            }
+        }
+        return state;
+    }
+
+    public int roomOf(long[] state, int offset) {
+        return (int) (state[offset] & ((1L << roomBits) - 1));
+    }
+
+    private void setRoom(long[] state, int offset, int room) {
+        state[offset] = (state[offset] & ~((1L << roomBits) - 1)) | room;
+    }
+
+    public int itemLocation(long[] state, int offset, int item) {
+        return (int) ((state[offset + itemWords[item]] >>> itemShifts[item]) & ((1L << locationBits) - 1));
+    }
+
+    private void setItemLocation(long[] state, int offset, int item, int location) {
+        int word = offset + itemWords[item];
+        long mask = ((1L << locationBits) - 1) << itemShifts[item];
+        state[word] = (state[word] & ~mask) | ((long) location << itemShifts[item]);
+    }
+
+    public boolean isSolved(long[] state, int offset, int puzzle) {
+        return (state[offset + puzzleWords[puzzle]] & (1L << puzzleShifts[puzzle])) != 0;
+    }
+
+    private void setSolved(long[] state, int offset, int puzzle) {
+        state[offset + puzzleWords[puzzle]] |= 1L << puzzleShifts[puzzle];
+    }
+
+    /**
+     * Gets the local progress flags (as tested by the projected conditions) for a packed state.
+     */
+    public long[] progressBits(long[] state, int offset) {
+        long[] bits = new long[progressWords];
+        for (int i = 0; i < itemNames.length; i++) {
+            if (itemLocation(state, offset, i) == PLAYER) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        for (int p = 0; p < puzzleIds.length; p++) {
+            if (isSolved(state, offset, p)) {
+                int flag = itemNames.length + p;
+                bits[flag >>> 6] |= 1L << flag;
+            }
+        }
+        return bits;
+    }
+
+    public boolean isGoal(long[] state, int offset) {
+        return roomOf(state, offset) == goalRoom;
+    }
+
+    /**
+     * Checks if two packed states are equal.
+     */
+    public boolean sameState(long[] a, int aOffset, long[] b, int bOffset) {
+        return Arrays.equals(a, aOffset, aOffset + stateWords, b, bOffset, bOffset + stateWords);
+    }
+
+    // Transitions
+
+    /**
+     * Gets an upper bound on the number of successors of any state.
+     */
+    public int maxSuccessors() {
+        return RoomGraph.DIRECTIONS + itemNames.length + puzzleIds.length;
+    }
+
+    /**
+     * Writes every state reachable in one player action into the output array, successor k
+     * at offset k * getStateWords(). Goal states are terminal and have no successors.
+     *
+     * @param states Receives the successors, must hold maxSuccessors() states
+     * @param actions Receives the action code for each successor (may be null)
+     * @return the number of successors written
+     */
+    public int successors(long[] state, int offset, long[] states, int[] actions) {
+        if (isGoal(state, offset)) {
+            return 0;
+        }
+        int room = roomOf(state, offset);
+        long[] progress = progressBits(state, offset);
+        int count = 0;
+
+        // Move through an exit, if the destination's gate allows it
+        for (int d = 0; d < RoomGraph.DIRECTIONS; d++) {
+            int next = graph.getExit(room, d);
+            if (next == RoomGraph.NO_ROOM) {
+                continue;
+            }
+            if (entryConditions[next] != null && !entryConditions[next].test(progress)) {
+                continue;
+            }
+            int out = emit(state, offset, states, actions, count++, MOVE, d);
+            setRoom(states, out, next);
+        }
+
+        // Move items between the room and the player (InventoryView.moveItem)
+        for (int i = 0; i < itemNames.length; i++) {
+            int location = itemLocation(state, offset, i);
+            if (location == ROOM_BASE + room) {
+                int out = emit(state, offset, states, actions, count++, TAKE, i);
+                setItemLocation(states, out, i, PLAYER);
+            } else if (location == PLAYER) {
+                int out = emit(state, offset, states, actions, count++, DROP, i);
+                setItemLocation(states, out, i, ROOM_BASE + room);
+                applyDropTriggers(states, out, room, i);
+            }
+        }
+
+        // Solve a puzzle in this room
+        for (int p = 0; p < puzzleIds.length; p++) {
+            if (puzzleRooms[p] != room || isSolved(state, offset, p)) {
+                continue;
+            }
+            if (!puzzleStartConditions[p].test(progress) || !puzzleSolveConditions[p].test(progress)) {
+                continue;
+            }
+            int out = emit(state, offset, states, actions, count++, SOLVE, p);
+            setSolved(states, out, p);
+            if (puzzleConsumes[p] >= 0) {
+                setItemLocation(states, out, puzzleConsumes[p], NOWHERE);
+            }
+            if (puzzleRewards[p] >= 0 && itemLocation(states, out, puzzleRewards[p]) == NOWHERE) {
+                setItemLocation(states, out, puzzleRewards[p], PLAYER);
+            }
+        }
+        return count;
+    }
+
+    private void applyDropTriggers(long[] state, int offset, int room, int droppedItem) {
+        for (int t = 0; t < triggerRooms.length; t++) {
+            if (triggerRooms[t] == room && triggerItems[t] == droppedItem
+                    && itemLocation(state, offset, triggerRewards[t]) == NOWHERE) {
+                setItemLocation(state, offset, triggerRewards[t], PLAYER);
+            }
+        }
+    }
+
+    /**
+     * Copies a state into successor slot k and records its action.
+     *
+     * @return the offset of the copy
+     */
+    private int emit(long[] state, int offset, long[] states, int[] actions, int k, int kind, int index) {
+        int out = k * stateWords;
+        System.arraycopy(state, offset, states, out, stateWords);
+        if (actions != null) {
+            actions[k] = (kind << ACTION_SHIFT) | index;
+        }
+        return out;
+    }
+
+    // Descriptions
+
+    public String describeAction(int action) {
+        int index = action & ((1 << ACTION_SHIFT) - 1);
+        switch (action >>> ACTION_SHIFT) {
+            case MOVE:
+                return "go " + Direction.values()[index];
+            case TAKE:
+                return "take " + itemNames[index];
+            case DROP:
+                return "drop " + itemNames[index];
+            case SOLVE:
+                return "solve " + puzzleIds[index];
+            default:
+                return "unknown action";
+        }
+    }
+
+    public String describeState(long[] state, int offset) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("room=").append(graph.getRoom(roomOf(state, offset)).getName());
+        sb.append(", holding=[");
+        String separator = "";
+        for (int i = 0; i < itemNames.length; i++) {
+            if (itemLocation(state, offset, i) == PLAYER) {
+                sb.append(separator).append(itemNames[i]);
+                separator = ", ";
+            }
+        }
+        sb.append("], dropped=[");
+        separator = "";
+        for (int i = 0; i < itemNames.length; i++) {
+            int location = itemLocation(state, offset, i);
+            if (location >= ROOM_BASE) {
+                sb.append(separator).append(itemNames[i]).append("@").append(graph.getRoom(location - ROOM_BASE).getName());
+                separator = ", ";
+            }
+        }
+        sb.append("], solved=[");
+        separator = "";
+        for (int p = 0; p < puzzleIds.length; p++) {
+            if (isSolved(state, offset, p)) {
+                sb.append(separator).append(puzzleIds[p]);
+                separator = ", ";
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    public RoomGraph getGraph() {
+        return graph;
+    }
+
+    public int getGoalRoom() {
+        return goalRoom;
+    }
+
+    public int getItemCount() {
+        return itemNames.length;
+    }
+
+    public String getItemName(int item) {
+        return itemNames[item];
+    }
+
+    public String getItemDescription(int item) {
+        return itemDescriptions[item];
+    }
+
+    public int getPuzzleCount() {
+        return puzzleIds.length;
+    }
+
+    public String getPuzzleId(int puzzle) {
+        return puzzleIds[puzzle];
+    }
+
+    public int getPuzzleRoom(int puzzle) {
+        return puzzleRooms[puzzle];
+    }
+
+    /**
+     * Builds a state space from rooms that already have their puzzles and items set up.
+     */
+    public static class Builder {
+        private final RoomGraph graph;
+        private final Map<String, Room> roomsByName = new LinkedHashMap<>();
+        private final Map<String, Item> items = new LinkedHashMap<>();
+        private final Map<String, Integer> itemLocations = new LinkedHashMap<>();
+        private final List<Puzzle> puzzles = new ArrayList<>();
+        private final List<Integer> puzzleRooms = new ArrayList<>();
+        private final List<String[]> triggers = new ArrayList<>();
+        private int startRoom;
+        private int goalRoom;
+
+        public Builder(RoomGraph graph, Room start, Room goal) {
+            this(graph, start, goal, room -> room.getInventory().getInvetoryMap().values());
+        }
+
+        /**
+         * Creates a builder whose rooms start with the given items instead of what they hold now.
+         */
+        public Builder(RoomGraph graph, Room start, Room goal, Function<Room, ? extends Collection<Item>> roomItems) {
+            this.graph = graph;
+            this.startRoom = graph.indexOf(start);
+            this.goalRoom = graph.indexOf(goal);
+            for (int r = 0; r < graph.getRoomCount(); r++) {
+                Room room = graph.getRoom(r);
+                roomsByName.put(room.getName(), room);
+                for (Item item : roomItems.apply(room)) {
+                    addItem(item, ROOM_BASE + r);
+                }
+                for (Puzzle puzzle : room.getAllPuzzles()) {
+                    puzzles.add(puzzle);
+                    puzzleRooms.add(r);
+                }
+            }
+        }
+
+        /**
+         * Adds the items the player starts with.
+         */
+        public Builder withStartingInventory(Inventory inventory) {
+            for (Item item : inventory.getInvetoryMap().values()) {
+                addItem(item, PLAYER);
+            }
+            return this;
+        }
+
+        /**
+         * Declares an item that does not exist at the start but can be created
+         * (a puzzle reward or a drop trigger reward).
+         */
+        public Builder withCreatableItem(Item item) {
+            if (!items.containsKey(item.getName())) {
+                addItem(item, NOWHERE);
+            }
+            return this;
+        }
+
+        /**
+         * Declares that dropping an item in a room gives the player another item, once.
+         */
+        public Builder withDropTrigger(String roomName, String droppedItem, Item reward) {
+            if (!roomsByName.containsKey(roomName)) {
+                throw new IllegalArgumentException("Unknown room for drop trigger: " + roomName);
+            }
+            withCreatableItem(reward);
+            triggers.add(new String[] {roomName, droppedItem, reward.getName()});
+            return this;
+        }
+
+        /**
+         * Creates a builder for the game as a new game starts it: the player in the start room
+         * with the starting documents and the rooms holding the items of their definitions
+         * (see RoomDataService.getStartingItems), whatever has been picked up since. The room named
+         * "exit" is the goal, and dropping the banana peel in a queue room yields the stolen
+         * document once (mirrors GameController.handleBananaPeelSlip). In generated worlds every
+         * block's queue room reacts to that block's peel. Rooms must already have their puzzles.
+         */
+        public static Builder forGame(RoomManager roomManager) {
+            Room exit = null;
+            List<Room> queueRooms = new ArrayList<>();
+            for (Room room : roomManager.getAllRooms()) {
+                if (room.getName().equals("exit")) {
+                    exit = room;
+                }
+                if (RoomDataService.getRoomType(room) == Symbol.QUEUE_ROOM) {
+                    queueRooms.add(room);
+                }
+            }
+            if (exit == null) {
+                throw new IllegalStateException("The game has no exit room");
+            }
+            Builder builder = new Builder(RoomGraph.of(roomManager), roomManager.getStartRoom(), exit,
+                RoomDataService::getStartingItems)
+                .withStartingInventory(RoomDataService.createStartingInventory());
+            for (Room queue : queueRooms) {
+                builder.withDropTrigger(queue.getName(), Room.scoped("bananaPeel", queue.getScope()),
+                    new Item("stolenDocument", "A stolen document - someone dropped it after slipping on the banana peel"));
+            }
+            return builder;
+        }
+
+        private void addItem(Item item, int location) {
+            items.put(item.getName(), item);
+            itemLocations.put(item.getName(), location);
+        }
+
+        public GameStateSpace build() {
+            // Puzzle rewards are created when the puzzle is solved
+            for (Puzzle puzzle : puzzles) {
+                String reward = puzzle.getRewardItemName();
+                if (reward != null && !items.containsKey(reward)) {
+                    addItem(new Item(reward, reward), NOWHERE);
+                }
+            }
+            return new GameStateSpace(this);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.ise.officeescape.analysis;
+
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.RoomGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the shortest sequence of actions (moves, item pickups/drops, puzzle solves)
+ * from the player's current situation to the exit, for use as in-game hints.
+ *
+ * Plans are found with A* over GameStateSpace. The heuristic is the number of moves to
+ * the exit ignoring every gate, which never overestimates, so plans are optimal.
+ * Results are memoised per packed state in a bounded LRU cache; every state along a
+ * found plan is cached too, so following the hints never triggers a new search.
+ * A search that gives up after maxExpansions states proves nothing, so its outcome is UNKNOWN
+ * and is not cached (only a search that runs out of states proves a state unsolvable).
+ * A cold search can take a while, so callers on the FX thread should run it in the background.
+ * States of any width (see GameStateSpace.getStateWords) are keyed by StateKey.
+ */
+public class HintEngine {
+
+    private static final int[] NO_PLAN = new int[0];
+    private static final int[] GAVE_UP = new int[0]; // Returned by search when it hit maxExpansions
+    private static final int DEFAULT_MAX_EXPANSIONS = 2_000_000;
+
+    private final GameStateSpace space;
+    private final int[] movesToGoal; // Per room, ignoring gates
+    private final int maxExpansions; // States a search may expand before giving up
+    private final Map<StateKey, int[]> cache;
+    private final Map<StateKey, Boolean> unsolvable;
+
+    private long cacheHits;
+    private long searches;
+
+    public HintEngine(GameStateSpace space, int cacheSize) {
+        this(space, cacheSize, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    public HintEngine(GameStateSpace space, int cacheSize, int maxExpansions) {
+        this.space = space;
+        this.maxExpansions = maxExpansions;
+        this.movesToGoal = computeMovesToGoal(space.getGraph(), space.getGoalRoom());
+        this.cache = new LinkedHashMap<StateKey, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StateKey, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.unsolvable = new LinkedHashMap<StateKey, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StateKey, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    private static int[] computeMovesToGoal(RoomGraph graph, int goal) {
+        int[] nextHop = graph.nextHopsTowards(goal);
+        int[] distance = new int[graph.getRoomCount()];
+        Arrays.fill(distance, -1);
+        distance[goal] = 0;
+        int[] chain = new int[graph.getRoomCount()];
+        for (int room = 0; room < distance.length; room++) {
+            // Walk towards the goal until a room with a known distance, then unwind
+            int length = 0;
+            int current = room;
+            while (distance[current] < 0 && nextHop[current] != RoomGraph.NO_ROOM) {
+                chain[length++] = current;
+                current = nextHop[current];
+            }
+            int known = distance[current] < 0 ? Integer.MAX_VALUE / 2 : distance[current];
+            for (int i = length - 1; i >= 0; i--) {
+                distance[chain[i]] = ++known;
+            }
+            if (distance[room] < 0) {
+                distance[room] = Integer.MAX_VALUE / 2; // Exit unreachable even without gates
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Gets a hint for the player's current situation. Reads the player, so call it on the FX thread;
+     * to search in the background, encode the state first and use getHint(long[]).
+     */
+    public Hint getHint(Player player) {
+        return getHint(space.encode(player));
+    }
+
+    /**
+     * Gets a hint for a packed state (see GameStateSpace.encode). Safe to call from any thread.
+     */
+    public synchronized Hint getHint(long[] packedState) {
+        int[] plan = find(new StateKey(packedState.clone()));
+        if (plan == null) {
+            return new Hint(Outcome.UNSOLVABLE, List.of());
+        }
+        if (plan == GAVE_UP) {
+            return new Hint(Outcome.UNKNOWN, List.of());
+        }
+        List<String> steps = new ArrayList<>(plan.length);
+        for (int action : plan) {
+            steps.add(space.describeAction(action));
+        }
+        return new Hint(Outcome.SOLVABLE, steps);
+    }
+
+    /**
+     * Gets the optimal action codes from a packed state (see GameStateSpace.encode) to the exit, or null if
+     * no plan was found: the exit cannot be reached any more, or the search gave up (see getHint to tell
+     * these apart).
+     */
+    public synchronized int[] plan(long[] packedState) {
+        int[] plan = find(new StateKey(packedState.clone()));
+        return plan == GAVE_UP ? null : plan;
+    }
+
+    /**
+     * Gets the plan from a state: cached, or searched for.
+     *
+     * @return the plan, null if the state is unsolvable, or GAVE_UP
+     */
+    private int[] find(StateKey state) {
+        int[] cached = cache.get(state);
+        if (cached != null) {
+            cacheHits++;
+            return cached == NO_PLAN && !isGoal(state) ? null : cached;
+        }
+        if (unsolvable.containsKey(state)) {
+            cacheHits++;
+            return null;
+        }
+        searches++;
+        int[] plan = search(state);
+        if (plan == null) {
+            unsolvable.put(state, Boolean.TRUE);
+        }
+        return plan;
+    }
+
+    private int[] search(StateKey start) {
+        if (isGoal(start)) {
+            cache.put(start, NO_PLAN);
+            return NO_PLAN;
+        }
+        Map<StateKey, Node> nodes = new HashMap<>();
+        OpenList open = new OpenList();
+        nodes.put(start, new Node(0, null, -1));
+        open.push(heuristic(start), start);
+
+        int width = space.getStateWords();
+        long[] successors = new long[space.maxSuccessors() * width];
+        int[] actions = new int[space.maxSuccessors()];
+        int expansions = 0;
+        while (!open.isEmpty()) {
+            StateKey state = open.pop();
+            Node node = nodes.get(state);
+            int g = node.g;
+            if (open.poppedPriority() > g + heuristic(state)) {
+                continue; // Stale entry, a shorter route was found later
+            }
+            if (isGoal(state)) {
+                return reconstruct(nodes, start, state);
+            }
+            if (++expansions > maxExpansions) {
+                return GAVE_UP;
+            }
+
+            int count = space.successors(state.words, 0, successors, actions);
+            for (int k = 0; k < count; k++) {
+                StateKey next = new StateKey(Arrays.copyOfRange(successors, k * width, (k + 1) * width));
+                Node existing = nodes.get(next);
+                if (existing == null || existing.g > g + 1) {
+                    nodes.put(next, new Node(g + 1, state, actions[k]));
+                    open.push(g + 1 + heuristic(next), next);
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isGoal(StateKey state) {
+        return space.isGoal(state.words, 0);
+    }
+
+    private int heuristic(StateKey state) {
+        return movesToGoal[space.roomOf(state.words, 0)];
+    }
+
+    /**
+     * Rebuilds the action list and caches the remaining plan for every state on the path.
+     */
+    private int[] reconstruct(Map<StateKey, Node> nodes, StateKey start, StateKey goal) {
+        List<StateKey> path = new ArrayList<>();
+        List<Integer> actionList = new ArrayList<>();
+        for (StateKey state = goal; !state.equals(start); ) {
+            Node node = nodes.get(state);
+            path.add(state);
+            actionList.add(node.action);
+            state = node.parent;
+        }
+        path.add(start);
+        Collections.reverse(path);
+        Collections.reverse(actionList);
+
+        int[] plan = new int[actionList.size()];
+        for (int i = 0; i < plan.length; i++) {
+            plan[i] = actionList.get(i);
+        }
+        for (int i = 0; i < path.size(); i++) {
+            cache.put(path.get(i), i == plan.length ? NO_PLAN : Arrays.copyOfRange(plan, i, plan.length));
+        }
+        return plan;
+    }
+
+    public GameStateSpace getSpace() {
+        return space;
+    }
+
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    /**
+     * A packed state as a hash key. The words must not be changed once wrapped.
+     */
+    private static final class StateKey {
+        final long[] words;
+        private final int hash;
+
+        StateKey(long[] words) {
+            this.words = words;
+            this.hash = Arrays.hashCode(words);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey other && hash == other.hash && Arrays.equals(words, other.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A* bookkeeping for a reached state: cost so far and how it was reached.
+     */
+    private static final class Node {
+        final int g;
+        final StateKey parent;
+        final int action;
+
+        Node(int g, StateKey parent, int action) {
+            this.g = g;
+            this.parent = parent;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Min-heap of (priority, state) pairs used as the A* open list.
+     */
+    private static class OpenList {
+        private int[] priorities = new int[64];
+        private StateKey[] states = new StateKey[64];
+        private int size;
+        private int poppedPriority;
+
+        void push(int priority, StateKey state) {
+            if (size == states.length) {
+                priorities = Arrays.copyOf(priorities, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                priorities[i] = priorities[parent];
+                states[i] = states[parent];
+                i = parent;
+            }
+            priorities[i] = priority;
+            states[i] = state;
+        }
+
+        StateKey pop() {
+            StateKey top = states[0];
+            poppedPriority = priorities[0];
+            int last = --size;
+            int priority = priorities[last];
+            StateKey state = states[last];
+            states[last] = null;
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priorities[child] >= priority) {
+                    break;
+                }
+                priorities[i] = priorities[child];
+                states[i] = states[child];
+                i = child;
+            }
+            priorities[i] = priority;
+            states[i] = state;
+            return top;
+        }
+
+        int poppedPriority() {
+            return poppedPriority;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * What a hint search found out.
+     */
+    public enum Outcome {
+        SOLVABLE, // A plan to the exit was found
+        UNSOLVABLE, // Every reachable state was searched and none is the exit
+        UNKNOWN // The search gave up before either
+    }
+
+    /**
+     * A hint: the remaining plan, a note that the exit can no longer be reached, or that
+     * no plan was found in time.
+     */
+    public static class Hint {
+        public final Outcome outcome;
+        public final List<String> steps; // Empty unless SOLVABLE
+
+        public Hint(Outcome outcome, List<String> steps) {
+            this.outcome = outcome;
+            this.steps = steps;
+        }
+
+        public boolean isSolvable() {
+            return outcome == Outcome.SOLVABLE;
+        }
+
+        /**
+         * Gets the next step to suggest, or null if there is none.
+         */
+        public String getNextStep() {
+            return steps.isEmpty() ? null : steps.get(0);
+        }
+
+        @Override
+        public String toString() {
+            if (outcome == Outcome.UNSOLVABLE) {
+                return "There is no way out from here any more. Try undoing your last moves.";
+            }
+            if (outcome == Outcome.UNKNOWN) {
+                return "No hint comes to mind right now. Look around a little more.";
+            }
+            if (steps.isEmpty()) {
+                return "You made it out!";
+            }
+            return "Next: " + getNextStep() + " (" + steps.size() + " step" + (steps.size() == 1 ? "" : "s") + " to freedom)";
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.ise.officeescape.analysis;
+
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.service.RoomDataService;
+import com.ise.officeescape.service.RoomDefinitions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Exhaustively explores every game state reachable from the start and checks that the
+ * exit can still be reached from each of them. States from which the exit is no longer
+ * reachable are soft-locks (e.g. the ticket left behind in the queue room).
+ *
+ * The search is a level-synchronous parallel BFS over bit-packed states (see GameStateSpace)
+ * with a concurrent visited set, followed by a backward BFS from the goal states over the
+ * reversed transition graph. States of any width are kept in flat long[] buffers, state i
+ * at offset i * width, so generated worlds with many items and puzzles can be checked too.
+ */
+public class SolvabilityChecker {
+
+    private static final int CHUNK_SIZE = 2048;
+    private static final int MAX_EXAMPLE_PATHS = 3;
+
+    private final GameStateSpace space;
+
+    public SolvabilityChecker(GameStateSpace space) {
+        this.space = space;
+    }
+
+    /**
+     * Creates a checker for the built-in game: the rooms from RoomDefinitions set up by
+     * RoomDataService, the player's starting documents and the banana peel slip in the queue room.
+     */
+    public static SolvabilityChecker forDefaultGame() {
+        RoomManager roomManager = RoomDefinitions.getBuiltIn().createRoomManager();
+        RoomDataService roomDataService = new RoomDataService();
+        for (Room room : roomManager.getAllRooms()) {
+            roomDataService.loadRoom(room);
+        }
+        GameStateSpace space = GameStateSpace.Builder.forGame(roomManager).build();
+        return new SolvabilityChecker(space);
+    }
+
+    /**
+     * Explores the full state space and reports soft-locks.
+     */
+    public Report check() {
+        long startTime = System.nanoTime();
+        int width = space.getStateWords();
+        long[] initial = space.initialState();
+
+        // Phase 1: parallel forward BFS, one level at a time
+        ConcurrentLongSet visited = new ConcurrentLongSet(width, 1 << 16);
+        visited.add(initial, 0);
+        LongList reachable = new LongList(1024 * width);
+        long[] frontier = initial;
+        while (frontier.length > 0) {
+            reachable.addAll(frontier);
+            frontier = expandLevel(frontier, visited);
+        }
+        long[] states = reachable.toArray();
+        int n = states.length / width;
+        StateIndex index = new StateIndex(states, width, n);
+        long exploreTime = System.nanoTime();
+
+        // Phase 2: forward edges in CSR form (states are found through the index)
+        int[] edgeStart = new int[n + 1];
+        IntStream.range(0, chunkCount(n)).parallel().forEach(chunk -> {
+            long[] buffer = new long[space.maxSuccessors() * width];
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(n, (chunk + 1) * CHUNK_SIZE); i++) {
+                edgeStart[i + 1] = space.successors(states, i * width, buffer, null);
+            }
+        });
+        for (int i = 0; i < n; i++) {
+            edgeStart[i + 1] += edgeStart[i];
+        }
+        int[] edges = new int[edgeStart[n]];
+        IntStream.range(0, chunkCount(n)).parallel().forEach(chunk -> {
+            long[] buffer = new long[space.maxSuccessors() * width];
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(n, (chunk + 1) * CHUNK_SIZE); i++) {
+                int count = space.successors(states, i * width, buffer, null);
+                for (int k = 0; k < count; k++) {
+                    edges[edgeStart[i] + k] = index.indexOf(buffer, k * width);
+                }
+            }
+        });
+
+        // Phase 3: backward BFS from every goal state over reversed edges
+        boolean[] canFinish = markCanFinish(states, width, edgeStart, edges);
+        int softLocks = 0;
+        for (int i = 0; i < n; i++) {
+            if (!canFinish[i]) {
+                softLocks++;
+            }
+        }
+        int goalStates = 0;
+        for (int i = 0; i < n; i++) {
+            if (space.isGoal(states, i * width)) {
+                goalStates++;
+            }
+        }
+        long analyseTime = System.nanoTime();
+
+        int initialIndex = 0; // The BFS lists the start first
+        List<String> examples = softLocks > 0
+            ? shortestPathsToSoftLocks(states, width, edgeStart, edges, canFinish, initialIndex)
+            : Collections.emptyList();
+
+        return new Report(n, edges.length, goalStates, softLocks, canFinish[initialIndex], examples,
+            (exploreTime - startTime) / 1_000_000, (analyseTime - exploreTime) / 1_000_000);
+    }
+
+    /**
+     * Expands one BFS level in parallel. Each chunk collects the newly discovered states
+     * it generated; the visited set decides which thread "owns" a new state.
+     */
+    private long[] expandLevel(long[] frontier, ConcurrentLongSet visited) {
+        int width = space.getStateWords();
+        int size = frontier.length / width;
+        LongList[] discovered = new LongList[chunkCount(size)];
+        IntStream.range(0, discovered.length).parallel().forEach(chunk -> {
+            LongList local = new LongList(256 * width);
+            long[] buffer = new long[space.maxSuccessors() * width];
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(size, (chunk + 1) * CHUNK_SIZE); i++) {
+                int count = space.successors(frontier, i * width, buffer, null);
+                for (int k = 0; k < count; k++) {
+                    if (visited.add(buffer, k * width)) {
+                        local.addAll(buffer, k * width, width);
+                    }
+                }
+            }
+            discovered[chunk] = local;
+        });
+        LongList next = new LongList(frontier.length);
+        for (LongList list : discovered) {
+            next.addAll(list.toArray());
+        }
+        return next.toArray();
+    }
+
+    private boolean[] markCanFinish(long[] states, int width, int[] edgeStart, int[] edges) {
+        int n = states.length / width;
+        int[] reverseStart = new int[n + 1];
+        for (int edge : edges) {
+            reverseStart[edge + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reverseStart[i + 1] += reverseStart[i];
+        }
+        int[] reverse = new int[edges.length];
+        int[] cursor = Arrays.copyOf(reverseStart, n);
+        for (int from = 0; from < n; from++) {
+            for (int e = edgeStart[from]; e < edgeStart[from + 1]; e++) {
+                reverse[cursor[edges[e]]++] = from;
+            }
+        }
+
+        boolean[] canFinish = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (space.isGoal(states, i * width)) {
+                canFinish[i] = true;
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int e = reverseStart[state]; e < reverseStart[state + 1]; e++) {
+                int from = reverse[e];
+                if (!canFinish[from]) {
+                    canFinish[from] = true;
+                    queue[tail++] = from;
+                }
+            }
+        }
+        return canFinish;
+    }
+
+    /**
+     * Finds the soft-locks closest to the start and describes how the player gets there.
+     */
+    private List<String> shortestPathsToSoftLocks(long[] states, int width, int[] edgeStart, int[] edges,
+                                                  boolean[] canFinish, int initialIndex) {
+        int n = states.length / width;
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        parent[initialIndex] = initialIndex;
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = initialIndex;
+
+        List<String> examples = new ArrayList<>();
+        while (head < tail && examples.size() < MAX_EXAMPLE_PATHS) {
+            int state = queue[head++];
+            if (!canFinish[state] && canFinish[parent[state]]) {
+                examples.add(describePath(states, width, parent, state));
+                continue; // Do not report every state past the first point of no return
+            }
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int next = edges[e];
+                if (parent[next] == -1) {
+                    parent[next] = state;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return examples;
+    }
+
+    private String describePath(long[] states, int width, int[] parent, int target) {
+        List<String> steps = new ArrayList<>();
+        long[] buffer = new long[space.maxSuccessors() * width];
+        int[] actions = new int[space.maxSuccessors()];
+        for (int state = target; parent[state] != state; state = parent[state]) {
+            int count = space.successors(states, parent[state] * width, buffer, actions);
+            for (int k = 0; k < count; k++) {
+                if (space.sameState(buffer, k * width, states, state * width)) {
+                    steps.add(space.describeAction(actions[k]));
+                    break;
+                }
+            }
+        }
+        Collections.reverse(steps);
+        return String.join(" -> ", steps) + "  =>  " + space.describeState(states, target * width);
+    }
+
+    private static int chunkCount(int size) {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Growable list of primitive longs.
+     */
+    private static class LongList {
+        private long[] values;
+        private int size;
+
+        LongList(int capacity) {
+            values = new long[Math.max(16, capacity)];
+        }
+
+        void addAll(long[] more) {
+            addAll(more, 0, more.length);
+        }
+
+        void addAll(long[] more, int offset, int length) {
+            if (size + length > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + length, values.length * 2));
+            }
+            System.arraycopy(more, offset, values, size, length);
+            size += length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Read-only hash index from packed state to its position in a flat state array,
+     * built once after the search and then queried from many threads.
+     */
+    private static class StateIndex {
+        private final long[] states;
+        private final int width;
+        private final int[] slots; // State index + 1, 0 = empty
+
+        StateIndex(long[] states, int width, int count) {
+            this.states = states;
+            this.width = width;
+            this.slots = new int[Integer.highestOneBit(Math.max(16, count * 2 - 1)) << 1];
+            int mask = slots.length - 1;
+            for (int i = 0; i < count; i++) {
+                int slot = hash(states, i * width) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = i + 1;
+            }
+        }
+
+        /**
+         * Gets the index of a state, or -1 if it is not in the array.
+         */
+        int indexOf(long[] state, int offset) {
+            int mask = slots.length - 1;
+            for (int slot = hash(state, offset) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int i = slots[slot] - 1;
+                if (Arrays.equals(states, i * width, i * width + width, state, offset, offset + width)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int hash(long[] state, int offset) {
+            long h = 0;
+            for (int i = 0; i < width; i++) {
+                h = (h ^ state[offset + i]) * 0x9E3779B97F4A7C15L;
+            }
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Result of a solvability check.
+     */
+    public static class Report {
+        public final int reachableStates;
+        public final int transitions;
+        public final int goalStates;
+        public final int softLockStates;
+        public final boolean solvableFromStart;
+        public final List<String> softLockExamples;
+        public final long exploreMillis;
+        public final long analyseMillis;
+
+        public Report(int reachableStates, int transitions, int goalStates, int softLockStates,
+                      boolean solvableFromStart, List<String> softLockExamples, long exploreMillis, long analyseMillis) {
+            this.reachableStates = reachableStates;
+            this.transitions = transitions;
+            this.goalStates = goalStates;
+            this.softLockStates = softLockStates;
+            this.solvableFromStart = solvableFromStart;
+            this.softLockExamples = softLockExamples;
+            this.exploreMillis = exploreMillis;
+            this.analyseMillis = analyseMillis;
+        }
+
+        /**
+         * True if the exit is reachable from every reachable state.
+         */
+        public boolean isAlwaysSolvable() {
+            return softLockStates == 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Reachable states: ").append(reachableStates)
+              .append(" (").append(transitions).append(" transitions, ").append(goalStates).append(" at the exit)\n");
+            sb.append("Solvable from start: ").append(solvableFromStart).append("\n");
+            sb.append("Soft-lock states: ").append(softLockStates).append("\n");
+            for (String example : softLockExamples) {
+                sb.append("  e.g. ").append(example).append("\n");
+            }
+            sb.append("Explore: ").append(exploreMillis).append(" ms, analyse: ").append(analyseMillis).append(" ms");
+            return sb.toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        Report report = forDefaultGame().check();
+        System.out.println("[SolvabilityChecker] " + report.toString().replace("\n", "\n[SolvabilityChecker] "));
+    }
+}
@@ -1,30 +1,88 @@
 package com.ise.officeescape.controller;
 
+import com.ise.officeescape.achievements.AchievementEngine;
+import com.ise.officeescape.achievements.AchievementSession;
+import com.ise.officeescape.achievements.GameEventType;
+import com.ise.officeescape.analysis.GameStateSpace;
+import com.ise.officeescape.analysis.HintEngine;
 import com.ise.officeescape.eventSystem.*;
 import com.ise.officeescape.model.Direction;
 import com.ise.officeescape.model.InteractionResult;
+import com.ise.officeescape.model.Inventory;
 import com.ise.officeescape.model.Item;
 import com.ise.officeescape.model.Player;
 import com.ise.officeescape.model.Puzzle;
 import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
 import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.Symbol;
+import com.ise.officeescape.model.puzzles.TicketPuzzle;
+import com.ise.officeescape.model.state.GameState;
+import com.ise.officeescape.model.state.GameStateTracker;
+import com.ise.officeescape.service.ActionJournal;
+import com.ise.officeescape.service.AutoSaver;
+import com.ise.officeescape.service.BootstrappedWorld;
+import com.ise.officeescape.service.DirtyRoomTracker;
 import com.ise.officeescape.service.RoomDataService;
+import com.ise.officeescape.service.RoomDefinitions;
 import com.ise.officeescape.service.SaveService;
+import com.ise.officeescape.service.WorldBootstrapper;
+import com.ise.officeescape.simulation.NpcBehaviour;
+import com.ise.officeescape.simulation.NpcSimulation;
+import com.ise.officeescape.simulation.QueueSimulation;
 import com.ise.officeescape.view.DirectionControllerView.OnDirectionButtonPressedArgs;
 import com.ise.officeescape.view.GameView;
 import com.ise.officeescape.view.GameView.OnHotspotClickedEventArgs;
 import com.ise.officeescape.view.PuzzleView;
 import com.ise.officeescape.view.RoomViewModel;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
 public class GameController {
 
     public static GameController instance; 
 
+    // The office's ticket line: about one arrival every two minutes, three counters
+    private static final double QUEUE_ARRIVALS_PER_MINUTE = 0.55;
+    private static final int QUEUE_COUNTERS = 3;
+    private static final double QUEUE_SERVICE_MINUTES = 5.0;
+    private static final double QUEUE_WARM_UP_MINUTES = 60; // So the office is busy when the game starts
+    private static final double SIMULATED_MINUTES_PER_SECOND = 0.5;
+    private static final int WANDERING_VISITORS = 6;
+    private static final int QUEUING_VISITORS = 4;
+
     private final GameView view;
     private final Player player;
     private final RoomManager roomManager;
     private final RoomDataService roomDataService;
     private final SaveService saveService;
+    private final AutoSaver autoSaver;
+    private final DirtyRoomTracker dirtyRooms = new DirtyRoomTracker(); // Rooms changed since the last autosave
+    private ActionJournal journal; // Changes since the last autosave, for crash recovery (null if unavailable)
+    private final GameStateTracker stateTracker;
+    private final AchievementSession achievements;
+    private BootstrappedWorld world; // Every room set up, once the background bootstrap is done (FX thread only)
+    private HintEngine hintEngine; // Built on the first hint request after the bootstrap
+    private boolean hintPending; // A hint search is running in the background
+    private final Set<Puzzle> wiredPuzzles = Collections.newSetFromMap(new IdentityHashMap<>()); // Puzzles with controller listeners
+    private final QueueSimulation ticketQueue = new QueueSimulation(
+        QUEUE_ARRIVALS_PER_MINUTE, QUEUE_COUNTERS, QUEUE_SERVICE_MINUTES, System.nanoTime());
+    private int playerTicket; // Ticket number the player holds, 0 until the machine hands one out
+    private NpcSimulation npcs; // The other people in the office
+    private Timeline simulationTimer;
 
     public Event<OnRoomChangedEventArgs> onRoomChanged;
     public class OnRoomChangedEventArgs extends EventArgs {
@@ -36,11 +94,19 @@ public class GameController {
 
     public GameController(GameView view) {
         this.view = view;
-        this.roomManager = new RoomManager();
+        this.roomManager = RoomDefinitions.getBuiltIn().createRoomManager();
         this.roomDataService = new RoomDataService();
         this.saveService = new SaveService();
+        this.autoSaver = new AutoSaver(saveService);
         GameController.instance = this;
 
+        // Only show the indicator once the save is actually on disk
+        autoSaver.OnSaved.addListener((sender, args) -> {
+            if (args.success) {
+                Platform.runLater(view::showSaveIndicator);
+            }
+        });
+
         // Try to load saved game
         SaveService.SaveData saveData = saveService.loadGame(roomManager);
         Room startRoom;
@@ -55,40 +121,310 @@ public class GameController {
                 Item item = SaveService.createItemFromName(itemName);
                 player.getInventory().addItem(item);
             }
+
+            // Restore room items and puzzle progress
+            saveData.roomStates.forEach(this::restoreRoom);
             System.out.println("[GameController] Loaded saved game - Room: " + startRoom.getName() + ", Items: " + saveData.itemNames.size());
         } else {
             // Start new game
             startRoom = roomManager.getStartRoom();
             this.player = new Player("Player", startRoom);
             
-            player.getInventory().addItem(new Item("passport", "Your passport"));
-            player.getInventory().addItem(new Item("visaApplication", "Visa application form"));
-            player.getInventory().addItem(new Item("birthCertificate", "Birth certificate"));
-            player.getInventory().addItem(new Item("employmentLetter", "Employment letter"));
+            for (Item item : RoomDataService.createStartingInventory().getInvetoryMap().values()) {
+                player.getInventory().addItem(item);
+            }
         }
 
+        // Replay what happened after the last autosave before a crash, then journal from here on
+        openJournal();
+
+        // Track achievements before the first room is shown so its puzzles are watched
+        this.achievements = AchievementEngine.withDefaults().newSession();
+        achievements.OnAchievementUnlocked.addListener(
+            (sender, args) -> view.showMessageOverlay("Achievement unlocked: " + args.achievement)
+        );
+
         initializeView();
         setupEventSubscriptions();
+
+        // Start recording state versions for undo once the first room is set up
+        this.stateTracker = new GameStateTracker(RoomGraph.of(roomManager));
+        stateTracker.reset(player);
         
         // Set up inventory change callback to refresh inventory view when items are moved
         view.setInventoryChangeCallback((item, fromRoomInventory) -> {
-        
-            //Is in queue room and there is a bananaPeel in the inventory, show stolenDocument overlay.
+            // Record where the item ended up
             Room currentRoom = getCurrentRoom();
-            if (currentRoom != null && currentRoom.getName().equals("queue")) {
-                if (item.getName().equals("bananaPeel") && !fromRoomInventory) {
-                    if (currentRoom.getInventory().hasItem("bananaPeel")) {
-                        if (!player.getInventory().hasItem("stolenDocument")) {
+            if (player.getInventory().hasItem(item)) {
+                stateTracker.setItemHeld(item);
+            } else {
+                stateTracker.setItemInRoom(item, currentRoom);
+            }
+            stateTracker.checkpoint();
+
+            //Is in queue room and there is a bananaPeel in the inventory, show stolenDocument overlay.
+            if (currentRoom != null && currentRoom.getSymbol() == Symbol.QUEUE_ROOM) {
+                if (item.getSymbol() == Symbol.BANANA_PEEL && !fromRoomInventory) {
+                    if (currentRoom.getInventory().hasItem(Symbol.BANANA_PEEL)) {
+                        if (!player.getInventory().hasItem(Symbol.STOLEN_DOCUMENT)) {
                             System.out.println("[GameController] Banana peel detected in queue room - triggering slip mechanic");
                             handleBananaPeelSlip();
                         }
                     }
                 }
             }
-            
+
             // Refresh inventory view
             view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
         });
+
+        startSimulations();
+        bootstrapWorld();
+    }
+
+    /**
+     * Starts the ticket queue and the other people in the office, advanced once a second on the FX thread.
+     */
+    private void startSimulations() {
+        npcs = populateOffice();
+        ticketQueue.advance(QUEUE_WARM_UP_MINUTES);
+        ticketQueue.OnNowServingChanged.addListener((sender, args) -> {
+            if (args.ticketNumber == playerTicket) {
+                view.showMessageOverlay("Now serving ticket number " + playerTicket + ".\nThat's you!");
+            }
+        });
+        simulationTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
+            ticketQueue.advance(SIMULATED_MINUTES_PER_SECOND);
+            npcs.tick();
+            updateStatus();
+        }));
+        simulationTimer.setCycleCount(Animation.INDEFINITE);
+        simulationTimer.play();
+    }
+
+    /**
+     * Creates the office's visitors: some wander from the entrance, some head for the queue,
+     * and a guard patrols between security and the queue.
+     */
+    private NpcSimulation populateOffice() {
+        NpcSimulation simulation = new NpcSimulation(RoomGraph.of(roomManager), WANDERING_VISITORS + QUEUING_VISITORS + 1);
+        Room entrance = roomManager.getStartRoom();
+        Room queue = roomManager.getRoom(Symbol.QUEUE_ROOM);
+        Room security = roomManager.getRoom(Symbol.SECURITY_ROOM);
+        for (int i = 0; i < WANDERING_VISITORS; i++) {
+            simulation.spawn("Visitor " + (i + 1), entrance, NpcBehaviour.WANDER, null);
+        }
+        if (queue != null) {
+            for (int i = 0; i < QUEUING_VISITORS; i++) {
+                simulation.spawn("Applicant " + (i + 1), entrance, NpcBehaviour.QUEUE, queue);
+            }
+            if (security != null) {
+                simulation.spawn("Guard", security, NpcBehaviour.PATROL, queue);
+            }
+        }
+        return simulation;
+    }
+
+    /**
+     * Gives the player the next ticket from the queue (the ticket machine's dispenser).
+     */
+    private int takeQueueTicket() {
+        playerTicket = ticketQueue.takeTicket();
+        updateStatus();
+        return playerTicket;
+    }
+
+    /**
+     * Remembers the player's ticket number from a restored ticket puzzle.
+     */
+    private void restoreTicket(Puzzle puzzle) {
+        if (puzzle instanceof TicketPuzzle ticketPuzzle && ticketPuzzle.isTicketObtained()) {
+            playerTicket = ticketPuzzle.getTicketNumber();
+        }
+    }
+
+    /**
+     * Shows who else is in the current room and, where the player can see it, the ticket queue.
+     */
+    private void updateStatus() {
+        Room room = getCurrentRoom();
+        if (room == null) {
+            view.showStatus(null);
+            return;
+        }
+        List<String> status = new ArrayList<>();
+        int others = npcs != null ? npcs.getOccupantCount(room) : 0;
+        if (others > 0) {
+            status.add(others == 1 ? "1 other person here" : others + " other people here");
+        }
+        if (room.getSymbol() == Symbol.TICKET_ROOM || room.getSymbol() == Symbol.QUEUE_ROOM) {
+            status.add("Now serving: " + ticketQueue.getNowServing());
+            status.add(describeTicket());
+        }
+        view.showStatus(status.isEmpty() ? null : String.join(" | ", status));
+    }
+
+    private String describeTicket() {
+        if (playerTicket == 0) {
+            return ticketQueue.getQueueLength() + " waiting";
+        }
+        int ahead = ticketQueue.getPositionInQueue(playerTicket);
+        if (ahead >= 0) {
+            return "Your ticket: " + playerTicket + " (" + ahead + " ahead of you)";
+        } else if (playerTicket <= ticketQueue.getNowServing()) {
+            return "Your ticket: " + playerTicket + " has been called";
+        }
+        return "Your ticket: " + playerTicket; // From a save, not in today's line
+    }
+
+    /**
+     * Sets up the rooms the player has not visited yet on worker threads (see WorldBootstrapper),
+     * so hints and room transitions never wait for a room to be set up on the FX thread.
+     * Rooms already set up (the current one, restored ones) are reused by the shared RoomDataService.
+     */
+    private void bootstrapWorld() {
+        WorldBootstrapper bootstrapper = new WorldBootstrapper(roomManager, roomDataService, ForkJoinPool.commonPool());
+        CompletableFuture.supplyAsync(bootstrapper::bootstrap)
+            .whenComplete((bootstrapped, error) -> Platform.runLater(() -> onWorldBootstrapped(bootstrapped, error)));
+    }
+
+    private void onWorldBootstrapped(BootstrappedWorld bootstrapped, Throwable error) {
+        if (error != null) {
+            System.err.println("[GameController] Could not set up the world: " + error);
+            return;
+        }
+        world = bootstrapped;
+        // Every room is set up now, so undo has to know all their items and puzzles
+        for (Room room : roomManager.getAllRooms()) {
+            stateTracker.track(room);
+        }
+        System.out.println("[GameController] " + world);
+        for (String gate : world.getUnresolvedGates()) {
+            System.err.println("[GameController] Unresolved gate: " + gate);
+        }
+    }
+
+    /**
+     * Sets a room up and puts back the items and puzzle progress from a save.
+     */
+    private void restoreRoom(Room room, SaveService.RoomState state) {
+        roomDataService.loadRoom(room);
+        Inventory roomInventory = room.getInventory();
+        for (String itemName : new ArrayList<>(roomInventory.getInvetoryMap().keySet())) {
+            roomInventory.removeItem(itemName);
+        }
+        for (String itemName : state.itemNames) {
+            roomInventory.addItem(SaveService.createItemFromName(itemName));
+        }
+        for (SaveService.PuzzleState puzzleState : state.puzzles) {
+            Puzzle puzzle = room.getPuzzle(puzzleState.puzzleId);
+            if (puzzle == null) {
+                System.out.println("[GameController] Saved puzzle no longer in " + room.getName() + ": " + puzzleState.puzzleId);
+                continue;
+            }
+            puzzle.setSolved(puzzleState.solved);
+            puzzle.restoreSaveState(puzzleState.state);
+            restoreTicket(puzzle);
+            if (puzzleState.solved) {
+                player.getProgress().markSolved(puzzle.getId());
+            }
+        }
+        room.markClean(); // Matches the save, nothing to write until it changes again
+    }
+
+    /**
+     * Writes any pending autosave and stops the save thread. Call when the game closes.
+     */
+    public void shutdown() {
+        if (simulationTimer != null) {
+            simulationTimer.stop();
+        }
+        autoSaver.close();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Replays the journal left by the last run over the loaded save, then opens it for this run.
+     */
+    private void openJournal() {
+        try {
+            List<ActionJournal.Entry> entries = ActionJournal.read(saveService.getJournalPath());
+            long lastSequence = entries.isEmpty() ? 0 : entries.get(entries.size() - 1).sequence;
+            if (!entries.isEmpty()) {
+                replayJournal(entries);
+            }
+            journal = new ActionJournal(saveService.getJournalPath(), lastSequence);
+        } catch (IOException e) {
+            System.err.println("[GameController] Action journal unavailable: " + e.getMessage());
+            return;
+        }
+        journal.watchPlayer(player.getInventory());
+        // Entries up to a save's sequence are no longer needed once that save is on disk
+        autoSaver.OnSaved.addListener((sender, args) -> {
+            if (args.success) {
+                journal.checkpoint(args.snapshot.journalSequence);
+            }
+        });
+    }
+
+    /**
+     * Applies journal entries to the game. Each entry sets a fact (where the player is, whether
+     * an item is in an inventory, a puzzle's state), so entries the save already has change nothing.
+     */
+    private void replayJournal(List<ActionJournal.Entry> entries) {
+        Set<Room> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ActionJournal.Entry entry : entries) {
+            switch (entry.type) {
+                case MOVED -> {
+                    Room room = roomManager.getRoom(entry.roomName);
+                    if (room != null) {
+                        player.setCurrentRoom(room);
+                    }
+                }
+                case ITEM_ADDED, ITEM_REMOVED -> {
+                    Inventory inventory = player.getInventory();
+                    if (entry.roomName != null) {
+                        Room room = roomManager.getRoom(entry.roomName);
+                        if (room == null) {
+                            continue;
+                        }
+                        roomDataService.loadRoom(room);
+                        touched.add(room);
+                        inventory = room.getInventory();
+                    }
+                    if (entry.type == ActionJournal.ActionType.ITEM_REMOVED) {
+                        inventory.removeItem(entry.name);
+                    } else if (!inventory.hasItem(entry.name)) {
+                        inventory.addItem(SaveService.createItemFromName(entry.name));
+                    }
+                }
+                case PUZZLE_CHANGED -> {
+                    Room room = roomManager.getRoom(entry.roomName);
+                    if (room == null) {
+                        continue;
+                    }
+                    roomDataService.loadRoom(room);
+                    Puzzle puzzle = room.getPuzzle(entry.name);
+                    if (puzzle != null) {
+                        touched.add(room);
+                        puzzle.setSolved(entry.solved);
+                        puzzle.restoreSaveState(entry.state);
+                        restoreTicket(puzzle);
+                        if (entry.solved) {
+                            player.getProgress().markSolved(puzzle.getId());
+                        }
+                    }
+                }
+            }
+        }
+        // Replayed rooms are dirty, so the next autosave writes them before the journal is dropped
+        for (Room room : touched) {
+            dirtyRooms.track(room);
+        }
+        System.out.println("[GameController] Replayed " + entries.size() + " journal entries, now in room: "
+            + getCurrentRoom().getName());
     }
 
     /**
@@ -114,6 +450,16 @@ public class GameController {
         view.OnHotspotClicked.addListener(
             (sender, args) -> onHotspotClicked(sender, args)
         );
+
+        // Undo requests
+        view.OnUndoRequested.addListener(
+            (sender, args) -> undo()
+        );
+
+        // Hint requests
+        view.OnHintRequested.addListener(
+            (sender, args) -> showHint()
+        );
     }
 
     /**
@@ -158,22 +504,32 @@ public class GameController {
                 
             case PUZZLE_SOLVED:
                 view.hidePuzzleView();
+                if (result.getPuzzleId() != null) {
+                    player.getProgress().markSolved(result.getPuzzleId());
+                    achievements.record(GameEventType.PUZZLE_SOLVED, result.getPuzzleSymbol().getId());
+                    stateTracker.setSolvedFlags(player.getProgress().getSolvedFlags());
+                }
                 
-                // Handle guard puzzle - remove popsicle when bribed
-                if (result.getPuzzleId() != null && result.getPuzzleId().equals("queueGaurdPuzzle")) {
-                    if (player.getInventory().hasItem("popsicle")) {
-                        player.getInventory().removeItem("popsicle");
-                        System.out.println("You gave the popsicle to the guard.");
+                // Take the item the puzzle uses up (e.g. the guard keeps the popsicle)
+                Puzzle solvedPuzzle = getCurrentRoom().getPuzzle(result.getPuzzleSymbol());
+                if (solvedPuzzle != null && solvedPuzzle.getConsumedItemName() != null) {
+                    Symbol consumed = Symbol.of(solvedPuzzle.getConsumedItemName());
+                    if (player.getInventory().hasItem(consumed)) {
+                        player.getInventory().removeItem(consumed);
+                        stateTracker.setItemGone(consumed);
+                        System.out.println("You handed over the " + consumed.getName() + ".");
                         view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
                     }
                 }
                 
                 if (result.getItem() != null) {
                     player.getInventory().addItem(result.getItem());
+                    stateTracker.setItemHeld(result.getItem());
                     System.out.println("Item obtained: " + result.getItem().getName());
                     // Update inventory view if it's visible
                     view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
                 }
+                stateTracker.checkpoint();
                 break;
                 
             case PUZZLE_TRIGGERED:
@@ -185,12 +541,14 @@ public class GameController {
                 // Add item to player inventory
                 if (result.getItem() != null) {
                     player.getInventory().addItem(result.getItem());
+                    stateTracker.setItemHeld(result.getItem());
                     System.out.println("Item obtained: " + result.getItem().getName());
                     // Update inventory view if it's visible
                     view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
                 } else if (result.getItemId() != null) {
                     System.out.println("Item obtained: " + result.getItemId() + " (item object not provided)");
                 }
+                stateTracker.checkpoint();
                 break;
                 
             case NONE:
@@ -223,8 +581,8 @@ public class GameController {
         }
         
         // Check if player can enter the destination room
-        if (!destinationRoom.canEnter(player, roomManager)) {
-            String blockedMessage = destinationRoom.getEntryBlockedMessage(player, roomManager);
+        if (!destinationRoom.canEnter(player)) {
+            String blockedMessage = destinationRoom.getEntryBlockedMessage(player);
             System.out.println("[GameController] Player cannot enter " + destinationRoom.getName() + ": " + blockedMessage);
             return blockedMessage != null ? blockedMessage : "You cannot enter this room.";
         }
@@ -233,12 +591,16 @@ public class GameController {
         if (player.move(direction)) {
             System.out.println("[GameController] Player moved successfully to: " + getCurrentRoom().getName());
             loadAndShowRoom(getCurrentRoom());
+            stateTracker.setRoom(getCurrentRoom());
+            stateTracker.track(getCurrentRoom());
+            stateTracker.checkpoint();
             
-            // Auto-save after entering new room
-            if (saveService.saveGame(getCurrentRoom(), player.getInventory())) {
-                // Show save indicator
-                view.showSaveIndicator();
+            // Auto-save after entering new room, written in the background
+            if (journal != null) {
+                journal.recordMove(getCurrentRoom());
             }
+            autoSaver.request(dirtyRooms.captureChanges(getCurrentRoom(), player.getInventory())
+                .withJournalSequence(journal != null ? journal.getLastSequence() : 0));
             
             if (onRoomChanged != null) {
                 onRoomChanged.invoke(this, new OnRoomChangedEventArgs(getCurrentRoom()));
@@ -250,6 +612,65 @@ public class GameController {
         }
     }
 
+    /**
+     * Reverts the last action (room change, item transfer or puzzle reward).
+     */
+    public void undo() {
+        GameState previous = stateTracker.undo();
+        if (previous == null) {
+            System.out.println("[GameController] Nothing to undo");
+            return;
+        }
+        stateTracker.applyTo(previous, player);
+        if (journal != null) {
+            journal.recordMove(getCurrentRoom());
+        }
+        view.hidePuzzleView();
+        view.showRoom(roomDataService.loadRoom(getCurrentRoom()));
+        view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
+        System.out.println("[GameController] Undo - back in room: " + getCurrentRoom().getName());
+    }
+
+    /**
+     * Shows the next step towards the exit, or warns the player if they are stuck.
+     */
+    public void showHint() {
+        HintEngine engine = getHintEngine();
+        if (engine == null) {
+            view.showMessageOverlay("Still looking around the office... ask again in a moment.");
+            return;
+        }
+        if (hintPending) {
+            return; // The answer to the last request is on its way
+        }
+        // Snapshot the state here, search in the background (a cold search can take a while)
+        long[] state = engine.getSpace().encode(player);
+        hintPending = true;
+        CompletableFuture.supplyAsync(() -> engine.getHint(state))
+            .whenComplete((hint, error) -> Platform.runLater(() -> {
+                hintPending = false;
+                if (error != null) {
+                    System.err.println("[GameController] Hint search failed: " + error);
+                    return;
+                }
+                System.out.println("[GameController] Hint: " + hint);
+                view.showMessageOverlay(hint.toString());
+            }));
+    }
+
+    /**
+     * Gets the hint engine, or null until the world bootstrap has set up every room
+     * (the planner needs every room's puzzles). The space models the game as it starts,
+     * not as it is when the first hint is asked for; showHint encodes the live state into it.
+     */
+    private HintEngine getHintEngine() {
+        if (hintEngine == null && world != null) {
+            GameStateSpace space = GameStateSpace.Builder.forGame(world.getRoomManager()).build();
+            hintEngine = new HintEngine(space, 4096);
+        }
+        return hintEngine;
+    }
+
     /**
      * Loads room data and shows it in the view.
      * This is the main method for room transitions.
@@ -264,14 +685,28 @@ public class GameController {
         
         // Load room data (hotspots, puzzles, animations)
         RoomViewModel viewModel = roomDataService.loadRoom(room);
+        for (Puzzle puzzle : room.getAllPuzzles()) {
+            achievements.watch(puzzle);
+        }
+        dirtyRooms.track(room);
+        if (journal != null) {
+            journal.watchRoom(room);
+        }
+        achievements.record(GameEventType.ROOM_ENTERED, room.getSymbol().getId());
         System.out.println("[GameController] Room data loaded, showing in view");
         
         // Show the room in the view
         view.showRoom(viewModel);
         System.out.println("[GameController] Room display initiated");
+
+        // Decode the neighbouring backgrounds in the background, so walking on does not stall
+        for (Direction direction : room.getAllExits()) {
+            view.prefetchBackground(roomDataService.getBackgroundAssetId(room.getExit(direction)));
+        }
         
         // Update inventory view with current inventories
         view.updateInventory(player.getInventory(), room.getInventory());
+        updateStatus();
     }
 
     /**
@@ -312,15 +747,20 @@ public class GameController {
             return;
         }
         
-        // Create puzzle-specific view based on puzzle ID
+        // Create puzzle-specific view based on the kind of puzzle (ids are scoped in generated worlds)
         PuzzleView puzzleView;
-        if (puzzleId.equals("ticketPuzzle")) {
+        Symbol puzzleSymbol = puzzle.getKind();
+        if (puzzleSymbol == Symbol.TICKET_PUZZLE) {
+            // Ticket numbers come from the office's queue
+            if (puzzle instanceof TicketPuzzle) {
+                ((TicketPuzzle) puzzle).setTicketDispenser(this::takeQueueTicket);
+            }
             puzzleView = new com.ise.officeescape.view.puzzles.TicketMachinePuzzleView(puzzle);
-        } else if (puzzleId.equals("queueGaurdPuzzle")) {
+        } else if (puzzleSymbol == Symbol.QUEUE_GUARD_PUZZLE) {
             puzzleView = new com.ise.officeescape.view.puzzles.GuardPuzzleView(puzzle);
-        } else if (puzzleId.equals("securityPuzzle")) {
+        } else if (puzzleSymbol == Symbol.SECURITY_PUZZLE) {
             puzzleView = new com.ise.officeescape.view.puzzles.SecurityPuzzleView(puzzle);
-        } else if (puzzleId.equals("interviewPuzzle")) {
+        } else if (puzzleSymbol == Symbol.INTERVIEW_PUZZLE) {
             // Set player reference for document checks
             if (puzzle instanceof com.ise.officeescape.model.puzzles.InterviewPuzzle) {
                 ((com.ise.officeescape.model.puzzles.InterviewPuzzle) puzzle).setPlayer(player);
@@ -332,15 +772,17 @@ public class GameController {
             return;
         }
         
-        // Set up puzzle event handlers
-        puzzle.OnPuzzleSolved.addListener((sender, args) -> {
-            // Use the result that was already computed in the puzzle
-            handleInteractionResult(args.result);
-        });
-        
-        puzzle.OnPuzzleClosed.addListener((sender, args) -> {
-            view.hidePuzzleView();
-        });
+        // Set up puzzle event handlers (puzzles are reused, so only once per instance)
+        if (wiredPuzzles.add(puzzle)) {
+            puzzle.OnPuzzleSolved.addListener((sender, args) -> {
+                // Use the result that was already computed in the puzzle
+                handleInteractionResult(args.result);
+            });
+            
+            puzzle.OnPuzzleClosed.addListener((sender, args) -> {
+                view.hidePuzzleView();
+            });
+        }
         
         view.showPuzzleView(puzzleView);
     }
@@ -354,6 +796,8 @@ public class GameController {
         
         // Add to player inventory
         player.getInventory().addItem(document);
+        stateTracker.setItemHeld(document);
+        stateTracker.checkpoint();
         
         // Update inventory view to show the new item
         view.updateInventory(player.getInventory(), getCurrentRoom().getInventory());
@@ -5,17 +5,32 @@ import java.util.List;
 
 public class Event<T extends EventArgs> {
 
-    private final List<EventHandler<T>> listeners = new ArrayList<>();
+    private List<EventHandler<T>> listeners; // Created with the first listener, most events never get one
 
     public void addListener(EventHandler<T> listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
         listeners.add(listener);
     }
 
     public void removeListener(EventHandler<T> listener) {
-        listeners.remove(listener);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Checks if anything listens, so hot paths can skip creating event args nobody reads.
+     */
+    public boolean hasListeners() {
+        return listeners != null && !listeners.isEmpty();
     }
 
     public void invoke(Object sender, T args) {
+        if (listeners == null) {
+            return;
+        }
         for (EventHandler<T> listener : listeners) {
             listener.handle(sender, args);
         }
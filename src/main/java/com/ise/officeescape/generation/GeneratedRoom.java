@@ -0,0 +1,103 @@
+package com.ise.officeescape.generation;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.RoomGraph;
+
+/**
+ * Plain description of one generated room: its kind, block, exits (as room indices) and items.
+ * Cheap to create and independent of the model classes, so it can be streamed to disk.
+ */
+public class GeneratedRoom {
+    private final int index;
+    private final RoomKind kind;
+    private final int block; // Scope of the room's puzzle, items and gate (-1 = not scoped)
+    private final int[] exits; // Indexed by Direction ordinal, RoomGraph.NO_ROOM if none
+    private final String[] itemNames;
+
+    GeneratedRoom(int index, RoomKind kind, int block, int[] exits, String[] itemNames) {
+        this.index = index;
+        this.kind = kind;
+        this.block = block;
+        this.exits = exits;
+        this.itemNames = itemNames;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public RoomKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the room name. The entrance and exit keep the built-in names so
+     * code looking for "outside" and "exit" works with generated worlds.
+     */
+    public String getName() {
+        if (kind == RoomKind.ENTRANCE || kind == RoomKind.EXIT) {
+            return kind.getNamePrefix();
+        }
+        return kind.getNamePrefix() + "-" + index;
+    }
+
+    /**
+     * Gets the scope of the room (its block number, see Room.getScope), or null if it has none.
+     */
+    public String getScope() {
+        return block >= 0 ? String.valueOf(block) : null;
+    }
+
+    public int getExit(Direction direction) {
+        return exits[direction.ordinal()];
+    }
+
+    public boolean hasExit(Direction direction) {
+        return exits[direction.ordinal()] != RoomGraph.NO_ROOM;
+    }
+
+    public String[] getItemNames() {
+        return itemNames.clone();
+    }
+
+    /**
+     * Appends this room as one tab-separated line: index, name, kind, scope, left, right,
+     * forward, backwards exits, comma-separated items, puzzle id and entry condition.
+     * Items, puzzle and condition carry the scope, like in the built world; empty columns mean none.
+     */
+    public void appendTo(StringBuilder out) {
+        out.append(index).append('\t').append(getName()).append('\t').append(kind.name()).append('\t');
+        if (block >= 0) {
+            out.append(block);
+        }
+        for (int exit : exits) {
+            out.append('\t').append(exit);
+        }
+        out.append('\t');
+        for (int i = 0; i < itemNames.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendScoped(out, itemNames[i]);
+        }
+        out.append('\t');
+        if (kind.getPuzzleKind() != null) {
+            appendScoped(out, kind.getPuzzleKind());
+        }
+        out.append('\t');
+        if (kind.getEntryCondition() != null) {
+            kind.appendEntryCondition(out, block);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Appends the id a name has in this room's scope (see Room.scoped) without building the string.
+     */
+    private void appendScoped(StringBuilder out, String name) {
+        out.append(name);
+        if (block >= 0) {
+            out.append('-').append(block);
+        }
+    }
+}
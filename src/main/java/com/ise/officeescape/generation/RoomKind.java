@@ -0,0 +1,130 @@
+package com.ise.officeescape.generation;
+
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.conditions.Condition;
+import com.ise.officeescape.model.conditions.GateRule;
+import com.ise.officeescape.model.puzzles.InterviewPuzzle;
+import com.ise.officeescape.model.puzzles.QueueGaurdPuzzle;
+import com.ise.officeescape.model.puzzles.SecurityPuzzle;
+import com.ise.officeescape.model.puzzles.TicketPuzzle;
+
+import java.util.function.Function;
+
+/**
+ * The kinds of room a generated office building is made of.
+ * Gate rules, hotspots and puzzles mirror the built-in rooms in rooms.def.
+ * Each block of a generated world has its own scope (see Room.getScope), so puzzles, the items
+ * they use and the gates depending on them are created per scope rather than shared.
+ */
+public enum RoomKind {
+    ENTRANCE("outside", "Outside the Irish Immigration Office", null, null, null, null, null, null),
+    CORRIDOR("corridor", "A grey corridor lined with motivational posters", null, null, null, null, null, null),
+    OFFICE("office", "An empty office, the kettle is still warm", null, null, null, null, null, null),
+    TICKET("ticket", "Ticket Machine Room - Take a number and cry",
+        "ticketMachine", "TAKE_TICKET", "ticketPuzzle", TicketPuzzle::new, null, null),
+    QUEUE("queue", "The Queue Room - A test of patience",
+        "guard", "TALK_TO_GUARD", "queueGaurdPuzzle", QueueGaurdPuzzle::new,
+        "hasItem(ticketItem)", "You need a ticket to enter the queue room."),
+    SECURITY("security", "Security Check - Metal detector and suspicious stares",
+        "securityCheckpoint", "SECURITY_CHECK", "securityPuzzle", SecurityPuzzle::new,
+        "solved(queueGaurdPuzzle)", "You need to bribe the guard to skip the line first."),
+    INTERVIEW("interview", "Interview Room - The final bureaucratic boss fight",
+        "interviewer", "START_INTERVIEW", "interviewPuzzle", InterviewPuzzle::new,
+        "solved(queueGaurdPuzzle) and solved(securityPuzzle)",
+        "You need to bribe the guard and pass through security first."),
+    EXIT("exit", "Exit - Freedom! You escaped the office.", null, null, null, null, null, null);
+
+    private final String namePrefix;
+    private final String description;
+    private final String hotspotId;
+    private final String interactionType;
+    private final String puzzleKind;
+    private final Function<String, Puzzle> puzzleFactory; // Takes the scope
+    private final String entryCondition; // Unscoped, bound to each block's scope
+    private final String[] scopedEntryCondition; // Text of the scoped condition around each scope
+    private final String entryMessage;
+
+    RoomKind(String namePrefix, String description, String hotspotId, String interactionType,
+             String puzzleKind, Function<String, Puzzle> puzzleFactory, String entryCondition, String entryMessage) {
+        this.namePrefix = namePrefix;
+        this.description = description;
+        this.hotspotId = hotspotId;
+        this.interactionType = interactionType;
+        this.puzzleKind = puzzleKind;
+        this.puzzleFactory = puzzleFactory;
+        this.entryCondition = entryCondition;
+        this.scopedEntryCondition = entryCondition != null
+            ? Condition.scopedSource(entryCondition, SCOPE_MARK).split(SCOPE_MARK, -1) : null;
+        this.entryMessage = entryMessage;
+    }
+
+    private static final String SCOPE_MARK = "\u0000";
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the id of the room's hotspot, or null if the room has none.
+     */
+    public String getHotspotId() {
+        return hotspotId;
+    }
+
+    public String getInteractionType() {
+        return interactionType;
+    }
+
+    /**
+     * Gets the id of the puzzle of rooms of this kind without a scope (e.g. "ticketPuzzle"),
+     * or null if they have none.
+     */
+    public String getPuzzleKind() {
+        return puzzleKind;
+    }
+
+    /**
+     * Creates a fresh puzzle for a room of this kind in a scope, or returns null if it has none.
+     */
+    public Puzzle createPuzzle(String scope) {
+        return puzzleFactory != null ? puzzleFactory.apply(scope) : null;
+    }
+
+    /**
+     * Creates the entry rule for rooms of this kind in a scope (null = always open).
+     */
+    public GateRule createEntryRule(String scope) {
+        return entryCondition != null ? GateRule.of(entryCondition, scope, entryMessage) : null;
+    }
+
+    /**
+     * Gets the unscoped entry condition of rooms of this kind, or null if they are always open.
+     */
+    public String getEntryCondition() {
+        return entryCondition;
+    }
+
+    /**
+     * Appends the text of the entry condition of rooms of this kind in a block, e.g.
+     * "solved(queueGaurdPuzzle-3)", without compiling it or matching the text again.
+     */
+    void appendEntryCondition(StringBuilder out, int block) {
+        for (int i = 0; i < scopedEntryCondition.length; i++) {
+            if (i > 0) {
+                out.append(block);
+            }
+            out.append(scopedEntryCondition[i]);
+        }
+    }
+
+    /**
+     * Checks if rooms of this kind are part of a block, and so get a scope.
+     */
+    public boolean isScoped() {
+        return this != ENTRANCE && this != EXIT;
+    }
+}
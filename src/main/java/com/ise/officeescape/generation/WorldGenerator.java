@@ -0,0 +1,242 @@
+package com.ise.officeescape.generation;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Interactable;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.service.SaveService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic, seeded generator of large office buildings, for stress-testing
+ * the room graph, simulations and analysis code with worlds far bigger than the built-in one.
+ *
+ * A building starts at the entrance ("outside") and ends at the "exit". In between it repeats
+ * blocks of corridor, office, ticket, queue, security and interview rooms, chained with
+ * forward/backwards exits and gated like the built-in rooms. Each block has its own puzzles,
+ * items and gates (its rooms share the block number as their scope, see Room.getScope), so the
+ * ticket of one block does not open the queue of another. Offices and corridors may also
+ * get one-way left/right shortcuts back to earlier blocks.
+ *
+ * Every room is a pure function of (seed, index, roomCount), so rooms are generated in
+ * parallel chunks in any order and the same seed always gives the same building.
+ */
+public class WorldGenerator {
+
+    private static final RoomKind[] BLOCK = {
+        RoomKind.CORRIDOR, RoomKind.OFFICE, RoomKind.TICKET, RoomKind.QUEUE, RoomKind.SECURITY, RoomKind.INTERVIEW
+    };
+    private static final String[] OFFICE_ITEMS = {"stapler", "coffeeMug", "rubberStamp", "formA38", "lanyard"};
+    private static final String[] NO_ITEMS = new String[0];
+    private static final int CHUNK_SIZE = 16_384; // Rooms generated per parallel task
+    private static final int SHORTCUT_LOOKBACK = 8; // Shortcuts lead at most this many blocks back
+
+    private final long seed;
+
+    public WorldGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Describes one room of a building with the given number of rooms.
+     */
+    public GeneratedRoom generateRoom(int index, int roomCount) {
+        checkRoomCount(roomCount);
+        if (index < 0 || index >= roomCount) {
+            throw new IndexOutOfBoundsException("Room " + index + " of " + roomCount);
+        }
+        int[] exits = new int[RoomGraph.DIRECTIONS];
+        Arrays.fill(exits, RoomGraph.NO_ROOM);
+        if (index > 0) {
+            exits[Direction.backwards.ordinal()] = index - 1;
+        }
+        if (index < roomCount - 1) {
+            exits[Direction.forward.ordinal()] = index + 1;
+        }
+
+        RoomKind kind = kindOf(index, roomCount);
+        long random = mix(seed ^ mix(index + 1L));
+        String[] items = NO_ITEMS;
+        int block = blockOf(index);
+        switch (kind) {
+            case TICKET:
+                items = new String[] {"bananaPeel", "popsicle"};
+                break;
+            case OFFICE:
+                // Half of the offices have a one-way door back to an earlier corridor
+                if ((random & 1) == 0 && block > 0) {
+                    exits[Direction.left.ordinal()] = firstRoomOfBlock(earlierBlock(block, random >>> 8));
+                }
+                if (((random >>> 1) & 1) == 0) {
+                    items = new String[] {OFFICE_ITEMS[(int) ((random >>> 32) % OFFICE_ITEMS.length)]};
+                }
+                break;
+            case CORRIDOR:
+                // A quarter of the corridors have a one-way door into an earlier office
+                if ((random & 3) == 0 && block > 0) {
+                    exits[Direction.right.ordinal()] = firstRoomOfBlock(earlierBlock(block, random >>> 8)) + 1;
+                }
+                break;
+            default:
+                break;
+        }
+        return new GeneratedRoom(index, kind, kind.isScoped() ? block : -1, exits, items);
+    }
+
+    /**
+     * Builds the rooms of a generated building in memory, with items, hotspot interactables,
+     * puzzles and entry rules set up like RoomDataService does for the built-in rooms.
+     * Much slower than write, as every room interns symbols and registers its block's progress
+     * flags: about 2s for 100,000 rooms on one core (WorldGeneratorBenchmark), against 0.6s
+     * to stream 1,000,000.
+     */
+    public RoomManager build(int roomCount) {
+        checkRoomCount(roomCount);
+        Room[] rooms = new Room[roomCount];
+        GeneratedRoom[] specs = new GeneratedRoom[roomCount];
+        int chunks = chunkCount(roomCount);
+
+        // Pass 1: create the rooms; pass 2: link exits once every room object exists
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            String blockScope = null; // Shared by the rooms of a block
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk, roomCount); i++) {
+                specs[i] = generateRoom(i, roomCount);
+                String scope = specs[i].getScope();
+                if (scope != null && !scope.equals(blockScope)) {
+                    blockScope = scope;
+                }
+                rooms[i] = createRoom(specs[i], scope != null ? blockScope : null);
+            }
+        });
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk, roomCount); i++) {
+                for (Direction direction : Direction.values()) {
+                    if (specs[i].hasExit(direction)) {
+                        rooms[i].setExit(direction, rooms[specs[i].getExit(direction)]);
+                    }
+                }
+            }
+        });
+        return new RoomManager(List.of(rooms), rooms[0]);
+    }
+
+    private static Room createRoom(GeneratedRoom spec, String scope) {
+        RoomKind kind = spec.getKind();
+        Room room = new Room(spec.getName(), kind.getDescription());
+        room.setScope(scope);
+        for (String itemName : spec.getItemNames()) {
+            room.getInventory().addItem(SaveService.createItemFromName(Room.scoped(itemName, scope)));
+        }
+        Puzzle puzzle = kind.createPuzzle(scope);
+        if (puzzle != null) {
+            room.addPuzzle(puzzle);
+        }
+        if (kind.getHotspotId() != null) {
+            room.addInteractable(new Interactable(kind.getHotspotId(), kind.getInteractionType()));
+        }
+        room.setEntryRule(kind.createEntryRule(scope));
+        return room;
+    }
+
+    /**
+     * Streams a generated building to a file, one tab-separated line per room
+     * (see GeneratedRoom.appendTo). Chunks are generated in parallel a window at a time
+     * and written in order, so memory use does not grow with the room count.
+     */
+    public void write(int roomCount, Path file) throws IOException {
+        checkRoomCount(roomCount);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write(("# office building seed=" + seed + " rooms=" + roomCount
+                + " columns=index,name,kind,scope,left,right,forward,backwards,items,puzzle,gate\n").getBytes(StandardCharsets.UTF_8));
+
+            int chunks = chunkCount(roomCount);
+            int window = Runtime.getRuntime().availableProcessors() * 2;
+            for (int first = 0; first < chunks; first += window) {
+                int firstChunk = first;
+                byte[][] encoded = new byte[Math.min(window, chunks - first)][];
+                IntStream.range(0, encoded.length).parallel().forEach(offset ->
+                    encoded[offset] = encodeChunk(firstChunk + offset, roomCount)
+                );
+                for (byte[] bytes : encoded) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+
+    private byte[] encodeChunk(int chunk, int roomCount) {
+        StringBuilder text = new StringBuilder(CHUNK_SIZE * 48);
+        for (int i = chunkStart(chunk); i < chunkEnd(chunk, roomCount); i++) {
+            generateRoom(i, roomCount).appendTo(text);
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the kind of room at an index: entrance first, exit last, blocks in between.
+     */
+    public static RoomKind kindOf(int index, int roomCount) {
+        if (index == 0) {
+            return RoomKind.ENTRANCE;
+        }
+        if (index == roomCount - 1) {
+            return RoomKind.EXIT;
+        }
+        return BLOCK[(index - 1) % BLOCK.length];
+    }
+
+    private static int blockOf(int index) {
+        return (index - 1) / BLOCK.length;
+    }
+
+    private static int firstRoomOfBlock(int block) {
+        return 1 + block * BLOCK.length;
+    }
+
+    private static int earlierBlock(int block, long random) {
+        int lookback = Math.min(block, SHORTCUT_LOOKBACK);
+        return block - 1 - (int) (random % lookback);
+    }
+
+    private static int chunkCount(int roomCount) {
+        return (roomCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private static int chunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private static int chunkEnd(int chunk, int roomCount) {
+        return Math.min(roomCount, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    private static void checkRoomCount(int roomCount) {
+        if (roomCount < 2) {
+            throw new IllegalArgumentException("A building needs at least an entrance and an exit");
+        }
+    }
+
+    /**
+     * SplitMix64 finaliser, used to derive each room's random bits from the seed.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -5,12 +5,14 @@ package com.ise.officeescape.model;
  */
 public class Interactable {
     private String id;
+    private final Symbol symbol; // Interned id, compare with ==
     private String interactionType;
     private boolean enabled;
     private String description;
 
     public Interactable(String id, String interactionType) {
         this.id = id;
+        this.symbol = Symbol.of(id);
         this.interactionType = interactionType;
         this.enabled = true;
     }
@@ -19,6 +21,10 @@ public class Interactable {
         return id;
     }
 
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
     public String getInteractionType() {
         return interactionType;
     }
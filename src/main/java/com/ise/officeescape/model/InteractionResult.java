@@ -19,6 +19,7 @@ public class InteractionResult {
     private ResultType type;
     private String message;
     private String puzzleId;
+    private Symbol puzzleSymbol;
     private String itemId;
     private Item item; // The actual item object (when ITEM_OBTAINED)
     private String nextRoomId;
@@ -38,12 +39,14 @@ public class InteractionResult {
     public static InteractionResult puzzleTriggered(String puzzleId) {
         InteractionResult result = new InteractionResult(ResultType.PUZZLE_TRIGGERED);
         result.puzzleId = puzzleId;
+        result.puzzleSymbol = puzzleId != null ? Symbol.of(puzzleId) : null;
         return result;
     }
 
     public static InteractionResult puzzleSolved(String puzzleId) {
         InteractionResult result = new InteractionResult(ResultType.PUZZLE_SOLVED);
         result.puzzleId = puzzleId;
+        result.puzzleSymbol = puzzleId != null ? Symbol.of(puzzleId) : null;
         return result;
     }
 
@@ -77,6 +80,13 @@ public class InteractionResult {
         return puzzleId;
     }
 
+    /**
+     * Gets the interned puzzle id (null if the result is not about a puzzle).
+     */
+    public Symbol getPuzzleSymbol() {
+        return puzzleSymbol;
+    }
+
     public String getItemId() {
         return itemId;
     }
@@ -1,36 +1,159 @@
 package com.ise.officeescape.model;
 
-import java.util.HashMap;
+import com.ise.officeescape.eventSystem.*;
+
 import java.util.Map;
 
 /**
  * Inventory
+ * Every change bumps the version and fires OnInventoryChanged with exactly what changed,
+ * so consumers can react to deltas or skip work when the version has not moved.
+ * Items are keyed by their Symbol; the String overloads look the symbol up without interning it.
  */
 public class Inventory {
-    
-    private Map<String, Item> inventory;
+
+    private final SymbolMap<Item> inventory = new SymbolMap<>(); // Most room inventories stay empty
+    private Map<String, Item> byName; // Read-only view, created when first asked for
+    private long version;
+    private long cleanVersion; // Version when the inventory was last saved
+
+    public enum ChangeType {
+        ADDED,   // Item added from outside any inventory
+        REMOVED, // Item removed and not placed in another inventory
+        MOVED    // Item moved between two inventories (fired on both)
+    }
+
+    // Fired after every change to this inventory
+    public Event<OnInventoryChangedEventArgs> OnInventoryChanged = new Event<>();
+    public static class OnInventoryChangedEventArgs extends EventArgs {
+        public final ChangeType type;
+        public final Item item;
+        public final Inventory from; // Source inventory (null for ADDED)
+        public final Inventory to;   // Target inventory (null for REMOVED)
+        public final long version;   // Version of the inventory firing the event
+        public OnInventoryChangedEventArgs(ChangeType type, Item item, Inventory from, Inventory to, long version) {
+            this.type = type;
+            this.item = item;
+            this.from = from;
+            this.to = to;
+            this.version = version;
+        }
+    }
 
     public Inventory() {
-        this.inventory = new HashMap<String, Item>();
     }
 
+    /**
+     * Adds an item. Another item with the same symbol is removed first (firing REMOVED),
+     * so listeners never miss an item leaving the inventory.
+     */
     public void addItem(Item item) {
-        inventory.put(item.getName(), item);
+        if (put(item)) {
+            fire(ChangeType.ADDED, item, null, this);
+        }
     }
 
     public void removeItem(String itemName) {
-        inventory.remove(itemName);
+        removeItem(Symbol.find(itemName));
+    }
+
+    public void removeItem(Symbol itemSymbol) {
+        Item removed = inventory.remove(itemSymbol);
+        if (removed != null) {
+            fire(ChangeType.REMOVED, removed, this, null);
+        }
+    }
+
+    /**
+     * Moves an item from this inventory to another one.
+     * Both inventories fire a single MOVED event, after the target fires REMOVED for
+     * another item with the same symbol it held.
+     *
+     * @return false if this inventory does not hold the item
+     */
+    public boolean moveItem(String itemName, Inventory target) {
+        return moveItem(Symbol.find(itemName), target);
+    }
+
+    public boolean moveItem(Symbol itemSymbol, Inventory target) {
+        Item item = inventory.get(itemSymbol);
+        if (item == null || target == this) {
+            return false;
+        }
+        inventory.remove(itemSymbol);
+        target.put(item);
+        fire(ChangeType.MOVED, item, this, target);
+        target.fire(ChangeType.MOVED, item, this, target);
+        return true;
     }
 
     public boolean hasItem(String itemName)  {
-        return inventory.containsKey(itemName);
+        return hasItem(Symbol.find(itemName));
+    }
+
+    public boolean hasItem(Symbol itemSymbol) {
+        return inventory.containsKey(itemSymbol);
     }
 
     public boolean hasItem(Item item) {
-        return inventory.containsValue(item);
+        return inventory.get(item.getSymbol()) == item;
+    }
+
+    public Item getItem(Symbol itemSymbol) {
+        return inventory.get(itemSymbol);
     }
 
+    /**
+     * Gets a read-only, live view of the items, keyed by name.
+     */
     public Map<String, Item> getInvetoryMap() {
-        return inventory;
+        if (byName == null) {
+            byName = inventory.asNameMap();
+        }
+        return byName;
+    }
+
+    /**
+     * Gets the number of changes made to this inventory so far.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the inventory changed since markClean was last called.
+     */
+    public boolean isDirty() {
+        return version != cleanVersion;
+    }
+
+    /**
+     * Marks the current contents as saved.
+     */
+    public void markClean() {
+        cleanVersion = version;
+    }
+
+    /**
+     * Puts an item in the map, removing another item with the same symbol first.
+     *
+     * @return false if the inventory already held this very item
+     */
+    private boolean put(Item item) {
+        Item held = inventory.get(item.getSymbol());
+        if (held == item) {
+            return false;
+        }
+        if (held != null) {
+            inventory.remove(item.getSymbol());
+            fire(ChangeType.REMOVED, held, this, null);
+        }
+        inventory.put(item.getSymbol(), item);
+        return true;
+    }
+
+    private void fire(ChangeType type, Item item, Inventory from, Inventory to) {
+        version++;
+        OnInventoryChanged.invoke(this, new OnInventoryChangedEventArgs(type, item, from, to, version));
     }
 }
@@ -1,55 +1,71 @@
-package com.ise.officeescape.model;
-
-public class Item {
-    private String description;
-    private String name;
-    private String location;
-    private int id;
-    private boolean isVisible;
-
-    public Item(String name, String description) {
-        this.name = name;
-        this.description = description;
-        this.isVisible = true;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public String getLocation() {
-        return location;
-    }
-
-    public void setLocation(String location) {
-        this.location = location;
-    }
-
-    public int getId() {
-        return id;
-    }
-
-    public void setId(int id) {
-        this.id = id;
-    }
-
-    public boolean isVisible() {
-        return isVisible;
-    }
-
-    public void setVisible(boolean visible) {
-        isVisible = visible;
-    }
-}
+package com.ise.officeescape.model;
+
+public class Item {
+    private String description;
+    private String name;
+    private Symbol symbol; // Interned name, compare with ==
+    private String location;
+    private int id;
+    private boolean isVisible;
+
+    public Item(String name, String description) {
+        this.name = name;
+        this.symbol = Symbol.of(name);
+        this.description = description;
+        this.isVisible = true;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.symbol = Symbol.of(name);
+    }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the id of the item's image. Items of a generated block ("ticketItem-3", see
+     * Room.scoped) share the image of their base item.
+     */
+    public String getAssetId() {
+        int dash = name.indexOf('-');
+        return dash < 0 ? name : name.substring(0, dash);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    public void setVisible(boolean visible) {
+        isVisible = visible;
+    }
+}
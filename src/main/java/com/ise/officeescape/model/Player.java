@@ -1,6 +1,6 @@
 package com.ise.officeescape.model;
 
-import java.security.KeyStore.PrivateKeyEntry;
+import com.ise.officeescape.model.conditions.ProgressState;
 
 /**
  * Represents the player in the game.
@@ -11,11 +11,13 @@ public class Player {
     private String name;
     private Room currentRoom;
     private Inventory inventory;
+    private ProgressState progress;
 
     public Player(String name, Room startRoom) {
         this.name = name;
         this.currentRoom = startRoom;
         this.inventory = new Inventory();
+        this.progress = new ProgressState(inventory);
     }
     
     public Room getCurrentRoom() {
@@ -45,5 +47,12 @@ public class Player {
     public Inventory getInventory() {
         return inventory;
     }
+
+    /**
+     * Gets the player's progress flags (items held, puzzles solved) used by gate conditions.
+     */
+    public ProgressState getProgress() {
+        return progress;
+    }
 }
 
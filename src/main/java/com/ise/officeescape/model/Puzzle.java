@@ -1,6 +1,7 @@
 package com.ise.officeescape.model;
 
 import com.ise.officeescape.eventSystem.*;
+import com.ise.officeescape.model.conditions.Condition;
 
 /**
  * Base class for puzzles in rooms.
@@ -8,8 +9,17 @@ import com.ise.officeescape.eventSystem.*;
  */
 public abstract class Puzzle {
     protected String id;
+    protected final Symbol symbol; // Interned id, compare with ==
+    protected final Symbol kind; // Id without the scope, decides which view and rules apply
+    protected final String scope; // See Room.getScope (null = built-in puzzle)
     protected String description;
     protected boolean solved;
+    protected Condition startCondition = Condition.ALWAYS; // Must hold for the puzzle to start
+    protected Condition solveCondition = Condition.ALWAYS; // Must hold for the puzzle to be solvable
+    protected String rewardItemName; // Item the player receives when solving it (null if none)
+    protected String consumedItemName; // Item taken from the player when solving it (null if none)
+    private long version;      // Bumped whenever saved state changes (see markChanged)
+    private long cleanVersion; // Version when the puzzle was last saved
     
     // Event for when puzzle is solved
     public Event<OnPuzzleSolvedEventArgs> OnPuzzleSolved = new Event<>();
@@ -22,6 +32,9 @@ public abstract class Puzzle {
         }
     }
     
+    // Fired when state that goes into save files changes (solved flag or getSaveState)
+    public Event<EventArgs> OnStateChanged = new Event<>();
+
     // Event for when puzzle view is closed/cancelled
     public Event<OnPuzzleClosedEventArgs> OnPuzzleClosed = new Event<>();
     public static class OnPuzzleClosedEventArgs extends EventArgs {
@@ -29,7 +42,18 @@ public abstract class Puzzle {
     }
 
     public Puzzle(String id, String description) {
-        this.id = id;
+        this(id, null, description);
+    }
+
+    /**
+     * @param kind The puzzle id without a scope, e.g. "ticketPuzzle"
+     * @param scope The scope of the room hosting it (see Room.getScope), or null
+     */
+    public Puzzle(String kind, String scope, String description) {
+        this.id = Room.scoped(kind, scope);
+        this.symbol = Symbol.of(id);
+        this.kind = Symbol.of(kind);
+        this.scope = scope;
         this.description = description;
         this.solved = false;
     }
@@ -38,6 +62,25 @@ public abstract class Puzzle {
         return id;
     }
 
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    public Symbol getKind() {
+        return kind;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * Gets the name an item this puzzle uses has in the puzzle's scope.
+     */
+    protected String scoped(String itemName) {
+        return Room.scoped(itemName, scope);
+    }
+
     public String getDescription() {
         return description;
     }
@@ -47,7 +90,32 @@ public abstract class Puzzle {
     }
 
     public void setSolved(boolean solved) {
-        this.solved = solved;
+        if (this.solved != solved) {
+            this.solved = solved;
+            markChanged();
+        }
+    }
+
+    /**
+     * Records that saved state changed. Subclasses call this when getSaveState would change.
+     */
+    protected void markChanged() {
+        version++;
+        OnStateChanged.invoke(this, EventArgs.empty);
+    }
+
+    /**
+     * Checks if the puzzle changed since markClean was last called.
+     */
+    public boolean isDirty() {
+        return version != cleanVersion;
+    }
+
+    /**
+     * Marks the current state as saved.
+     */
+    public void markClean() {
+        cleanVersion = version;
     }
 
     /**
@@ -58,12 +126,52 @@ public abstract class Puzzle {
      */
     public abstract InteractionResult interact(String action, Object context);
 
+    public Condition getStartCondition() {
+        return startCondition;
+    }
+
+    /**
+     * Gets what the player needs to hold for the puzzle to be solvable once started
+     * (e.g. the popsicle for the guard). Used by analysis tools such as the solvability checker.
+     */
+    public Condition getSolveCondition() {
+        return solveCondition;
+    }
+
+    public String getRewardItemName() {
+        return rewardItemName;
+    }
+
+    public String getConsumedItemName() {
+        return consumedItemName;
+    }
+
+    /**
+     * Gets puzzle-specific progress to store in save files (e.g. the dialogue position),
+     * packed into a non-negative int. Puzzles with no such progress return 0.
+     */
+    public int getSaveState() {
+        return 0;
+    }
+
+    /**
+     * Restores progress returned by getSaveState when a game is loaded.
+     */
+    public void restoreSaveState(int state) {
+    }
+
     /**
-     * Checks if this puzzle can be started.
+     * Checks if this puzzle can be started by testing its start condition
+     * against the player's progress.
      * @param player The player attempting to start the puzzle
      * @return true if the puzzle can be started, false otherwise
      */
-    public abstract boolean canStart(Player player);
-        
+    public boolean canStart(Player player) {
+        if (player == null) {
+            return false;
+        }
+        return startCondition.test(player.getProgress());
+    }
+
 }
 
@@ -1,25 +1,37 @@
 package com.ise.officeescape.model;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.*;
+import com.ise.officeescape.model.conditions.GateRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class Room {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Interactable[] NO_INTERACTABLES = new Interactable[0];
+    private static final Puzzle[] NO_PUZZLES = new Puzzle[0];
+
     private String description;
     private String name;
-    private Map<Direction, Room> exits; // Map direction to neighboring Room
-    private Map<String, Interactable> interactables; // Map interactable ID to Interactable
-    private Map<String, Puzzle> puzzles; // Map puzzle ID to Puzzle
+    private final Symbol symbol; // Interned name, compare with ==
+    private Room[] exits; // Neighbouring rooms, indexed by Direction ordinal (null = no exit)
+    // Rooms hold at most a few interactables and puzzles, so they are kept in exactly-sized
+    // arrays and looked up by a linear scan rather than in a map each
+    private Interactable[] interactables;
+    private Puzzle[] puzzles;
     private Inventory inventory; // Room's inventory
+    private GateRule entryRule; // Condition for entering this room (null = always open)
+    private String scope; // Block of a generated world this room belongs to (null = built-in room)
 
     public Room(String name, String description) {
         this.name = name;
+        this.symbol = Symbol.of(name);
         this.description = description;
-        exits = new HashMap<>();
-        interactables = new HashMap<>();
-        puzzles = new HashMap<>();
+        exits = new Room[DIRECTIONS.length];
+        interactables = NO_INTERACTABLES;
+        puzzles = NO_PUZZLES;
         inventory = new Inventory();
     }
 
@@ -30,25 +42,56 @@ public class Room {
     public String getName() {
         return name;
     } 
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the scope of the room's puzzles and items, e.g. "3" for the rooms of block 3 of a
+     * generated world, so each block has its own puzzle ids and progress flags. Null for built-in rooms.
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Gets the id a puzzle or item has in a scope ("popsicle" in scope "3" is "popsicle-3").
+     */
+    public static String scoped(String name, String scope) {
+        return scope == null ? name : name + "-" + scope;
+    }
     
     public void setExit(Direction direction, Room neighbor) {
-        exits.put(direction, neighbor);
+        exits[direction.ordinal()] = neighbor;
     }
 
     public Room getExit(Direction direction) {
-        return exits.get(direction);
+        return exits[direction.ordinal()];
     }
 
     public String getExitString() {
         StringBuilder sb = new StringBuilder();
-        for (Direction direction : exits.keySet()) {
-            sb.append(direction.toString()).append(" ");
+        for (Direction direction : DIRECTIONS) {
+            if (exits[direction.ordinal()] != null) {
+                sb.append(direction.toString()).append(" ");
+            }
         }
         return sb.toString().trim();
     }
      
     public Set<Direction> getAllExits() {
-        return exits.keySet();
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+        for (Direction direction : DIRECTIONS) {
+            if (exits[direction.ordinal()] != null) {
+                directions.add(direction);
+            }
+        }
+        return directions;
     }
     
     public String getLongDescription() {
@@ -56,29 +99,86 @@ public class Room {
     }
 
     // Interactable management
+    /**
+     * Adds an interactable, replacing any existing one with the same id.
+     */
     public void addInteractable(Interactable interactable) {
-        interactables.put(interactable.getId(), interactable);
+        for (int i = 0; i < interactables.length; i++) {
+            if (interactables[i].getSymbol() == interactable.getSymbol()) {
+                interactables[i] = interactable;
+                return;
+            }
+        }
+        interactables = Arrays.copyOf(interactables, interactables.length + 1);
+        interactables[interactables.length - 1] = interactable;
     }
 
     public Interactable getInteractable(String id) {
-        return interactables.get(id);
+        return getInteractable(Symbol.find(id));
     }
 
+    public Interactable getInteractable(Symbol id) {
+        for (Interactable interactable : interactables) {
+            if (interactable.getSymbol() == id) {
+                return interactable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a read-only view of the room's interactables.
+     */
     public List<Interactable> getAllInteractables() {
-        return new ArrayList<>(interactables.values());
+        return Collections.unmodifiableList(Arrays.asList(interactables));
     }
 
     // Puzzle management
+
+    /**
+     * Adds a puzzle, replacing any existing one with the same id.
+     */
     public void addPuzzle(Puzzle puzzle) {
-        puzzles.put(puzzle.getId(), puzzle);
+        for (int i = 0; i < puzzles.length; i++) {
+            if (puzzles[i].getSymbol() == puzzle.getSymbol()) {
+                puzzles[i] = puzzle;
+                return;
+            }
+        }
+        puzzles = Arrays.copyOf(puzzles, puzzles.length + 1);
+        puzzles[puzzles.length - 1] = puzzle;
     }
 
     public Puzzle getPuzzle(String id) {
-        return puzzles.get(id);
+        return getPuzzle(Symbol.find(id));
+    }
+
+    public Puzzle getPuzzle(Symbol id) {
+        for (Puzzle puzzle : puzzles) {
+            if (puzzle.getSymbol() == id) {
+                return puzzle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the room's puzzle of a kind (e.g. Symbol.TICKET_PUZZLE), whatever its scope.
+     */
+    public Puzzle getPuzzleOfKind(Symbol kind) {
+        for (int i = puzzles.length - 1; i >= 0; i--) { // Latest added wins, as when adding replaced it
+            if (puzzles[i].getKind() == kind) {
+                return puzzles[i];
+            }
+        }
+        return null;
     }
 
+    /**
+     * Gets a read-only view of the room's puzzles.
+     */
     public List<Puzzle> getAllPuzzles() {
-        return new ArrayList<>(puzzles.values());
+        return Collections.unmodifiableList(Arrays.asList(puzzles));
     }
 
     /**
@@ -86,7 +186,7 @@ public class Room {
      */
     public InteractionResult interact(String interactableId, String action) {
 
-        Interactable interactable = interactables.get(interactableId);
+        Interactable interactable = getInteractable(interactableId);
         if (interactable == null) {
             return InteractionResult.message("You can't interact with that.");
         }
@@ -98,34 +198,34 @@ public class Room {
         switch (interactable.getInteractionType()) {
             case "TAKE_TICKET":
                 // Find the ticket puzzle and trigger it
-                Puzzle ticketPuzzle = puzzles.get("ticketPuzzle");
+                Puzzle ticketPuzzle = getPuzzleOfKind(Symbol.TICKET_PUZZLE);
                 if (ticketPuzzle != null) {
                     // Note: canStart() check moved to GameController.showPuzzleView()
                     // to avoid needing Player reference here
-                    return InteractionResult.puzzleTriggered("ticketPuzzle");
+                    return InteractionResult.puzzleTriggered(ticketPuzzle.getId());
                 }
                 break;
             case "TALK_TO_GUARD":
                 // Find the guard puzzle and trigger it
-                Puzzle queueGaurdPuzzle = puzzles.get("queueGaurdPuzzle");
+                Puzzle queueGaurdPuzzle = getPuzzleOfKind(Symbol.QUEUE_GUARD_PUZZLE);
                 if (queueGaurdPuzzle != null) {
                     // Note: canStart() check moved to GameController.showPuzzleView()
                     // to avoid needing Player reference here
-                    return InteractionResult.puzzleTriggered("queueGaurdPuzzle");
+                    return InteractionResult.puzzleTriggered(queueGaurdPuzzle.getId());
                 }
                 break;
             case "SECURITY_CHECK":
                 // Find the security puzzle and trigger it
-                Puzzle securityPuzzle = puzzles.get("securityPuzzle");
+                Puzzle securityPuzzle = getPuzzleOfKind(Symbol.SECURITY_PUZZLE);
                 if (securityPuzzle != null) {
-                    return InteractionResult.puzzleTriggered("securityPuzzle");
+                    return InteractionResult.puzzleTriggered(securityPuzzle.getId());
                 }
                 break;
             case "START_INTERVIEW":
                 // Find the interview puzzle and trigger it
-                Puzzle interviewPuzzle = puzzles.get("interviewPuzzle");
+                Puzzle interviewPuzzle = getPuzzleOfKind(Symbol.INTERVIEW_PUZZLE);
                 if (interviewPuzzle != null) {
-                    return InteractionResult.puzzleTriggered("interviewPuzzle");
+                    return InteractionResult.puzzleTriggered(interviewPuzzle.getId());
                 }
                 break;
         }
@@ -137,122 +237,65 @@ public class Room {
     public Inventory getInventory() {
         return inventory;
     }
+
+    /**
+     * Checks if the room's items or puzzles changed since markClean was last called.
+     */
+    public boolean isDirty() {
+        if (inventory.isDirty()) {
+            return true;
+        }
+        for (Puzzle puzzle : puzzles) {
+            if (puzzle.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the room's current items and puzzles as saved.
+     */
+    public void markClean() {
+        inventory.markClean();
+        for (Puzzle puzzle : puzzles) {
+            puzzle.markClean();
+        }
+    }
     
+    /**
+     * Sets the rule a player must satisfy to enter this room (null means always open).
+     */
+    public void setEntryRule(GateRule entryRule) {
+        this.entryRule = entryRule;
+    }
+
+    public GateRule getEntryRule() {
+        return entryRule;
+    }
+
     /**
      * Checks if a player can enter this room.
-     * Override this method or add conditions based on room name to implement entry restrictions.
+     * Entry restrictions are declared as GateRules (see rooms.def) and tested against
+     * the player's progress flags.
      * 
      * @param player The player attempting to enter
-     * @param roomManager The room manager to access other rooms (for checking puzzle states)
      * @return true if the player can enter, false otherwise
      */
-    public boolean canEnter(Player player, RoomManager roomManager) {
-        // Default: all rooms are accessible
-        // Add room-specific conditions here
-        if (name.equals("queue")) {
-            // Queue room requires a ticket
-            return player.getInventory().hasItem("ticketItem");
-        }
-        if (name.equals("security")) {
-            // Security room requires the guard puzzle to be solved
-            Room queueRoom = roomManager.getAllRooms().stream()
-                .filter(r -> r.getName().equals("queue"))
-                .findFirst()
-                .orElse(null);
-            if (queueRoom != null) {
-                Puzzle guardPuzzle = queueRoom.getPuzzle("queueGaurdPuzzle");
-                if (guardPuzzle != null) {
-                    return guardPuzzle.isSolved();
-                }
-            }
-            return false;
-        }
-        if (name.equals("interview")) {
-            // Interview room requires both the guard puzzle and security puzzle to be solved
-            // Check guard puzzle in queue room
-            Room queueRoom = roomManager.getAllRooms().stream()
-                .filter(r -> r.getName().equals("queue"))
-                .findFirst()
-                .orElse(null);
-            boolean guardSolved = false;
-            if (queueRoom != null) {
-                Puzzle guardPuzzle = queueRoom.getPuzzle("queueGaurdPuzzle");
-                if (guardPuzzle != null) {
-                    guardSolved = guardPuzzle.isSolved();
-                }
-            }
-            
-            // Check security puzzle in security room
-            Room securityRoom = roomManager.getAllRooms().stream()
-                .filter(r -> r.getName().equals("security"))
-                .findFirst()
-                .orElse(null);
-            boolean securitySolved = false;
-            if (securityRoom != null) {
-                Puzzle securityPuzzle = securityRoom.getPuzzle("securityPuzzle");
-                if (securityPuzzle != null) {
-                    securitySolved = securityPuzzle.isSolved();
-                }
-            }
-            
-            // Both puzzles must be solved
-            return guardSolved && securitySolved;
-        }
-        return true;
+    public boolean canEnter(Player player) {
+        return entryRule == null || entryRule.allows(player.getProgress().bits());
     }
     
     /**
      * Gets the message to display when a player cannot enter this room.
      * 
      * @param player The player attempting to enter
-     * @param roomManager The room manager to access other rooms
      * @return A message explaining why entry is blocked, or null if entry is allowed
      */
-    public String getEntryBlockedMessage(Player player, RoomManager roomManager) {
-        if (!canEnter(player, roomManager)) {
-            if (name.equals("queue")) {
-                return "You need a ticket to enter the queue room.";
-            }
-            if (name.equals("security")) {
-                return "You need to bribe the guard to skip the line first.";
-            }
-            if (name.equals("interview")) {
-                // Check which puzzle is missing
-                Room queueRoom = roomManager.getAllRooms().stream()
-                    .filter(r -> r.getName().equals("queue"))
-                    .findFirst()
-                    .orElse(null);
-                boolean guardSolved = false;
-                if (queueRoom != null) {
-                    Puzzle guardPuzzle = queueRoom.getPuzzle("queueGaurdPuzzle");
-                    if (guardPuzzle != null) {
-                        guardSolved = guardPuzzle.isSolved();
-                    }
-                }
-                
-                Room securityRoom = roomManager.getAllRooms().stream()
-                    .filter(r -> r.getName().equals("security"))
-                    .findFirst()
-                    .orElse(null);
-                boolean securitySolved = false;
-                if (securityRoom != null) {
-                    Puzzle securityPuzzle = securityRoom.getPuzzle("securityPuzzle");
-                    if (securityPuzzle != null) {
-                        securitySolved = securityPuzzle.isSolved();
-                    }
-                }
-                
-                if (!guardSolved && !securitySolved) {
-                    return "You need to bribe the guard and pass through security first.";
-                } else if (!guardSolved) {
-                    return "You need to bribe the guard to skip the line first.";
-                } else if (!securitySolved) {
-                    return "You need to pass through security first.";
-                }
-                return "You cannot enter this room.";
-            }
-            return "You cannot enter this room.";
+    public String getEntryBlockedMessage(Player player) {
+        if (entryRule == null) {
+            return null;
         }
-        return null;
+        return entryRule.getBlockedMessage(player.getProgress().bits());
     }
 }
@@ -0,0 +1,123 @@
+package com.ise.officeescape.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense, index-based snapshot of the room graph.
+ * Rooms are numbered 0..n-1 and exits are stored in a flat int array
+ * (room * directions + direction ordinal), so simulations and analysis
+ * tools can walk the graph without touching Room objects or hash maps.
+ */
+public class RoomGraph {
+
+    public static final int NO_ROOM = -1;
+    public static final int DIRECTIONS = Direction.values().length;
+
+    private final Room[] rooms;
+    private final Map<Room, Integer> indexByRoom;
+    private final int[] exits;
+
+    public RoomGraph(List<Room> roomList) {
+        this.rooms = roomList.toArray(new Room[0]);
+        this.indexByRoom = new HashMap<>();
+        for (int i = 0; i < rooms.length; i++) {
+            indexByRoom.put(rooms[i], i);
+        }
+
+        this.exits = new int[rooms.length * DIRECTIONS];
+        Arrays.fill(exits, NO_ROOM);
+        for (int i = 0; i < rooms.length; i++) {
+            for (Direction direction : Direction.values()) {
+                Room neighbour = rooms[i].getExit(direction);
+                if (neighbour != null) {
+                    Integer neighbourIndex = indexByRoom.get(neighbour);
+                    if (neighbourIndex != null) {
+                        exits[i * DIRECTIONS + direction.ordinal()] = neighbourIndex;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a graph of every room known to the room manager.
+     */
+    public static RoomGraph of(RoomManager roomManager) {
+        return new RoomGraph(roomManager.getAllRooms());
+    }
+
+    public int getRoomCount() {
+        return rooms.length;
+    }
+
+    public Room getRoom(int index) {
+        return rooms[index];
+    }
+
+    /**
+     * Gets the index of a room, or NO_ROOM if the room is not part of this graph.
+     */
+    public int indexOf(Room room) {
+        Integer index = indexByRoom.get(room);
+        return index != null ? index : NO_ROOM;
+    }
+
+    /**
+     * Gets the neighbouring room index in the given direction, or NO_ROOM.
+     */
+    public int getExit(int room, int directionOrdinal) {
+        return exits[room * DIRECTIONS + directionOrdinal];
+    }
+
+    /**
+     * Computes, for every room, the next room on a shortest path to the target.
+     * The target maps to itself and unreachable rooms map to NO_ROOM.
+     */
+    public int[] nextHopsTowards(int target) {
+        // Reverse edges so we can BFS outwards from the target
+        int n = rooms.length;
+        int[] inDegree = new int[n + 1];
+        for (int from = 0; from < n; from++) {
+            for (int d = 0; d < DIRECTIONS; d++) {
+                int to = exits[from * DIRECTIONS + d];
+                if (to != NO_ROOM) {
+                    inDegree[to + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            inDegree[i + 1] += inDegree[i];
+        }
+        int[] incoming = new int[inDegree[n]];
+        int[] cursor = Arrays.copyOf(inDegree, n);
+        for (int from = 0; from < n; from++) {
+            for (int d = 0; d < DIRECTIONS; d++) {
+                int to = exits[from * DIRECTIONS + d];
+                if (to != NO_ROOM) {
+                    incoming[cursor[to]++] = from;
+                }
+            }
+        }
+
+        int[] nextHop = new int[n];
+        Arrays.fill(nextHop, NO_ROOM);
+        nextHop[target] = target;
+        ArrayDeque<Integer> frontier = new ArrayDeque<>();
+        frontier.add(target);
+        while (!frontier.isEmpty()) {
+            int room = frontier.poll();
+            for (int i = inDegree[room]; i < inDegree[room + 1]; i++) {
+                int from = incoming[i];
+                if (nextHop[from] == NO_ROOM) {
+                    nextHop[from] = room;
+                    frontier.add(from);
+                }
+            }
+        }
+        return nextHop;
+    }
+}
@@ -6,58 +6,26 @@ import java.util.List;
 /**
  * Manages the room graph/structure of the game.
  * The current room is tracked by the Player, not here.
- * This class is responsible for creating and linking rooms.
+ * The rooms are created and linked from their definitions (see RoomDefinitions).
  */
 public class RoomManager {
-    private List<Room> rooms;
-    private Room startRoom;
+    private final List<Room> rooms;
+    private final Room startRoom;
+    private final SymbolMap<Room> roomsBySymbol = new SymbolMap<>();
 
-    public RoomManager() {
-        initialiseRooms();
-    }
-
-    private void initialiseRooms() {
-        rooms = new ArrayList<>();
-
-        Room outside = new Room("outside", "Outside the Irish Immigration Office");
-        Room queue = new Room("queue", "The Queue Room - A test of patience");
-        Room security = new Room("security", "Security Check - Metal detector and suspicious stares");
-        Room ticket = new Room("ticket", "Ticket Machine Room - Take a number and cry");
-        Room interview = new Room("interview", "Interview Room - The final bureaucratic boss fight");
-        Room exit = new Room("exit", "Exit - Freedom! You escaped the office.");
-
-        // Set up room connections
-        // Outside
-        outside.setExit(Direction.forward, ticket);
-
-        // Queue Room
-        queue.setExit(Direction.backwards, ticket);
-        queue.setExit(Direction.forward, security);
-
-        // Security Room
-        security.setExit(Direction.backwards, queue);
-        security.setExit(Direction.forward, interview);
-
-        // Ticket Room
-        ticket.setExit(Direction.backwards, outside);
-        ticket.setExit(Direction.forward, queue);
-
-        // Interview Room
-        interview.setExit(Direction.backwards, security);
-        interview.setExit(Direction.forward, exit);
-
-        // Exit Room
-        exit.setExit(Direction.backwards, interview);
-
-        // Store all rooms for reference
-        rooms.add(outside);
-        rooms.add(ticket);
-        rooms.add(queue);
-        rooms.add(security);
-        rooms.add(interview);
-        rooms.add(exit);
-
-        startRoom = outside;
+    /**
+     * Creates a room manager over rooms that were built elsewhere: the built-in world
+     * (RoomDefinitions.createRoomManager) or a generated one. The rooms must already be linked.
+     */
+    public RoomManager(List<Room> rooms, Room startRoom) {
+        for (Room room : rooms) {
+            roomsBySymbol.put(room.getSymbol(), room);
+        }
+        if (startRoom == null || roomsBySymbol.get(startRoom.getSymbol()) != startRoom) {
+            throw new IllegalArgumentException("Start room is not one of the rooms: " + startRoom);
+        }
+        this.rooms = new ArrayList<>(rooms);
+        this.startRoom = startRoom;
     }
 
     /**
@@ -74,6 +42,17 @@ public class RoomManager {
         return new ArrayList<>(rooms); // Return a copy to prevent external modification
     }
 
+    /**
+     * Gets a room by its name, or null if there is no such room.
+     */
+    public Room getRoom(String name) {
+        return roomsBySymbol.get(Symbol.find(name)); // Does not intern names that are no room
+    }
+
+    public Room getRoom(Symbol symbol) {
+        return roomsBySymbol.get(symbol);
+    }
+
     /**
      * Gets the total number of rooms in the game.
      */
@@ -0,0 +1,112 @@
+package com.ise.officeescape.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned identifier for rooms, puzzles, interactables and items.
+ * Each distinct name maps to exactly one Symbol with a dense int id, so identifiers
+ * can be compared with == and used as array indices instead of hashing strings.
+ *
+ * Ids are assigned in interning order and are only stable within one run,
+ * so they must not be written to save files.
+ */
+public final class Symbol {
+
+    private static final ConcurrentHashMap<String, Symbol> BY_NAME = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+    private static volatile Symbol[] byId = new Symbol[64];
+    private static volatile int count;
+
+    // Rooms
+    public static final Symbol OUTSIDE = of("outside");
+    public static final Symbol TICKET_ROOM = of("ticket");
+    public static final Symbol QUEUE_ROOM = of("queue");
+    public static final Symbol SECURITY_ROOM = of("security");
+    public static final Symbol INTERVIEW_ROOM = of("interview");
+    public static final Symbol EXIT_ROOM = of("exit");
+
+    // Puzzles
+    public static final Symbol TICKET_PUZZLE = of("ticketPuzzle");
+    public static final Symbol QUEUE_GUARD_PUZZLE = of("queueGaurdPuzzle");
+    public static final Symbol SECURITY_PUZZLE = of("securityPuzzle");
+    public static final Symbol INTERVIEW_PUZZLE = of("interviewPuzzle");
+
+    // Items
+    public static final Symbol TICKET_ITEM = of("ticketItem");
+    public static final Symbol BANANA_PEEL = of("bananaPeel");
+    public static final Symbol POPSICLE = of("popsicle");
+    public static final Symbol STOLEN_DOCUMENT = of("stolenDocument");
+
+    private final int id;
+    private final String name;
+
+    private Symbol(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Gets the symbol for a name, interning it on first use.
+     */
+    public static Symbol of(String name) {
+        Symbol symbol = BY_NAME.get(name);
+        if (symbol != null) {
+            return symbol;
+        }
+        synchronized (LOCK) {
+            symbol = BY_NAME.get(name);
+            if (symbol == null) {
+                int id = count;
+                Symbol[] table = byId;
+                if (id == table.length) {
+                    table = Arrays.copyOf(table, id * 2);
+                }
+                symbol = new Symbol(id, name);
+                table[id] = symbol;
+                byId = table;
+                count = id + 1;
+                BY_NAME.put(name, symbol);
+            }
+            return symbol;
+        }
+    }
+
+    /**
+     * Gets the symbol for a name without interning it, or null if the name was never interned.
+     * Use for lookups, so unknown names do not grow the table.
+     */
+    public static Symbol find(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
+
+    /**
+     * Gets a symbol by its id.
+     */
+    public static Symbol byId(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No symbol with id " + id);
+        }
+        return byId[id];
+    }
+
+    /**
+     * Gets the number of symbols interned so far (ids are 0 .. count - 1).
+     */
+    public static int getCount() {
+        return count;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,212 @@
+package com.ise.officeescape.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Small map keyed by Symbol, stored as two parallel arrays indexed by the symbol id's hash
+ * slot (open addressing, linear probing). Lookups compare ints and never hash a string.
+ * The arrays are created on first put, so empty maps cost one object.
+ */
+public final class SymbolMap<V> {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;     // Symbol id + 1 per slot, 0 = empty
+    private Object[] values;
+    private int size;
+
+    public V get(Symbol key) {
+        if (keys == null || key == null) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int slot = key.getId() & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key.getId() + 1) {
+                @SuppressWarnings("unchecked")
+                V value = (V) values[slot];
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(Symbol key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a (non-null) value.
+     *
+     * @return the value it replaced, or null
+     */
+    public V put(Symbol key, V value) {
+        if (keys == null) {
+            keys = new int[MIN_CAPACITY];
+            values = new Object[MIN_CAPACITY];
+        } else if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = key.getId() & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key.getId() + 1) {
+                @SuppressWarnings("unchecked")
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key.getId() + 1;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @return the value it mapped to, or null
+     */
+    public V remove(Symbol key) {
+        if (keys == null || key == null) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int slot = key.getId() & mask;
+        while (keys[slot] != key.getId() + 1) {
+            if (keys[slot] == 0) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        @SuppressWarnings("unchecked")
+        V removed = (V) values[slot];
+        // Shift later entries of the probe run back so lookups never stop at the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = (keys[next] - 1) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets a read-only, live view keyed by name, for code that works with names.
+     */
+    public Map<String, V> asNameMap() {
+        return new NameView<>(this);
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = (oldKeys[i] - 1) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return asNameMap().toString();
+    }
+
+    /**
+     * Read-only Map view over a SymbolMap. Name lookups go through Symbol.find, so
+     * asking for a name that was never interned does not intern it.
+     */
+    private static final class NameView<V> extends AbstractMap<String, V> {
+        private final SymbolMap<V> map;
+
+        NameView(SymbolMap<V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key instanceof String name ? map.get(Symbol.find(name)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return map.size;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return map.size;
+                }
+
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Iterator<>() {
+                        private final int[] keys = map.keys != null ? map.keys : new int[0];
+                        private int slot = advance(0);
+
+                        private int advance(int from) {
+                            while (from < keys.length && keys[from] == 0) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            if (slot >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            @SuppressWarnings("unchecked")
+                            V value = (V) map.values[slot];
+                            Entry<String, V> entry = new SimpleImmutableEntry<>(Symbol.byId(keys[slot] - 1).getName(), value);
+                            slot = advance(slot + 1);
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
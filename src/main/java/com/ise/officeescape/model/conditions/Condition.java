@@ -0,0 +1,216 @@
+package com.ise.officeescape.model.conditions;
+
+import com.ise.officeescape.model.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled gate condition, e.g. "hasItem(ticketItem)" or
+ * "solved(queueGaurdPuzzle) and not hasItem(popsicle)".
+ *
+ * Conditions are parsed once and compiled to disjunctive normal form: a short list of
+ * clauses, each a pair of masks (flags that must be set, flags that must be clear).
+ * Testing a condition against a player's progress bits is then a couple of AND/compare
+ * operations per clause, with no string or map lookups.
+ *
+ * Language:
+ *   hasItem(name) | solved(puzzleId) | true | false | always
+ *   not X | X and Y | X or Y | ( X )
+ *
+ * Puzzles and gates of a generated world's blocks use the same condition with their own copies
+ * of the items and puzzles. They compile the unscoped text once and bind it to their scope
+ * (see compile(String, String)), so the cache holds one entry per text rather than per block.
+ */
+public final class Condition {
+
+    public static final Condition ALWAYS = new Condition("always", new FlagMask[] {FlagMask.EMPTY, FlagMask.EMPTY});
+    public static final Condition NEVER = new Condition("false", new FlagMask[0]);
+
+    private static final Map<String, Condition> compiled = new ConcurrentHashMap<>();
+    private static final Pattern FACT = Pattern.compile("(hasItem|solved)\\s*\\(\\s*([^\\s()]+)\\s*\\)");
+
+    private final String source; // Unscoped text, shared by the copies of every scope
+    private final String scope;
+    // Clause i is (clauses[2i] = required mask, clauses[2i + 1] = forbidden mask)
+    private final FlagMask[] clauses;
+
+    private Condition(String source, FlagMask[] clauses) {
+        this(source, null, clauses);
+    }
+
+    private Condition(String source, String scope, FlagMask[] clauses) {
+        this.source = source;
+        this.scope = scope;
+        this.clauses = clauses;
+    }
+
+    /**
+     * Compiles a condition, reusing the previous result for the same source text.
+     *
+     * @throws IllegalArgumentException if the condition is not valid
+     */
+    public static Condition compile(String source) {
+        if (source == null) {
+            return ALWAYS;
+        }
+        return compiled.computeIfAbsent(source.trim(), Condition::parse);
+    }
+
+    /**
+     * Compiles a condition about a scope's copies of items and puzzles, e.g. "hasItem(popsicle)"
+     * in scope "3" tests for "popsicle-3". Only the unscoped text is cached.
+     *
+     * @throws IllegalArgumentException if the condition is not valid
+     */
+    public static Condition compile(String source, String scope) {
+        Condition condition = compile(source);
+        return scope != null ? condition.inScope(scope) : condition;
+    }
+
+    private static Condition parse(String source) {
+        List<FlagMask[]> dnf = new ConditionParser(source).parse();
+        FlagMask[] clauses = new FlagMask[dnf.size() * 2];
+        for (int i = 0; i < dnf.size(); i++) {
+            clauses[2 * i] = dnf.get(i)[0];
+            clauses[2 * i + 1] = dnf.get(i)[1];
+        }
+        return new Condition(source, clauses);
+    }
+
+    /**
+     * Tests the condition against a set of progress bits.
+     */
+    public boolean test(long[] state) {
+        FlagMask[] c = clauses;
+        for (int i = 0; i < c.length; i += 2) {
+            if (c[i].allSetIn(state) && !c[i + 1].anySetIn(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean test(ProgressState progress) {
+        return test(progress.bits());
+    }
+
+    /**
+     * Gets the required flags that are still missing, for the clause closest to being met.
+     * Used to explain why a condition failed (e.g. which puzzles are still unsolved).
+     * Returns an empty mask if the condition already holds or no clause can be met by gaining flags.
+     */
+    public FlagMask missingFlags(long[] state) {
+        FlagMask best = FlagMask.EMPTY;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < clauses.length; i += 2) {
+            if (clauses[i + 1].anySetIn(state)) {
+                continue;
+            }
+            FlagMask missing = clauses[i].missingFrom(state);
+            if (missing.isEmpty()) {
+                return FlagMask.EMPTY;
+            }
+            int missingCount = missing.size();
+            if (missingCount < bestCount) {
+                best = missing;
+                bestCount = missingCount;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the union of all flags this condition reads.
+     */
+    public FlagMask referencedFlags() {
+        FlagMask flags = FlagMask.EMPTY;
+        for (FlagMask mask : clauses) {
+            flags = flags.or(mask);
+        }
+        return flags;
+    }
+
+    /**
+     * Renumbers the flags of this condition, e.g. into the compact local numbering of a
+     * state space. Clauses needing a flag the mapping drops (-1) can never hold and are
+     * removed; dropped forbidden flags are treated as always clear.
+     */
+    public Condition project(IntUnaryOperator mapping) {
+        List<FlagMask> projected = new ArrayList<>();
+        for (int i = 0; i < clauses.length; i += 2) {
+            FlagMask required = clauses[i].map(mapping);
+            if (required.size() == clauses[i].size()) {
+                projected.add(required);
+                projected.add(clauses[i + 1].map(mapping));
+            }
+        }
+        return new Condition(source, scope, projected.toArray(new FlagMask[0]));
+    }
+
+    /**
+     * Gets this condition about a scope's copies of the items and puzzles it mentions.
+     */
+    public Condition inScope(String scope) {
+        if (this.scope != null) {
+            throw new IllegalStateException("Condition is already scoped: " + this);
+        }
+        FlagMask[] scoped = new FlagMask[clauses.length];
+        for (int i = 0; i < clauses.length; i++) {
+            scoped[i] = clauses[i].map(flag -> ProgressFlags.inScope(flag, scope));
+        }
+        return new Condition(source, scope, scoped);
+    }
+
+    /**
+     * Gets the number of DNF clauses (0 means the condition can never hold).
+     */
+    public int getClauseCount() {
+        return clauses.length / 2;
+    }
+
+    public FlagMask getRequiredMask(int clause) {
+        return clauses[2 * clause];
+    }
+
+    public FlagMask getForbiddenMask(int clause) {
+        return clauses[2 * clause + 1];
+    }
+
+    /**
+     * Gets the condition's text, with the names of scoped items and puzzles (built on demand,
+     * so scoped copies do not each keep a string).
+     */
+    public String getSource() {
+        return scopedSource(source, scope);
+    }
+
+    /**
+     * Gets the text of a condition about a scope's copies of the items and puzzles it mentions,
+     * without compiling it ("hasItem(popsicle)" in scope "3" is "hasItem(popsicle-3)").
+     */
+    public static String scopedSource(String source, String scope) {
+        if (source == null || scope == null) {
+            return source;
+        }
+        Matcher fact = FACT.matcher(source);
+        return fact.replaceAll(m -> m.group(1) + "(" + Matcher.quoteReplacement(Room.scoped(m.group(2), scope)) + ")");
+    }
+
+    /**
+     * Gets the scope the condition was bound to, or null if it is not scoped.
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    @Override
+    public String toString() {
+        return getSource();
+    }
+}
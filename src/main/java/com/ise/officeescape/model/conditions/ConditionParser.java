@@ -0,0 +1,209 @@
+package com.ise.officeescape.model.conditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for the condition language.
+ * Produces disjunctive normal form directly: a list of {required, forbidden} mask pairs.
+ * Names may contain letters, digits, '_' and '-' (scoped ids such as "ticketPuzzle-3").
+ */
+class ConditionParser {
+
+    private final String source;
+    private int pos;
+
+    ConditionParser(String source) {
+        this.source = source;
+    }
+
+    List<FlagMask[]> parse() {
+        List<FlagMask[]> result = parseOr();
+        skipWhitespace();
+        if (pos < source.length()) {
+            throw error("Unexpected '" + source.charAt(pos) + "'");
+        }
+        return result;
+    }
+
+    private List<FlagMask[]> parseOr() {
+        List<FlagMask[]> result = parseAnd();
+        while (acceptKeyword("or") || accept("||")) {
+            result = or(result, parseAnd());
+        }
+        return result;
+    }
+
+    private List<FlagMask[]> parseAnd() {
+        List<FlagMask[]> result = parseUnary();
+        while (acceptKeyword("and") || accept("&&")) {
+            result = and(result, parseUnary());
+        }
+        return result;
+    }
+
+    private List<FlagMask[]> parseUnary() {
+        if (acceptKeyword("not") || accept("!")) {
+            return not(parseUnary());
+        }
+        if (accept("(")) {
+            List<FlagMask[]> inner = parseOr();
+            expect(")");
+            return inner;
+        }
+
+        String word = identifier();
+        switch (word) {
+            case "true":
+            case "always":
+                return trueDnf();
+            case "false":
+                return new ArrayList<>();
+            case "hasItem":
+                return atom(FlagMask.of(ProgressFlags.itemFlag(argument())));
+            case "solved":
+                return atom(FlagMask.of(ProgressFlags.solvedFlag(argument())));
+            default:
+                throw error("Unknown condition '" + word + "'");
+        }
+    }
+
+    private String argument() {
+        expect("(");
+        String name = identifier();
+        expect(")");
+        return name;
+    }
+
+    // DNF operations
+
+    private static List<FlagMask[]> trueDnf() {
+        List<FlagMask[]> result = new ArrayList<>();
+        result.add(new FlagMask[] {FlagMask.EMPTY, FlagMask.EMPTY});
+        return result;
+    }
+
+    private static List<FlagMask[]> atom(FlagMask flag) {
+        List<FlagMask[]> result = new ArrayList<>();
+        result.add(new FlagMask[] {flag, FlagMask.EMPTY});
+        return result;
+    }
+
+    private static List<FlagMask[]> and(List<FlagMask[]> left, List<FlagMask[]> right) {
+        List<FlagMask[]> result = new ArrayList<>();
+        for (FlagMask[] a : left) {
+            for (FlagMask[] b : right) {
+                FlagMask required = a[0].or(b[0]);
+                FlagMask forbidden = a[1].or(b[1]);
+                if (!required.intersects(forbidden)) { // Skip contradictions like "x and not x"
+                    result.add(new FlagMask[] {required, forbidden});
+                }
+            }
+        }
+        return simplify(result);
+    }
+
+    private static List<FlagMask[]> or(List<FlagMask[]> left, List<FlagMask[]> right) {
+        List<FlagMask[]> result = new ArrayList<>(left);
+        result.addAll(right);
+        return simplify(result);
+    }
+
+    /**
+     * De Morgan: not (c1 or c2 ...) = (not c1) and (not c2) ...,
+     * where not (a and not b) = (not a) or b.
+     */
+    private static List<FlagMask[]> not(List<FlagMask[]> dnf) {
+        List<FlagMask[]> result = trueDnf();
+        for (FlagMask[] clause : dnf) {
+            List<FlagMask[]> negated = new ArrayList<>();
+            for (int flag : clause[0].toArray()) {
+                negated.add(new FlagMask[] {FlagMask.EMPTY, FlagMask.of(flag)});
+            }
+            for (int flag : clause[1].toArray()) {
+                negated.add(new FlagMask[] {FlagMask.of(flag), FlagMask.EMPTY});
+            }
+            result = and(result, negated);
+        }
+        return result;
+    }
+
+    /**
+     * Removes clauses implied by a more general clause (absorption), keeping the DNF small.
+     */
+    private static List<FlagMask[]> simplify(List<FlagMask[]> clauses) {
+        List<FlagMask[]> result = new ArrayList<>();
+        for (int i = 0; i < clauses.size(); i++) {
+            FlagMask[] candidate = clauses.get(i);
+            boolean absorbed = false;
+            for (int j = 0; j < clauses.size() && !absorbed; j++) {
+                if (i == j) {
+                    continue;
+                }
+                FlagMask[] other = clauses.get(j);
+                boolean otherIsMoreGeneral = candidate[0].containsAll(other[0]) && candidate[1].containsAll(other[1]);
+                boolean identical = other[0].equals(candidate[0]) && other[1].equals(candidate[1]);
+                // For identical clauses keep only the first occurrence
+                absorbed = otherIsMoreGeneral && (!identical || j < i);
+            }
+            if (!absorbed) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    // Lexing helpers
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean accept(String token) {
+        skipWhitespace();
+        if (source.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (source.startsWith(keyword, pos)
+                && (end == source.length() || !isNameChar(source.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private String identifier() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < source.length() && isNameChar(source.charAt(pos))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("Expected a name");
+        }
+        return source.substring(start, pos);
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isJavaIdentifierPart(c) || c == '-';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in condition: " + source);
+    }
+}
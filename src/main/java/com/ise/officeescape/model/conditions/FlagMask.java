@@ -0,0 +1,236 @@
+package com.ise.officeescape.model.conditions;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Immutable set of progress flags (see ProgressFlags), used for the masks of compiled conditions.
+ *
+ * A player's progress is a dense long[] with flag f at bit (f % 64) of word (f / 64). A mask
+ * only stores the words it has bits in, so a condition over a few flags stays a few
+ * AND/compare operations however many flags a world registers.
+ */
+public final class FlagMask {
+
+    public static final FlagMask EMPTY = new FlagMask(new int[0], new long[0]);
+
+    private final int[] words; // Word indices, ascending
+    private final long[] bits; // Non-zero bits of each of those words
+
+    private FlagMask(int[] words, long[] bits) {
+        this.words = words;
+        this.bits = bits;
+    }
+
+    public static FlagMask of(int flag) {
+        if (flag < 0) {
+            throw new IllegalArgumentException("Negative flag: " + flag);
+        }
+        return new FlagMask(new int[] {flag >>> 6}, new long[] {1L << flag});
+    }
+
+    /**
+     * Gets the flags set in a dense progress array.
+     */
+    public static FlagMask of(long[] state) {
+        int count = 0;
+        for (long word : state) {
+            if (word != 0) {
+                count++;
+            }
+        }
+        int[] words = new int[count];
+        long[] bits = new long[count];
+        count = 0;
+        for (int w = 0; w < state.length; w++) {
+            if (state[w] != 0) {
+                words[count] = w;
+                bits[count++] = state[w];
+            }
+        }
+        return count == 0 ? EMPTY : new FlagMask(words, bits);
+    }
+
+    public FlagMask or(FlagMask other) {
+        if (other.words.length == 0 || other == this) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        int[] mergedWords = new int[words.length + other.words.length];
+        long[] mergedBits = new long[mergedWords.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < words.length || j < other.words.length) {
+            int w = j == other.words.length || (i < words.length && words[i] < other.words[j]) ? words[i] : other.words[j];
+            long b = 0;
+            if (i < words.length && words[i] == w) {
+                b |= bits[i++];
+            }
+            if (j < other.words.length && other.words[j] == w) {
+                b |= other.bits[j++];
+            }
+            mergedWords[count] = w;
+            mergedBits[count++] = b;
+        }
+        return new FlagMask(Arrays.copyOf(mergedWords, count), Arrays.copyOf(mergedBits, count));
+    }
+
+    /**
+     * Checks that every flag of this mask is set in a progress array.
+     */
+    public boolean allSetIn(long[] state) {
+        for (int i = 0; i < words.length; i++) {
+            int w = words[i];
+            if (w >= state.length || (state[w] & bits[i]) != bits[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any flag of this mask is set in a progress array.
+     */
+    public boolean anySetIn(long[] state) {
+        for (int i = 0; i < words.length; i++) {
+            int w = words[i];
+            if (w < state.length && (state[w] & bits[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the flags of this mask that are not set in a progress array.
+     */
+    public FlagMask missingFrom(long[] state) {
+        int[] missingWords = new int[words.length];
+        long[] missingBits = new long[words.length];
+        int count = 0;
+        boolean allMissing = true;
+        for (int i = 0; i < words.length; i++) {
+            int w = words[i];
+            long missing = bits[i] & ~(w < state.length ? state[w] : 0L);
+            if (missing != 0) {
+                missingWords[count] = w;
+                missingBits[count++] = missing;
+            }
+            allMissing &= missing == bits[i];
+        }
+        if (allMissing) {
+            return this;
+        }
+        return count == 0 ? EMPTY : new FlagMask(Arrays.copyOf(missingWords, count), Arrays.copyOf(missingBits, count));
+    }
+
+    public boolean intersects(FlagMask other) {
+        for (int i = 0, j = 0; i < words.length && j < other.words.length; ) {
+            if (words[i] < other.words[j]) {
+                i++;
+            } else if (words[i] > other.words[j]) {
+                j++;
+            } else if ((bits[i++] & other.bits[j++]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if every flag of another mask is also in this one.
+     */
+    public boolean containsAll(FlagMask other) {
+        int i = 0;
+        for (int j = 0; j < other.words.length; j++) {
+            while (i < words.length && words[i] < other.words[j]) {
+                i++;
+            }
+            if (i == words.length || words[i] != other.words[j] || (other.bits[j] & ~bits[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    /**
+     * Gets the number of flags in the mask.
+     */
+    public int size() {
+        int count = 0;
+        for (long b : bits) {
+            count += Long.bitCount(b);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the flags in ascending order.
+     */
+    public int[] toArray() {
+        int[] flags = new int[size()];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            for (long b = bits[i]; b != 0; b &= b - 1) {
+                flags[count++] = words[i] << 6 | Long.numberOfTrailingZeros(b);
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Renumbers the flags, dropping those the mapping sends to -1.
+     */
+    public FlagMask map(IntUnaryOperator mapping) {
+        FlagMask result = EMPTY;
+        for (int flag : toArray()) {
+            int mapped = mapping.applyAsInt(flag);
+            if (mapped >= 0) {
+                result = result.or(of(mapped));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets this mask's flags in a dense progress array, which must be long enough.
+     */
+    public void setIn(long[] state) {
+        for (int i = 0; i < words.length; i++) {
+            state[words[i]] |= bits[i];
+        }
+    }
+
+    /**
+     * Gets the number of words a dense array needs to hold every flag of this mask.
+     */
+    public int wordsNeeded() {
+        return words.length == 0 ? 0 : words[words.length - 1] + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FlagMask other && Arrays.equals(words, other.words) && Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int flag : toArray()) {
+            sb.append(sb.length() > 1 ? ", " : "").append(ProgressFlags.describe(flag));
+        }
+        return sb.append("}").toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ise.officeescape.model.conditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entry rule for a room: a compiled condition plus the messages shown when it fails.
+ * The message is chosen from the flags the condition reports as missing, so the
+ * "why can't I enter" text always agrees with the check itself.
+ */
+public class GateRule {
+
+    private final Condition condition;
+    private final String defaultMessage;
+    // Most rules have no specific messages, so these stay shared and empty until whenMissing
+    private List<FlagMask> missingMasks = List.of();
+    private List<String> messages = List.of();
+
+    public GateRule(Condition condition, String defaultMessage) {
+        this.condition = condition;
+        this.defaultMessage = defaultMessage;
+    }
+
+    public static GateRule of(String condition, String defaultMessage) {
+        return new GateRule(Condition.compile(condition), defaultMessage);
+    }
+
+    /**
+     * Creates a rule about a scope's copies of items and puzzles (see Condition.compile(String, String)).
+     */
+    public static GateRule of(String condition, String scope, String defaultMessage) {
+        return new GateRule(Condition.compile(condition, scope), defaultMessage);
+    }
+
+    /**
+     * Adds a specific message for when exactly the given flags are missing.
+     *
+     * @param missing A conjunction of facts, e.g. "solved(queueGaurdPuzzle) and solved(securityPuzzle)"
+     * @param message The message to show
+     */
+    public GateRule whenMissing(String missing, String message) {
+        Condition missingCondition = Condition.compile(missing);
+        if (missingCondition.getClauseCount() != 1 || !missingCondition.getForbiddenMask(0).isEmpty()) {
+            throw new IllegalArgumentException("whenMissing expects a conjunction of facts: " + missing);
+        }
+        if (messages.isEmpty()) {
+            missingMasks = new ArrayList<>();
+            messages = new ArrayList<>();
+        }
+        missingMasks.add(missingCondition.getRequiredMask(0));
+        messages.add(message);
+        return this;
+    }
+
+    public boolean allows(long[] state) {
+        return condition.test(state);
+    }
+
+    /**
+     * Gets the message explaining why entry is blocked, or null if the rule allows entry.
+     */
+    public String getBlockedMessage(long[] state) {
+        if (condition.test(state)) {
+            return null;
+        }
+        FlagMask missing = condition.missingFlags(state);
+        for (int i = 0; i < missingMasks.size(); i++) {
+            if (missingMasks.get(i).equals(missing)) {
+                return messages.get(i);
+            }
+        }
+        return defaultMessage;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+}
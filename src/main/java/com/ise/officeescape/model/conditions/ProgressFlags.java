@@ -0,0 +1,147 @@
+package com.ise.officeescape.model.conditions;
+
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.Symbol;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global table assigning a flag number to every progress fact used by conditions,
+ * such as "the player holds the popsicle" or "the guard puzzle is solved".
+ * A player's progress is then a dense bit set (long[], see FlagMask), and conditions
+ * compile to masks over it. There is no limit on the number of flags, so generated
+ * worlds can give every block its own puzzles and items.
+ */
+public final class ProgressFlags {
+
+    private static final String ITEM_PREFIX = "hasItem:";
+    private static final String SOLVED_PREFIX = "solved:";
+
+    private static final Map<String, Integer> flagsByAtom = new ConcurrentHashMap<>();
+    private static volatile String[] atomsByFlag = new String[64]; // Read without locking, grown under the lock
+    private static volatile int flagCount;
+    private static volatile int[] itemFlagsBySymbol = new int[0]; // Item flag + 1 by Symbol id, 0 = none
+
+    private ProgressFlags() {
+    }
+
+    /**
+     * Gets the flag for holding an item, registering it if needed.
+     */
+    public static int itemFlag(String itemName) {
+        int flag = flagFor(ITEM_PREFIX + itemName);
+        int symbolId = Symbol.of(itemName).getId();
+        if (symbolId >= itemFlagsBySymbol.length || itemFlagsBySymbol[symbolId] == 0) {
+            synchronized (ProgressFlags.class) {
+                int[] table = itemFlagsBySymbol;
+                if (symbolId >= table.length) {
+                    table = Arrays.copyOf(table, Math.max(symbolId + 1, table.length * 2));
+                }
+                table[symbolId] = flag + 1;
+                itemFlagsBySymbol = table;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Gets the flag for a solved puzzle, registering it if needed.
+     */
+    public static int solvedFlag(String puzzleId) {
+        return flagFor(SOLVED_PREFIX + puzzleId);
+    }
+
+    /**
+     * Gets the flag for the same fact about a scope's copy of the item or puzzle, registering
+     * it if needed ("solved:securityPuzzle" in scope "3" is "solved:securityPuzzle-3").
+     */
+    public static int inScope(int flag, String scope) {
+        String item = itemName(flag);
+        if (item != null) {
+            return itemFlag(Room.scoped(item, scope));
+        }
+        String puzzleId = solvedPuzzleId(flag);
+        if (puzzleId != null) {
+            return solvedFlag(Room.scoped(puzzleId, scope));
+        }
+        throw new IllegalArgumentException("Unknown progress flag " + flag);
+    }
+
+    /**
+     * Gets the flag for holding an item, or -1 if no condition mentions the item.
+     * Used on hot paths where registering new flags is not wanted.
+     */
+    public static int itemFlagIfKnown(String itemName) {
+        Symbol symbol = Symbol.find(itemName);
+        return symbol != null ? itemFlagIfKnown(symbol) : -1;
+    }
+
+    /**
+     * Gets the flag for holding an item, or -1 if no condition mentions the item.
+     * A single array read, for inventory change events.
+     */
+    public static int itemFlagIfKnown(Symbol item) {
+        int[] table = itemFlagsBySymbol;
+        return (item.getId() < table.length ? table[item.getId()] : 0) - 1;
+    }
+
+    /**
+     * Gets the flag for a solved puzzle, or -1 if no condition mentions the puzzle.
+     */
+    public static int solvedFlagIfKnown(String puzzleId) {
+        Integer flag = flagsByAtom.get(SOLVED_PREFIX + puzzleId);
+        return flag != null ? flag : -1;
+    }
+
+    /**
+     * Gets the human-readable name of a flag (e.g. "solved:securityPuzzle").
+     */
+    public static String describe(int flag) {
+        int count = flagCount; // Read before the table, which is at least as new
+        return flag >= 0 && flag < count ? atomsByFlag[flag] : "unknown:" + flag;
+    }
+
+    /**
+     * Gets the puzzle id of a "solved" flag, or null if the flag is not one.
+     */
+    public static String solvedPuzzleId(int flag) {
+        String atom = describe(flag);
+        return atom.startsWith(SOLVED_PREFIX) ? atom.substring(SOLVED_PREFIX.length()) : null;
+    }
+
+    /**
+     * Gets the item name of a "hasItem" flag, or null if the flag is not one.
+     */
+    public static String itemName(int flag) {
+        String atom = describe(flag);
+        return atom.startsWith(ITEM_PREFIX) ? atom.substring(ITEM_PREFIX.length()) : null;
+    }
+
+    public static int getFlagCount() {
+        return flagCount;
+    }
+
+    private static int flagFor(String atom) {
+        Integer flag = flagsByAtom.get(atom);
+        if (flag != null) {
+            return flag;
+        }
+        synchronized (ProgressFlags.class) {
+            flag = flagsByAtom.get(atom);
+            if (flag == null) {
+                flag = flagCount;
+                String[] table = atomsByFlag;
+                if (flag == table.length) {
+                    table = Arrays.copyOf(table, flag * 2);
+                }
+                table[flag] = atom;
+                atomsByFlag = table;
+                flagCount = flag + 1;
+                flagsByAtom.put(atom, flag);
+            }
+            return flag;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ise.officeescape.model.conditions;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Item;
+
+import java.util.Arrays;
+
+/**
+ * A player's progress as a set of flag bits (see ProgressFlags).
+ * Puzzle flags are stored here; item flags are kept up to date from the player's
+ * inventory change events instead of rescanning the inventory on every check.
+ */
+public class ProgressState {
+
+    private final Inventory inventory;
+    private long[] solvedFlags = new long[0];
+    private long[] itemFlags = new long[0];
+    private long[] bits = new long[0]; // solvedFlags | itemFlags, rebuilt when stale
+    private boolean bitsStale;
+    private int knownFlagCount = -1; // ProgressFlags count itemFlags was computed with
+
+    public ProgressState(Inventory inventory) {
+        this.inventory = inventory;
+        inventory.OnInventoryChanged.addListener((sender, args) -> onInventoryChanged(args));
+    }
+
+    /**
+     * Gets the current progress bits, ready to be tested by a compiled Condition.
+     * The array is shared and must not be modified.
+     */
+    public long[] bits() {
+        if (knownFlagCount != ProgressFlags.getFlagCount()) {
+            // New flags were registered since the last change, an item we hold may now have one
+            recomputeItemFlags();
+        }
+        if (bitsStale) {
+            long[] combined = Arrays.copyOf(solvedFlags, Math.max(solvedFlags.length, itemFlags.length));
+            for (int w = 0; w < itemFlags.length; w++) {
+                combined[w] |= itemFlags[w];
+            }
+            bits = combined;
+            bitsStale = false;
+        }
+        return bits;
+    }
+
+    private void recomputeItemFlags() {
+        knownFlagCount = ProgressFlags.getFlagCount();
+        long[] flags = new long[wordsFor(knownFlagCount)];
+        for (Item item : inventory.getInvetoryMap().values()) {
+            int flag = ProgressFlags.itemFlagIfKnown(item.getSymbol());
+            if (flag >= 0) {
+                flags[flag >>> 6] |= 1L << flag;
+            }
+        }
+        itemFlags = flags;
+        bitsStale = true;
+    }
+
+    private void onInventoryChanged(Inventory.OnInventoryChangedEventArgs args) {
+        int flag = ProgressFlags.itemFlagIfKnown(args.item.getSymbol());
+        if (flag < 0) {
+            return;
+        }
+        if (args.to == inventory) {
+            itemFlags = ensureWord(itemFlags, flag);
+            itemFlags[flag >>> 6] |= 1L << flag;
+        } else if (flag >>> 6 < itemFlags.length) {
+            itemFlags[flag >>> 6] &= ~(1L << flag);
+        }
+        bitsStale = true;
+    }
+
+    public void markSolved(String puzzleId) {
+        int flag = ProgressFlags.solvedFlag(puzzleId);
+        solvedFlags = ensureWord(solvedFlags, flag);
+        solvedFlags[flag >>> 6] |= 1L << flag;
+        bitsStale = true;
+    }
+
+    public boolean isSolved(String puzzleId) {
+        int flag = ProgressFlags.solvedFlagIfKnown(puzzleId);
+        return flag >= 0 && flag >>> 6 < solvedFlags.length && (solvedFlags[flag >>> 6] & 1L << flag) != 0;
+    }
+
+    /**
+     * Gets a copy of the solved puzzle flags, without trailing empty words.
+     */
+    public long[] getSolvedFlags() {
+        int length = solvedFlags.length;
+        while (length > 0 && solvedFlags[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(solvedFlags, length);
+    }
+
+    public void setSolvedFlags(long[] solvedFlags) {
+        this.solvedFlags = solvedFlags.clone();
+        bitsStale = true;
+    }
+
+    private static long[] ensureWord(long[] flags, int flag) {
+        return flag >>> 6 < flags.length ? flags : Arrays.copyOf(flags, wordsFor(flag + 1));
+    }
+
+    private static int wordsFor(int flagCount) {
+        return (flagCount + 63) >>> 6;
+    }
+}
@@ -3,10 +3,12 @@ package com.ise.officeescape.model.puzzles;
 import com.ise.officeescape.model.InteractionResult;
 import com.ise.officeescape.model.Player;
 import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.conditions.Condition;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Puzzle for the immigration interview.
@@ -16,7 +18,7 @@ public class InterviewPuzzle extends Puzzle {
     
     private int currentQuestionIndex = 0;
     private int correctAnswers = 0;
-    private List<InterviewQuestion> questions;
+    private static final List<InterviewQuestion> QUESTIONS = createQuestions(); // Shared by the interviews of every scope
     private Player player; // Store player reference for document checks
     
     // Required documents for the interview
@@ -48,8 +50,14 @@ public class InterviewPuzzle extends Puzzle {
     }
 
     public InterviewPuzzle() {
-        super("interviewPuzzle", "Immigration Interview");
-        initializeQuestions();
+        this(null);
+    }
+
+    public InterviewPuzzle(String scope) {
+        super("interviewPuzzle", scope, "Immigration Interview");
+        this.solveCondition = Condition.compile(REQUIRED_DOCUMENTS.stream()
+            .map(doc -> "hasItem(" + doc + ")")
+            .collect(Collectors.joining(" and ")));
     }
     
     public void setPlayer(Player player) {
@@ -60,12 +68,6 @@ public class InterviewPuzzle extends Puzzle {
         return player;
     }
 
-    @Override
-    public boolean canStart(Player player) {
-        // Can always start the interview, but you might fail if you don't have documents
-        return true;
-    }
-
     @Override
     public InteractionResult interact(String action, Object context) {
         if (action.equals("answer")) {
@@ -80,8 +82,8 @@ public class InterviewPuzzle extends Puzzle {
         return InteractionResult.none();
     }
 
-    private void initializeQuestions() {
-        questions = new ArrayList<>();
+    private static List<InterviewQuestion> createQuestions() {
+        List<InterviewQuestion> questions = new ArrayList<>();
         
         // Question 1: Document check - Passport
         questions.add(new InterviewQuestion(
@@ -202,11 +204,12 @@ public class InterviewPuzzle extends Puzzle {
             "Let me verify...",
             5
         ));
+        return List.copyOf(questions);
     }
 
     public InterviewQuestion getCurrentQuestion() {
-        if (currentQuestionIndex >= 0 && currentQuestionIndex < questions.size()) {
-            return questions.get(currentQuestionIndex);
+        if (currentQuestionIndex >= 0 && currentQuestionIndex < QUESTIONS.size()) {
+            return QUESTIONS.get(currentQuestionIndex);
         }
         return null;
     }
@@ -238,7 +241,7 @@ public class InterviewPuzzle extends Puzzle {
         currentQuestionIndex++;
 
         // Check if interview is complete
-        if (currentQuestionIndex >= questions.size()) {
+        if (currentQuestionIndex >= QUESTIONS.size()) {
             return completeInterview();
         }
 
@@ -247,15 +250,7 @@ public class InterviewPuzzle extends Puzzle {
 
     private InteractionResult completeInterview() {
         // Check if player has all required documents
-        boolean hasAllDocuments = true;
-        if (player != null) {
-            for (String doc : REQUIRED_DOCUMENTS) {
-                if (!player.getInventory().hasItem(doc)) {
-                    hasAllDocuments = false;
-                    break;
-                }
-            }
-        }
+        boolean hasAllDocuments = player == null || solveCondition.test(player.getProgress());
 
         // Need all documents AND most questions correct (at least 7 out of 9)
         boolean passed = hasAllDocuments && correctAnswers >= 7;
@@ -284,7 +279,7 @@ public class InterviewPuzzle extends Puzzle {
     }
 
     public int getTotalQuestions() {
-        return questions.size();
+        return QUESTIONS.size();
     }
 
     public int getCorrectAnswers() {
@@ -0,0 +1,53 @@
+package com.ise.officeescape.model.puzzles;
+
+import com.ise.officeescape.model.Puzzle;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Maps puzzle ids used in room definitions to the puzzle classes that implement them.
+ */
+public final class PuzzleRegistry {
+
+    private static final Map<String, Function<String, Puzzle>> FACTORIES = Map.of(
+        "ticketPuzzle", TicketPuzzle::new,
+        "queueGaurdPuzzle", QueueGaurdPuzzle::new,
+        "securityPuzzle", SecurityPuzzle::new,
+        "interviewPuzzle", InterviewPuzzle::new
+    );
+
+    private PuzzleRegistry() {
+    }
+
+    /**
+     * Creates a new instance of a puzzle.
+     *
+     * @throws IllegalArgumentException if no puzzle has that id
+     */
+    public static Puzzle create(String puzzleId) {
+        return create(puzzleId, null);
+    }
+
+    /**
+     * Creates a new instance of a puzzle for the rooms of a scope (see Room.getScope).
+     *
+     * @throws IllegalArgumentException if no puzzle has that id
+     */
+    public static Puzzle create(String puzzleId, String scope) {
+        Function<String, Puzzle> factory = FACTORIES.get(puzzleId);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown puzzle: " + puzzleId);
+        }
+        return factory.apply(scope);
+    }
+
+    public static boolean isKnown(String puzzleId) {
+        return FACTORIES.containsKey(puzzleId);
+    }
+
+    public static Set<String> getPuzzleIds() {
+        return FACTORIES.keySet();
+    }
+}
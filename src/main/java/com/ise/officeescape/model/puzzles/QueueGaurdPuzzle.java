@@ -1,8 +1,10 @@
 package com.ise.officeescape.model.puzzles;
 
+import com.ise.officeescape.eventSystem.*;
 import com.ise.officeescape.model.InteractionResult;
 import com.ise.officeescape.model.Player;
 import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.conditions.Condition;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,15 @@ public class QueueGaurdPuzzle extends Puzzle {
     // Dialogue state
     private int currentNodeIndex = 0;
     private boolean guardBribed = false;
+
+    // Fired when the conversation moves to another dialogue node
+    public Event<OnDialogueNodeEnteredEventArgs> OnDialogueNodeEntered = new Event<>();
+    public static class OnDialogueNodeEnteredEventArgs extends EventArgs {
+        public final int nodeIndex;
+        public OnDialogueNodeEnteredEventArgs(int nodeIndex) {
+            this.nodeIndex = nodeIndex;
+        }
+    }
     
     /**
      * Get current node index (for debugging/reset purposes).
@@ -24,8 +35,10 @@ public class QueueGaurdPuzzle extends Puzzle {
         return currentNodeIndex;
     }
     
-    // Dialogue nodes
-    private List<DialogueNode> dialogueNodes;
+    // Dialogue nodes, shared by the guards of every scope. The bribe options test BRIBE, which
+    // each guard replaces with its own solve condition (see checkCondition)
+    private static final Condition BRIBE = Condition.compile("hasItem(popsicle)");
+    private static final List<DialogueNode> DIALOGUE = createDialogue();
     
     /**
      * Represents a dialogue node with NPC text and player options.
@@ -47,28 +60,40 @@ public class QueueGaurdPuzzle extends Puzzle {
      */
     public static class DialogueOption {
         public final String playerText;
-        public final String condition; // "always", "hasPopsicle", etc.
+        public final String condition; // "always", "hasItem(popsicle)", etc.
+        public final Condition compiledCondition;
         public final int nextNodeIndex;
         public final String resultAction; // "bribe", "end", etc.
         
         public DialogueOption(String playerText, String condition, int nextNodeIndex, String resultAction) {
+            this(playerText, Condition.compile(condition), nextNodeIndex, resultAction);
+        }
+
+        public DialogueOption(String playerText, Condition condition, int nextNodeIndex, String resultAction) {
             this.playerText = playerText;
-            this.condition = condition;
+            this.condition = condition.getSource();
+            this.compiledCondition = condition;
             this.nextNodeIndex = nextNodeIndex;
             this.resultAction = resultAction;
         }
     }
 
     public QueueGaurdPuzzle() {
-        super("queueGaurdPuzzle", "Talk your way through the guard");
-        initializeDialogue();
+        this(null);
+    }
+
+    public QueueGaurdPuzzle(String scope) {
+        super("queueGaurdPuzzle", scope, "Talk your way through the guard");
+        // The bribe option is only offered while holding the popsicle, and the guard keeps it
+        this.consumedItemName = scoped("popsicle");
+        this.solveCondition = scope != null ? BRIBE.inScope(scope) : BRIBE;
     }
     
     /**
-     * Initialize the dialogue tree.
+     * Creates the dialogue tree, once for every guard.
      */
-    private void initializeDialogue() {
-        dialogueNodes = new ArrayList<>();
+    private static List<DialogueNode> createDialogue() {
+        List<DialogueNode> dialogueNodes = new ArrayList<>();
         
         // Node 0: Initial greeting (MAIN MENU)
         List<DialogueOption> options0 = new ArrayList<>();
@@ -97,7 +122,7 @@ public class QueueGaurdPuzzle extends Puzzle {
         List<DialogueOption> options2 = new ArrayList<>();
         options2.add(new DialogueOption("Please?", "always", 6, "none"));
         options2.add(new DialogueOption("What do you want?", "always", 7, "none"));
-        options2.add(new DialogueOption("I have something for you…", "hasPopsicle", 10, "none")); // Popsicle bribe branch
+        options2.add(new DialogueOption("I have something for you…", BRIBE, 10, "none")); // Popsicle bribe branch
         options2.add(new DialogueOption("Okay, fine.", "always", 4, "none")); // End
         dialogueNodes.add(new DialogueNode(
             "I could get fired for letting you skip the line.\n\nOr worse… I'd get promoted and have to work harder.",
@@ -141,7 +166,7 @@ public class QueueGaurdPuzzle extends Puzzle {
         List<DialogueOption> options7 = new ArrayList<>();
         options7.add(new DialogueOption("Are you asking for a popsicle?", "always", 9, "none"));
         options7.add(new DialogueOption("I don't have that.", "always", 11, "none")); // No popsicle path
-        options7.add(new DialogueOption("I have one!", "hasPopsicle", 10, "none")); // Popsicle bribe branch
+        options7.add(new DialogueOption("I have one!", BRIBE, 10, "none")); // Popsicle bribe branch
         dialogueNodes.add(new DialogueNode(
             "Well… I could maybe turn around for exactly three seconds.\n\nBut only if I receive…\n\nsomething cold…\n\nsomething fruity…\n\nsomething that melts under pressure…\n\nlike…\n\na popsicle.\n\nNot that I'm being specific.",
             options7,
@@ -210,14 +235,15 @@ public class QueueGaurdPuzzle extends Puzzle {
             new ArrayList<>(),
             true
         ));
+        return List.copyOf(dialogueNodes);
     }
     
     /**
      * Get the current dialogue node.
      */
     public DialogueNode getCurrentNode() {
-        if (currentNodeIndex >= 0 && currentNodeIndex < dialogueNodes.size()) {
-            return dialogueNodes.get(currentNodeIndex);
+        if (currentNodeIndex >= 0 && currentNodeIndex < DIALOGUE.size()) {
+            return DIALOGUE.get(currentNodeIndex);
         }
         return null;
     }
@@ -233,7 +259,7 @@ public class QueueGaurdPuzzle extends Puzzle {
         
         List<DialogueOption> available = new ArrayList<>();
         for (DialogueOption option : node.options) {
-            if (checkCondition(option.condition, player)) {
+            if (checkCondition(option, player)) {
                 available.add(option);
             }
         }
@@ -243,14 +269,10 @@ public class QueueGaurdPuzzle extends Puzzle {
     /**
      * Check if a condition is met.
      */
-    private boolean checkCondition(String condition, Player player) {
-        if (condition == null || condition.equals("always")) {
-            return true;
-        }
-        if (condition.equals("hasPopsicle")) {
-            return player != null && player.getInventory().hasItem("popsicle");
-        }
-        return false;
+    private boolean checkCondition(DialogueOption option, Player player) {
+        long[] state = player != null ? player.getProgress().bits() : new long[0];
+        Condition condition = option.compiledCondition == BRIBE ? solveCondition : option.compiledCondition;
+        return condition.test(state);
     }
     
     /**
@@ -301,15 +323,17 @@ public class QueueGaurdPuzzle extends Puzzle {
         // Process result action
         if (selectedOption.resultAction.equals("bribe")) {
             guardBribed = true;
-            solved = true;
+            setSolved(true);
             // Return result that will remove popsicle and allow player to proceed
-            return InteractionResult.puzzleSolved("queueGaurdPuzzle")
+            return InteractionResult.puzzleSolved(getId())
                 .addDialogue("The guard accepts your bribe!");
         }
         
         // Move to next node
-        if (selectedOption.nextNodeIndex >= 0 && selectedOption.nextNodeIndex < dialogueNodes.size()) {
+        if (selectedOption.nextNodeIndex >= 0 && selectedOption.nextNodeIndex < DIALOGUE.size()) {
             currentNodeIndex = selectedOption.nextNodeIndex;
+            markChanged();
+            OnDialogueNodeEntered.invoke(this, new OnDialogueNodeEnteredEventArgs(currentNodeIndex));
             DialogueNode nextNode = getCurrentNode();
             if (nextNode != null && nextNode.isTerminal) {
                 // Terminal node - conversation ends
@@ -327,7 +351,10 @@ public class QueueGaurdPuzzle extends Puzzle {
      * This is called when the puzzle view is opened.
      */
     public void resetDialogue() {
-        currentNodeIndex = 0;
+        if (currentNodeIndex != 0) {
+            currentNodeIndex = 0;
+            markChanged();
+        }
         // Note: We don't reset guardBribed or solved here
         // If the puzzle was already solved, it stays solved
         // But the dialogue can be replayed from the beginning
@@ -337,9 +364,20 @@ public class QueueGaurdPuzzle extends Puzzle {
         return guardBribed;
     }
 
+    /**
+     * Saves the dialogue position and whether the guard was bribed.
+     */
+    @Override
+    public int getSaveState() {
+        return currentNodeIndex << 1 | (guardBribed ? 1 : 0);
+    }
+
     @Override
-    public boolean canStart(Player player) {
-        // Guard puzzle can always be started (no prerequisites)
-        return true;
+    public void restoreSaveState(int state) {
+        int nodeIndex = state >>> 1;
+        currentNodeIndex = nodeIndex < DIALOGUE.size() ? nodeIndex : 0;
+        guardBribed = (state & 1) != 0;
+        markChanged();
     }
+
 }
@@ -1,7 +1,7 @@
 package com.ise.officeescape.model.puzzles;
 
+import com.ise.officeescape.eventSystem.*;
 import com.ise.officeescape.model.InteractionResult;
-import com.ise.officeescape.model.Player;
 import com.ise.officeescape.model.Puzzle;
 
 /**
@@ -15,9 +15,16 @@ public class SecurityPuzzle extends Puzzle {
     private boolean guardLookingAway = false; // Is the guard currently looking away?
     private int successfulThrows = 0; // Number of successful throws
     private boolean caught = false; // Has the player been caught?
+
+    // Fired when the guard catches the player throwing an item
+    public Event<EventArgs> OnCaught = new Event<>();
     
     public SecurityPuzzle() {
-        super("securityPuzzle", "Throw Items Past the Guard");
+        this(null);
+    }
+
+    public SecurityPuzzle(String scope) {
+        super("securityPuzzle", scope, "Throw Items Past the Guard");
     }
     
     /**
@@ -77,8 +84,8 @@ public class SecurityPuzzle extends Puzzle {
                 successfulThrows++;
                 if (successfulThrows >= REQUIRED_SUCCESSFUL_THROWS) {
                     // All items thrown successfully - puzzle solved!
-                    solved = true;
-                    return InteractionResult.puzzleSolved("securityPuzzle")
+                    setSolved(true);
+                    return InteractionResult.puzzleSolved(getId())
                         .addDialogue("You successfully threw all your items through! The guard didn't notice.");
                 } else {
                     return InteractionResult.message("Success! " + successfulThrows + "/" + REQUIRED_SUCCESSFUL_THROWS + " items thrown.");
@@ -86,6 +93,7 @@ public class SecurityPuzzle extends Puzzle {
             } else {
                 // Guard is looking - caught!
                 caught = true;
+                OnCaught.invoke(this, EventArgs.empty);
                 return InteractionResult.message("CAUGHT! The guard saw you. Try again when they look away.");
             }
         }
@@ -98,11 +106,6 @@ public class SecurityPuzzle extends Puzzle {
         
         return InteractionResult.message("Invalid action.");
     }
-    
-    @Override
-    public boolean canStart(Player player) {
-        // Can always start the security puzzle
-        return true;
-    }
+
 }
 
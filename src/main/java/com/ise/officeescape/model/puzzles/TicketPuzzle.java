@@ -1,26 +1,42 @@
 package com.ise.officeescape.model.puzzles;
 
 import com.ise.officeescape.controller.GameController;
+import com.ise.officeescape.eventSystem.*;
 import com.ise.officeescape.model.InteractionResult;
 import com.ise.officeescape.model.Item;
-import com.ise.officeescape.model.Player;
 import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.conditions.Condition;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntSupplier;
 
 /**
  * Puzzle for getting a ticket from the ticket machine.
  * Requires completing a quiz with all questions correct.
  */
 public class TicketPuzzle extends Puzzle {
+    private static final int DEFAULT_TICKET_NUMBER = 12;
+
     private boolean ticketObtained;
     private int ticketNumber;
+    private IntSupplier ticketDispenser = () -> DEFAULT_TICKET_NUMBER;
     
     // Quiz state
     private int currentQuestionIndex = 0;
     private int correctAnswers = 0;
-    private List<Question> questions;
+    private static final List<Question> QUESTIONS = createQuestions(); // Shared by the machines of every scope
+
+    // Fired every time the player picks an answer
+    public Event<OnAnswerCheckedEventArgs> OnAnswerChecked = new Event<>();
+    public static class OnAnswerCheckedEventArgs extends EventArgs {
+        public final int questionIndex;
+        public final boolean correct;
+        public OnAnswerCheckedEventArgs(int questionIndex, boolean correct) {
+            this.questionIndex = questionIndex;
+            this.correct = correct;
+        }
+    }
     
     // Quiz question data structure
     public static class Question {
@@ -38,23 +54,30 @@ public class TicketPuzzle extends Puzzle {
     }
 
     public TicketPuzzle() {
-        super("ticketPuzzle", "Get Your Ticket Number");
+        this(null);
+    }
+
+    public TicketPuzzle(String scope) {
+        super("ticketPuzzle", scope, "Get Your Ticket Number");
         this.ticketObtained = false;
-        this.ticketNumber = 12;
-        initializeQuestions();
+        this.ticketNumber = DEFAULT_TICKET_NUMBER;
+        this.rewardItemName = scoped("ticketItem");
+        this.startCondition = Condition.compile("not hasItem(ticketItem)", scope);
     }
 
     @Override
     public InteractionResult interact(String action, Object context) {
         if (action.equals("complete")) {
             // Quiz completed - check if all answers were correct
-            if (correctAnswers == questions.size() && !ticketObtained) {
+            if (correctAnswers == QUESTIONS.size() && !ticketObtained) {
                 ticketObtained = true;
-                solved = true;
-                Item ticketItem = new Item("ticketItem", "This is the ticket required for the queue");
+                ticketNumber = ticketDispenser.getAsInt();
+                markChanged();
+                setSolved(true);
+                Item ticketItem = new Item(rewardItemName, "This is the ticket required for the queue");
                 // Return both PUZZLE_SOLVED and ITEM_OBTAINED
                 // We'll handle this as a combined result in the controller
-                return InteractionResult.puzzleSolved("ticketPuzzle")
+                return InteractionResult.puzzleSolved(getId())
                     .addDialogue("You got ticket number " + ticketNumber + "!")
                     .setItem(ticketItem);
             } else if (ticketObtained) {
@@ -88,10 +111,10 @@ public class TicketPuzzle extends Puzzle {
     }
     
     /**
-     * Initialize quiz questions.
+     * Creates the quiz questions, once for every ticket machine.
      */
-    private void initializeQuestions() {
-        questions = new ArrayList<>();
+    private static List<Question> createQuestions() {
+        List<Question> questions = new ArrayList<>();
         
         // Question 1: Frustratingly pedantic
         questions.add(new Question(
@@ -156,14 +179,15 @@ public class TicketPuzzle extends Puzzle {
             1, // caffine is correct
             "Correct! Welcome to Irish bureaucracy. You've passed the quiz!"
         ));
+        return List.copyOf(questions);
     }
     
     /**
      * Get the current question.
      */
     public Question getCurrentQuestion() {
-        if (currentQuestionIndex >= 0 && currentQuestionIndex < questions.size()) {
-            return questions.get(currentQuestionIndex);
+        if (currentQuestionIndex >= 0 && currentQuestionIndex < QUESTIONS.size()) {
+            return QUESTIONS.get(currentQuestionIndex);
         }
         return null;
     }
@@ -179,7 +203,7 @@ public class TicketPuzzle extends Puzzle {
      * Get total number of questions.
      */
     public int getTotalQuestions() {
-        return questions.size();
+        return QUESTIONS.size();
     }
     
     /**
@@ -193,15 +217,17 @@ public class TicketPuzzle extends Puzzle {
      * Handle an answer selection.
      */
     public InteractionResult handleAnswer(int selectedIndex) {
-        if (currentQuestionIndex >= questions.size()) {
+        if (currentQuestionIndex >= QUESTIONS.size()) {
             return InteractionResult.message("Quiz already completed");
         }
         
-        Question q = questions.get(currentQuestionIndex);
+        Question q = QUESTIONS.get(currentQuestionIndex);
         boolean isCorrect = (selectedIndex == q.correctIndex);
+        OnAnswerChecked.invoke(this, new OnAnswerCheckedEventArgs(currentQuestionIndex, isCorrect));
         
         if (isCorrect) {
             correctAnswers++;
+            markChanged();
             return InteractionResult.message("correct:" + q.feedback);
         } else {
             return InteractionResult.message("wrong");
@@ -212,8 +238,9 @@ public class TicketPuzzle extends Puzzle {
      * Move to the next question.
      */
     public void nextQuestion() {
-        if (currentQuestionIndex < questions.size() - 1) {
+        if (currentQuestionIndex < QUESTIONS.size() - 1) {
             currentQuestionIndex++;
+            markChanged();
         }
     }
     
@@ -222,7 +249,7 @@ public class TicketPuzzle extends Puzzle {
      * Quiz is complete when we've answered all questions (currentQuestionIndex is at or past the last question).
      */
     public boolean isQuizComplete() {
-        return currentQuestionIndex >= questions.size();
+        return currentQuestionIndex >= QUESTIONS.size();
     }
     
     /**
@@ -234,15 +261,18 @@ public class TicketPuzzle extends Puzzle {
         // Check if we've answered all questions and got them all correct
         // We've answered all questions if we're on the last question (index == size - 1) or beyond
         // and we got all answers correct
-        return correctAnswers == questions.size() && currentQuestionIndex >= questions.size() - 1;
+        return correctAnswers == QUESTIONS.size() && currentQuestionIndex >= QUESTIONS.size() - 1;
     }
     
     /**
      * Reset the quiz to start over.
      */
     public void resetQuiz() {
-        currentQuestionIndex = 0;
-        correctAnswers = 0;
+        if (currentQuestionIndex != 0 || correctAnswers != 0) {
+            currentQuestionIndex = 0;
+            correctAnswers = 0;
+            markChanged();
+        }
     }
     
     /**
@@ -260,11 +290,30 @@ public class TicketPuzzle extends Puzzle {
         return ticketNumber;
     }
 
-	@Override
-	public boolean canStart(Player player) {
-        if (player == null) {
-            return false;
-        }
-        return !player.getInventory().hasItem("ticketItem");
-	}
+    /**
+     * Sets where ticket numbers come from (e.g. the queue simulation). Without one, every
+     * ticket is number 12.
+     */
+    public void setTicketDispenser(IntSupplier ticketDispenser) {
+        this.ticketDispenser = ticketDispenser;
+    }
+
+    // Save state: ticket number (bits 12+), correct answers (bits 9-11), question index, ticket obtained (bit 0)
+    @Override
+    public int getSaveState() {
+        return ticketNumber << 12 | correctAnswers << 9 | currentQuestionIndex << 1 | (ticketObtained ? 1 : 0);
+    }
+
+    @Override
+    public void restoreSaveState(int state) {
+        int questionIndex = (state >>> 1) & 0xFF;
+        int answers = (state >>> 9) & 0x7;
+        int number = state >>> 12;
+        ticketNumber = number > 0 ? number : DEFAULT_TICKET_NUMBER; // Older saves did not keep the number
+        currentQuestionIndex = questionIndex < QUESTIONS.size() ? questionIndex : 0;
+        correctAnswers = answers <= QUESTIONS.size() ? answers : 0;
+        // Saves from before the quiz was saved only know the puzzle was solved
+        ticketObtained = (state & 1) != 0 || isSolved();
+        markChanged();
+    }
 }
@@ -0,0 +1,97 @@
+package com.ise.officeescape.model.state;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a game's progress: the current room, where each item is and
+ * how far each puzzle has got. Every with*() call returns a new version in O(log n) that
+ * shares all unchanged data with this one, so keeping many versions (undo history,
+ * autosave snapshots, what-if branches) is cheap and they can be read from any thread.
+ *
+ * Rooms, items and puzzles are referred to by dense indices assigned by GameStateTracker.
+ * Item locations are NOWHERE, PLAYER, or ROOM_BASE + room index. Each puzzle has two slots:
+ * whether it is solved and its Puzzle.getSaveState() value. Items and puzzles a version
+ * never recorded read as UNSET (see hasPuzzle); the tracker knows how they started.
+ */
+public final class GameState {
+
+    public static final int NOWHERE = 0;
+    public static final int PLAYER = 1;
+    public static final int ROOM_BASE = 2;
+    public static final int UNSET = -1;
+
+    private final int room;
+    private final PersistentIntVector itemLocations; // Location + 1, so unset slots (0) read as UNSET
+    private final PersistentIntVector puzzles; // Puzzle p: 0 unset, 1 unsolved or 2 solved at 2p, save state at 2p + 1
+    private final long[] solvedFlags; // Never modified, see withSolvedFlags
+    private final long version;
+
+    public GameState(int room) {
+        this(room, PersistentIntVector.EMPTY, PersistentIntVector.EMPTY, new long[0], 0L);
+    }
+
+    private GameState(int room, PersistentIntVector itemLocations, PersistentIntVector puzzles,
+                      long[] solvedFlags, long version) {
+        this.room = room;
+        this.itemLocations = itemLocations;
+        this.puzzles = puzzles;
+        this.solvedFlags = solvedFlags;
+        this.version = version;
+    }
+
+    public int getRoom() {
+        return room;
+    }
+
+    /**
+     * Gets where an item is, or UNSET if this version never recorded it.
+     */
+    public int getItemLocation(int item) {
+        return itemLocations.get(item) - 1;
+    }
+
+    /**
+     * Checks if this version recorded a puzzle's progress.
+     */
+    public boolean hasPuzzle(int puzzle) {
+        return puzzles.get(2 * puzzle) != 0;
+    }
+
+    public boolean isPuzzleSolved(int puzzle) {
+        return puzzles.get(2 * puzzle) == 2;
+    }
+
+    public int getPuzzleState(int puzzle) {
+        return puzzles.get(2 * puzzle + 1);
+    }
+
+    public long[] getSolvedFlags() {
+        return solvedFlags.clone();
+    }
+
+    /**
+     * Gets a counter that increases with every change, handy for "has anything changed" checks.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public GameState withRoom(int newRoom) {
+        return newRoom == room ? this : new GameState(newRoom, itemLocations, puzzles, solvedFlags, version + 1);
+    }
+
+    public GameState withItemLocation(int item, int location) {
+        PersistentIntVector updated = itemLocations.set(item, location + 1);
+        return updated == itemLocations ? this : new GameState(room, updated, puzzles, solvedFlags, version + 1);
+    }
+
+    public GameState withPuzzle(int puzzle, boolean solved, int saveState) {
+        PersistentIntVector updated = puzzles.set(2 * puzzle, solved ? 2 : 1).set(2 * puzzle + 1, saveState);
+        return updated == puzzles ? this : new GameState(room, itemLocations, updated, solvedFlags, version + 1);
+    }
+
+    public GameState withSolvedFlags(long[] flags) {
+        return Arrays.equals(flags, solvedFlags) ? this
+            : new GameState(room, itemLocations, puzzles, flags.clone(), version + 1);
+    }
+}
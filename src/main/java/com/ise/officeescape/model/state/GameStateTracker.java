@@ -0,0 +1,281 @@
+package com.ise.officeescape.model.state;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.Symbol;
+import com.ise.officeescape.model.SymbolMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mirrors the mutable game model (Player, room inventories, puzzle progress) into
+ * persistent GameState versions and keeps an undo history of them.
+ *
+ * The controller reports each change as it happens (set* methods, O(log n) each) and
+ * calls checkpoint() once an action is complete. Puzzle progress is picked up from the
+ * puzzles' OnStateChanged events. Taking a snapshot is just reading getCurrent(); undo()
+ * hands back the previous version and applyTo() writes it into the model.
+ *
+ * Rooms are set up lazily, so their items and puzzles are only known once track() sees them.
+ * Versions older than that have no entry for them and read as they were at setup, so undoing
+ * past the moment a room was first set up leaves its contents as they started, and tracking
+ * a room never rewrites the history.
+ */
+public class GameStateTracker {
+
+    private static final int MAX_HISTORY = 256;
+
+    private final RoomGraph graph;
+    private final SymbolMap<Integer> itemIndex = new SymbolMap<>();
+    private final List<Item> items = new ArrayList<>();
+    private int[] setupLocations = new int[16]; // Where each item was when first seen
+    private final Map<Puzzle, Integer> puzzleIndex = new IdentityHashMap<>();
+    private final List<Puzzle> puzzles = new ArrayList<>();
+    private boolean[] setupSolved = new boolean[16]; // Each puzzle's progress when its room was set up
+    private int[] setupSaveStates = new int[16];
+    private final ArrayDeque<GameState> history = new ArrayDeque<>();
+
+    private GameState current;
+    private GameState committed;
+    private GameState applied; // What the model still matches between undo() and applyTo(), else null
+    private boolean applying; // Ignore puzzle events caused by applyTo
+
+    public GameStateTracker(RoomGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Captures the full model as the initial state and clears the history.
+     */
+    public void reset(Player player) {
+        GameState state = new GameState(graph.indexOf(player.getCurrentRoom()));
+        for (Item item : player.getInventory().getInvetoryMap().values()) {
+            state = state.withItemLocation(indexOf(item), GameState.PLAYER);
+        }
+        for (int r = 0; r < graph.getRoomCount(); r++) {
+            Room room = graph.getRoom(r);
+            track(room);
+            for (Item item : room.getInventory().getInvetoryMap().values()) {
+                state = state.withItemLocation(indexOf(item), GameState.ROOM_BASE + r);
+            }
+        }
+        for (int p = 0; p < puzzles.size(); p++) {
+            state = state.withPuzzle(p, puzzles.get(p).isSolved(), puzzles.get(p).getSaveState());
+        }
+        state = state.withSolvedFlags(player.getProgress().getSolvedFlags());
+        current = state;
+        committed = state;
+        applied = null;
+        history.clear();
+    }
+
+    /**
+     * Starts tracking the items and puzzles of a room that has been set up. Tracking a room
+     * again only picks up what is new in it.
+     */
+    public void track(Room room) {
+        int location = GameState.ROOM_BASE + graph.indexOf(room);
+        for (Item item : room.getInventory().getInvetoryMap().values()) {
+            if (!itemIndex.containsKey(item.getSymbol())) {
+                setupLocations[indexOf(item)] = location;
+            }
+        }
+        for (Puzzle puzzle : room.getAllPuzzles()) {
+            if (!puzzleIndex.containsKey(puzzle)) {
+                int index = puzzles.size();
+                puzzleIndex.put(puzzle, index);
+                puzzles.add(puzzle);
+                if (index == setupSolved.length) {
+                    setupSolved = Arrays.copyOf(setupSolved, index * 2);
+                    setupSaveStates = Arrays.copyOf(setupSaveStates, index * 2);
+                }
+                setupSolved[index] = puzzle.isSolved();
+                setupSaveStates[index] = puzzle.getSaveState();
+                puzzle.OnStateChanged.addListener((sender, args) -> {
+                    if (!applying) {
+                        current = current.withPuzzle(index, puzzle.isSolved(), puzzle.getSaveState());
+                    }
+                });
+            }
+        }
+    }
+
+    public void setRoom(Room room) {
+        current = current.withRoom(graph.indexOf(room));
+    }
+
+    /**
+     * Records that an item is now held by the player.
+     */
+    public void setItemHeld(Item item) {
+        current = current.withItemLocation(indexOf(item), GameState.PLAYER);
+    }
+
+    /**
+     * Records that an item now lies in a room's inventory.
+     */
+    public void setItemInRoom(Item item, Room room) {
+        current = current.withItemLocation(indexOf(item), GameState.ROOM_BASE + graph.indexOf(room));
+    }
+
+    /**
+     * Records that an item was used up or given away.
+     */
+    public void setItemGone(Symbol item) {
+        Integer index = itemIndex.get(item);
+        if (index != null) {
+            current = current.withItemLocation(index, GameState.NOWHERE);
+        }
+    }
+
+    public void setSolvedFlags(long[] solvedFlags) {
+        current = current.withSolvedFlags(solvedFlags);
+    }
+
+    /**
+     * Marks the end of a player action: the state before it becomes an undo step.
+     */
+    public void checkpoint() {
+        if (current == committed) {
+            return;
+        }
+        history.push(committed);
+        if (history.size() > MAX_HISTORY) {
+            history.removeLast();
+        }
+        committed = current;
+    }
+
+    public boolean canUndo() {
+        return current != committed || !history.isEmpty();
+    }
+
+    /**
+     * Steps back to the previous checkpoint.
+     *
+     * @return the state to restore, or null if there is nothing to undo
+     */
+    public GameState undo() {
+        GameState before = current;
+        if (current != committed) {
+            current = committed;
+        } else if (!history.isEmpty()) {
+            committed = history.pop();
+            current = committed;
+        } else {
+            return null;
+        }
+        if (applied == null) {
+            applied = before;
+        }
+        return current;
+    }
+
+    /**
+     * Writes a state back into the mutable model: player room, player and room inventories,
+     * puzzle progress and solved puzzle flags. Only the items whose location differs from
+     * the state the model is in are moved, and items the tracker does not know are left alone.
+     */
+    public void applyTo(GameState state, Player player) {
+        GameState from = applied != null ? applied : current;
+        applied = null;
+        Room room = graph.getRoom(state.getRoom());
+        if (player.getCurrentRoom() != room) {
+            player.setCurrentRoom(room);
+        }
+        for (int i = 0; i < items.size(); i++) {
+            int location = locationOf(state, i);
+            int was = locationOf(from, i);
+            if (location != was) {
+                move(items.get(i), inventoryAt(was, player), inventoryAt(location, player));
+            }
+        }
+        applying = true;
+        try {
+            for (int p = 0; p < puzzles.size(); p++) {
+                Puzzle puzzle = puzzles.get(p);
+                boolean solved = state.hasPuzzle(p) ? state.isPuzzleSolved(p) : setupSolved[p];
+                int saveState = state.hasPuzzle(p) ? state.getPuzzleState(p) : setupSaveStates[p];
+                if (puzzle.isSolved() != solved || puzzle.getSaveState() != saveState) {
+                    puzzle.setSolved(solved);
+                    puzzle.restoreSaveState(saveState);
+                }
+            }
+        } finally {
+            applying = false;
+        }
+        player.getProgress().setSolvedFlags(state.getSolvedFlags());
+    }
+
+    /**
+     * Gets where an item is in a version, falling back to where it was when first seen.
+     */
+    private int locationOf(GameState state, int item) {
+        int location = state.getItemLocation(item);
+        return location != GameState.UNSET ? location : setupLocations[item];
+    }
+
+    private Inventory inventoryAt(int location, Player player) {
+        if (location == GameState.PLAYER) {
+            return player.getInventory();
+        }
+        return location >= GameState.ROOM_BASE ? graph.getRoom(location - GameState.ROOM_BASE).getInventory() : null;
+    }
+
+    /**
+     * Moves an item between two inventories (null for nowhere) with a single change event.
+     */
+    private static void move(Item item, Inventory source, Inventory target) {
+        if (source != null && source.hasItem(item.getSymbol())) {
+            if (target != null) {
+                source.moveItem(item.getSymbol(), target);
+            } else {
+                source.removeItem(item.getSymbol());
+            }
+        } else if (target != null && !target.hasItem(item.getSymbol())) {
+            target.addItem(item);
+        }
+    }
+
+    /**
+     * Gets the latest state. It is immutable, so it can be handed to other threads (e.g. autosave).
+     */
+    public GameState getCurrent() {
+        return current;
+    }
+
+    public int getHistorySize() {
+        return history.size();
+    }
+
+    public Item getItem(int index) {
+        return items.get(index);
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    private int indexOf(Item item) {
+        Integer index = itemIndex.get(item.getSymbol());
+        if (index == null) {
+            index = items.size();
+            itemIndex.put(item.getSymbol(), index);
+            items.add(item);
+            if (index == setupLocations.length) {
+                setupLocations = Arrays.copyOf(setupLocations, index * 2);
+            }
+            setupLocations[index] = GameState.NOWHERE; // Obtained during play, so it did not exist before
+        }
+        return index;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ise.officeescape.model.state;
+
+/**
+ * Immutable, persistent vector of ints backed by a 32-way trie.
+ * set() copies only the path from the root to the changed leaf (O(log32 n)) and
+ * shares every other node with the previous version, so old versions stay valid
+ * and cost almost nothing to keep. Unset slots read as 0.
+ */
+public final class PersistentIntVector {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    public static final PersistentIntVector EMPTY = new PersistentIntVector(null, 0);
+
+    private final Object root; // int[] leaf when shift == 0, otherwise Object[] of children
+    private final int shift;
+
+    private PersistentIntVector(Object root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    /**
+     * Gets the value at an index (0 if it was never set).
+     */
+    public int get(int index) {
+        if (index < 0 || index >= capacity()) {
+            return 0;
+        }
+        Object node = root;
+        for (int level = shift; level > 0 && node != null; level -= BITS) {
+            node = ((Object[]) node)[(index >>> level) & MASK];
+        }
+        return node == null ? 0 : ((int[]) node)[index & MASK];
+    }
+
+    /**
+     * Returns a new version with the value at index replaced. This version is unchanged.
+     */
+    public PersistentIntVector set(int index, int value) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Negative index: " + index);
+        }
+        if (get(index) == value) {
+            return this;
+        }
+        // Add levels on top until the index fits
+        Object newRoot = root;
+        int newShift = shift;
+        while (index >= (1L << (newShift + BITS))) {
+            Object[] parent = new Object[WIDTH];
+            parent[0] = newRoot;
+            newRoot = parent;
+            newShift += BITS;
+        }
+        return new PersistentIntVector(setIn(newRoot, newShift, index, value), newShift);
+    }
+
+    private static Object setIn(Object node, int level, int index, int value) {
+        if (level == 0) {
+            int[] leaf = node == null ? new int[WIDTH] : ((int[]) node).clone();
+            leaf[index & MASK] = value;
+            return leaf;
+        }
+        Object[] children = node == null ? new Object[WIDTH] : ((Object[]) node).clone();
+        int slot = (index >>> level) & MASK;
+        children[slot] = setIn(children[slot], level - BITS, index, value);
+        return children;
+    }
+
+    private long capacity() {
+        return root == null ? 0 : 1L << (shift + BITS);
+    }
+}
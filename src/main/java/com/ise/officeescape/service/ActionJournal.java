@@ -0,0 +1,406 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of what changed between autosaves: room moves, items added to or
+ * removed from the player or a room, and puzzle state changes. After a crash the last save
+ * is loaded and the journal replayed over it, so nothing since the last room change is lost.
+ *
+ * Entries record the effect of an action ("the popsicle is now in the player's inventory")
+ * rather than the click that caused it, so replaying them needs no puzzle logic or UI, and
+ * replaying an entry the save already contains changes nothing.
+ *
+ * Entries are appended from the FX thread without blocking. A writer thread commits them in
+ * groups: it waits a few milliseconds after the first entry, then writes everything queued
+ * with a single fsync. Once an autosave is on disk, the entries it covers are dropped.
+ *
+ * Record: body length, CRC32 of the body, then the body: sequence number, action type and
+ * its fields (strings are length-prefixed UTF-8).
+ */
+public class ActionJournal implements AutoCloseable {
+
+    private static final long GROUP_COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final String PLAYER = ""; // Owner name of the player's inventory
+    private static final Object STOP = new Object(); // Queued by close, ends the writer thread
+
+    public enum ActionType {
+        MOVED,          // Player entered a room
+        ITEM_ADDED,     // Item is now in the player's or a room's inventory
+        ITEM_REMOVED,   // Item is no longer in the player's or a room's inventory
+        PUZZLE_CHANGED  // Puzzle's solved flag or save state changed
+    }
+
+    /**
+     * A journal entry read back for replay.
+     */
+    public static class Entry {
+        public final long sequence;
+        public final ActionType type;
+        public final String roomName;  // Room entered, item owner (null for the player) or puzzle host
+        public final String name;      // Item name or puzzle id (null for moves)
+        public final boolean solved;   // Puzzle entries only
+        public final int state;        // Puzzle entries only
+
+        Entry(long sequence, ActionType type, String roomName, String name, boolean solved, int state) {
+            this.sequence = sequence;
+            this.type = type;
+            this.roomName = roomName;
+            this.name = name;
+            this.solved = solved;
+            this.state = state;
+        }
+    }
+
+    private final Path path;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>(); // Records and checkpoints
+    private final Set<Object> watched = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Thread writer;
+    private final Object durableLock = new Object();
+    private long lastSequence;     // Last sequence handed out (FX thread)
+    private long durableSequence;  // Last sequence on disk (guarded by durableLock)
+    private volatile boolean closed;
+
+    // Records written since the last checkpoint, oldest first (writer thread only)
+    private final ArrayDeque<Record> uncheckpointed = new ArrayDeque<>();
+    private final long firstSequence;
+    private boolean hasEarlierRecords; // File still holds records from an earlier run (writer thread only)
+    private FileChannel channel;
+
+    /**
+     * A checkpoint request: drop records up to a sequence number.
+     */
+    private static final class Checkpoint {
+        final long sequence;
+        Checkpoint(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Record {
+        final long sequence;
+        final byte[] bytes;
+        Record(long sequence, byte[] bytes) {
+            this.sequence = sequence;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Opens the journal, keeping existing entries until they are replayed and checkpointed.
+     *
+     * @param firstSequence Sequence numbers continue after this (use the last replayed entry's)
+     */
+    public ActionJournal(Path path, long firstSequence) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.hasEarlierRecords = Files.exists(path) && Files.size(path) > 0;
+        this.lastSequence = firstSequence;
+        this.durableSequence = firstSequence;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeLoop, "action-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Reads the entries of a journal left by an earlier run, dropping a record cut off by a crash.
+     */
+    public static List<Entry> read(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (data.remaining() >= RECORD_HEADER_SIZE) {
+            int start = data.position();
+            int length = data.getInt();
+            int expectedCrc = data.getInt();
+            if (length < 0 || length > data.remaining()) {
+                data.position(start);
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                data.position(start);
+                break;
+            }
+            ByteBuffer body = data.slice(data.position(), length);
+            data.position(data.position() + length);
+            long sequence = body.getLong();
+            ActionType type = ActionType.values()[body.get()];
+            String roomName = readString(body);
+            String name = body.hasRemaining() ? readString(body) : null;
+            boolean solved = body.hasRemaining() && body.get() != 0;
+            int state = body.hasRemaining() ? body.getInt() : 0;
+            entries.add(new Entry(sequence, type, PLAYER.equals(roomName) && type != ActionType.MOVED ? null : roomName,
+                name, solved, state));
+        }
+        if (data.hasRemaining()) {
+            System.err.println("[ActionJournal] Dropping " + data.remaining() + " bytes of incomplete journal");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(data.position());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Journals every change to the player's inventory.
+     */
+    public void watchPlayer(Inventory inventory) {
+        if (watched.add(inventory)) {
+            inventory.OnInventoryChanged.addListener((sender, args) -> recordItem(PLAYER, inventory, args));
+        }
+    }
+
+    /**
+     * Journals every change to a set-up room's items and puzzles. Watching a room again has no effect.
+     */
+    public void watchRoom(Room room) {
+        if (!watched.add(room)) {
+            return;
+        }
+        Inventory inventory = room.getInventory();
+        inventory.OnInventoryChanged.addListener((sender, args) -> recordItem(room.getName(), inventory, args));
+        for (Puzzle puzzle : room.getAllPuzzles()) {
+            puzzle.OnStateChanged.addListener((sender, args) -> append(ActionType.PUZZLE_CHANGED,
+                room.getName(), puzzle.getId(), puzzle.isSolved(), puzzle.getSaveState()));
+        }
+    }
+
+    public void recordMove(Room room) {
+        append(ActionType.MOVED, room.getName(), null, false, 0);
+    }
+
+    /**
+     * Gets the sequence number of the last entry appended. Pass it to checkpoint once
+     * a save taken after it is on disk.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Drops the entries up to a sequence number, because a save containing them is on disk.
+     */
+    public void checkpoint(long sequence) {
+        if (!closed) {
+            queue.add(new Checkpoint(sequence));
+        }
+    }
+
+    /**
+     * Waits until every entry appended so far is on disk.
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean sync(long timeoutMillis) throws InterruptedException {
+        long target = lastSequence;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (durableLock) {
+            long remaining;
+            while (durableSequence < target && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                durableLock.wait(remaining);
+            }
+            return durableSequence >= target;
+        }
+    }
+
+    /**
+     * Writes the remaining entries and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            sync(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join(1_000);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("[ActionJournal] Error closing journal: " + e.getMessage());
+        }
+    }
+
+    private void recordItem(String owner, Inventory inventory, Inventory.OnInventoryChangedEventArgs args) {
+        if (args.to == inventory) {
+            append(ActionType.ITEM_ADDED, owner, args.item.getName(), false, 0);
+        } else if (args.from == inventory) {
+            append(ActionType.ITEM_REMOVED, owner, args.item.getName(), false, 0);
+        }
+    }
+
+    private void append(ActionType type, String roomName, String name, boolean solved, int state) {
+        if (closed) {
+            return;
+        }
+        long sequence = ++lastSequence;
+        byte[] room = roomName.getBytes(StandardCharsets.UTF_8);
+        byte[] second = name != null ? name.getBytes(StandardCharsets.UTF_8) : null;
+        int bodyLength = Long.BYTES + 1 + Short.BYTES + room.length
+            + (second != null ? Short.BYTES + second.length : 0)
+            + (type == ActionType.PUZZLE_CHANGED ? 1 + Integer.BYTES : 0);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength).putInt(0);
+        record.putLong(sequence).put((byte) type.ordinal());
+        record.putShort((short) room.length).put(room);
+        if (second != null) {
+            record.putShort((short) second.length).put(second);
+        }
+        if (type == ActionType.PUZZLE_CHANGED) {
+            record.put((byte) (solved ? 1 : 0)).putInt(state);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        queue.add(new Record(sequence, record.array()));
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writer thread: commits records in groups and applies checkpoints until it reaches STOP.
+     * It is never interrupted, as that would close the file channel mid-write.
+     */
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                Object first = queue.take();
+                batch.add(first);
+                if (first instanceof Record) {
+                    // Give entries from the same action a moment to join this commit
+                    long deadline = System.nanoTime() + GROUP_COMMIT_NANOS;
+                    long remaining;
+                    while ((remaining = deadline - System.nanoTime()) > 0) {
+                        Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        if (next == STOP) {
+                            break;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch);
+            stopping = batch.remove(STOP);
+            try {
+                commit(batch);
+            } catch (IOException e) {
+                System.err.println("[ActionJournal] Error writing journal: " + e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Object> batch) throws IOException {
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size());
+        long committed = -1;
+        long checkpoint = -1;
+        for (Object item : batch) {
+            if (item instanceof Record record) {
+                buffers.add(ByteBuffer.wrap(record.bytes));
+                uncheckpointed.add(record);
+                committed = record.sequence;
+            } else if (item instanceof Checkpoint request) {
+                checkpoint = Math.max(checkpoint, request.sequence);
+            }
+        }
+        if (!buffers.isEmpty()) {
+            ByteBuffer[] data = buffers.toArray(new ByteBuffer[0]);
+            long total = 0;
+            for (ByteBuffer buffer : data) {
+                total += buffer.remaining();
+            }
+            while (total > 0) {
+                total -= channel.write(data);
+            }
+            channel.force(false); // One fsync for the whole group
+            synchronized (durableLock) {
+                durableSequence = committed;
+                durableLock.notifyAll();
+            }
+        }
+        if (checkpoint >= 0) {
+            dropUpTo(checkpoint);
+        }
+    }
+
+    /**
+     * Rewrites the journal without the records covered by a save (usually leaving it empty).
+     */
+    private void dropUpTo(long sequence) throws IOException {
+        boolean dropped = hasEarlierRecords && sequence >= firstSequence;
+        while (!uncheckpointed.isEmpty() && uncheckpointed.peekFirst().sequence <= sequence) {
+            uncheckpointed.pollFirst();
+            dropped = true;
+        }
+        if (!dropped) {
+            return;
+        }
+        channel.close();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel rewritten = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Record record : uncheckpointed) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.bytes);
+                while (buffer.hasRemaining()) {
+                    rewritten.write(buffer);
+                }
+            }
+            rewritten.force(true);
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        hasEarlierRecords = false;
+    }
+}
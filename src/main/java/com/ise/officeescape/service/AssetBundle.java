@@ -0,0 +1,231 @@
+package com.ise.officeescape.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * All game assets packed into one file (com/ise/officeescape/assets.bundle, built by
+ * AssetBundleCompiler), served by asset id (the file name without extension, e.g. "ticket").
+ *
+ * The bundle is memory-mapped when it is a plain file (running from target/classes) and read
+ * once into a direct buffer otherwise (running from a jar). Assets are served as read-only
+ * slices of that buffer, so looking one up copies nothing.
+ *
+ * Layout (big-endian): magic, version, asset count, then a manifest entry per asset (id,
+ * CRC32C of its bytes, offset, length), then the asset bytes, each aligned to 8 bytes.
+ */
+public class AssetBundle {
+
+    static final int MAGIC = 0x4F454142; // "OEAB"
+    static final short FORMAT_VERSION = 1;
+    static final int ALIGNMENT = 8;
+
+    private static final String RESOURCE = "/com/ise/officeescape/assets.bundle";
+    private static volatile AssetBundle builtIn;
+
+    private final ByteBuffer data;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Manifest entry of one asset.
+     */
+    private static class Entry {
+        final int offset;
+        final int length;
+        final int hash;
+
+        Entry(int offset, int length, int hash) {
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+        }
+    }
+
+    private AssetBundle(ByteBuffer data, Map<String, Entry> entries) {
+        this.data = data;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the bundle built with the game, loading it on first use.
+     *
+     * @throws IllegalStateException if the bundle is missing (run the Maven build) or corrupt
+     */
+    public static AssetBundle getBuiltIn() {
+        AssetBundle bundle = builtIn;
+        if (bundle == null) {
+            synchronized (AssetBundle.class) {
+                bundle = builtIn;
+                if (bundle == null) {
+                    bundle = loadResource();
+                    builtIn = bundle;
+                }
+            }
+        }
+        return bundle;
+    }
+
+    private static AssetBundle loadResource() {
+        URL url = AssetBundle.class.getResource(RESOURCE);
+        if (url == null) {
+            throw new IllegalStateException("Asset bundle not found at " + RESOURCE
+                + " - it is built by the Maven build (mvn process-classes)");
+        }
+        try {
+            AssetBundle bundle;
+            if (url.getProtocol().equals("file")) {
+                bundle = open(Path.of(url.toURI()));
+            } else {
+                try (InputStream in = url.openStream()) {
+                    byte[] bytes = in.readAllBytes();
+                    bundle = decode(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+                }
+            }
+            System.out.println("[AssetBundle] Loaded " + bundle.entries.size() + " assets");
+            return bundle;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the asset bundle", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Bad asset bundle location " + url, e);
+        }
+    }
+
+    /**
+     * Memory-maps a bundle file.
+     *
+     * @throws IllegalStateException if the file is not a valid bundle
+     */
+    public static AssetBundle open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the manifest of a bundle. The buffer is kept and served from, not copied.
+     *
+     * @throws IllegalStateException if the data is not a valid bundle
+     */
+    public static AssetBundle decode(ByteBuffer data) {
+        ByteBuffer buffer = data.duplicate();
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not an asset bundle");
+            }
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported asset bundle format version " + version);
+            }
+            int count = buffer.getInt();
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte[] id = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(id);
+                int hash = buffer.getInt();
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                if (offset < 0 || length < 0 || offset + length > data.capacity()) {
+                    throw new IllegalStateException("Asset outside the bundle: " + new String(id, StandardCharsets.UTF_8));
+                }
+                entries.put(new String(id, StandardCharsets.UTF_8), new Entry((int) offset, length, hash));
+            }
+            return new AssetBundle(data, entries);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalStateException) {
+                throw e;
+            }
+            throw new IllegalStateException("Corrupt asset bundle", e);
+        }
+    }
+
+    /**
+     * Gets an asset's bytes as a read-only slice of the bundle.
+     *
+     * @return the bytes, or null if the bundle has no such asset
+     */
+    public ByteBuffer get(String assetId) {
+        Entry entry = entries.get(assetId);
+        return entry != null ? data.slice(entry.offset, entry.length).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Opens a stream over an asset's bytes (e.g. for the Image constructor), reading from the bundle directly.
+     *
+     * @return the stream, or null if the bundle has no such asset
+     */
+    public InputStream openStream(String assetId) {
+        ByteBuffer bytes = get(assetId);
+        return bytes != null ? new BufferStream(bytes) : null;
+    }
+
+    /**
+     * Gets the hash (CRC32C) of an asset's bytes, recorded when the bundle was built.
+     *
+     * @return the hash as hex, or null if the bundle has no such asset
+     */
+    public String getHash(String assetId) {
+        Entry entry = entries.get(assetId);
+        return entry != null ? Integer.toHexString(entry.hash) + "-" + Integer.toHexString(entry.length) : null;
+    }
+
+    public boolean contains(String assetId) {
+        return entries.containsKey(assetId);
+    }
+
+    public Set<String> getAssetIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Reads a buffer as a stream, without copying it.
+     */
+    private static class BufferStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
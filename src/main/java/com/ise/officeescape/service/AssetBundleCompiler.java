@@ -0,0 +1,165 @@
+package com.ise.officeescape.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Packs every file in the assets directory into the bundle read by AssetBundle, after checking
+ * that every asset the game refers to exists: room backgrounds, items and animation sprites
+ * from rooms.def, and the assets listed in assets.def. Runs in the process-classes phase of the Maven build, so a
+ * missing asset fails the build instead of showing up as a blank image in game.
+ * Run with: java -cp target/classes com.ise.officeescape.service.AssetBundleCompiler <assets dir> <rooms.def> <assets.def> <assets.bundle>
+ */
+public class AssetBundleCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: AssetBundleCompiler <assets dir> <rooms.def> <assets.def> <assets.bundle>");
+        }
+        Path assetsDir = Path.of(args[0]);
+        Path roomsSource = Path.of(args[1]);
+        Path assetsSource = Path.of(args[2]);
+        Path target = Path.of(args[3]);
+
+        Map<String, Path> assets = findAssets(assetsDir);
+        Map<String, String> required = new LinkedHashMap<>(); // Asset id -> where it is referred to
+        for (RoomDefinition room : RoomDefinitionCompiler.parse(roomsSource.toString(),
+                Files.readAllLines(roomsSource, StandardCharsets.UTF_8))) {
+            required.putIfAbsent(assetId(room.getBackground()), roomsSource.getFileName() + ": background of room " + room.getName());
+            for (RoomDefinition.ItemDefinition item : room.getItems()) {
+                required.putIfAbsent(item.name, roomsSource.getFileName() + ": item in room " + room.getName());
+            }
+            for (RoomDefinition.AnimationDefinition animation : room.getAnimations()) {
+                // A sprite is a strip (<id>) or numbered frames (<id>_0, <id>_1, ...), see SpriteAtlas
+                String assetId = assets.containsKey(animation.assetId + "_0") ? animation.assetId + "_0" : animation.assetId;
+                required.putIfAbsent(assetId, roomsSource.getFileName() + ": animation " + animation.id + " in room " + room.getName());
+            }
+        }
+        required.putAll(parseRequired(assetsSource.toString(), Files.readAllLines(assetsSource, StandardCharsets.UTF_8)));
+
+        List<String> missing = new ArrayList<>();
+        required.forEach((assetId, usage) -> {
+            if (!assets.containsKey(assetId)) {
+                missing.add("missing asset '" + assetId + "' (" + usage + ")");
+            }
+        });
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("No such assets in " + assetsDir + ":\n  " + String.join("\n  ", missing));
+        }
+
+        byte[] bundle = encode(assets);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.write(target, bundle);
+        System.out.println("[AssetBundleCompiler] Packed " + assets.size() + " assets into " + target
+            + " (" + bundle.length / 1024 + " KiB, " + required.size() + " references checked)");
+    }
+
+    /**
+     * Parses the list of assets the code refers to.
+     *
+     * @return asset id -> "file:line" of its entry
+     * @throws IllegalArgumentException naming the file and line of the first error
+     */
+    static Map<String, String> parseRequired(String fileName, List<String> lines) {
+        Map<String, String> required = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String location = Path.of(fileName).getFileName() + ":" + (i + 1);
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            String[] tokens = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+            if (!tokens[0].equals("asset") || tokens.length != 2) {
+                throw new IllegalArgumentException(location + ": expected 'asset <id>'");
+            }
+            required.putIfAbsent(tokens[1], location);
+        }
+        return required;
+    }
+
+    /**
+     * Finds the files in the assets directory, keyed by asset id.
+     *
+     * @throws IllegalStateException if two files have the same id
+     */
+    private static Map<String, Path> findAssets(Path assetsDir) throws IOException {
+        Map<String, Path> assets = new TreeMap<>(); // Sorted, so the bundle only changes when assets do
+        try (Stream<Path> files = Files.list(assetsDir)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                Path previous = assets.put(assetId(file.getFileName().toString()), file);
+                if (previous != null) {
+                    throw new IllegalStateException("Assets " + previous.getFileName() + " and "
+                        + file.getFileName() + " have the same id");
+                }
+            }
+        }
+        return assets;
+    }
+
+    /**
+     * Gets the id of an asset file: its name without extension.
+     */
+    static String assetId(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    /**
+     * Encodes assets in the bundle format (see AssetBundle).
+     */
+    static byte[] encode(Map<String, Path> assets) throws IOException {
+        List<byte[]> ids = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        int manifestSize = 4 + 2 + 4;
+        for (Map.Entry<String, Path> asset : assets.entrySet()) {
+            byte[] id = asset.getKey().getBytes(StandardCharsets.UTF_8);
+            ids.add(id);
+            contents.add(Files.readAllBytes(asset.getValue()));
+            manifestSize += 2 + id.length + 4 + 8 + 4;
+        }
+
+        long offset = align(manifestSize);
+        long[] offsets = new long[contents.size()];
+        for (int i = 0; i < contents.size(); i++) {
+            offsets[i] = offset;
+            offset = align(offset + contents.get(i).length);
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Assets too large for one bundle: " + offset + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) offset);
+        buffer.putInt(AssetBundle.MAGIC);
+        buffer.putShort(AssetBundle.FORMAT_VERSION);
+        buffer.putInt(contents.size());
+        for (int i = 0; i < contents.size(); i++) {
+            CRC32C crc = new CRC32C();
+            crc.update(contents.get(i));
+            buffer.putShort((short) ids.get(i).length).put(ids.get(i));
+            buffer.putInt((int) crc.getValue());
+            buffer.putLong(offsets[i]);
+            buffer.putInt(contents.get(i).length);
+        }
+        for (int i = 0; i < contents.size(); i++) {
+            buffer.put((int) offsets[i], contents.get(i));
+        }
+        return buffer.array();
+    }
+
+    private static long align(long offset) {
+        return (offset + AssetBundle.ALIGNMENT - 1) / AssetBundle.ALIGNMENT * AssetBundle.ALIGNMENT;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.eventSystem.*;
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Write-behind autosave. The FX thread hands over an immutable snapshot of what changed and
+ * returns at once; a background thread writes it. Snapshots requested while a write is pending
+ * are merged into it, so a burst of room changes ends up as a single write.
+ */
+public class AutoSaver implements AutoCloseable {
+
+    private static final long COALESCE_DELAY_MS = 100;
+    private static final long RETRY_DELAY_MS = 5_000;
+
+    private final SaveService saveService;
+    private final ScheduledExecutorService writer;
+    private final AtomicReference<SaveSnapshot> pending = new AtomicReference<>();
+
+    // Fired on the writer thread once a snapshot is on disk (or failed to save)
+    public Event<OnSavedEventArgs> OnSaved = new Event<>();
+    public static class OnSavedEventArgs extends EventArgs {
+        public final SaveSnapshot snapshot;
+        public final boolean success;
+        public OnSavedEventArgs(SaveSnapshot snapshot, boolean success) {
+            this.snapshot = snapshot;
+            this.success = success;
+        }
+    }
+
+    public AutoSaver(SaveService saveService) {
+        this.saveService = saveService;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a snapshot to be saved. Returns immediately.
+     * Requests after close are ignored; close has already written everything before them.
+     */
+    public void request(SaveSnapshot snapshot) {
+        if (writer.isShutdown()) {
+            System.err.println("[AutoSaver] Save requested after close, ignoring it");
+            return;
+        }
+        if (pending.getAndAccumulate(snapshot, AutoSaver::merge) == null) {
+            // No write waiting yet: schedule one, later requests in the window are merged into it
+            writer.schedule(this::writePending, COALESCE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes any pending snapshot now and waits until it is on disk.
+     */
+    public void flush() {
+        try {
+            writer.submit(this::writePending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("[AutoSaver] Error flushing save: " + e.getCause());
+        }
+    }
+
+    /**
+     * Flushes the pending snapshot and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (!writer.isShutdown()) {
+            flush();
+            writer.shutdown();
+        }
+    }
+
+    private void writePending() {
+        SaveSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return; // Already written by an earlier task or a flush
+        }
+        boolean success = saveService.saveChanges(snapshot);
+        if (!success && !writer.isShutdown()) {
+            // Keep the changes (the rooms are already marked clean) and try again later
+            if (pending.getAndAccumulate(snapshot, (newer, failed) -> merge(failed, newer)) == null) {
+                writer.schedule(this::writePending, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        OnSaved.invoke(this, new OnSavedEventArgs(snapshot, success));
+    }
+
+    private static SaveSnapshot merge(SaveSnapshot earlier, SaveSnapshot later) {
+        if (earlier == null) {
+            return later;
+        }
+        if (later == null) {
+            return earlier;
+        }
+        return earlier.merge(later);
+    }
+}
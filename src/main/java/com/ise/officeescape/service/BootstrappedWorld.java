@@ -0,0 +1,76 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.view.RoomViewModel;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A world whose rooms have all been set up by WorldBootstrapper.
+ * Immutable once created, so it can be handed from the worker threads to the FX thread.
+ */
+public final class BootstrappedWorld {
+    private final RoomManager roomManager;
+    private final List<RoomViewModel> viewModels; // Same order as roomManager.getAllRooms()
+    private final Map<Room, RoomViewModel> viewModelsByRoom;
+    private final List<String> unresolvedGates;
+    private final Map<String, Long> phaseNanos;
+
+    BootstrappedWorld(RoomManager roomManager, List<RoomViewModel> viewModels,
+                      List<String> unresolvedGates, Map<String, Long> phaseNanos) {
+        this.roomManager = roomManager;
+        this.viewModels = viewModels;
+        this.unresolvedGates = unresolvedGates;
+        this.phaseNanos = Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+        Map<Room, RoomViewModel> byRoom = new IdentityHashMap<>();
+        for (RoomViewModel viewModel : viewModels) {
+            byRoom.put(viewModel.getRoom(), viewModel);
+        }
+        this.viewModelsByRoom = Collections.unmodifiableMap(byRoom);
+    }
+
+    public RoomManager getRoomManager() {
+        return roomManager;
+    }
+
+    /**
+     * Gets the view model built for a room, or null if the room is not part of this world.
+     */
+    public RoomViewModel getViewModel(Room room) {
+        return viewModelsByRoom.get(room);
+    }
+
+    public List<RoomViewModel> getViewModels() {
+        return viewModels;
+    }
+
+    /**
+     * Gets descriptions of gates that need a puzzle no room provides (empty if the world is consistent).
+     */
+    public List<String> getUnresolvedGates() {
+        return unresolvedGates;
+    }
+
+    /**
+     * Gets the time spent in each bootstrap phase, in nanoseconds, in phase order.
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("World of " + viewModels.size() + " rooms");
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            sb.append("\n  ").append(phase.getKey()).append(": ")
+                .append(String.format("%.1f", phase.getValue() / 1e6)).append(" ms");
+        }
+        sb.append("\n  unresolved gates: ").append(unresolvedGates.size());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.service.SaveService.RoomState;
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of which rooms changed since the last save, so an autosave only captures
+ * those rooms instead of every room in the world.
+ * Rooms report changes through their inventory and puzzle events once tracked.
+ */
+public class DirtyRoomTracker {
+
+    private final Set<Room> tracked = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Room> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Starts watching a set-up room for changes. Tracking a room again has no effect.
+     */
+    public void track(Room room) {
+        if (!tracked.add(room)) {
+            return;
+        }
+        room.getInventory().OnInventoryChanged.addListener((sender, args) -> changed.add(room));
+        for (Puzzle puzzle : room.getAllPuzzles()) {
+            puzzle.OnStateChanged.addListener((sender, args) -> changed.add(room));
+        }
+        if (room.isDirty()) {
+            changed.add(room);
+        }
+    }
+
+    /**
+     * Captures the player's state and every room that changed since the last call,
+     * then marks those rooms as saved.
+     */
+    public SaveSnapshot captureChanges(Room currentRoom, Inventory playerInventory) {
+        List<RoomState> rooms = new ArrayList<>(changed.size());
+        for (Room room : changed) {
+            if (room.isDirty()) { // Changes may have been undone since
+                rooms.add(RoomState.capture(room));
+                room.markClean();
+            }
+        }
+        changed.clear();
+        return SaveSnapshot.of(currentRoom, playerInventory, rooms);
+    }
+
+    /**
+     * Gets the number of rooms that may have changed since the last capture.
+     */
+    public int getChangedCount() {
+        return changed.size();
+    }
+}
@@ -1,147 +1,179 @@
 package com.ise.officeescape.service;
 
 import com.ise.officeescape.model.*;
-import com.ise.officeescape.model.puzzles.TicketPuzzle;
-import com.ise.officeescape.model.puzzles.QueueGaurdPuzzle;
-import com.ise.officeescape.model.puzzles.SecurityPuzzle;
-import com.ise.officeescape.model.puzzles.InterviewPuzzle;
+import com.ise.officeescape.model.puzzles.PuzzleRegistry;
+import com.ise.officeescape.view.AnimationEngine;
+import com.ise.officeescape.view.AnimationViewModel;
 import com.ise.officeescape.view.HotspotViewModel;
 import com.ise.officeescape.view.RoomViewModel;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Service for loading room data and creating room view models.
- * This is where room definitions (hotspots, puzzles, animations) are configured.
+ * Rooms are set up from their definitions (src/main/rooms/rooms.def, compiled into
+ * the binary index read by RoomDefinitions at build time).
+ * Each room is set up once; later loads return the cached view model, so puzzles
+ * keep their progress and room items are not added again.
  */
 public class RoomDataService {
 
+    private final boolean verbose;
+    private final RoomDefinitions definitions = RoomDefinitions.getBuiltIn();
+    private final Map<Room, RoomViewModel> viewModels = new ConcurrentHashMap<>();
+
+    public RoomDataService() {
+        this(true);
+    }
+
+    /**
+     * @param verbose Whether to log every setup step (turn off when setting up thousands of rooms)
+     */
+    public RoomDataService(boolean verbose) {
+        this.verbose = verbose;
+    }
+
     /**
      * Loads a room with all its interactables, puzzles, and view data.
+     * The room is set up on the first call only; later calls return the same view model.
      */
     public RoomViewModel loadRoom(Room room) {
+        RoomViewModel cached = viewModels.get(room);
+        if (cached != null) {
+            log("[RoomDataService] Reusing loaded room: " + room.getName());
+            return cached;
+        }
+        return viewModels.computeIfAbsent(room, this::setupRoom);
+    }
+
+    /**
+     * Checks if a room has already been set up by this service.
+     */
+    public boolean isLoaded(Room room) {
+        return viewModels.containsKey(room);
+    }
+
+    private RoomViewModel setupRoom(Room room) {
         String roomId = room.getName();
-        System.out.println("[RoomDataService] Loading room: " + roomId);
-        RoomViewModel viewModel = new RoomViewModel(room, getBackgroundPath(roomId));
-
-        // Configure room-specific data
-        switch (roomId) {
-            case "ticket":
-                System.out.println("[RoomDataService] Setting up ticket room with puzzles and interactables");
-                setupTicketRoom(room, viewModel);
-            break;
-            case "queue":
-                System.out.println("[RoomDataService] Setting up queue room with interactables");
-                setupQueueRoom(room, viewModel);
-            break;
-            case "security":
-                System.out.println("[RoomDataService] Setting up security room with puzzles and interactables");
-                setupSecurityRoom(room, viewModel);
-            break;
-            case "interview":
-                System.out.println("[RoomDataService] Setting up interview room with puzzles and interactables");
-                setupInterviewRoom(room, viewModel);
-            break;
-            default:
-            System.out.println("[RoomDataService] No special setup for room: " + roomId);
-            // Add other rooms here as needed
+        Symbol roomSymbol = getRoomType(room);
+        log("[RoomDataService] Loading room: " + roomId);
+        RoomDefinition definition = definitions.get(roomSymbol.getName());
+        if (definition == null) {
+            log("[RoomDataService] No special setup for room: " + roomId);
+            return new RoomViewModel(room, getBackgroundAssetId(room));
         }
 
-        System.out.println("[RoomDataService] Room loaded with " + viewModel.getHotspots().size() + " hotspots");
+        log("[RoomDataService] Setting up " + definition.getName() + " room from its definition");
+        RoomViewModel viewModel = new RoomViewModel(room, getBackgroundAssetId(room));
+
+        // Add puzzles first (needed for interactions)
+        // Generated rooms get their own copies of the puzzles and items (see Room.getScope)
+        for (String puzzleId : definition.getPuzzleIds()) {
+            Puzzle puzzle = PuzzleRegistry.create(puzzleId, room.getScope());
+            room.addPuzzle(puzzle);
+            log("[RoomDataService] Added puzzle: " + puzzle.getId());
+        }
+
+        for (Item item : createItems(definition, room)) {
+            room.getInventory().addItem(item);
+        }
+        if (!definition.getItems().isEmpty()) {
+            log("[RoomDataService] Added items to room inventory");
+        }
+
+        // Hotspots are the single source of truth - Interactables are created automatically
+        for (RoomDefinition.HotspotDefinition hotspot : definition.getHotspots()) {
+            addInteractables(room, viewModel, hotspot.id, hotspot.x, hotspot.y,
+                hotspot.width, hotspot.height, hotspot.hoverText, hotspot.interactionType);
+        }
+
+        // Looping sprites play as soon as the room is shown; one-shots wait for AnimationEngine.play
+        for (RoomDefinition.AnimationDefinition animation : definition.getAnimations()) {
+            AnimationViewModel animationViewModel = new AnimationViewModel(animation.id, animation.type,
+                animation.assetId, animation.x, animation.y, animation.width, animation.height);
+            animationViewModel.setFrameRate(animation.frameRate);
+            animationViewModel.setAutoPlay(AnimationEngine.LOOPING_SPRITE.equals(animation.type));
+            viewModel.addAnimation(animationViewModel);
+        }
+
+        // A freshly set up room matches its definition, so there is nothing to save yet
+        room.markClean();
+        log("[RoomDataService] Room loaded with " + viewModel.getHotspots().size() + " hotspots and "
+            + viewModel.getAnimations().size() + " animations");
         return viewModel;
     }
 
-    private String getBackgroundPath(String roomId) {
-        return "/com/ise/officeescape/assets/" + roomId + ".png";
+    /**
+     * Gets the type of a room, which decides how it is set up. Generated rooms are named
+     * "type-index" (e.g. "ticket-3") and are set up like the built-in room of that type.
+     */
+    public static Symbol getRoomType(Room room) {
+        String name = room.getName();
+        int dash = name.indexOf('-');
+        return dash < 0 ? room.getSymbol() : Symbol.of(name.substring(0, dash));
     }
 
     /**
-     * Sets up the ticket room with puzzles and hotspots.
-     * Hotspots are the single source of truth - Interactables are created automatically.
+     * Gets the ids of the puzzles that loadRoom adds to a room, without setting it up.
+     * Used to work out which rooms other rooms' gates depend on.
      */
-    private void setupTicketRoom(Room room, RoomViewModel viewModel) {
-        System.out.println("[RoomDataService] Setting up ticket room with hotspots and puzzles");
-
-        // Add puzzle first (needed for interactions)
-        Puzzle ticketPuzzle = new TicketPuzzle();
-        room.addPuzzle(ticketPuzzle);
-        System.out.println("[RoomDataService] Added puzzle: ticketPuzzle");
-
-        // Add some items to room inventory
-        room.getInventory().addItem(new Item("bananaPeel", "A slippery banana peel, watch your step!"));
-        room.getInventory().addItem(new Item("popsicle", "A refreshing popsicle, perfect for a hot day"));
-        System.out.println("[RoomDataService] Added items to room inventory");
-
-        // Define hotspots - Interactables are created automatically!
-        // Just use this one method and it handles both view and model
-        addInteractables(room, viewModel,
-            "ticketMachine",
-            600, 400,  // x, y position on screen
-            150, 200,  // width, height
-            "Ticket Machine - Click to get your number",
-            "TAKE_TICKET"
-        );
+    public static List<String> getHostedPuzzleIds(Room room) {
+        RoomDefinition definition = RoomDefinitions.getBuiltIn().get(getRoomType(room).getName());
+        if (definition == null) {
+            return List.of();
+        }
+        if (room.getScope() == null) {
+            return definition.getPuzzleIds();
+        }
+        return definition.getPuzzleIds().stream().map(id -> Room.scoped(id, room.getScope())).toList();
     }
 
     /**
-     * Sets up the queue room with hotspots.
+     * Creates the items loadRoom puts in a room, without setting it up or looking at what
+     * the room holds now. Used to model the game as it starts.
      */
-    private void setupQueueRoom(Room room, RoomViewModel viewModel) {
-        System.out.println("[RoomDataService] Setting up queue room with hotspots and puzzles");
-
-        // Add puzzle first (needed for interactions)
-        Puzzle guardPuzzle = new QueueGaurdPuzzle();
-        room.addPuzzle(guardPuzzle);
-        System.out.println("[RoomDataService] Added puzzle: queueGaurdPuzzle");
-
-        // Add guard NPC hotspot
-        addInteractables(room, viewModel,
-            "guard",
-            400, 300,  // x, y position on screen
-            100, 150,  // width, height
-            "Guard - Talk to the guard",
-            "TALK_TO_GUARD"
-        );
+    public static List<Item> getStartingItems(Room room) {
+        RoomDefinition definition = RoomDefinitions.getBuiltIn().get(getRoomType(room).getName());
+        return definition == null ? List.of() : createItems(definition, room);
     }
-    
+
     /**
-     * Sets up the security room with puzzles and hotspots.
+     * Creates the documents the player carries at the start of a new game.
      */
-    private void setupSecurityRoom(Room room, RoomViewModel viewModel) {
-        System.out.println("[RoomDataService] Setting up security room with hotspots and puzzles");
-
-        // Add puzzle first (needed for interactions)
-        Puzzle securityPuzzle = new SecurityPuzzle();
-        room.addPuzzle(securityPuzzle);
-        System.out.println("[RoomDataService] Added puzzle: securityPuzzle");
-
-        // Add security checkpoint hotspot (in the middle)
-        addInteractables(room, viewModel,
-            "securityCheckpoint",
-            600, 400,  // x, y position on screen
-            150, 200,  // width, height
-            "Security Checkpoint - Click to hack the metal detector",
-            "SECURITY_CHECK"
-        );
+    public static Inventory createStartingInventory() {
+        Inventory inventory = new Inventory();
+        inventory.addItem(new Item("passport", "Your passport"));
+        inventory.addItem(new Item("visaApplication", "Visa application form"));
+        inventory.addItem(new Item("birthCertificate", "Birth certificate"));
+        inventory.addItem(new Item("employmentLetter", "Employment letter"));
+        return inventory;
+    }
+
+    private static List<Item> createItems(RoomDefinition definition, Room room) {
+        List<Item> items = new ArrayList<>();
+        for (RoomDefinition.ItemDefinition item : definition.getItems()) {
+            items.add(new Item(Room.scoped(item.name, room.getScope()), item.description));
+        }
+        return items;
     }
-    
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
     /**
-     * Sets up the interview room with puzzles and hotspots.
+     * Gets the asset id of the background image a room will show, without setting it up.
+     * Used to start decoding the backgrounds of neighbouring rooms early.
      */
-    private void setupInterviewRoom(Room room, RoomViewModel viewModel) {
-        System.out.println("[RoomDataService] Setting up interview room with hotspots and puzzles");
-
-        // Add puzzle first (needed for interactions)
-        Puzzle interviewPuzzle = new InterviewPuzzle();
-        room.addPuzzle(interviewPuzzle);
-        System.out.println("[RoomDataService] Added puzzle: interviewPuzzle");
-
-        // Add interviewer hotspot (in the middle)
-        addInteractables(room, viewModel,
-            "interviewer",
-            600, 400,  // x, y position on screen
-            150, 200,  // width, height
-            "Interviewer - Click to start the interview",
-            "START_INTERVIEW"
-        );
+    public String getBackgroundAssetId(Room room) {
+        Symbol roomType = getRoomType(room);
+        RoomDefinition definition = definitions.get(roomType.getName());
+        return definition != null ? AssetBundleCompiler.assetId(definition.getBackground()) : roomType.getName();
     }
 
     /**
@@ -152,7 +184,7 @@ public class RoomDataService {
         Interactable interactable = new Interactable(hotspot.getId(), hotspot.getInteractionType());
         interactable.setDescription(hotspot.getHoverText());
         room.addInteractable(interactable);
-        System.out.println("[RoomDataService] Auto-created Interactable from hotspot: " + hotspot.getId());
+        log("[RoomDataService] Auto-created Interactable from hotspot: " + hotspot.getId());
     }
 
     /**
@@ -175,7 +207,7 @@ public class RoomDataService {
         HotspotViewModel hotspot = new HotspotViewModel(id, x, y, width, height, hoverText, interactionType);
         viewModel.addHotspot(hotspot);
         createInteractableFromHotspot(room, hotspot);
-        System.out.println("[RoomDataService] Added hotspot and interactable: " + id + " at (" + x + ", " + y + ")");
+        log("[RoomDataService] Added hotspot and interactable: " + id + " at (" + x + ", " + y + ")");
     }
 }
 
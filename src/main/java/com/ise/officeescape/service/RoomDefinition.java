@@ -0,0 +1,195 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.conditions.GateRule;
+
+import java.util.List;
+
+/**
+ * A room of the world and how it is set up: its exits and entry rule, background, puzzles,
+ * starting items, hotspots and animations.
+ * Loaded from the compiled room definitions (see RoomDefinitions).
+ */
+public final class RoomDefinition {
+    private final String name;
+    private final String description;
+    private final boolean start;
+    private final List<ExitDefinition> exits;
+    private final GateDefinition gate;
+    private final String background;
+    private final List<String> puzzleIds;
+    private final List<ItemDefinition> items;
+    private final List<HotspotDefinition> hotspots;
+    private final List<AnimationDefinition> animations;
+
+    public RoomDefinition(String name, String description, boolean start, List<ExitDefinition> exits,
+                          GateDefinition gate, String background, List<String> puzzleIds,
+                          List<ItemDefinition> items, List<HotspotDefinition> hotspots,
+                          List<AnimationDefinition> animations) {
+        this.name = name;
+        this.description = description;
+        this.start = start;
+        this.exits = List.copyOf(exits);
+        this.gate = gate;
+        this.background = background;
+        this.puzzleIds = List.copyOf(puzzleIds);
+        this.items = List.copyOf(items);
+        this.hotspots = List.copyOf(hotspots);
+        this.animations = List.copyOf(animations);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Checks if the player starts the game in this room.
+     */
+    public boolean isStart() {
+        return start;
+    }
+
+    public List<ExitDefinition> getExits() {
+        return exits;
+    }
+
+    /**
+     * Gets the rule for entering the room, or null if it is always open.
+     */
+    public GateDefinition getGate() {
+        return gate;
+    }
+
+    /**
+     * Gets the background image file name, relative to the assets folder.
+     */
+    public String getBackground() {
+        return background;
+    }
+
+    public List<String> getPuzzleIds() {
+        return puzzleIds;
+    }
+
+    public List<ItemDefinition> getItems() {
+        return items;
+    }
+
+    public List<HotspotDefinition> getHotspots() {
+        return hotspots;
+    }
+
+    public List<AnimationDefinition> getAnimations() {
+        return animations;
+    }
+
+    /**
+     * A way out of the room.
+     */
+    public static final class ExitDefinition {
+        public final String direction; // A Direction name
+        public final String room;
+
+        public ExitDefinition(String direction, String room) {
+            this.direction = direction;
+            this.room = room;
+        }
+    }
+
+    /**
+     * The entry rule of a room (see GateRule): a condition, the message shown when it fails,
+     * and more specific messages for when exactly some facts are missing.
+     */
+    public static final class GateDefinition {
+        public final String condition;
+        public final String message;
+        public final List<String> missingFacts;
+        public final List<String> missingMessages;
+
+        public GateDefinition(String condition, String message, List<String> missingFacts, List<String> missingMessages) {
+            this.condition = condition;
+            this.message = message;
+            this.missingFacts = List.copyOf(missingFacts);
+            this.missingMessages = List.copyOf(missingMessages);
+        }
+
+        /**
+         * Compiles the rule.
+         *
+         * @throws IllegalArgumentException if a condition does not parse
+         */
+        public GateRule toGateRule() {
+            GateRule rule = GateRule.of(condition, message);
+            for (int i = 0; i < missingFacts.size(); i++) {
+                rule.whenMissing(missingFacts.get(i), missingMessages.get(i));
+            }
+            return rule;
+        }
+    }
+
+    /**
+     * An item placed in the room when it is set up.
+     */
+    public static final class ItemDefinition {
+        public final String name;
+        public final String description;
+
+        public ItemDefinition(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    /**
+     * A clickable area of the room, which also becomes an Interactable.
+     */
+    public static final class HotspotDefinition {
+        public final String id;
+        public final float x;
+        public final float y;
+        public final float width;
+        public final float height;
+        public final String interactionType;
+        public final String hoverText;
+
+        public HotspotDefinition(String id, float x, float y, float width, float height,
+                                 String interactionType, String hoverText) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.interactionType = interactionType;
+            this.hoverText = hoverText;
+        }
+    }
+
+    /**
+     * A sprite played over the room (see AnimationEngine).
+     */
+    public static final class AnimationDefinition {
+        public final String id;
+        public final String type; // AnimationEngine.LOOPING_SPRITE or ONE_SHOT
+        public final String assetId;
+        public final float x;
+        public final float y;
+        public final float width;
+        public final float height;
+        public final float frameRate; // Frames per second
+
+        public AnimationDefinition(String id, String type, String assetId, float x, float y,
+                                   float width, float height, float frameRate) {
+            this.id = id;
+            this.type = type;
+            this.assetId = assetId;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.frameRate = frameRate;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.puzzles.PuzzleRegistry;
+import com.ise.officeescape.view.AnimationEngine;
+import com.ise.officeescape.service.RoomDefinition.AnimationDefinition;
+import com.ise.officeescape.service.RoomDefinition.ExitDefinition;
+import com.ise.officeescape.service.RoomDefinition.GateDefinition;
+import com.ise.officeescape.service.RoomDefinition.HotspotDefinition;
+import com.ise.officeescape.service.RoomDefinition.ItemDefinition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the room definition text (src/main/rooms/rooms.def) into the binary index
+ * read by RoomDefinitions. Runs in the process-classes phase of the Maven build, so
+ * mistakes in the definitions fail the build instead of showing up in game.
+ * Run with: java -cp target/classes com.ise.officeescape.service.RoomDefinitionCompiler <rooms.def> <rooms.bin>
+ */
+public class RoomDefinitionCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RoomDefinitionCompiler <rooms.def> <rooms.bin>");
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+
+        List<RoomDefinition> rooms = parse(source.toString(), Files.readAllLines(source, StandardCharsets.UTF_8));
+        byte[] index = RoomDefinitions.encode(rooms);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.write(target, index);
+        System.out.println("[RoomDefinitionCompiler] Compiled " + rooms.size() + " rooms into " + target
+            + " (" + index.length + " bytes)");
+    }
+
+    /**
+     * Parses and validates room definitions.
+     *
+     * @throws IllegalArgumentException naming the file and line of the first error
+     */
+    public static List<RoomDefinition> parse(String fileName, List<String> lines) {
+        Map<String, RoomDefinition> rooms = new LinkedHashMap<>();
+        Map<String, String> exitLocations = new LinkedHashMap<>(); // "room direction" -> where the exit is defined
+        String startRoom = null;
+        RoomBuilder current = null;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String location = fileName + ":" + (i + 1);
+            List<String> tokens = tokenize(lines.get(i), location);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            String directive = tokens.get(0);
+
+            if (directive.equals("room")) {
+                expectArguments(tokens, 1, location);
+                if (current != null) {
+                    throw error(location, "room '" + current.name + "' is missing 'end'");
+                }
+                if (rooms.containsKey(tokens.get(1))) {
+                    throw error(location, "room '" + tokens.get(1) + "' is defined twice");
+                }
+                current = new RoomBuilder(tokens.get(1));
+                continue;
+            }
+            if (current == null) {
+                throw error(location, "'" + directive + "' outside of a room");
+            }
+
+            switch (directive) {
+                case "end" -> {
+                    expectArguments(tokens, 0, location);
+                    if (current.gateCondition == null && !current.missingFacts.isEmpty()) {
+                        throw error(location, "room '" + current.name + "' has 'whenMissing' without a 'gate'");
+                    }
+                    RoomDefinition room = current.build();
+                    if (room.getGate() != null) {
+                        try {
+                            room.getGate().toGateRule();
+                        } catch (IllegalArgumentException e) {
+                            throw error(current.gateLocation, e.getMessage());
+                        }
+                    }
+                    rooms.put(current.name, room);
+                    current = null;
+                }
+                case "description" -> {
+                    expectArguments(tokens, 1, location);
+                    current.description = tokens.get(1);
+                }
+                case "start" -> {
+                    expectArguments(tokens, 0, location);
+                    if (startRoom != null) {
+                        throw error(location, "room '" + startRoom + "' is already the start room");
+                    }
+                    startRoom = current.name;
+                    current.start = true;
+                }
+                case "exit" -> {
+                    expectArguments(tokens, 2, location);
+                    String direction = tokens.get(1);
+                    if (!isDirection(direction)) {
+                        throw error(location, "unknown direction '" + direction + "', expected one of " + List.of(Direction.values()));
+                    }
+                    if (!current.exitDirections.add(direction)) {
+                        throw error(location, "room '" + current.name + "' already has a " + direction + " exit");
+                    }
+                    current.exits.add(new ExitDefinition(direction, tokens.get(2)));
+                    exitLocations.put(current.name + " " + direction, location);
+                }
+                case "gate" -> {
+                    expectArguments(tokens, 2, location);
+                    if (current.gateCondition != null) {
+                        throw error(location, "room '" + current.name + "' already has a gate");
+                    }
+                    current.gateCondition = tokens.get(1);
+                    current.gateMessage = tokens.get(2);
+                    current.gateLocation = location;
+                }
+                case "whenMissing" -> {
+                    expectArguments(tokens, 2, location);
+                    current.missingFacts.add(tokens.get(1));
+                    current.missingMessages.add(tokens.get(2));
+                }
+                case "background" -> {
+                    expectArguments(tokens, 1, location);
+                    current.background = tokens.get(1);
+                }
+                case "puzzle" -> {
+                    expectArguments(tokens, 1, location);
+                    String puzzleId = tokens.get(1);
+                    if (!PuzzleRegistry.isKnown(puzzleId)) {
+                        throw error(location, "unknown puzzle '" + puzzleId + "', expected one of " + PuzzleRegistry.getPuzzleIds());
+                    }
+                    if (current.puzzleIds.contains(puzzleId)) {
+                        throw error(location, "puzzle '" + puzzleId + "' is added twice");
+                    }
+                    current.puzzleIds.add(puzzleId);
+                }
+                case "item" -> {
+                    expectArguments(tokens, 2, location);
+                    if (!current.itemNames.add(tokens.get(1))) {
+                        throw error(location, "item '" + tokens.get(1) + "' is added twice");
+                    }
+                    current.items.add(new ItemDefinition(tokens.get(1), tokens.get(2)));
+                }
+                case "hotspot" -> {
+                    expectArguments(tokens, 7, location);
+                    String id = tokens.get(1);
+                    if (!current.hotspotIds.add(id)) {
+                        throw error(location, "hotspot '" + id + "' is defined twice");
+                    }
+                    float x = number(tokens.get(2), location);
+                    float y = number(tokens.get(3), location);
+                    float width = number(tokens.get(4), location);
+                    float height = number(tokens.get(5), location);
+                    if (width <= 0 || height <= 0) {
+                        throw error(location, "hotspot '" + id + "' must have a positive size");
+                    }
+                    String interactionType = tokens.get(6);
+                    if (!interactionType.matches("[A-Z][A-Z0-9_]*")) {
+                        throw error(location, "interaction type '" + interactionType + "' must be UPPER_SNAKE_CASE");
+                    }
+                    current.hotspots.add(new HotspotDefinition(id, x, y, width, height, interactionType, tokens.get(7)));
+                }
+                case "animation" -> {
+                    if (tokens.size() != 8 && tokens.size() != 9) {
+                        throw error(location, "'animation' takes 7 or 8 argument(s), got " + (tokens.size() - 1));
+                    }
+                    String id = tokens.get(1);
+                    if (!current.animationIds.add(id)) {
+                        throw error(location, "animation '" + id + "' is defined twice");
+                    }
+                    String type = tokens.get(2);
+                    if (!type.equals(AnimationEngine.LOOPING_SPRITE) && !type.equals(AnimationEngine.ONE_SHOT)) {
+                        throw error(location, "unknown animation type '" + type + "', expected "
+                            + AnimationEngine.LOOPING_SPRITE + " or " + AnimationEngine.ONE_SHOT);
+                    }
+                    float x = number(tokens.get(4), location);
+                    float y = number(tokens.get(5), location);
+                    float width = number(tokens.get(6), location);
+                    float height = number(tokens.get(7), location);
+                    if (width <= 0 || height <= 0) {
+                        throw error(location, "animation '" + id + "' must have a positive size");
+                    }
+                    float frameRate = tokens.size() == 9 ? number(tokens.get(8), location) : (float) AnimationEngine.DEFAULT_FRAME_RATE;
+                    if (frameRate <= 0) {
+                        throw error(location, "animation '" + id + "' must have a positive frame rate");
+                    }
+                    current.animations.add(new AnimationDefinition(id, type, tokens.get(3), x, y, width, height, frameRate));
+                }
+                default -> throw error(location, "unknown directive '" + directive + "'");
+            }
+        }
+        if (current != null) {
+            throw error(fileName, "room '" + current.name + "' is missing 'end'");
+        }
+        for (RoomDefinition room : rooms.values()) {
+            for (ExitDefinition exit : room.getExits()) {
+                if (!rooms.containsKey(exit.room)) {
+                    throw error(exitLocations.get(room.getName() + " " + exit.direction),
+                        "exit to unknown room '" + exit.room + "'");
+                }
+            }
+        }
+        if (startRoom == null) {
+            throw error(fileName, "no room is marked 'start'");
+        }
+        return new ArrayList<>(rooms.values());
+    }
+
+    /**
+     * Splits a line into words and "quoted strings", dropping # comments.
+     */
+    private static List<String> tokenize(String line, String location) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '#') {
+                break;
+            } else if (c == '"') {
+                int close = line.indexOf('"', i + 1);
+                if (close < 0) {
+                    throw error(location, "unterminated string");
+                }
+                tokens.add(line.substring(i + 1, close));
+                i = close + 1;
+            } else {
+                int start = i;
+                while (i < line.length() && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '"') {
+                    i++;
+                }
+                tokens.add(line.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isDirection(String name) {
+        for (Direction direction : Direction.values()) {
+            if (direction.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void expectArguments(List<String> tokens, int count, String location) {
+        if (tokens.size() - 1 != count) {
+            throw error(location, "'" + tokens.get(0) + "' takes " + count + " argument(s), got " + (tokens.size() - 1));
+        }
+    }
+
+    private static float number(String token, String location) {
+        try {
+            return Float.parseFloat(token);
+        } catch (NumberFormatException e) {
+            throw error(location, "'" + token + "' is not a number");
+        }
+    }
+
+    private static IllegalArgumentException error(String location, String message) {
+        return new IllegalArgumentException(location + ": " + message);
+    }
+
+    /**
+     * Collects one room while it is being parsed.
+     */
+    private static class RoomBuilder {
+        final String name;
+        String description;
+        boolean start;
+        final List<ExitDefinition> exits = new ArrayList<>();
+        final Set<String> exitDirections = new HashSet<>();
+        String gateCondition;
+        String gateMessage;
+        String gateLocation;
+        final List<String> missingFacts = new ArrayList<>();
+        final List<String> missingMessages = new ArrayList<>();
+        String background;
+        final List<String> puzzleIds = new ArrayList<>();
+        final List<ItemDefinition> items = new ArrayList<>();
+        final List<HotspotDefinition> hotspots = new ArrayList<>();
+        final Set<String> itemNames = new HashSet<>();
+        final Set<String> hotspotIds = new HashSet<>();
+        final List<AnimationDefinition> animations = new ArrayList<>();
+        final Set<String> animationIds = new HashSet<>();
+
+        RoomBuilder(String name) {
+            this.name = name;
+        }
+
+        RoomDefinition build() {
+            GateDefinition gate = gateCondition != null
+                ? new GateDefinition(gateCondition, gateMessage, missingFacts, missingMessages)
+                : null;
+            return new RoomDefinition(name, description != null ? description : name, start, exits, gate,
+                background != null ? background : name + ".png", puzzleIds, items, hotspots, animations);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.service.RoomDefinition.AnimationDefinition;
+import com.ise.officeescape.service.RoomDefinition.ExitDefinition;
+import com.ise.officeescape.service.RoomDefinition.GateDefinition;
+import com.ise.officeescape.service.RoomDefinition.HotspotDefinition;
+import com.ise.officeescape.service.RoomDefinition.ItemDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled room definitions, read from the binary index built by RoomDefinitionCompiler.
+ *
+ * Format (big-endian): magic, format version, a string table (count, then length-prefixed
+ * UTF-8 strings), then the rooms. Every string in a room is an index into the table.
+ * Room: name, description, start flag (byte), exit count + (direction, room), gate flag (byte)
+ * + (condition, message, whenMissing count + (facts, message)) if set, background,
+ * puzzle count + puzzle ids, item count + (name, description),
+ * hotspot count + (id, x, y, width, height as floats, interaction type, hover text),
+ * animation count + (id, type, asset id, x, y, width, height, frame rate as floats).
+ * Rooms are kept in definition order.
+ */
+public final class RoomDefinitions {
+
+    public static final String RESOURCE = "/com/ise/officeescape/rooms.bin";
+    static final int MAGIC = 0x524F4F4D; // "ROOM"
+    static final short FORMAT_VERSION = 3;
+
+    private static volatile RoomDefinitions builtIn;
+
+    private final Map<String, RoomDefinition> rooms;
+
+    private RoomDefinitions(Map<String, RoomDefinition> rooms) {
+        this.rooms = rooms;
+    }
+
+    /**
+     * Gets the room definitions compiled into the application, loading them on first use.
+     *
+     * @throws IllegalStateException if the index is missing (run the Maven build) or corrupt
+     */
+    public static RoomDefinitions getBuiltIn() {
+        RoomDefinitions definitions = builtIn;
+        if (definitions == null) {
+            synchronized (RoomDefinitions.class) {
+                definitions = builtIn;
+                if (definitions == null) {
+                    definitions = loadResource();
+                    builtIn = definitions;
+                }
+            }
+        }
+        return definitions;
+    }
+
+    private static RoomDefinitions loadResource() {
+        try (InputStream in = RoomDefinitions.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Room definitions not found at " + RESOURCE
+                    + " - they are compiled by the Maven build (mvn process-classes)");
+            }
+            RoomDefinitions definitions = decode(in.readAllBytes());
+            System.out.println("[RoomDefinitions] Loaded " + definitions.rooms.size() + " room definitions");
+            return definitions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read room definitions", e);
+        }
+    }
+
+    /**
+     * Decodes a compiled room index.
+     *
+     * @throws IllegalStateException if the data is not a valid index
+     */
+    public static RoomDefinitions decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a room definition index");
+            }
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported room definition format version " + version);
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int roomCount = buffer.getInt();
+            Map<String, RoomDefinition> rooms = new LinkedHashMap<>(roomCount * 2);
+            for (int r = 0; r < roomCount; r++) {
+                String name = strings[buffer.getInt()];
+                String description = strings[buffer.getInt()];
+                boolean start = buffer.get() != 0;
+                List<ExitDefinition> exits = new ArrayList<>();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    exits.add(new ExitDefinition(strings[buffer.getInt()], strings[buffer.getInt()]));
+                }
+                GateDefinition gate = null;
+                if (buffer.get() != 0) {
+                    String condition = strings[buffer.getInt()];
+                    String message = strings[buffer.getInt()];
+                    List<String> missingFacts = new ArrayList<>();
+                    List<String> missingMessages = new ArrayList<>();
+                    for (int i = buffer.getInt(); i > 0; i--) {
+                        missingFacts.add(strings[buffer.getInt()]);
+                        missingMessages.add(strings[buffer.getInt()]);
+                    }
+                    gate = new GateDefinition(condition, message, missingFacts, missingMessages);
+                }
+                String background = strings[buffer.getInt()];
+                List<String> puzzleIds = new ArrayList<>();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    puzzleIds.add(strings[buffer.getInt()]);
+                }
+                List<ItemDefinition> items = new ArrayList<>();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    items.add(new ItemDefinition(strings[buffer.getInt()], strings[buffer.getInt()]));
+                }
+                List<HotspotDefinition> hotspots = new ArrayList<>();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    hotspots.add(new HotspotDefinition(strings[buffer.getInt()],
+                        buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                        strings[buffer.getInt()], strings[buffer.getInt()]));
+                }
+                List<AnimationDefinition> animations = new ArrayList<>();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    animations.add(new AnimationDefinition(strings[buffer.getInt()], strings[buffer.getInt()],
+                        strings[buffer.getInt()], buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                        buffer.getFloat(), buffer.getFloat()));
+                }
+                rooms.put(name, new RoomDefinition(name, description, start, exits, gate,
+                    background, puzzleIds, items, hotspots, animations));
+            }
+            return new RoomDefinitions(rooms);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalStateException) {
+                throw e;
+            }
+            throw new IllegalStateException("Corrupt room definition index", e);
+        }
+    }
+
+    /**
+     * Encodes room definitions in the binary index format.
+     */
+    public static byte[] encode(Collection<RoomDefinition> definitions) {
+        // Build the string table first so rooms can refer to strings by index
+        Map<String, Integer> stringIndex = new LinkedHashMap<>();
+        for (RoomDefinition room : definitions) {
+            intern(stringIndex, room.getName());
+            intern(stringIndex, room.getDescription());
+            for (ExitDefinition exit : room.getExits()) {
+                intern(stringIndex, exit.direction);
+                intern(stringIndex, exit.room);
+            }
+            GateDefinition gate = room.getGate();
+            if (gate != null) {
+                intern(stringIndex, gate.condition);
+                intern(stringIndex, gate.message);
+                gate.missingFacts.forEach(facts -> intern(stringIndex, facts));
+                gate.missingMessages.forEach(message -> intern(stringIndex, message));
+            }
+            intern(stringIndex, room.getBackground());
+            room.getPuzzleIds().forEach(id -> intern(stringIndex, id));
+            for (ItemDefinition item : room.getItems()) {
+                intern(stringIndex, item.name);
+                intern(stringIndex, item.description);
+            }
+            for (HotspotDefinition hotspot : room.getHotspots()) {
+                intern(stringIndex, hotspot.id);
+                intern(stringIndex, hotspot.interactionType);
+                intern(stringIndex, hotspot.hoverText);
+            }
+            for (AnimationDefinition animation : room.getAnimations()) {
+                intern(stringIndex, animation.id);
+                intern(stringIndex, animation.type);
+                intern(stringIndex, animation.assetId);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(stringIndex.size());
+            for (String string : stringIndex.keySet()) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > 0xFFFF) {
+                    throw new IllegalArgumentException("String too long for the room index: " + string.substring(0, 40) + "...");
+                }
+                out.writeShort(utf8.length);
+                out.write(utf8);
+            }
+            out.writeInt(definitions.size());
+            for (RoomDefinition room : definitions) {
+                out.writeInt(stringIndex.get(room.getName()));
+                out.writeInt(stringIndex.get(room.getDescription()));
+                out.writeByte(room.isStart() ? 1 : 0);
+                out.writeInt(room.getExits().size());
+                for (ExitDefinition exit : room.getExits()) {
+                    out.writeInt(stringIndex.get(exit.direction));
+                    out.writeInt(stringIndex.get(exit.room));
+                }
+                GateDefinition gate = room.getGate();
+                out.writeByte(gate != null ? 1 : 0);
+                if (gate != null) {
+                    out.writeInt(stringIndex.get(gate.condition));
+                    out.writeInt(stringIndex.get(gate.message));
+                    out.writeInt(gate.missingFacts.size());
+                    for (int i = 0; i < gate.missingFacts.size(); i++) {
+                        out.writeInt(stringIndex.get(gate.missingFacts.get(i)));
+                        out.writeInt(stringIndex.get(gate.missingMessages.get(i)));
+                    }
+                }
+                out.writeInt(stringIndex.get(room.getBackground()));
+                out.writeInt(room.getPuzzleIds().size());
+                for (String puzzleId : room.getPuzzleIds()) {
+                    out.writeInt(stringIndex.get(puzzleId));
+                }
+                out.writeInt(room.getItems().size());
+                for (ItemDefinition item : room.getItems()) {
+                    out.writeInt(stringIndex.get(item.name));
+                    out.writeInt(stringIndex.get(item.description));
+                }
+                out.writeInt(room.getHotspots().size());
+                for (HotspotDefinition hotspot : room.getHotspots()) {
+                    out.writeInt(stringIndex.get(hotspot.id));
+                    out.writeFloat(hotspot.x);
+                    out.writeFloat(hotspot.y);
+                    out.writeFloat(hotspot.width);
+                    out.writeFloat(hotspot.height);
+                    out.writeInt(stringIndex.get(hotspot.interactionType));
+                    out.writeInt(stringIndex.get(hotspot.hoverText));
+                }
+                out.writeInt(room.getAnimations().size());
+                for (AnimationDefinition animation : room.getAnimations()) {
+                    out.writeInt(stringIndex.get(animation.id));
+                    out.writeInt(stringIndex.get(animation.type));
+                    out.writeInt(stringIndex.get(animation.assetId));
+                    out.writeFloat(animation.x);
+                    out.writeFloat(animation.y);
+                    out.writeFloat(animation.width);
+                    out.writeFloat(animation.height);
+                    out.writeFloat(animation.frameRate);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void intern(Map<String, Integer> stringIndex, String string) {
+        stringIndex.putIfAbsent(string, stringIndex.size());
+    }
+
+    /**
+     * Gets the definition of a room type, or null if there is no such room.
+     */
+    public RoomDefinition get(String roomType) {
+        return rooms.get(roomType);
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * Gets every room definition, in the order they were defined.
+     */
+    public Collection<RoomDefinition> getAll() {
+        return rooms.values();
+    }
+
+    /**
+     * Builds the world these definitions describe: one Room per definition, linked by
+     * their exits and guarded by their gates. Each call builds new rooms.
+     *
+     * @throws IllegalStateException if no room is the start room
+     */
+    public RoomManager createRoomManager() {
+        Map<String, Room> built = new LinkedHashMap<>(rooms.size() * 2);
+        Room start = null;
+        for (RoomDefinition definition : rooms.values()) {
+            Room room = new Room(definition.getName(), definition.getDescription());
+            if (definition.getGate() != null) {
+                room.setEntryRule(definition.getGate().toGateRule());
+            }
+            built.put(definition.getName(), room);
+            if (definition.isStart()) {
+                start = room;
+            }
+        }
+        for (RoomDefinition definition : rooms.values()) {
+            Room room = built.get(definition.getName());
+            for (ExitDefinition exit : definition.getExits()) {
+                room.setExit(Direction.valueOf(exit.direction), built.get(exit.room));
+            }
+        }
+        if (start == null) {
+            throw new IllegalStateException("No start room in the room definitions");
+        }
+        return new RoomManager(new ArrayList<>(built.values()), start);
+    }
+}
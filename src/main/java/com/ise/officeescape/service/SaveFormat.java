@@ -0,0 +1,238 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.service.SaveService.PuzzleState;
+import com.ise.officeescape.service.SaveService.RoomState;
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary save file format.
+ *
+ * Layout: magic, format version (1 byte), a table of every name in the save (rooms, items,
+ * puzzles), then the game state with names written as varint indices into that table,
+ * and a CRC32 of everything before it. Symbol ids are not stable between runs, so the
+ * file carries its own table instead.
+ *
+ * State: current room, player items, then for each set-up room its name, items, puzzle ids,
+ * a bitset of which puzzles are solved and each puzzle's save state.
+ */
+public final class SaveFormat {
+
+    public static final int MAGIC = 0x4F455356; // "OESV"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final int TRAILER_SIZE = Integer.BYTES;
+
+    private SaveFormat() {
+    }
+
+    /**
+     * Checks if data starts with the binary save magic (as opposed to an old text save).
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length >= Integer.BYTES && ByteBuffer.wrap(data).getInt() == MAGIC;
+    }
+
+    public static byte[] encode(SaveSnapshot snapshot) {
+        Map<String, Integer> names = new LinkedHashMap<>();
+        intern(names, snapshot.roomName);
+        snapshot.itemNames.forEach(name -> intern(names, name));
+        for (RoomState room : snapshot.rooms) {
+            intern(names, room.roomName);
+            room.itemNames.forEach(name -> intern(names, name));
+            room.puzzles.forEach(puzzle -> intern(names, puzzle.puzzleId));
+        }
+
+        Output out = new Output();
+        out.writeInt(MAGIC);
+        out.write(VERSION);
+        out.writeVarint(names.size());
+        for (String name : names.keySet()) {
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            out.writeVarint(utf8.length);
+            out.write(utf8, 0, utf8.length);
+        }
+
+        out.writeVarint(names.get(snapshot.roomName));
+        writeNames(out, names, snapshot.itemNames);
+        out.writeVarint(snapshot.rooms.size());
+        for (RoomState room : snapshot.rooms) {
+            out.writeVarint(names.get(room.roomName));
+            writeNames(out, names, room.itemNames);
+            int puzzleCount = room.puzzles.size();
+            out.writeVarint(puzzleCount);
+            byte[] solved = new byte[(puzzleCount + 7) / 8];
+            for (int i = 0; i < puzzleCount; i++) {
+                PuzzleState puzzle = room.puzzles.get(i);
+                out.writeVarint(names.get(puzzle.puzzleId));
+                if (puzzle.solved) {
+                    solved[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(solved, 0, solved.length);
+            for (PuzzleState puzzle : room.puzzles) {
+                out.writeVarint(puzzle.state);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.buffer(), 0, out.size());
+        out.writeInt((int) crc.getValue());
+        return out.toByteArray();
+    }
+
+    /**
+     * Validates and decodes a binary save.
+     *
+     * @throws IllegalArgumentException if the data is truncated, corrupt or from a newer version
+     */
+    public static SaveSnapshot decode(byte[] data) {
+        if (data.length < HEADER_SIZE + TRAILER_SIZE || !isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary save file");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - TRAILER_SIZE);
+        if ((int) crc.getValue() != buffer.getInt(data.length - TRAILER_SIZE)) {
+            throw new IllegalArgumentException("Save file checksum mismatch");
+        }
+        buffer.limit(data.length - TRAILER_SIZE);
+        buffer.position(Integer.BYTES);
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save file version " + version);
+        }
+
+        try {
+            String[] names = new String[readCount(buffer)];
+            for (int i = 0; i < names.length; i++) {
+                int length = readCount(buffer);
+                names[i] = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+
+            String roomName = readName(buffer, names);
+            List<String> itemNames = readNames(buffer, names);
+            int roomCount = readCount(buffer);
+            List<RoomState> rooms = new ArrayList<>(roomCount);
+            for (int r = 0; r < roomCount; r++) {
+                String name = readName(buffer, names);
+                List<String> roomItems = readNames(buffer, names);
+                int puzzleCount = readCount(buffer);
+                String[] puzzleIds = new String[puzzleCount];
+                for (int i = 0; i < puzzleCount; i++) {
+                    puzzleIds[i] = readName(buffer, names);
+                }
+                byte[] solved = new byte[(puzzleCount + 7) / 8];
+                buffer.get(solved);
+                List<PuzzleState> puzzles = new ArrayList<>(puzzleCount);
+                for (int i = 0; i < puzzleCount; i++) {
+                    boolean isSolved = (solved[i >>> 3] & (1 << (i & 7))) != 0;
+                    puzzles.add(new PuzzleState(puzzleIds[i], isSolved, readVarint(buffer)));
+                }
+                rooms.add(new RoomState(name, roomItems, puzzles));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data after the save state");
+            }
+            return new SaveSnapshot(roomName, itemNames, rooms);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Save file is truncated or corrupt", e);
+        }
+    }
+
+    private static void intern(Map<String, Integer> names, String name) {
+        names.putIfAbsent(name, names.size());
+    }
+
+    private static void writeNames(Output out, Map<String, Integer> names, List<String> values) {
+        out.writeVarint(values.size());
+        for (String value : values) {
+            out.writeVarint(names.get(value));
+        }
+    }
+
+    private static List<String> readNames(ByteBuffer buffer, String[] names) {
+        int count = readCount(buffer);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readName(buffer, names));
+        }
+        return values;
+    }
+
+    private static String readName(ByteBuffer buffer, String[] names) {
+        int index = readVarint(buffer);
+        if (index >= names.length) {
+            throw new IllegalArgumentException("Save file refers to unknown name " + index);
+        }
+        return names[index];
+    }
+
+    /**
+     * Reads a length or count, which can never exceed the bytes left in the buffer.
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = readVarint(buffer);
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Save file is truncated or corrupt");
+        }
+        return count;
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in save file");
+    }
+
+    /**
+     * Byte output with varint support and access to the bytes written so far (for the CRC).
+     */
+    private static final class Output extends ByteArrayOutputStream {
+        Output() {
+            super(256);
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeVarint(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative value in save state: " + value);
+            }
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -2,61 +2,111 @@ package com.ise.officeescape.service;
 
 import com.ise.officeescape.model.Inventory;
 import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Puzzle;
 import com.ise.officeescape.model.Room;
 import com.ise.officeescape.model.RoomManager;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Service for saving and loading game state.
- * Saves to a simple text file in the user's home directory to ensure it works from JAR files.
+ * Saves to binary files (see SaveFormat) in the user's home directory to ensure it works from JAR files.
+ * Autosaves only append the rooms that changed to a log next to the main save file; the log
+ * is folded into the main save (compacted) once it outgrows it.
+ * Saves in the old text format (room name, then item names, one per line) can still be loaded;
+ * they are replaced by a binary save the next time the game is saved.
  */
 public class SaveService {
     
-    private static final String SAVE_FILE_NAME = "savegame.txt";
+    private static final String SAVE_FILE_NAME = "savegame.bin";
+    private static final String CHANGE_LOG_FILE_NAME = "savegame.log";
+    private static final String JOURNAL_FILE_NAME = "savegame.journal";
+    private static final String LEGACY_SAVE_FILE_NAME = "savegame.txt";
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024; // Never compact a log smaller than this
     private static final String SAVE_DIR_NAME = ".irishImmigrationOdyssey";
     
+    private volatile Path saveDir; // Resolved (and created) on first use
+
     /**
-     * Gets the path to the save file.
+     * Gets the directory holding the save files.
      * Uses user's home directory to ensure it works when running from a JAR file.
      */
-    private String getSaveFilePath() {
-        String userHome = System.getProperty("user.home");
-        String saveDir = userHome + java.io.File.separator + SAVE_DIR_NAME;
-        java.io.File dir = new java.io.File(saveDir);
-        if (!dir.exists()) {
-            dir.mkdirs(); // Create directory if it doesn't exist
+    private Path getSaveDir() {
+        Path dir = saveDir;
+        if (dir == null) {
+            dir = Path.of(System.getProperty("user.home"), SAVE_DIR_NAME);
+            java.io.File file = dir.toFile();
+            if (!file.exists()) {
+                file.mkdirs(); // Create directory if it doesn't exist
+            }
+            saveDir = dir;
         }
-        return saveDir + java.io.File.separator + SAVE_FILE_NAME;
+        return dir;
+    }
+
+    private Path getSaveFilePath() {
+        return getSaveDir().resolve(SAVE_FILE_NAME);
+    }
+
+    private Path getChangeLogPath() {
+        return getSaveDir().resolve(CHANGE_LOG_FILE_NAME);
+    }
+
+    /**
+     * Gets the path of the action journal (see ActionJournal), kept next to the saves.
+     */
+    public Path getJournalPath() {
+        return getSaveDir().resolve(JOURNAL_FILE_NAME);
+    }
+
+    private Path getLegacySaveFilePath() {
+        return getSaveDir().resolve(LEGACY_SAVE_FILE_NAME);
     }
     
     /**
-     * Saves the current game state to a file.
-     * Format:
-     * Line 1: room name
-     * Line 2+: item names (one per line)
-     * 
-     * @param currentRoom The room the player is currently in
-     * @param playerInventory The player's inventory
+     * Writes a snapshot durably. The data goes to a temporary file which is synced to disk
+     * and then renamed over the save file, so a crash never leaves a half-written save.
+     *
      * @return true if save was successful, false otherwise
      */
-    public boolean saveGame(Room currentRoom, Inventory playerInventory) {
-        String savePath = getSaveFilePath();
-        try (PrintWriter writer = new PrintWriter(new FileWriter(savePath))) {
-            // Write room name
-            writer.println(currentRoom.getName());
-            
-            // Write inventory items (one per line)
-            if (playerInventory != null) {
-                Map<String, Item> items = playerInventory.getInvetoryMap();
-                for (Item item : items.values()) {
-                    writer.println(item.getName());
-                }
+    public boolean writeSnapshot(SaveSnapshot snapshot) {
+        Path savePath = getSaveFilePath();
+        Path tempPath = savePath.resolveSibling(SAVE_FILE_NAME + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(SaveFormat.encode(snapshot));
+            while (data.hasRemaining()) {
+                channel.write(data);
             }
-            
+            channel.force(true);
+        } catch (IOException e) {
+            System.err.println("[SaveService] Error saving game: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            try {
+                Files.move(tempPath, savePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, savePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(savePath.getParent()); // The rename is only durable once the directory is
+            // The full save now supersedes the change log and any old text save
+            Files.deleteIfExists(getChangeLogPath());
+            Files.deleteIfExists(getLegacySaveFilePath());
             System.out.println("[SaveService] Game saved successfully to " + savePath);
             return true;
         } catch (IOException e) {
@@ -65,40 +115,210 @@ public class SaveService {
         }
     }
     
+    /**
+     * Saves the rooms that changed since the last save by appending them to the change log.
+     * The cost depends on what changed, not on the size of the world. When the log grows
+     * larger than the main save, both are compacted into a new main save.
+     *
+     * @param changes The player's state and the changed rooms (see DirtyRoomTracker)
+     * @return true if save was successful, false otherwise
+     */
+    public boolean saveChanges(SaveSnapshot changes) {
+        Path logPath = getChangeLogPath();
+        byte[] record = SaveFormat.encode(changes);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + record.length);
+        frame.putInt(record.length).put(record).flip();
+
+        long logSize;
+        boolean newLog = !Files.exists(logPath);
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+            logSize = channel.size();
+            if (newLog) {
+                syncDirectory(logPath.getParent()); // Otherwise the new log can vanish in a crash
+            }
+            Files.deleteIfExists(getLegacySaveFilePath()); // Every record holds the player's state
+        } catch (IOException e) {
+            System.err.println("[SaveService] Error saving game: " + e.getMessage());
+            return false;
+        }
+        System.out.println("[SaveService] Saved " + changes.rooms.size() + " changed rooms (" + record.length + " bytes)");
+
+        if (logSize > MIN_COMPACTION_SIZE && logSize > fileSize(getSaveFilePath())) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Folds the change log into the main save. A crash part way through is harmless:
+     * replaying the old log over the new main save gives the same state.
+     */
+    private void compact() {
+        try {
+            SaveSnapshot state = readState();
+            if (state != null && writeSnapshot(state)) {
+                System.out.println("[SaveService] Compacted change log into " + getSaveFilePath());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[SaveService] Error compacting save: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Syncs a directory so that files created or renamed in it survive a crash.
+     * Some platforms (Windows) cannot open a directory; there the rename is as durable as it gets.
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported for directories on this platform
+        }
+    }
+
+    private static long fileSize(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the saved state: the main save (or an old text save) with the change log replayed over it.
+     *
+     * @return the state, or null if there is no save
+     */
+    private SaveSnapshot readState() throws IOException {
+        SaveSnapshot state = null;
+        Path savePath = getSaveFilePath();
+        if (Files.exists(savePath)) {
+            state = SaveFormat.decode(Files.readAllBytes(savePath));
+        } else if (Files.exists(getLegacySaveFilePath())) {
+            System.out.println("[SaveService] Migrating text save " + getLegacySaveFilePath());
+            state = readLegacySave(getLegacySaveFilePath());
+        }
+
+        Path logPath = getChangeLogPath();
+        if (!Files.exists(logPath)) {
+            return state;
+        }
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logPath));
+        int records = 0;
+        while (log.remaining() >= Integer.BYTES) {
+            int start = log.position();
+            int length = log.getInt();
+            if (length < 0 || length > log.remaining()) {
+                log.position(start);
+                break;
+            }
+            byte[] record = new byte[length];
+            log.get(record);
+            SaveSnapshot changes;
+            try {
+                changes = SaveFormat.decode(record);
+            } catch (IllegalArgumentException e) {
+                log.position(start);
+                break;
+            }
+            state = state == null ? changes : state.merge(changes);
+            records++;
+        }
+        if (log.hasRemaining()) {
+            // A write was cut off by a crash; drop it so later records are appended after valid data
+            System.err.println("[SaveService] Dropping " + log.remaining() + " bytes of incomplete change log");
+            try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                channel.truncate(log.position());
+            }
+        }
+        System.out.println("[SaveService] Replayed " + records + " change log records");
+        return state;
+    }
+
     /**
      * Loads the game state from a file.
      * 
      * @param roomManager The room manager to get rooms by name
-     * @return SaveData containing the saved room and inventory items, or null if load failed
+     * @return SaveData containing the saved room, inventory items and room states, or null if load failed
      */
     public SaveData loadGame(RoomManager roomManager) {
-        String savePath = getSaveFilePath();
-        File saveFile = new File(savePath);
-        if (!saveFile.exists()) {
-            System.out.println("[SaveService] No save file found, starting new game");
+        SaveSnapshot snapshot;
+        try {
+            snapshot = readState();
+            if (snapshot == null && !saveExists()) {
+                System.out.println("[SaveService] No save file found, starting new game");
+                return null;
+            }
+        } catch (IOException e) {
+            System.err.println("[SaveService] Error loading game: " + e.getMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            System.err.println("[SaveService] Error loading game: " + e.getMessage());
+            setAsideUnusableSave();
             return null;
         }
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
-            // Read room name (first line)
-            String roomName = reader.readLine();
-            if (roomName == null || roomName.trim().isEmpty()) {
-                System.err.println("[SaveService] Save file is empty or invalid");
-                return null;
+        if (snapshot == null) {
+            System.err.println("[SaveService] Save file is empty or invalid");
+            setAsideUnusableSave();
+            return null;
+        }
+
+        Room savedRoom = roomManager.getRoom(snapshot.roomName);
+        if (savedRoom == null) {
+            System.err.println("[SaveService] Saved room not found: " + snapshot.roomName);
+            setAsideUnusableSave();
+            return null;
+        }
+        Map<Room, RoomState> roomStates = new LinkedHashMap<>();
+        for (RoomState state : snapshot.rooms) {
+            Room room = roomManager.getRoom(state.roomName);
+            if (room != null) {
+                roomStates.put(room, state);
+            } else {
+                System.err.println("[SaveService] Skipping saved state of unknown room: " + state.roomName);
             }
-            roomName = roomName.trim();
-            
-            // Find the room
-            Room savedRoom = null;
-            for (Room room : roomManager.getAllRooms()) {
-                if (room.getName().equals(roomName)) {
-                    savedRoom = room;
-                    break;
+        }
+
+        System.out.println("[SaveService] Game loaded successfully from " + getSaveDir());
+        System.out.println("[SaveService] Room: " + snapshot.roomName + ", Items: " + snapshot.itemNames.size()
+            + ", Rooms with state: " + roomStates.size());
+        return new SaveData(savedRoom, snapshot.itemNames, roomStates);
+    }
+
+    /**
+     * Renames save files that could not be loaded (to *.bad), so the new game's
+     * changes are not appended to them.
+     */
+    private void setAsideUnusableSave() {
+        for (Path path : List.of(getSaveFilePath(), getChangeLogPath(), getJournalPath(), getLegacySaveFilePath())) {
+            try {
+                if (Files.exists(path)) {
+                    Files.move(path, path.resolveSibling(path.getFileName() + ".bad"), StandardCopyOption.REPLACE_EXISTING);
+                    System.err.println("[SaveService] Moved unusable save aside: " + path);
                 }
+            } catch (IOException e) {
+                System.err.println("[SaveService] Could not move unusable save aside: " + e.getMessage());
             }
-            
-            if (savedRoom == null) {
-                System.err.println("[SaveService] Saved room not found: " + roomName);
+        }
+    }
+
+    /**
+     * Reads a save in the old text format.
+     * Line 1: room name
+     * Line 2+: item names (one per line)
+     *
+     * @return the snapshot, or null if the file is empty
+     */
+    private SaveSnapshot readLegacySave(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            // Read room name (first line)
+            String roomName = reader.readLine();
+            if (roomName == null || roomName.trim().isEmpty()) {
                 return null;
             }
             
@@ -111,14 +331,7 @@ public class SaveService {
                     itemNames.add(line);
                 }
             }
-            
-            System.out.println("[SaveService] Game loaded successfully from " + savePath);
-            System.out.println("[SaveService] Room: " + roomName + ", Items: " + itemNames.size());
-            
-            return new SaveData(savedRoom, itemNames);
-        } catch (IOException e) {
-            System.err.println("[SaveService] Error loading game: " + e.getMessage());
-            return null;
+            return new SaveSnapshot(roomName.trim(), itemNames, List.of());
         }
     }
     
@@ -126,18 +339,121 @@ public class SaveService {
      * Checks if a save file exists.
      */
     public boolean saveExists() {
-        return new File(getSaveFilePath()).exists();
+        return Files.exists(getSaveFilePath()) || Files.exists(getChangeLogPath())
+            || Files.exists(getLegacySaveFilePath());
     }
     
     /**
      * Deletes the save file (for starting a new game).
      */
     public boolean deleteSave() {
-        File saveFile = new File(getSaveFilePath());
-        if (saveFile.exists()) {
-            return saveFile.delete();
+        try {
+            Files.deleteIfExists(getSaveFilePath());
+            Files.deleteIfExists(getChangeLogPath());
+            Files.deleteIfExists(getJournalPath());
+            Files.deleteIfExists(getLegacySaveFilePath());
+            return true;
+        } catch (IOException e) {
+            System.err.println("[SaveService] Error deleting save: " + e.getMessage());
+            return false;
         }
-        return true;
+    }
+
+    /**
+     * Immutable copy of the state to save, taken on the FX thread so it can be written
+     * on another thread while the game carries on.
+     */
+    public static class SaveSnapshot {
+        public final String roomName;
+        public final List<String> itemNames;
+        public final List<RoomState> rooms;
+        public final long journalSequence; // Last ActionJournal entry this covers (not written to the file)
+
+        public SaveSnapshot(String roomName, List<String> itemNames, List<RoomState> rooms) {
+            this(roomName, itemNames, rooms, 0);
+        }
+
+        private SaveSnapshot(String roomName, List<String> itemNames, List<RoomState> rooms, long journalSequence) {
+            this.roomName = roomName;
+            this.itemNames = List.copyOf(itemNames);
+            this.rooms = List.copyOf(rooms);
+            this.journalSequence = journalSequence;
+        }
+
+        /**
+         * Gets a copy of this snapshot marked as covering journal entries up to a sequence number.
+         */
+        public SaveSnapshot withJournalSequence(long sequence) {
+            return new SaveSnapshot(roomName, itemNames, rooms, sequence);
+        }
+
+        /**
+         * Creates a snapshot of the player's position and items and the given room states.
+         */
+        public static SaveSnapshot of(Room currentRoom, Inventory playerInventory, List<RoomState> rooms) {
+            return new SaveSnapshot(currentRoom.getName(), itemNames(playerInventory), rooms);
+        }
+
+        /**
+         * Combines this snapshot with a later one: the player's state comes from the later
+         * snapshot, and rooms in both take the later room state.
+         */
+        public SaveSnapshot merge(SaveSnapshot later) {
+            Map<String, RoomState> merged = new LinkedHashMap<>();
+            for (RoomState room : rooms) {
+                merged.put(room.roomName, room);
+            }
+            for (RoomState room : later.rooms) {
+                merged.put(room.roomName, room);
+            }
+            return new SaveSnapshot(later.roomName, later.itemNames, new ArrayList<>(merged.values()),
+                Math.max(journalSequence, later.journalSequence));
+        }
+    }
+
+    /**
+     * Saved state of one room: the items left in it and its puzzles.
+     */
+    public static class RoomState {
+        public final String roomName;
+        public final List<String> itemNames;
+        public final List<PuzzleState> puzzles;
+
+        public RoomState(String roomName, List<String> itemNames, List<PuzzleState> puzzles) {
+            this.roomName = roomName;
+            this.itemNames = List.copyOf(itemNames);
+            this.puzzles = List.copyOf(puzzles);
+        }
+
+        public static RoomState capture(Room room) {
+            List<PuzzleState> puzzles = new ArrayList<>();
+            for (Puzzle puzzle : room.getAllPuzzles()) {
+                puzzles.add(new PuzzleState(puzzle.getId(), puzzle.isSolved(), puzzle.getSaveState()));
+            }
+            return new RoomState(room.getName(), itemNames(room.getInventory()), puzzles);
+        }
+    }
+
+    /**
+     * Saved state of one puzzle.
+     */
+    public static class PuzzleState {
+        public final String puzzleId;
+        public final boolean solved;
+        public final int state; // Puzzle.getSaveState()
+
+        public PuzzleState(String puzzleId, boolean solved, int state) {
+            this.puzzleId = puzzleId;
+            this.solved = solved;
+            this.state = state;
+        }
+    }
+
+    private static List<String> itemNames(Inventory inventory) {
+        if (inventory == null) {
+            return List.of();
+        }
+        return new ArrayList<>(inventory.getInvetoryMap().keySet());
     }
     
     /**
@@ -146,10 +462,12 @@ public class SaveService {
     public static class SaveData {
         public final Room room;
         public final List<String> itemNames;
+        public final Map<Room, RoomState> roomStates; // Empty for saves in the old text format
         
-        public SaveData(Room room, List<String> itemNames) {
+        public SaveData(Room room, List<String> itemNames, Map<Room, RoomState> roomStates) {
             this.room = room;
             this.itemNames = itemNames;
+            this.roomStates = roomStates;
         }
     }
     
@@ -158,24 +476,25 @@ public class SaveService {
      * Uses default descriptions based on item names.
      */
     public static Item createItemFromName(String itemName) {
-        // Map item names to their descriptions
-        switch (itemName) {
+        // Map item names to their descriptions; scoped items ("popsicle-3") use their base item's one
+        int dash = itemName.indexOf('-');
+        switch (dash < 0 ? itemName : itemName.substring(0, dash)) {
             case "passport":
-                return new Item("passport", "Your passport");
+                return new Item(itemName, "Your passport");
             case "visaApplication":
-                return new Item("visaApplication", "Visa application form");
+                return new Item(itemName, "Visa application form");
             case "stolenDocument":
-                return new Item("stolenDocument", "A stolen document - someone dropped it after slipping on the banana peel");
+                return new Item(itemName, "A stolen document - someone dropped it after slipping on the banana peel");
             case "birthCertificate":
-                return new Item("birthCertificate", "Birth certificate");
+                return new Item(itemName, "Birth certificate");
             case "employmentLetter":
-                return new Item("employmentLetter", "Employment letter");
+                return new Item(itemName, "Employment letter");
             case "ticketItem":
-                return new Item("ticketItem", "This is the ticket required for the queue");
+                return new Item(itemName, "This is the ticket required for the queue");
             case "bananaPeel":
-                return new Item("bananaPeel", "A slippery banana peel, watch your step!");
+                return new Item(itemName, "A slippery banana peel, watch your step!");
             case "popsicle":
-                return new Item("popsicle", "A refreshing popsicle, perfect for a hot day");
+                return new Item(itemName, "A refreshing popsicle, perfect for a hot day");
             default:
                 // Generic description for unknown items
                 return new Item(itemName, "A " + itemName);
@@ -0,0 +1,563 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Save store for many player profiles, each with a few save slots.
+ *
+ * Profiles are spread over a fixed number of shards. Each shard is an append-only log of
+ * save records plus an in-memory index of profile -> slot -> record position, so listing
+ * saves needs no disk access and loading one is a single positioned read.
+ * The index is written to a compact index file on close and after compaction; at startup it
+ * is read back and only the log written after it is scanned.
+ * Space taken by replaced and deleted saves is reclaimed by compacting shards in the background.
+ *
+ * Log record: body length, CRC32 of the body, then the body: profile name (length-prefixed
+ * UTF-8), slot, and the save in SaveFormat (empty for a deleted save).
+ */
+public class SaveStore implements AutoCloseable {
+
+    public static final int SLOT_COUNT = 8;
+
+    private static final int SHARD_COUNT = 16;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = (1 << 24) - 1; // Record sizes are packed into 24 bits
+    private static final int INDEX_MAGIC = 0x4F455349; // "OESI"
+    private static final int INDEX_VERSION = 1;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+    private static final long COMPACTION_INTERVAL_SECONDS = 30;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final boolean syncEachSave;
+    private final ScheduledExecutorService compactor;
+
+    private SaveStore(Path root, boolean syncEachSave) throws IOException {
+        Files.createDirectories(root);
+        this.syncEachSave = syncEachSave;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(root, i);
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactWhereWorthwhile,
+            COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens (or creates) a store in a directory and rebuilds its index.
+     *
+     * @param syncEachSave Whether every save is forced to disk before save returns
+     */
+    public static SaveStore open(Path root, boolean syncEachSave) throws IOException {
+        long start = System.nanoTime();
+        SaveStore store = new SaveStore(root, syncEachSave);
+        System.out.println("[SaveStore] Opened " + root + " with " + store.getProfileCount() + " profiles in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return store;
+    }
+
+    /**
+     * Saves a snapshot into a profile's slot, replacing what was there.
+     */
+    public void save(String profile, int slot, SaveSnapshot snapshot) throws IOException {
+        checkSlot(slot);
+        shardOf(profile).append(profile, slot, SaveFormat.encode(snapshot), syncEachSave);
+    }
+
+    /**
+     * Loads the save in a profile's slot.
+     *
+     * @return the save, or null if the slot is empty
+     * @throws IllegalArgumentException if the stored save is corrupt
+     */
+    public SaveSnapshot load(String profile, int slot) throws IOException {
+        checkSlot(slot);
+        byte[] save = shardOf(profile).read(profile, slot);
+        return save != null ? SaveFormat.decode(save) : null;
+    }
+
+    /**
+     * Deletes the save in a profile's slot.
+     *
+     * @return false if the slot was already empty
+     */
+    public boolean delete(String profile, int slot) throws IOException {
+        checkSlot(slot);
+        Shard shard = shardOf(profile);
+        synchronized (shard) {
+            if (!shard.has(profile, slot)) {
+                return false;
+            }
+            shard.append(profile, slot, new byte[0], syncEachSave);
+            return true;
+        }
+    }
+
+    /**
+     * Gets the slots of a profile that hold a save, in slot order. Needs no disk access.
+     */
+    public List<Integer> listSlots(String profile) {
+        return shardOf(profile).slotsOf(profile);
+    }
+
+    /**
+     * Gets every profile with at least one save.
+     */
+    public List<String> listProfiles() {
+        List<String> profiles = new ArrayList<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                profiles.addAll(shard.index.keySet());
+            }
+        }
+        return profiles;
+    }
+
+    public int getProfileCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                count += shard.index.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compacts every shard that has more dead than live data. Runs in the background
+     * periodically; call directly to reclaim space now.
+     */
+    public void compactWhereWorthwhile() {
+        for (Shard shard : shards) {
+            try {
+                shard.compactIfWorthwhile();
+            } catch (IOException e) {
+                System.err.println("[SaveStore] Error compacting shard " + shard.number + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the index files, so the next open only has to read them.
+     */
+    public void checkpoint() throws IOException {
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.log.force(false);
+                shard.writeIndex();
+            }
+        }
+    }
+
+    /**
+     * Stops background compaction, writes the index files and closes the logs.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        checkpoint();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.log.close();
+            }
+        }
+    }
+
+    private Shard shardOf(String profile) {
+        return shards[(profile.hashCode() & 0x7FFFFFFF) % SHARD_COUNT];
+    }
+
+    private static void checkSlot(int slot) {
+        if (slot < 0 || slot >= SLOT_COUNT) {
+            throw new IllegalArgumentException("Save slot must be 0-" + (SLOT_COUNT - 1) + ": " + slot);
+        }
+    }
+
+    // Index entries pack a record's log offset (upper 40 bits) and size (lower 24 bits); 0 is an empty slot
+    private static long pack(long offset, int size) {
+        return offset << 24 | size;
+    }
+
+    private static long offsetOf(long entry) {
+        return entry >>> 24;
+    }
+
+    private static int sizeOf(long entry) {
+        return (int) (entry & MAX_RECORD_SIZE);
+    }
+
+    /**
+     * One log file and its index. All access is synchronized on the shard.
+     */
+    private static class Shard {
+        final int number;
+        final Path logPath;
+        final Path indexPath;
+        final Map<String, long[]> index = new HashMap<>(); // Profile -> entry per slot
+        FileChannel log;
+        long logSize;
+        long liveBytes; // Bytes of records the index points at
+
+        Shard(Path root, int number) throws IOException {
+            this.number = number;
+            this.logPath = root.resolve(String.format("shard-%02d.log", number));
+            this.indexPath = root.resolve(String.format("shard-%02d.idx", number));
+            this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.logSize = log.size();
+            long indexed = readIndex();
+            scanLog(indexed);
+        }
+
+        synchronized void append(String profile, int slot, byte[] save, boolean sync) throws IOException {
+            byte[] body = recordBody(profile, slot, save);
+            int size = RECORD_HEADER_SIZE + body.length;
+            if (size > MAX_RECORD_SIZE) {
+                throw new IllegalArgumentException("Save too large for the store: " + size + " bytes");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            ByteBuffer record = ByteBuffer.allocate(size);
+            record.putInt(body.length).putInt((int) crc.getValue()).put(body).flip();
+
+            long offset = logSize;
+            while (record.hasRemaining()) {
+                log.write(record, offset + record.position());
+            }
+            if (sync) {
+                log.force(false);
+            }
+            logSize = offset + size;
+            apply(profile, slot, save.length == 0 ? 0 : pack(offset, size));
+        }
+
+        synchronized byte[] read(String profile, int slot) throws IOException {
+            long[] slots = index.get(profile);
+            if (slots == null || slots[slot] == 0) {
+                return null;
+            }
+            long offset = offsetOf(slots[slot]);
+            ByteBuffer record = ByteBuffer.allocate(sizeOf(slots[slot]));
+            while (record.hasRemaining()) {
+                if (log.read(record, offset + record.position()) < 0) {
+                    throw new IllegalArgumentException("Save record for " + profile + " is cut off");
+                }
+            }
+            record.flip();
+            int bodyLength = record.getInt();
+            int expectedCrc = record.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IllegalArgumentException("Save record for " + profile + " is corrupt");
+            }
+            int profileLength = record.getShort() & 0xFFFF;
+            int saveStart = RECORD_HEADER_SIZE + Short.BYTES + profileLength + 1;
+            return Arrays.copyOfRange(record.array(), saveStart, record.limit());
+        }
+
+        synchronized boolean has(String profile, int slot) {
+            long[] slots = index.get(profile);
+            return slots != null && slots[slot] != 0;
+        }
+
+        synchronized List<Integer> slotsOf(String profile) {
+            long[] slots = index.get(profile);
+            List<Integer> used = new ArrayList<>();
+            if (slots != null) {
+                for (int slot = 0; slot < slots.length; slot++) {
+                    if (slots[slot] != 0) {
+                        used.add(slot);
+                    }
+                }
+            }
+            return used;
+        }
+
+        private void apply(String profile, int slot, long entry) {
+            long[] slots = index.get(profile);
+            if (slots == null) {
+                if (entry == 0) {
+                    return;
+                }
+                slots = new long[SLOT_COUNT];
+                index.put(profile, slots);
+            }
+            liveBytes += sizeOf(entry) - sizeOf(slots[slot]);
+            slots[slot] = entry;
+            if (entry == 0 && isEmpty(slots)) {
+                index.remove(profile);
+            }
+        }
+
+        private static boolean isEmpty(long[] slots) {
+            for (long entry : slots) {
+                if (entry != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads the index file.
+         *
+         * @return how much of the log the index covers (0 if there is no usable index)
+         */
+        private long readIndex() throws IOException {
+            if (!Files.exists(indexPath)) {
+                return 0;
+            }
+            byte[] data = Files.readAllBytes(indexPath);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(data, 0, data.length - Integer.BYTES);
+                CRC32 crc = new CRC32();
+                crc.update(data, 0, data.length - Integer.BYTES);
+                if ((int) crc.getValue() != ByteBuffer.wrap(data).getInt(data.length - Integer.BYTES)
+                        || buffer.getInt() != INDEX_MAGIC || buffer.get() != INDEX_VERSION) {
+                    throw new IllegalArgumentException("invalid index file");
+                }
+                long covered = buffer.getLong();
+                if (covered > logSize) {
+                    throw new IllegalArgumentException("index is newer than the log");
+                }
+                int profiles = buffer.getInt();
+                for (int i = 0; i < profiles; i++) {
+                    byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                    buffer.get(name);
+                    String profile = new String(name, StandardCharsets.UTF_8);
+                    for (int used = buffer.get(); used > 0; used--) {
+                        int slot = buffer.get();
+                        apply(profile, slot, buffer.getLong());
+                    }
+                }
+                return covered;
+            } catch (RuntimeException e) {
+                System.err.println("[SaveStore] Rebuilding index of shard " + number + " from its log: " + e.getMessage());
+                index.clear();
+                liveBytes = 0;
+                return 0;
+            }
+        }
+
+        /**
+         * Replays log records from an offset into the index.
+         * A damaged record with nothing valid after it is a torn write and is cut off. A damaged
+         * record in the middle of the log is copied to a ".bad" file and skipped, and scanning
+         * resumes at the next valid record; its bytes are dropped by the next compaction.
+         */
+        private void scanLog(long from) throws IOException {
+            long offset = from;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (offset + RECORD_HEADER_SIZE <= logSize) {
+                int size = readRecord(offset, header, true);
+                if (size > 0) {
+                    offset += size;
+                    continue;
+                }
+                long next = offset + 1;
+                while (next + RECORD_HEADER_SIZE <= logSize && readRecord(next, header, false) == 0) {
+                    next++;
+                }
+                if (next + RECORD_HEADER_SIZE > logSize) {
+                    break; // Torn tail
+                }
+                quarantine(offset, next);
+                offset = next;
+            }
+            if (offset < logSize) {
+                System.err.println("[SaveStore] Dropping " + (logSize - offset) + " bytes of incomplete log in shard " + number);
+                log.truncate(offset);
+                logSize = offset;
+            }
+        }
+
+        /**
+         * Checks the record at an offset and, if asked, applies it to the index.
+         *
+         * @return the size of the record, or 0 if no valid record starts there
+         */
+        private int readRecord(long offset, ByteBuffer header, boolean apply) throws IOException {
+            header.clear();
+            log.read(header, offset);
+            header.flip();
+            int bodyLength = header.getInt();
+            int expectedCrc = header.getInt();
+            if (bodyLength < Short.BYTES + 1 || bodyLength > MAX_RECORD_SIZE - RECORD_HEADER_SIZE
+                    || offset + RECORD_HEADER_SIZE + bodyLength > logSize) {
+                return 0;
+            }
+            ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            while (body.hasRemaining()) {
+                if (log.read(body, offset + RECORD_HEADER_SIZE + body.position()) < 0) {
+                    return 0;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body.array());
+            if ((int) crc.getValue() != expectedCrc) {
+                return 0;
+            }
+            body.flip();
+            int nameLength = body.getShort() & 0xFFFF;
+            if (nameLength + 1 > body.remaining()) {
+                return 0;
+            }
+            byte[] name = new byte[nameLength];
+            body.get(name);
+            int slot = body.get();
+            if (slot < 0 || slot >= SLOT_COUNT) {
+                return 0;
+            }
+            int size = RECORD_HEADER_SIZE + bodyLength;
+            if (apply) {
+                apply(new String(name, StandardCharsets.UTF_8), slot, body.hasRemaining() ? pack(offset, size) : 0);
+            }
+            return size;
+        }
+
+        /**
+         * Appends a damaged stretch of the log to the shard's ".bad" file, for inspection.
+         */
+        private void quarantine(long from, long to) throws IOException {
+            System.err.println("[SaveStore] Skipping " + (to - from) + " damaged bytes at offset " + from
+                + " of shard " + number);
+            ByteBuffer damaged = ByteBuffer.allocate((int) (to - from));
+            while (damaged.hasRemaining()) {
+                log.read(damaged, from + damaged.position());
+            }
+            damaged.flip();
+            Path badPath = logPath.resolveSibling(logPath.getFileName() + ".bad");
+            try (FileChannel bad = FileChannel.open(badPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (damaged.hasRemaining()) {
+                    bad.write(damaged);
+                }
+            }
+        }
+
+        synchronized void writeIndex() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + index.size() * 32);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeByte(INDEX_VERSION);
+                out.writeLong(logSize);
+                out.writeInt(index.size());
+                for (Map.Entry<String, long[]> entry : index.entrySet()) {
+                    byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(name.length);
+                    out.write(name);
+                    long[] slots = entry.getValue();
+                    out.writeByte(slotsOf(entry.getKey()).size());
+                    for (int slot = 0; slot < slots.length; slot++) {
+                        if (slots[slot] != 0) {
+                            out.writeByte(slot);
+                            out.writeLong(slots[slot]);
+                        }
+                    }
+                }
+                CRC32 crc = new CRC32();
+                crc.update(bytes.toByteArray());
+                out.writeInt((int) crc.getValue());
+            }
+            writeAtomically(indexPath, bytes.toByteArray());
+        }
+
+        /**
+         * Rewrites the log with only the live records if more than half of it is dead.
+         */
+        synchronized void compactIfWorthwhile() throws IOException {
+            long deadBytes = logSize - liveBytes;
+            if (deadBytes < MIN_COMPACTION_BYTES || deadBytes < liveBytes) {
+                return;
+            }
+            long start = System.nanoTime();
+            Path compactPath = logPath.resolveSibling(logPath.getFileName() + ".compact");
+            long newSize = 0;
+            try (FileChannel compacted = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (long[] slots : index.values()) {
+                    for (int slot = 0; slot < slots.length; slot++) {
+                        if (slots[slot] == 0) {
+                            continue;
+                        }
+                        int size = sizeOf(slots[slot]);
+                        long copied = 0;
+                        while (copied < size) {
+                            copied += log.transferTo(offsetOf(slots[slot]) + copied, size - copied, compacted);
+                        }
+                        slots[slot] = pack(newSize, size);
+                        newSize += size;
+                    }
+                }
+                compacted.force(true);
+            }
+            // The index now points into the compacted log; swap it in before anything else reads.
+            // The old index file would point into the wrong log after a crash, so drop it first
+            log.close();
+            Files.deleteIfExists(indexPath);
+            try {
+                Files.move(compactPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(compactPath, logPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long oldSize = logSize;
+            logSize = newSize;
+            liveBytes = newSize;
+            writeIndex();
+            System.out.println("[SaveStore] Compacted shard " + number + " from " + oldSize + " to " + newSize
+                + " bytes in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+
+        private static byte[] recordBody(String profile, int slot, byte[] save) {
+            byte[] name = profile.getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                throw new IllegalArgumentException("Profile name too long");
+            }
+            ByteBuffer body = ByteBuffer.allocate(Short.BYTES + name.length + 1 + save.length);
+            body.putShort((short) name.length).put(name).put((byte) slot).put(save);
+            return body.array();
+        }
+
+        private static void writeAtomically(Path path, byte[] data) throws IOException {
+            Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.conditions.FlagMask;
+import com.ise.officeescape.model.conditions.GateRule;
+import com.ise.officeescape.model.conditions.ProgressFlags;
+import com.ise.officeescape.view.RoomViewModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Sets up every room of a world (puzzles, interactables, hotspot view models) in parallel,
+ * off the FX thread, instead of one room at a time as the player walks in.
+ *
+ * A room whose entry rule needs a puzzle solved depends on the room hosting that puzzle,
+ * and is only set up after it (so its gate can be checked against the real puzzle).
+ * Independent rooms are set up concurrently as fork-join tasks.
+ */
+public class WorldBootstrapper {
+
+    private static final int[] NO_DEPENDENCIES = new int[0];
+
+    private final RoomManager roomManager;
+    private final RoomDataService roomDataService;
+    private final ForkJoinPool pool;
+    private final Map<FlagMask, String[]> solvedIdsByFlags = new ConcurrentHashMap<>(); // Gates are shared, so cache per flag set
+
+    public WorldBootstrapper(RoomManager roomManager) {
+        this(roomManager, new RoomDataService(false), ForkJoinPool.commonPool());
+    }
+
+    public WorldBootstrapper(RoomManager roomManager, RoomDataService roomDataService, ForkJoinPool pool) {
+        this.roomManager = roomManager;
+        this.roomDataService = roomDataService;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets up every room and returns the finished world.
+     *
+     * @throws IllegalStateException if room dependencies form a cycle
+     */
+    public BootstrappedWorld bootstrap() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        List<Room> roomList = roomManager.getAllRooms();
+        Room[] rooms = roomList.toArray(new Room[0]);
+        int roomCount = rooms.length;
+
+        // Phase 1: find which room hosts each puzzle (first room wins in generated worlds)
+        long phaseStart = System.nanoTime();
+        // Each worker fills its own map and the maps are merged, so there is no contention on the few puzzle ids
+        Map<String, Integer> puzzleHosts = pool.submit(() -> IntStream.range(0, roomCount).parallel().collect(
+            HashMap<String, Integer>::new,
+            (hosts, r) -> {
+                for (String puzzleId : RoomDataService.getHostedPuzzleIds(rooms[r])) {
+                    hosts.merge(puzzleId, r, Math::min);
+                }
+            },
+            (hosts, other) -> other.forEach((puzzleId, r) -> hosts.merge(puzzleId, r, Math::min))
+        )).join();
+        timings.put("index puzzles", System.nanoTime() - phaseStart);
+
+        // Phase 2: dependencies from each room's gate, stored as CSR lists of dependents
+        phaseStart = System.nanoTime();
+        int[][] dependencies = new int[roomCount][];
+        pool.submit(() -> IntStream.range(0, roomCount).parallel().forEach(r ->
+            dependencies[r] = gateDependencies(rooms[r], r, puzzleHosts)
+        )).join();
+        int[] dependentStart = new int[roomCount + 1];
+        for (int[] roomDependencies : dependencies) {
+            for (int host : roomDependencies) {
+                dependentStart[host + 1]++;
+            }
+        }
+        for (int r = 0; r < roomCount; r++) {
+            dependentStart[r + 1] += dependentStart[r];
+        }
+        int[] dependents = new int[dependentStart[roomCount]];
+        int[] cursor = Arrays.copyOf(dependentStart, roomCount);
+        AtomicIntegerArray pending = new AtomicIntegerArray(roomCount);
+        List<SetupTask> roots = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            for (int host : dependencies[r]) {
+                dependents[cursor[host]++] = r;
+            }
+            pending.set(r, dependencies[r].length);
+        }
+        timings.put("resolve dependencies", System.nanoTime() - phaseStart);
+
+        // Phase 3: set rooms up; a room's task forks each dependent once its last dependency is done
+        phaseStart = System.nanoTime();
+        RoomViewModel[] viewModels = new RoomViewModel[roomCount];
+        List<String> unresolved = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        SetupContext context = new SetupContext(rooms, viewModels, dependents, dependentStart, pending,
+            puzzleHosts, unresolved, completed);
+        for (int r = 0; r < roomCount; r++) {
+            if (dependencies[r].length == 0) {
+                roots.add(new SetupTask(context, r));
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(roots);
+            }
+        });
+        if (completed.get() != roomCount) {
+            throw new IllegalStateException("Room dependencies form a cycle: only "
+                + completed.get() + " of " + roomCount + " rooms could be set up");
+        }
+        timings.put("set up rooms", System.nanoTime() - phaseStart);
+
+        // Phase 4: publish. Every task was joined above, so all setup writes are visible here;
+        // the world only holds immutable copies in final fields
+        phaseStart = System.nanoTime();
+        List<RoomViewModel> viewModelList = List.of(viewModels);
+        List<String> unresolvedList = List.copyOf(unresolved);
+        timings.put("publish", System.nanoTime() - phaseStart);
+        return new BootstrappedWorld(roomManager, viewModelList, unresolvedList, timings);
+    }
+
+    /**
+     * Gets the rooms hosting the puzzles a room's entry rule requires to be solved.
+     */
+    private int[] gateDependencies(Room room, int self, Map<String, Integer> puzzleHosts) {
+        GateRule rule = room.getEntryRule();
+        if (rule == null) {
+            return NO_DEPENDENCIES;
+        }
+        String[] puzzleIds = solvedPuzzleIds(rule.getCondition().referencedFlags());
+        int[] hosts = new int[puzzleIds.length];
+        int count = 0;
+        for (String puzzleId : puzzleIds) {
+            Integer host = puzzleHosts.get(puzzleId);
+            if (host != null && host != self && !contains(hosts, count, host)) {
+                hosts[count++] = host;
+            }
+        }
+        return count == hosts.length ? hosts : Arrays.copyOf(hosts, count);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String[] solvedPuzzleIds(FlagMask flags) {
+        return solvedIdsByFlags.computeIfAbsent(flags, WorldBootstrapper::describeSolvedPuzzleIds);
+    }
+
+    private static String[] describeSolvedPuzzleIds(FlagMask flags) {
+        List<String> puzzleIds = new ArrayList<>();
+        for (int flag : flags.toArray()) {
+            String puzzleId = ProgressFlags.solvedPuzzleId(flag);
+            if (puzzleId != null) {
+                puzzleIds.add(puzzleId);
+            }
+        }
+        return puzzleIds.toArray(new String[0]);
+    }
+
+    /**
+     * Shared state of one bootstrap run.
+     */
+    private class SetupContext {
+        final Room[] rooms;
+        final RoomViewModel[] viewModels;
+        final int[] dependents;
+        final int[] dependentStart;
+        final AtomicIntegerArray pending;
+        final Map<String, Integer> puzzleHosts;
+        final List<String> unresolved;
+        final AtomicInteger completed;
+
+        SetupContext(Room[] rooms, RoomViewModel[] viewModels, int[] dependents, int[] dependentStart,
+                     AtomicIntegerArray pending, Map<String, Integer> puzzleHosts, List<String> unresolved,
+                     AtomicInteger completed) {
+            this.rooms = rooms;
+            this.viewModels = viewModels;
+            this.dependents = dependents;
+            this.dependentStart = dependentStart;
+            this.pending = pending;
+            this.puzzleHosts = puzzleHosts;
+            this.unresolved = unresolved;
+            this.completed = completed;
+        }
+    }
+
+    /**
+     * Sets up one room, then runs the dependents it was the last dependency of.
+     */
+    private class SetupTask extends RecursiveAction {
+        private final SetupContext context;
+        private final int room;
+
+        SetupTask(SetupContext context, int room) {
+            this.context = context;
+            this.room = room;
+        }
+
+        @Override
+        protected void compute() {
+            Room target = context.rooms[room];
+            context.viewModels[room] = roomDataService.loadRoom(target);
+            checkGate(target);
+            context.completed.incrementAndGet();
+
+            List<SetupTask> ready = new ArrayList<>();
+            for (int i = context.dependentStart[room]; i < context.dependentStart[room + 1]; i++) {
+                int dependent = context.dependents[i];
+                if (context.pending.decrementAndGet(dependent) == 0) {
+                    ready.add(new SetupTask(context, dependent));
+                }
+            }
+            invokeAll(ready);
+        }
+
+        /**
+         * Checks that every puzzle the room's gate needs exists in an already set up room.
+         */
+        private void checkGate(Room target) {
+            GateRule rule = target.getEntryRule();
+            if (rule == null) {
+                return;
+            }
+            for (String puzzleId : solvedPuzzleIds(rule.getCondition().referencedFlags())) {
+                Integer host = context.puzzleHosts.get(puzzleId);
+                if (host == null || context.rooms[host].getPuzzle(puzzleId) == null) {
+                    context.unresolved.add(target.getName() + " needs missing puzzle " + puzzleId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ise.officeescape.simulation;
+
+/**
+ * Simple behaviours an NPC can follow each simulation tick.
+ */
+public enum NpcBehaviour {
+    WANDER,  // Occasionally walks through a random exit
+    QUEUE,   // Walks to its target room and waits there
+    PATROL   // Walks back and forth between its home room and its target room
+}
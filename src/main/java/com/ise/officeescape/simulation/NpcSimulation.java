@@ -0,0 +1,290 @@
+package com.ise.officeescape.simulation;
+
+import com.ise.officeescape.model.Character;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Simulates background characters (NPCs) moving around the room graph.
+ * NPC state is stored as parallel primitive arrays (struct-of-arrays) rather than
+ * one Character object per NPC, so thousands of NPCs can be ticked cheaply.
+ * Each tick updates NPCs in parallel chunks and then rebuilds a per-room occupancy index.
+ */
+public class NpcSimulation {
+
+    private static final int CHUNK_SIZE = 1024; // NPCs updated per parallel task
+    private static final int PARALLEL_THRESHOLD = 4096; // Below this a serial update is faster
+    private static final int WANDER_MOVE_MASK = 7; // Wanderers move on roughly 1 in 8 ticks
+
+    private final RoomGraph graph;
+    private final int[][] hopTables; // Lazily built next-hop tables, indexed by target room
+
+    // NPC state, one slot per NPC
+    private int count;
+    private String[] names;
+    private int[] room;
+    private int[] nextRoom;
+    private byte[] behaviour;
+    private int[] home;
+    private int[] target;
+    private long[] rngState;
+
+    // Occupancy index: occupants of room r are occupants[roomStart[r] .. roomStart[r + 1])
+    private final int[] roomStart;
+    private final int[] roomCursor;
+    private int[] occupants;
+    private boolean occupancyDirty;
+
+    private long tickCount;
+
+    public NpcSimulation(RoomGraph graph, int initialCapacity) {
+        this.graph = graph;
+        this.hopTables = new int[graph.getRoomCount()][];
+        int capacity = Math.max(16, initialCapacity);
+        this.names = new String[capacity];
+        this.room = new int[capacity];
+        this.nextRoom = new int[capacity];
+        this.behaviour = new byte[capacity];
+        this.home = new int[capacity];
+        this.target = new int[capacity];
+        this.rngState = new long[capacity];
+        this.occupants = new int[capacity];
+        this.roomStart = new int[graph.getRoomCount() + 1];
+        this.roomCursor = new int[graph.getRoomCount()];
+    }
+
+    /**
+     * Adds an NPC starting at the given Character's current room.
+     * The Character is only read; the simulation keeps its own compact copy of the state.
+     *
+     * @return the index of the new NPC
+     */
+    public int spawn(Character character, NpcBehaviour npcBehaviour, Room targetRoom) {
+        return spawn(character.getName(), character.getCurrentRoom(), npcBehaviour, targetRoom);
+    }
+
+    /**
+     * Adds an NPC to the simulation.
+     *
+     * @param name Display name of the NPC
+     * @param startRoom Room the NPC starts in
+     * @param npcBehaviour How the NPC moves each tick
+     * @param targetRoom Destination for QUEUE and PATROL behaviours (ignored for WANDER)
+     * @return the index of the new NPC
+     */
+    public int spawn(String name, Room startRoom, NpcBehaviour npcBehaviour, Room targetRoom) {
+        int startIndex = graph.indexOf(startRoom);
+        if (startIndex == RoomGraph.NO_ROOM) {
+            throw new IllegalArgumentException("Start room is not part of the room graph: " + startRoom);
+        }
+        int targetIndex = targetRoom != null ? graph.indexOf(targetRoom) : startIndex;
+        if (targetIndex == RoomGraph.NO_ROOM) {
+            throw new IllegalArgumentException("Target room is not part of the room graph: " + targetRoom);
+        }
+
+        ensureCapacity(count + 1);
+        int npc = count++;
+        names[npc] = name;
+        room[npc] = startIndex;
+        behaviour[npc] = (byte) npcBehaviour.ordinal();
+        home[npc] = startIndex;
+        target[npc] = targetIndex;
+        rngState[npc] = mix(npc * 0x9E3779B97F4A7C15L + 1);
+
+        // Hop tables are built here on the calling thread so the parallel tick only reads them
+        if (npcBehaviour != NpcBehaviour.WANDER) {
+            hopTable(targetIndex);
+            hopTable(startIndex);
+        }
+        occupancyDirty = true;
+        return npc;
+    }
+
+    /**
+     * Advances every NPC by one step and refreshes the occupancy index.
+     */
+    public void tick() {
+        if (count >= PARALLEL_THRESHOLD) {
+            int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk ->
+                updateRange(chunk * CHUNK_SIZE, Math.min(count, (chunk + 1) * CHUNK_SIZE))
+            );
+        } else {
+            updateRange(0, count);
+        }
+
+        int[] previous = room;
+        room = nextRoom;
+        nextRoom = previous;
+        rebuildOccupancy();
+        tickCount++;
+    }
+
+    /**
+     * Computes the next room of every NPC in [from, to).
+     * Each NPC only writes its own slots, so ranges can run concurrently.
+     */
+    private void updateRange(int from, int to) {
+        NpcBehaviour[] behaviours = NpcBehaviour.values();
+        for (int npc = from; npc < to; npc++) {
+            int current = room[npc];
+            int next = current;
+            switch (behaviours[behaviour[npc]]) {
+                case WANDER:
+                    long random = nextRandom(npc);
+                    if ((random & WANDER_MOVE_MASK) == 0) {
+                        next = randomExit(current, (int) ((random >>> 3) & Integer.MAX_VALUE));
+                    }
+                    break;
+                case QUEUE:
+                    next = step(current, target[npc]);
+                    break;
+                case PATROL:
+                    if (current == target[npc]) {
+                        int turnaround = home[npc];
+                        home[npc] = target[npc];
+                        target[npc] = turnaround;
+                    }
+                    next = step(current, target[npc]);
+                    break;
+            }
+            nextRoom[npc] = next;
+        }
+    }
+
+    private int step(int current, int targetRoom) {
+        int hop = hopTables[targetRoom][current];
+        return hop != RoomGraph.NO_ROOM ? hop : current;
+    }
+
+    private int randomExit(int current, int random) {
+        int start = random % RoomGraph.DIRECTIONS;
+        for (int i = 0; i < RoomGraph.DIRECTIONS; i++) {
+            int exit = graph.getExit(current, (start + i) % RoomGraph.DIRECTIONS);
+            if (exit != RoomGraph.NO_ROOM) {
+                return exit;
+            }
+        }
+        return current;
+    }
+
+    private long nextRandom(int npc) {
+        long state = rngState[npc] + 0x9E3779B97F4A7C15L;
+        rngState[npc] = state;
+        return mix(state);
+    }
+
+    /**
+     * SplitMix64 finaliser - a cheap, well-distributed per-NPC random step.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int[] hopTable(int targetRoom) {
+        if (hopTables[targetRoom] == null) {
+            hopTables[targetRoom] = graph.nextHopsTowards(targetRoom);
+        }
+        return hopTables[targetRoom];
+    }
+
+    /**
+     * Counting-sorts NPC indices by room so each room's occupants are contiguous.
+     */
+    private void rebuildOccupancy() {
+        occupancyDirty = false;
+        int rooms = graph.getRoomCount();
+        Arrays.fill(roomStart, 0);
+        for (int npc = 0; npc < count; npc++) {
+            roomStart[room[npc] + 1]++;
+        }
+        for (int r = 0; r < rooms; r++) {
+            roomStart[r + 1] += roomStart[r];
+        }
+        System.arraycopy(roomStart, 0, roomCursor, 0, rooms);
+        for (int npc = 0; npc < count; npc++) {
+            occupants[roomCursor[room[npc]]++] = npc;
+        }
+    }
+
+    private void ensureOccupancy() {
+        if (occupancyDirty) {
+            rebuildOccupancy();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= names.length) {
+            return;
+        }
+        int capacity = Math.max(required, names.length * 2);
+        names = Arrays.copyOf(names, capacity);
+        room = Arrays.copyOf(room, capacity);
+        nextRoom = Arrays.copyOf(nextRoom, capacity);
+        behaviour = Arrays.copyOf(behaviour, capacity);
+        home = Arrays.copyOf(home, capacity);
+        target = Arrays.copyOf(target, capacity);
+        rngState = Arrays.copyOf(rngState, capacity);
+        occupants = Arrays.copyOf(occupants, capacity);
+    }
+
+    /**
+     * Gets the number of NPCs currently in a room.
+     */
+    public int getOccupantCount(Room room) {
+        int index = graph.indexOf(room);
+        return index == RoomGraph.NO_ROOM ? 0 : getOccupantCount(index);
+    }
+
+    public int getOccupantCount(int roomIndex) {
+        ensureOccupancy();
+        return roomStart[roomIndex + 1] - roomStart[roomIndex];
+    }
+
+    /**
+     * Calls the consumer with the index of every NPC in the given room.
+     */
+    public void forEachOccupant(int roomIndex, IntConsumer consumer) {
+        ensureOccupancy();
+        for (int i = roomStart[roomIndex]; i < roomStart[roomIndex + 1]; i++) {
+            consumer.accept(occupants[i]);
+        }
+    }
+
+    /**
+     * Creates a Character snapshot of an NPC (for code that works with model objects).
+     */
+    public Character getCharacter(int npc) {
+        return new Character(names[npc], graph.getRoom(room[npc]));
+    }
+
+    public Room getRoom(int npc) {
+        return graph.getRoom(room[npc]);
+    }
+
+    public int getRoomIndex(int npc) {
+        return room[npc];
+    }
+
+    public NpcBehaviour getBehaviour(int npc) {
+        return NpcBehaviour.values()[behaviour[npc]];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public RoomGraph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,248 @@
+package com.ise.officeescape.simulation;
+
+import com.ise.officeescape.eventSystem.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Discrete-event simulation of the immigration office ticket queue.
+ * Customers arrive at random (Poisson arrivals), take the next ticket number and wait
+ * until one of the service counters calls them. The "now serving" number advances
+ * as counters pick up the next ticket.
+ *
+ * Time is measured in simulated minutes. The simulation runs headless, as fast as the
+ * CPU allows, and is advanced by the caller (e.g. from a UI timer or a benchmark).
+ */
+public class QueueSimulation {
+
+    private static final int ARRIVAL = 0;
+    private static final int SERVICE_COMPLETE = 1;
+
+    private final double arrivalsPerMinute;
+    private final double meanServiceMinutes;
+    private final int counterCount;
+    private final SplittableRandom random;
+    private final SimulationEventList events;
+
+    private double now;
+    private int nextTicketNumber;
+    private int nowServing;
+
+    // Waiting customers, as a ring buffer of ticket numbers and arrival times
+    private int[] waitingTickets;
+    private double[] waitingSince;
+    private int waitingHead;
+    private int waitingCount;
+
+    private final boolean[] counterBusy;
+    private int busyCounters;
+
+    // Statistics
+    private long customersServed;
+    private long eventsProcessed;
+    private double totalWaitMinutes;
+
+    // Fired whenever a counter calls the next ticket number
+    public Event<OnNowServingChangedEventArgs> OnNowServingChanged = new Event<>();
+    public static class OnNowServingChangedEventArgs extends EventArgs {
+        public final int ticketNumber;
+        public final int counter;
+        public final double time;
+        public OnNowServingChangedEventArgs(int ticketNumber, int counter, double time) {
+            this.ticketNumber = ticketNumber;
+            this.counter = counter;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Creates a queue simulation.
+     *
+     * @param arrivalsPerMinute Average number of customers arriving per simulated minute
+     * @param counterCount Number of service counters open
+     * @param meanServiceMinutes Average time a counter spends on one customer
+     * @param seed Random seed, so runs are reproducible
+     */
+    public QueueSimulation(double arrivalsPerMinute, int counterCount, double meanServiceMinutes, long seed) {
+        if (arrivalsPerMinute <= 0 || meanServiceMinutes <= 0 || counterCount <= 0) {
+            throw new IllegalArgumentException("Arrival rate, service time and counter count must be positive");
+        }
+        this.arrivalsPerMinute = arrivalsPerMinute;
+        this.meanServiceMinutes = meanServiceMinutes;
+        this.counterCount = counterCount;
+        this.random = new SplittableRandom(seed);
+        this.events = new SimulationEventList(counterCount + 16);
+        this.waitingTickets = new int[64];
+        this.waitingSince = new double[64];
+        this.counterBusy = new boolean[counterCount];
+        this.nextTicketNumber = 1;
+        this.nowServing = 0;
+
+        events.schedule(exponential(1.0 / arrivalsPerMinute), ARRIVAL, 0);
+    }
+
+    /**
+     * Processes every event up to and including the given simulated time.
+     */
+    public void runUntil(double time) {
+        while (events.peekTime() <= time) {
+            events.poll();
+            now = events.getPolledTime();
+            eventsProcessed++;
+            if (events.getPolledKind() == ARRIVAL) {
+                handleArrival();
+            } else {
+                handleServiceComplete(events.getPolledPayload());
+            }
+        }
+        now = Math.max(now, time);
+    }
+
+    /**
+     * Advances the simulation by the given number of simulated minutes.
+     */
+    public void advance(double minutes) {
+        runUntil(now + minutes);
+    }
+
+    /**
+     * Adds a customer (e.g. the player) to the back of the queue right now.
+     *
+     * @return the ticket number they were given
+     */
+    public int takeTicket() {
+        int ticket = nextTicketNumber++;
+        enqueue(ticket);
+        callNextCustomers();
+        return ticket;
+    }
+
+    private void handleArrival() {
+        enqueue(nextTicketNumber++);
+        events.schedule(now + exponential(1.0 / arrivalsPerMinute), ARRIVAL, 0);
+        callNextCustomers();
+    }
+
+    private void handleServiceComplete(int counter) {
+        counterBusy[counter] = false;
+        busyCounters--;
+        customersServed++;
+        callNextCustomers();
+    }
+
+    /**
+     * Assigns waiting customers to free counters.
+     */
+    private void callNextCustomers() {
+        for (int counter = 0; counter < counterCount && waitingCount > 0; counter++) {
+            if (counterBusy[counter]) {
+                continue;
+            }
+            int ticket = waitingTickets[waitingHead];
+            totalWaitMinutes += now - waitingSince[waitingHead];
+            waitingHead = (waitingHead + 1) % waitingTickets.length;
+            waitingCount--;
+
+            counterBusy[counter] = true;
+            busyCounters++;
+            nowServing = ticket;
+            events.schedule(now + exponential(meanServiceMinutes), SERVICE_COMPLETE, counter);
+            if (OnNowServingChanged.hasListeners()) {
+                OnNowServingChanged.invoke(this, new OnNowServingChangedEventArgs(ticket, counter, now));
+            }
+        }
+    }
+
+    private void enqueue(int ticket) {
+        if (waitingCount == waitingTickets.length) {
+            // Unroll the ring buffer into a larger array
+            int capacity = waitingTickets.length * 2;
+            int[] tickets = new int[capacity];
+            double[] since = new double[capacity];
+            for (int i = 0; i < waitingCount; i++) {
+                int from = (waitingHead + i) % waitingTickets.length;
+                tickets[i] = waitingTickets[from];
+                since[i] = waitingSince[from];
+            }
+            waitingTickets = tickets;
+            waitingSince = since;
+            waitingHead = 0;
+        }
+        int tail = (waitingHead + waitingCount) % waitingTickets.length;
+        waitingTickets[tail] = ticket;
+        waitingSince[tail] = now;
+        waitingCount++;
+    }
+
+    private double exponential(double mean) {
+        return -mean * Math.log(1.0 - random.nextDouble());
+    }
+
+    /**
+     * Gets the position of a ticket in the waiting line (0 = next to be called),
+     * or -1 if it is not waiting (already called or not issued yet).
+     */
+    public int getPositionInQueue(int ticketNumber) {
+        for (int i = 0; i < waitingCount; i++) {
+            if (waitingTickets[(waitingHead + i) % waitingTickets.length] == ticketNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the ticket numbers currently waiting, front of the line first.
+     * Useful for placing queue NPCs.
+     */
+    public int[] getWaitingTickets() {
+        int[] tickets = new int[waitingCount];
+        for (int i = 0; i < waitingCount; i++) {
+            tickets[i] = waitingTickets[(waitingHead + i) % waitingTickets.length];
+        }
+        return tickets;
+    }
+
+    public double getTime() {
+        return now;
+    }
+
+    public int getNowServing() {
+        return nowServing;
+    }
+
+    public int getQueueLength() {
+        return waitingCount;
+    }
+
+    public int getBusyCounters() {
+        return busyCounters;
+    }
+
+    public int getTicketsIssued() {
+        return nextTicketNumber - 1;
+    }
+
+    public long getCustomersServed() {
+        return customersServed;
+    }
+
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * Average time waited by customers who have been called so far, in minutes.
+     */
+    public double getAverageWaitMinutes() {
+        long called = customersServed + busyCounters;
+        return called == 0 ? 0 : totalWaitMinutes / called;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueSimulation[t=" + String.format("%.1f", now) + "min, nowServing=" + nowServing
+            + ", waiting=" + waitingCount + ", counters=" + Arrays.toString(counterBusy) + "]";
+    }
+}
@@ -0,0 +1,150 @@
+package com.ise.officeescape.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Future event list for discrete-event simulations.
+ * A binary min-heap ordered by event time, stored in parallel primitive arrays
+ * so scheduling and polling events does not allocate.
+ * Events scheduled for the same time are returned in the order they were scheduled.
+ */
+public class SimulationEventList {
+
+    private double[] times;
+    private long[] sequences;
+    private int[] kinds;
+    private int[] payloads;
+    private int size;
+    private long nextSequence;
+
+    // Fields of the most recently polled event
+    private double polledTime;
+    private int polledKind;
+    private int polledPayload;
+
+    public SimulationEventList(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        times = new double[capacity];
+        sequences = new long[capacity];
+        kinds = new int[capacity];
+        payloads = new int[capacity];
+    }
+
+    /**
+     * Schedules an event.
+     *
+     * @param time Simulation time the event fires at
+     * @param kind Caller-defined event type
+     * @param payload Caller-defined event data (e.g. a counter index)
+     */
+    public void schedule(double time, int kind, int payload) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+        int i = size++;
+        long sequence = nextSequence++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(time, sequence, times[parent], sequences[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, time, sequence, kind, payload);
+    }
+
+    /**
+     * Removes the earliest event. Its fields are then available through
+     * getPolledTime(), getPolledKind() and getPolledPayload().
+     *
+     * @return false if the list was empty
+     */
+    public boolean poll() {
+        if (size == 0) {
+            return false;
+        }
+        polledTime = times[0];
+        polledKind = kinds[0];
+        polledPayload = payloads[0];
+
+        int last = --size;
+        if (last > 0) {
+            double time = times[last];
+            long sequence = sequences[last];
+            int kind = kinds[last];
+            int payload = payloads[last];
+            // Sift down
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < last && before(times[right], sequences[right], times[child], sequences[child])) {
+                    child = right;
+                }
+                if (!before(times[child], sequences[child], time, sequence)) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, time, sequence, kind, payload);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the time of the earliest event without removing it.
+     */
+    public double peekTime() {
+        return size == 0 ? Double.POSITIVE_INFINITY : times[0];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public double getPolledTime() {
+        return polledTime;
+    }
+
+    public int getPolledKind() {
+        return polledKind;
+    }
+
+    public int getPolledPayload() {
+        return polledPayload;
+    }
+
+    private static boolean before(double timeA, long sequenceA, double timeB, long sequenceB) {
+        return timeA < timeB || (timeA == timeB && sequenceA < sequenceB);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        sequences[to] = sequences[from];
+        kinds[to] = kinds[from];
+        payloads[to] = payloads[from];
+    }
+
+    private void set(int i, double time, long sequence, int kind, int payload) {
+        times[i] = time;
+        sequences[i] = sequence;
+        kinds[i] = kind;
+        payloads[i] = payload;
+    }
+}
@@ -0,0 +1,315 @@
+package com.ise.officeescape.view;
+
+import com.ise.officeescape.eventSystem.*;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plays the animations of the shown room (see AnimationViewModel).
+ *
+ * Every sprite is an ImageView over the room's SpriteAtlas, and one AnimationTimer steps all
+ * playing sprites each frame. A step only changes a sprite's viewport, and only when its frame
+ * actually changes; no images are swapped and nothing is allocated.
+ * The timer runs only while something is playing.
+ *
+ * Atlases are loaded and packed in the background. A room whose atlas is not ready yet gets its
+ * sprite views at once, and their frames (and autoplay) once the atlas is packed.
+ */
+public class AnimationEngine {
+
+    public static final double DEFAULT_FRAME_RATE = 12;
+    public static final String LOOPING_SPRITE = "LoopingSprite";
+    public static final String ONE_SHOT = "OneShot";
+    private static final int RECENT_ATLASES = 4; // Enough to walk back and forth between neighbouring rooms
+
+    private static AnimationEngine shared;
+
+    private final AnimationTimer timer; // Null when stepped by hand (see tick)
+    private boolean timerRunning;
+    private final Map<String, Sprite> sprites = new HashMap<>(); // Sprites of the shown room, by animation id
+    // Atlases of recently shown rooms, keyed by their packed asset ids, least recently shown first
+    private final Map<String, CompletableFuture<SpriteAtlas>> recentAtlases =
+        new LinkedHashMap<>(RECENT_ATLASES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<SpriteAtlas>> eldest) {
+                return size() > RECENT_ATLASES;
+            }
+        };
+    private int shown; // Bumped by clear, so an atlas finishing late knows if its room is still shown
+    private Sprite[] playing = new Sprite[16];
+    private int playingCount;
+    private final List<String> finished = new ArrayList<>(); // Reused by tick
+
+    // Fired on the FX thread when a one-shot animation has shown its last frame
+    public Event<OnAnimationFinishedEventArgs> OnAnimationFinished = new Event<>();
+    public static class OnAnimationFinishedEventArgs extends EventArgs {
+        public final String animationId;
+        public OnAnimationFinishedEventArgs(String animationId) {
+            this.animationId = animationId;
+        }
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param driveWithTimer true to step animations from an AnimationTimer (needs the FX toolkit),
+     *                       false to step them only through tick (benchmarks)
+     */
+    public AnimationEngine(boolean driveWithTimer) {
+        this.timer = driveWithTimer ? new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                tick(now);
+            }
+        } : null;
+    }
+
+    /**
+     * Gets the engine shared by all views. Must be called on the FX thread.
+     */
+    public static AnimationEngine getShared() {
+        if (shared == null) {
+            shared = new AnimationEngine(true);
+        }
+        return shared;
+    }
+
+    /**
+     * Replaces the shown animations with a room's, packing their frames into an atlas.
+     * The atlases of the last few rooms are kept, so walking back to a room does not load its
+     * frames again. Must be called on the FX thread. Animations marked autoPlay start playing,
+     * once their frames are loaded.
+     *
+     * @return the sprite views, for the caller to place over the room
+     */
+    public List<ImageView> show(List<AnimationViewModel> animations) {
+        clear();
+        if (animations.isEmpty()) {
+            return List.of();
+        }
+        TreeSet<String> assetIds = new TreeSet<>();
+        for (AnimationViewModel animation : animations) {
+            assetIds.add(animation.getAssetId());
+        }
+        String key = String.join("|", assetIds);
+        CompletableFuture<SpriteAtlas> atlas = recentAtlases.get(key);
+        if (atlas == null) {
+            atlas = SpriteAtlas.load(new ArrayList<>(assetIds), ImageCache.getShared());
+            recentAtlases.put(key, atlas);
+        }
+        if (atlas.isDone() && !atlas.isCompletedExceptionally()) {
+            return attach(animations, createViews(animations), atlas.join());
+        }
+
+        List<ImageView> views = createViews(animations);
+        int room = shown;
+        CompletableFuture<SpriteAtlas> loading = atlas;
+        loading.whenComplete((packed, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("[AnimationEngine] Could not load sprites " + key + ": " + error);
+                recentAtlases.remove(key, loading); // Try again next time the room is shown
+            } else if (room == shown) {
+                attach(animations, views, packed);
+            }
+        }));
+        return views;
+    }
+
+    /**
+     * Replaces the shown animations, using frames from a given atlas.
+     */
+    public List<ImageView> show(List<AnimationViewModel> animations, SpriteAtlas atlas) {
+        clear();
+        return attach(animations, createViews(animations), atlas);
+    }
+
+    /**
+     * Creates an empty sprite view per animation, placed over the room.
+     */
+    private static List<ImageView> createViews(List<AnimationViewModel> animations) {
+        List<ImageView> views = new ArrayList<>(animations.size());
+        for (AnimationViewModel animation : animations) {
+            ImageView view = new ImageView();
+            view.setLayoutX(animation.getX());
+            view.setLayoutY(animation.getY());
+            view.setFitWidth(animation.getWidth());
+            view.setFitHeight(animation.getHeight());
+            view.setSmooth(true);
+            view.setMouseTransparent(true); // Hotspots under a sprite stay clickable
+            views.add(view);
+        }
+        return views;
+    }
+
+    /**
+     * Gives the views of the shown animations their frames and starts the autoplaying ones.
+     *
+     * @return the views that got frames
+     */
+    private List<ImageView> attach(List<AnimationViewModel> animations, List<ImageView> views, SpriteAtlas atlas) {
+        List<ImageView> attached = new ArrayList<>(views.size());
+        for (int i = 0; i < animations.size(); i++) {
+            AnimationViewModel animation = animations.get(i);
+            Rectangle2D[] frames = atlas.getFrames(animation.getAssetId());
+            if (frames == null) {
+                System.err.println("[AnimationEngine] No frames for animation " + animation.getId()
+                    + " (" + animation.getAssetId() + ")");
+                continue;
+            }
+            ImageView view = views.get(i);
+            view.setImage(atlas.getImage());
+            view.setViewport(frames[0]);
+
+            boolean looping = !ONE_SHOT.equals(animation.getType());
+            if (looping && !LOOPING_SPRITE.equals(animation.getType())) {
+                System.err.println("[AnimationEngine] Unknown animation type " + animation.getType()
+                    + " for " + animation.getId() + ", looping it");
+            }
+            long nanosPerFrame = (long) (1_000_000_000L / (animation.getFrameRate() > 0 ? animation.getFrameRate() : DEFAULT_FRAME_RATE));
+            Sprite sprite = new Sprite(animation.getId(), view, frames, nanosPerFrame, looping);
+            sprites.put(animation.getId(), sprite);
+            attached.add(view);
+            if (animation.isAutoPlay()) {
+                start(sprite);
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Plays an animation of the shown room from its first frame (e.g. a one-shot triggered by the player).
+     *
+     * @return false if the shown room has no such animation, or its frames are still loading
+     */
+    public boolean play(String animationId) {
+        Sprite sprite = sprites.get(animationId);
+        if (sprite == null) {
+            return false;
+        }
+        start(sprite);
+        return true;
+    }
+
+    /**
+     * Stops and forgets the shown animations.
+     */
+    public void clear() {
+        for (int i = 0; i < playingCount; i++) {
+            playing[i].playing = false;
+            playing[i] = null;
+        }
+        playingCount = 0;
+        sprites.clear();
+        shown++;
+        stopTimer();
+    }
+
+    /**
+     * Gets how many animations are playing.
+     */
+    public int getPlayingCount() {
+        return playingCount;
+    }
+
+    /**
+     * Steps every playing animation to a time. Called by the timer each frame.
+     *
+     * @param now time in nanoseconds, on the System.nanoTime clock
+     */
+    public void tick(long now) {
+        for (int i = 0; i < playingCount; ) {
+            Sprite sprite = playing[i];
+            if (sprite.startNanos < 0) {
+                sprite.startNanos = now; // Started since the last frame
+            }
+            long frame = (now - sprite.startNanos) / sprite.nanosPerFrame;
+            if (frame >= sprite.frames.length) {
+                if (!sprite.looping) {
+                    sprite.showFrame(sprite.frames.length - 1);
+                    sprite.playing = false;
+                    playing[i] = playing[--playingCount];
+                    playing[playingCount] = null;
+                    finished.add(sprite.id);
+                    continue;
+                }
+                frame %= sprite.frames.length;
+            }
+            sprite.showFrame((int) frame);
+            i++;
+        }
+
+        if (playingCount == 0) {
+            stopTimer();
+        }
+        if (!finished.isEmpty()) {
+            for (String animationId : finished) {
+                OnAnimationFinished.invoke(this, new OnAnimationFinishedEventArgs(animationId));
+            }
+            finished.clear();
+        }
+    }
+
+    private void start(Sprite sprite) {
+        sprite.startNanos = -1;
+        sprite.shownFrame = -1;
+        sprite.showFrame(0);
+        if (!sprite.playing) {
+            if (playingCount == playing.length) {
+                playing = Arrays.copyOf(playing, playingCount * 2);
+            }
+            playing[playingCount++] = sprite;
+            sprite.playing = true;
+        }
+        if (timer != null && !timerRunning) {
+            timer.start();
+            timerRunning = true;
+        }
+    }
+
+    private void stopTimer() {
+        if (timer != null && timerRunning) {
+            timer.stop();
+            timerRunning = false;
+        }
+    }
+
+    /**
+     * One animation of the shown room.
+     */
+    private static class Sprite {
+        final String id;
+        final ImageView view;
+        final Rectangle2D[] frames; // Viewports into the atlas
+        final long nanosPerFrame;
+        final boolean looping;
+        long startNanos = -1; // Set on the first tick after starting
+        int shownFrame; // The view starts on frame 0
+        boolean playing;
+
+        Sprite(String id, ImageView view, Rectangle2D[] frames, long nanosPerFrame, boolean looping) {
+            this.id = id;
+            this.view = view;
+            this.frames = frames;
+            this.nanosPerFrame = nanosPerFrame;
+            this.looping = looping;
+        }
+
+        void showFrame(int frame) {
+            if (frame != shownFrame) {
+                shownFrame = frame;
+                view.setViewport(frames[frame]);
+            }
+        }
+    }
+}
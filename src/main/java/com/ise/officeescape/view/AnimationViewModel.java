@@ -1,27 +1,29 @@
 package com.ise.officeescape.view;
 
 /**
- * View model for an animation overlay in a room.
+ * View model for an animation overlay in a room, played by the AnimationEngine.
  */
 public class AnimationViewModel {
     private String id;
-    private String type; // "LoopingSprite", "OneShot", etc.
-    private String assetPath;
+    private String type; // "LoopingSprite" or "OneShot"
+    private String assetId; // Sprite frames, see SpriteAtlas
     private double x;
     private double y;
     private double width;
     private double height;
     private boolean autoPlay;
+    private double frameRate; // Frames per second
 
-    public AnimationViewModel(String id, String type, String assetPath, double x, double y, double width, double height) {
+    public AnimationViewModel(String id, String type, String assetId, double x, double y, double width, double height) {
         this.id = id;
         this.type = type;
-        this.assetPath = assetPath;
+        this.assetId = assetId;
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
         this.autoPlay = true;
+        this.frameRate = AnimationEngine.DEFAULT_FRAME_RATE;
     }
 
     public String getId() {
@@ -32,8 +34,8 @@ public class AnimationViewModel {
         return type;
     }
 
-    public String getAssetPath() {
-        return assetPath;
+    public String getAssetId() {
+        return assetId;
     }
 
     public double getX() {
@@ -59,5 +61,13 @@ public class AnimationViewModel {
     public void setAutoPlay(boolean autoPlay) {
         this.autoPlay = autoPlay;
     }
+
+    public double getFrameRate() {
+        return frameRate;
+    }
+
+    public void setFrameRate(double frameRate) {
+        this.frameRate = frameRate;
+    }
 }
 
@@ -0,0 +1,171 @@
+package com.ise.officeescape.view;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-disk cache of decoded images, so later launches skip PNG decoding.
+ *
+ * Each file holds one image as premultiplied ARGB pixels, decoded and scaled for one requested
+ * size. Files are named after the asset id, a hash of its bytes and the requested size
+ * ("ticket-1a2b3c4d-2f00a-1024x640.argb"), so a changed asset simply misses and its old files
+ * are deleted when the new ones are written. Files are memory-mapped and copied straight into a
+ * WritableImage.
+ *
+ * File layout (little-endian): magic, version, width, height, then width x height pixels.
+ */
+public class DecodedImageStore {
+
+    private static final int MAGIC = 0x4F45494D; // "OEIM"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final String EXTENSION = ".argb";
+
+    private final Path dir;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DecodedImageStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Opens the store in the game's directory under the user's home.
+     *
+     * @return the store, or null if its directory cannot be created (images are then just decoded)
+     */
+    public static DecodedImageStore openDefault() {
+        Path dir = Path.of(System.getProperty("user.home"), ".irishImmigrationOdyssey", "image-cache");
+        try {
+            Files.createDirectories(dir);
+            return new DecodedImageStore(dir);
+        } catch (IOException | SecurityException e) {
+            System.err.println("[DecodedImageStore] Not caching decoded images: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads a decoded image.
+     *
+     * @param assetHash hash of the asset's bytes, see ImageCache
+     * @param width requested width the image was decoded for (0 for full size)
+     * @param height requested height the image was decoded for (0 for full size)
+     * @return the image, or null if it is not stored (or the file is unusable, which is then deleted)
+     */
+    public Image read(String assetId, String assetHash, int width, int height) {
+        Path file = dir.resolve(fileName(assetId, assetHash, width, height));
+        if (!Files.isRegularFile(file)) {
+            misses.increment();
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            int imageWidth = buffer.getInt(8);
+            int imageHeight = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || imageWidth <= 0 || imageHeight <= 0
+                    || channel.size() != HEADER_SIZE + (long) imageWidth * imageHeight * 4) {
+                throw new IOException("bad header");
+            }
+            IntBuffer pixels = buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            WritableImage image = new WritableImage(imageWidth, imageHeight);
+            image.getPixelWriter().setPixels(0, 0, imageWidth, imageHeight,
+                PixelFormat.getIntArgbPreInstance(), pixels, imageWidth);
+            hits.increment();
+            return image;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[DecodedImageStore] Discarding unusable " + file.getFileName() + ": " + e.getMessage());
+            misses.increment();
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a decoded image, replacing the files of older versions of the asset at that size.
+     * Failures are only logged, since the image can always be decoded again.
+     */
+    public void write(String assetId, String assetHash, int width, int height, Image image) {
+        PixelReader reader = image.getPixelReader();
+        int imageWidth = (int) image.getWidth();
+        int imageHeight = (int) image.getHeight();
+        if (reader == null || imageWidth <= 0 || imageHeight <= 0) {
+            return;
+        }
+        String name = fileName(assetId, assetHash, width, height);
+        Path file = dir.resolve(name);
+        Path temp = dir.resolve(name + ".tmp");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + imageWidth * imageHeight * 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(imageWidth).putInt(imageHeight);
+            reader.getPixels(0, 0, imageWidth, imageHeight, PixelFormat.getIntArgbPreInstance(),
+                buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer(), imageWidth);
+            buffer.clear();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteOtherVersions(assetId, name, width, height);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[DecodedImageStore] Could not store " + name + ": " + e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void deleteOtherVersions(String assetId, String keep, int width, int height) throws IOException {
+        String glob = assetName(assetId) + "-*-" + width + "x" + height + EXTENSION;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, glob)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(keep)) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private static String fileName(String assetId, String assetHash, int width, int height) {
+        return assetName(assetId) + "-" + assetHash + "-" + width + "x" + height + EXTENSION;
+    }
+
+    /**
+     * Gets the asset id, keeping only characters safe in file names.
+     */
+    private static String assetName(String assetId) {
+        return assetId.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("[DecodedImageStore] Could not delete " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
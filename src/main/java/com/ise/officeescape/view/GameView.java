@@ -4,6 +4,7 @@ import com.ise.officeescape.eventSystem.*;
 import com.ise.officeescape.model.Inventory;
 import com.ise.officeescape.model.Item;
 import com.ise.officeescape.model.Room;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -15,6 +16,7 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 
 import java.util.HashMap;
@@ -26,13 +28,19 @@ import java.util.Map;
 public class GameView extends StackPane {
 
     private ImageView backgroundImage;
-    private RoomImageMapper roomImageMapper;
+    private String backgroundAssetId; // Background of the room being shown
+    private int backgroundWidth;  // Size the background is decoded to fit (rounded by ImageCache)
+    private int backgroundHeight;
+    private PauseTransition resizePause; // Re-decodes the background once resizing settles
+    private final ImageCache imageCache = ImageCache.getShared();
     private DirectionControllerView directionControllerView;
+    private Pane animationsLayer; // Layer for the room's animated sprites
     private Pane hotspotsLayer; // Layer for clickable hotspots
     private PuzzleView currentPuzzleView; // Current puzzle overlay (if any)
     private InventoryView inventoryView; // Inventory overlay
     private Button inventoryButton; // Button to open inventory
     private Label saveIndicatorLabel; // Label to show "Game saved" message
+    private Label statusLabel; // Label for what is going on in the room (e.g. the ticket queue)
 
     // Event for hotspot clicks
     public Event<OnHotspotClickedEventArgs> OnHotspotClicked = new Event<>();
@@ -43,11 +51,16 @@ public class GameView extends StackPane {
         }
     }
 
+    // Event for undo requests (Ctrl+Z)
+    public Event<EventArgs> OnUndoRequested = new Event<>();
+
+    // Event for hint requests (H key)
+    public Event<EventArgs> OnHintRequested = new Event<>();
+
     // Map to track hotspot buttons
     private Map<String, Button> hotspotButtons = new HashMap<>();
 
     public GameView() {
-        this.roomImageMapper = new RoomImageMapper();
         initializeUI();
     }
 
@@ -61,6 +74,12 @@ public class GameView extends StackPane {
         backgroundImage.fitWidthProperty().bind(widthProperty());
         backgroundImage.fitHeightProperty().bind(heightProperty());
 
+        // The background is decoded at the window size, so decode again when that changes a lot
+        resizePause = new PauseTransition(Duration.millis(250));
+        resizePause.setOnFinished(e -> refreshBackground());
+        widthProperty().addListener((obs, oldValue, newValue) -> resizePause.playFromStart());
+        heightProperty().addListener((obs, oldValue, newValue) -> resizePause.playFromStart());
+
         // Hotspots layer - transparent overlay for clickable areas
         // Make it fill the entire view so hotspots scale properly
         hotspotsLayer = new Pane();
@@ -72,9 +91,16 @@ public class GameView extends StackPane {
         // Debug: Print layer info
         System.out.println("[GameView] HotspotsLayer created and configured");
 
-        // Add layers in order: background, direction controller, hotspots
+        // Animations layer - sprites over the background, never taking clicks
+        animationsLayer = new Pane();
+        animationsLayer.setMouseTransparent(true);
+        animationsLayer.prefWidthProperty().bind(widthProperty());
+        animationsLayer.prefHeightProperty().bind(heightProperty());
+
+        // Add layers in order: background, animations, direction controller, hotspots
         // Hotspots added last so they're on top and clickable
         getChildren().add(backgroundImage);
+        getChildren().add(animationsLayer);
 
         // Create and add direction controller view (before hotspots so hotspots are on top)
         directionControllerView = new DirectionControllerView();
@@ -113,6 +139,21 @@ public class GameView extends StackPane {
         StackPane.setMargin(saveIndicatorLabel, new Insets(20, 20, 0, 0));
         getChildren().add(saveIndicatorLabel);
 
+        // Create status label (top left, opposite the save indicator)
+        statusLabel = new Label();
+        statusLabel.setStyle(
+            "-fx-background-color: rgba(0, 0, 0, 0.7); " +
+            "-fx-text-fill: white; " +
+            "-fx-font-size: 14px; " +
+            "-fx-padding: 8 12; " +
+            "-fx-background-radius: 5;"
+        );
+        statusLabel.setVisible(false);
+        statusLabel.setMouseTransparent(true);
+        StackPane.setAlignment(statusLabel, javafx.geometry.Pos.TOP_LEFT);
+        StackPane.setMargin(statusLabel, new Insets(20, 0, 0, 20));
+        getChildren().add(statusLabel);
+
         // Create inventory view (initially hidden)
         inventoryView = new InventoryView();
         getChildren().add(inventoryView);
@@ -132,6 +173,12 @@ public class GameView extends StackPane {
         if (event.getCode() == KeyCode.I) {
             toggleInventory();
             event.consume();
+        } else if (event.getCode() == KeyCode.Z && event.isShortcutDown()) {
+            OnUndoRequested.invoke(this, EventArgs.empty);
+            event.consume();
+        } else if (event.getCode() == KeyCode.H) {
+            OnHintRequested.invoke(this, EventArgs.empty);
+            event.consume();
         }
     }
 
@@ -140,20 +187,78 @@ public class GameView extends StackPane {
     }
 
     /**
-     * Shows a room with all its hotspots and interactions.
+     * Starts decoding a background the player will probably see next, at the current size.
      */
-    public void showRoom(RoomViewModel viewModel) {
-        System.out.println("[GameView] showRoom() called for room: " + viewModel.getRoom().getName());
-        System.out.println("[GameView] Current window size: " + getWidth() + " x " + getHeight());
+    public void prefetchBackground(String assetId) {
+        imageCache.prefetch(assetId, getBackgroundWidth(), getBackgroundHeight());
+    }
+
+    private int getBackgroundWidth() {
+        return ImageCache.roundUpSize(getWidth() * getOutputScale());
+    }
+
+    private int getBackgroundHeight() {
+        return ImageCache.roundUpSize(getHeight() * getOutputScale());
+    }
 
-        // Load and set background image
-        Image roomImage = roomImageMapper.loadRoomImage(viewModel.getRoom());
+    private double getOutputScale() {
+        return getScene() != null && getScene().getWindow() != null ? getScene().getWindow().getOutputScaleX() : 1;
+    }
+
+    /**
+     * Sets the background image, at once if it is cached at this size, otherwise once it is decoded.
+     */
+    private void loadBackground(String assetId) {
+        int width = getBackgroundWidth();
+        int height = getBackgroundHeight();
+        if (!assetId.equals(backgroundAssetId)) {
+            backgroundImage.setImage(null); // Do not show the previous room behind the new hotspots
+        }
+        backgroundAssetId = assetId;
+        backgroundWidth = width;
+        backgroundHeight = height;
+        Image roomImage = imageCache.getIfCached(assetId, width, height);
+        if (roomImage != null) {
+            showBackground(roomImage);
+            return;
+        }
+        imageCache.load(assetId, width, height).thenAccept(image -> Platform.runLater(() -> {
+            // The player may have moved on, or the window resized, meanwhile
+            if (assetId.equals(backgroundAssetId) && width == backgroundWidth && height == backgroundHeight) {
+                showBackground(image);
+            }
+        }));
+    }
+
+    private void refreshBackground() {
+        if (backgroundAssetId != null
+                && (getBackgroundWidth() != backgroundWidth || getBackgroundHeight() != backgroundHeight)) {
+            System.out.println("[GameView] Window resized, decoding background at " + getBackgroundWidth() + " x " + getBackgroundHeight());
+            loadBackground(backgroundAssetId);
+        }
+    }
+
+    private void showBackground(Image roomImage) {
         if (roomImage != null) {
             backgroundImage.setImage(roomImage);
             System.out.println("[GameView] Background image loaded: " + roomImage.getWidth() + " x " + roomImage.getHeight());
         } else {
             System.out.println("[GameView] WARNING: Background image failed to load");
         }
+    }
+
+    /**
+     * Shows a room with all its hotspots and interactions.
+     */
+    public void showRoom(RoomViewModel viewModel) {
+        System.out.println("[GameView] showRoom() called for room: " + viewModel.getRoom().getName());
+        System.out.println("[GameView] Current window size: " + getWidth() + " x " + getHeight());
+
+        // Decode the background to fit the window rather than at full resolution
+        loadBackground(viewModel.getBackgroundAssetId());
+
+        // Replace the previous room's animations; all of them are stepped by the shared engine
+        animationsLayer.getChildren().setAll(AnimationEngine.getShared().show(viewModel.getAnimations()));
 
         // Clear existing hotspots
         clearHotspots();
@@ -293,6 +398,14 @@ public class GameView extends StackPane {
         inventoryView.toggle();
     }
     
+    /**
+     * Shows a line of status in the top left corner, or hides it when the status is null.
+     */
+    public void showStatus(String status) {
+        statusLabel.setText(status);
+        statusLabel.setVisible(status != null);
+    }
+
     /**
      * Shows a "Game saved" indicator in the top right corner.
      * The indicator fades in, stays visible for 2 seconds, then fades out.
@@ -0,0 +1,345 @@
+package com.ise.officeescape.view;
+
+import com.ise.officeescape.service.AssetBundle;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of decoded images, so each asset is decoded once however often rooms
+ * are revisited or inventories redrawn. Images are asked for by asset id (e.g. "ticket"),
+ * and read from the AssetBundle. Asking for an id that is not in the bundle is a bug (the
+ * build checks every asset the game refers to), so it throws instead of showing nothing.
+ *
+ * Recently used images are kept up to a total decoded size (width x height x 4 bytes) and
+ * evicted least recently used first. Evicted images are still held through soft references,
+ * so they come back without decoding unless the garbage collector needed the memory.
+ * Images are decoded on a background pool; load returns a future.
+ *
+ * Images can be decoded to fit a requested size instead of at full resolution, so the heap
+ * holds about as many pixels as are on screen. Requested sizes are rounded up to steps of
+ * SIZE_STEP pixels so small window resizes reuse the same decode, and images are never
+ * decoded larger than their own size. Item icons share one THUMBNAIL_SIZE decode.
+ *
+ * With a DecodedImageStore, decodes are also kept on disk and reused by later launches.
+ */
+public class ImageCache {
+
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    public static final int SIZE_STEP = 128;
+    public static final int THUMBNAIL_SIZE = 128; // Fits the 80 and 100 pixel item icons
+
+    private static final ImageCache shared = new ImageCache(DEFAULT_MAX_BYTES, DecodedImageStore.openDefault());
+
+    private final long maxBytes;
+    private final DecodedImageStore store; // Decodes kept from earlier launches, or null
+    private final AssetBundle assets = AssetBundle.getBuiltIn();
+    private final LinkedHashMap<String, Image> recent = new LinkedHashMap<>(64, 0.75f, true); // Access order
+    private final Map<String, SoftReference<Image>> overflow = new HashMap<>();
+    private final Map<String, CompletableFuture<Image>> decoding = new ConcurrentHashMap<>();
+    private final ExecutorService decoder;
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder softHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ImageCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache that also keeps decoded images on disk, so they are not decoded again
+     * in later launches.
+     */
+    public ImageCache(long maxBytes, DecodedImageStore store) {
+        this.maxBytes = maxBytes;
+        this.store = store;
+        AtomicInteger threads = new AtomicInteger();
+        this.decoder = Executors.newFixedThreadPool(Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)), runnable -> {
+            Thread thread = new Thread(runnable, "image-decoder-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the cache shared by all views.
+     */
+    public static ImageCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Rounds a display size up to the next SIZE_STEP, the sizes images are decoded at.
+     */
+    public static int roundUpSize(double size) {
+        return size <= 0 ? 0 : (int) Math.ceil(size / SIZE_STEP) * SIZE_STEP;
+    }
+
+    /**
+     * Checks if an asset is in the bundle, without decoding it.
+     */
+    public boolean exists(String assetId) {
+        return assets.contains(assetId);
+    }
+
+    /**
+     * Gets an image if it is already decoded, without starting a decode.
+     */
+    public Image getIfCached(String assetId) {
+        return getIfCached(assetId, 0, 0);
+    }
+
+    /**
+     * Gets an image decoded to fit a size if it is already decoded, without starting a decode.
+     */
+    public Image getIfCached(String assetId, int width, int height) {
+        return lookup(key(assetId, width, height));
+    }
+
+    /**
+     * Gets an image at full size, waiting for it to be decoded if it is not cached yet.
+     * Blocks the calling thread meanwhile, so views should use loadInto or load instead.
+     *
+     * @return the image, or null if the asset cannot be decoded
+     * @throws IllegalArgumentException if the asset is not in the bundle
+     */
+    public Image get(String assetId) {
+        return get(assetId, 0, 0);
+    }
+
+    /**
+     * Gets an image decoded to fit within width x height (0 for full size), waiting for it to
+     * be decoded if it is not cached yet. Blocks the calling thread meanwhile.
+     */
+    public Image get(String assetId, int width, int height) {
+        Image image = getIfCached(assetId, width, height);
+        return image != null ? image : load(assetId, width, height).join();
+    }
+
+    /**
+     * Gets an image at full size, decoding it in the background if needed.
+     */
+    public CompletableFuture<Image> load(String assetId) {
+        return load(assetId, 0, 0);
+    }
+
+    /**
+     * Gets an image decoded to fit within width x height (0 for full size), decoding it in
+     * the background if needed. Requests for an image that is already being decoded share
+     * that decode. Failed decodes are not remembered, so a later request tries again.
+     *
+     * @return a future completed with the image, or with null if the asset cannot be decoded
+     * @throws IllegalArgumentException if the asset is not in the bundle
+     */
+    public CompletableFuture<Image> load(String assetId, int width, int height) {
+        if (!assets.contains(assetId)) {
+            throw new IllegalArgumentException("No asset '" + assetId + "' in the asset bundle"
+                + " - add it to com/ise/officeescape/assets and refer to it from rooms.def or assets.def");
+        }
+        String key = key(assetId, width, height);
+        Image image = lookup(key);
+        if (image != null) {
+            return CompletableFuture.completedFuture(image);
+        }
+        CompletableFuture<Image> started = new CompletableFuture<>();
+        CompletableFuture<Image> inFlight = decoding.putIfAbsent(key, started);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        misses.increment();
+        decoder.execute(() -> {
+            Image decoded = null;
+            try {
+                decoded = decode(assetId, roundUpSize(width), roundUpSize(height));
+            } finally {
+                store(key, decoded);
+                decoding.remove(key);
+                started.complete(decoded);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * Starts decoding an image that will probably be needed soon (e.g. a neighbouring room).
+     */
+    public void prefetch(String assetId, int width, int height) {
+        load(assetId, width, height);
+    }
+
+    /**
+     * Shows an image in an ImageView, decoded to fit the view's fit size: at once if cached,
+     * otherwise once decoded (on the FX thread). The view is hidden if the asset cannot be decoded.
+     * If the view is given another image before this one is decoded, only the latest is shown.
+     */
+    public void loadInto(ImageView view, String assetId) {
+        loadInto(view, assetId, (int) Math.ceil(view.getFitWidth()), (int) Math.ceil(view.getFitHeight()));
+    }
+
+    /**
+     * Shows an item icon from the shared thumbnail decode.
+     */
+    public void loadThumbnailInto(ImageView view, String assetId) {
+        loadInto(view, assetId, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+    }
+
+    private void loadInto(ImageView view, String assetId, int width, int height) {
+        String key = key(assetId, width, height);
+        view.getProperties().put(ImageCache.class, key); // Views in reused cells may be asked for another image meanwhile
+        Image cached = lookup(key);
+        if (cached != null) {
+            apply(view, cached);
+            return;
+        }
+        view.setImage(null);
+        load(assetId, width, height).thenAccept(image -> Platform.runLater(() -> {
+            if (key.equals(view.getProperties().get(ImageCache.class))) {
+                apply(view, image);
+            }
+        }));
+    }
+
+    private static void apply(ImageView view, Image image) {
+        view.setVisible(image != null);
+        view.setImage(image);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets how many hits were served from soft references after eviction (included in getHits).
+     */
+    public long getSoftHits() {
+        return softHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the decoded size of the images held strongly.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCache[hits=" + getHits() + " (soft " + getSoftHits() + "), misses=" + getMisses()
+            + ", evictions=" + getEvictions() + ", " + getBytes() / 1024 + " KiB]";
+    }
+
+    private static String key(String assetId, int width, int height) {
+        int keyWidth = roundUpSize(width);
+        int keyHeight = roundUpSize(height);
+        return keyWidth == 0 && keyHeight == 0 ? assetId : assetId + "@" + keyWidth + "x" + keyHeight;
+    }
+
+    private synchronized Image lookup(String key) {
+        Image image = recent.get(key);
+        if (image != null) {
+            hits.increment();
+            return image;
+        }
+        SoftReference<Image> reference = overflow.remove(key);
+        image = reference != null ? reference.get() : null;
+        if (image != null) {
+            hits.increment();
+            softHits.increment();
+            put(key, image);
+        }
+        return image;
+    }
+
+    private synchronized void store(String key, Image image) {
+        if (image != null && !recent.containsKey(key)) {
+            put(key, image); // Failures (e.g. a transient read error) are left out so they are retried
+        }
+    }
+
+    private void put(String key, Image image) {
+        recent.put(key, image);
+        bytes += sizeOf(image);
+        Iterator<Map.Entry<String, Image>> eldest = recent.entrySet().iterator();
+        while (bytes > maxBytes && recent.size() > 1) {
+            Map.Entry<String, Image> entry = eldest.next();
+            eldest.remove();
+            bytes -= sizeOf(entry.getValue());
+            overflow.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+            evictions.increment();
+        }
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    private Image decode(String assetId, int width, int height) {
+        try {
+            ByteBuffer data = assets.get(assetId);
+            String assetHash = assets.getHash(assetId);
+            if (width > 0 || height > 0) {
+                int[] size = readPngSize(data);
+                if (size != null && (width == 0 || width >= size[0]) && (height == 0 || height >= size[1])) {
+                    width = 0; // Already small enough, and scaling up would only waste memory
+                    height = 0;
+                }
+            }
+            if (store != null) {
+                Image stored = store.read(assetId, assetHash, width, height);
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            Image image = new Image(assets.openStream(assetId), width, height, true, true);
+            if (image.isError()) {
+                System.err.println("[ImageCache] Could not decode image: " + assetId);
+                return null;
+            }
+            if (store != null) {
+                store.write(assetId, assetHash, width, height, image);
+            }
+            return image;
+        } catch (RuntimeException e) {
+            System.err.println("[ImageCache] Could not read image: " + assetId + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Reads the size from a PNG header.
+     *
+     * @return width and height, or null if the data is not a PNG
+     */
+    private static int[] readPngSize(ByteBuffer data) {
+        if (data.remaining() < 24 || data.slice(0, 8).compareTo(ByteBuffer.wrap(PNG_SIGNATURE)) != 0) {
+            return null;
+        }
+        return new int[] { data.getInt(16), data.getInt(20) }; // IHDR follows the signature and chunk header
+    }
+}
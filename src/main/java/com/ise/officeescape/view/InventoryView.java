@@ -2,18 +2,24 @@ package com.ise.officeescape.view;
 
 import com.ise.officeescape.model.Inventory;
 import com.ise.officeescape.model.Item;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.image.Image;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Inventory view showing both player and room inventories side by side.
@@ -28,6 +34,29 @@ public class InventoryView extends StackPane {
     // References to current inventories
     private Inventory playerInventory;
     private Inventory roomInventory;
+
+    // Inventory versions currently on screen, so unchanged inventories are not compared
+    private long shownPlayerVersion = -1;
+    private long shownRoomVersion = -1;
+
+    // Items currently listed, kept in line with the inventories by reconcile
+    private final ObservableList<Item> shownPlayerItems = FXCollections.observableArrayList();
+    private final ObservableList<Item> shownRoomItems = FXCollections.observableArrayList();
+
+    private static final String ITEM_STYLE =
+        "-fx-background-color: rgba(50, 50, 50, 0.8); " +
+        "-fx-background-radius: 5; " +
+        "-fx-border-color: #666666; " +
+        "-fx-border-width: 1; " +
+        "-fx-border-radius: 5; " +
+        "-fx-cursor: hand;";
+    private static final String ITEM_HOVER_STYLE =
+        "-fx-background-color: rgba(70, 70, 70, 0.9); " +
+        "-fx-background-radius: 5; " +
+        "-fx-border-color: #4CAF50; " +
+        "-fx-border-width: 2; " +
+        "-fx-border-radius: 5; " +
+        "-fx-cursor: hand;";
     
     // Callback for when items are moved (to update the view)
     // Passes: item moved, fromRoomInventory (true if from room, false if from player)
@@ -131,134 +160,156 @@ public class InventoryView extends StackPane {
             "-fx-font-weight: bold;"
         );
         
-        // Scrollable content area
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        
-        VBox itemsContainer = new VBox(8);
-        itemsContainer.setPadding(new Insets(10));
-        itemsContainer.setId(isRoomInventory ? "roomItemsContainer" : "playerItemsContainer");
-        scrollPane.setContent(itemsContainer);
+        // Virtualized item list - only the visible items get cells, and cells are reused while scrolling
+        ListView<Item> itemsList = new ListView<>(isRoomInventory ? shownRoomItems : shownPlayerItems);
+        itemsList.setId(isRoomInventory ? "roomItemsList" : "playerItemsList");
+        itemsList.setCellFactory(list -> new ItemCell(isRoomInventory));
+        itemsList.setFocusTraversable(false);
+        itemsList.setStyle(
+            "-fx-background-color: transparent; " +
+            "-fx-control-inner-background: transparent; " +
+            "-fx-padding: 10;"
+        );
+        Label emptyLabel = new Label("(Empty)");
+        emptyLabel.setStyle(
+            "-fx-font-size: 14px; " +
+            "-fx-text-fill: #888888; " +
+            "-fx-font-style: italic;"
+        );
+        itemsList.setPlaceholder(emptyLabel);
+        VBox.setVgrow(itemsList, Priority.ALWAYS);
         
-        panel.getChildren().addAll(titleLabel, scrollPane);
+        panel.getChildren().addAll(titleLabel, itemsList);
         
         return panel;
     }
     
     /**
      * Updates the inventory display with current player and room inventories.
+     * Only inventories whose version changed are compared, and only the items that
+     * were added or removed change on screen.
      */
     public void updateInventories(Inventory playerInventory, Inventory roomInventory) {
+        boolean playerChanged = playerInventory != this.playerInventory || versionOf(playerInventory) != shownPlayerVersion;
+        boolean roomChanged = roomInventory != this.roomInventory || versionOf(roomInventory) != shownRoomVersion;
         this.playerInventory = playerInventory;
         this.roomInventory = roomInventory;
-        updateInventoryPanel(playerInventoryPanel, playerInventory, "playerItemsContainer", false);
-        updateInventoryPanel(roomInventoryPanel, roomInventory, "roomItemsContainer", true);
+        if (playerChanged) {
+            reconcile(shownPlayerItems, itemsOf(playerInventory));
+            shownPlayerVersion = versionOf(playerInventory);
+        }
+        if (roomChanged) {
+            reconcile(shownRoomItems, itemsOf(roomInventory));
+            shownRoomVersion = versionOf(roomInventory);
+        }
     }
-    
-    private void updateInventoryPanel(VBox panel, Inventory inventory, String containerId, boolean isRoomInventory) {
-        // Find the items container
-        ScrollPane scrollPane = (ScrollPane) panel.getChildren().get(1);
-        VBox itemsContainer = (VBox) scrollPane.getContent();
-        
-        // Clear existing items
-        itemsContainer.getChildren().clear();
-        
-        if (inventory == null || inventory.getInvetoryMap().isEmpty()) {
-            Label emptyLabel = new Label("(Empty)");
-            emptyLabel.setStyle(
-                "-fx-font-size: 14px; " +
-                "-fx-text-fill: #888888; " +
-                "-fx-font-style: italic;"
-            );
-            itemsContainer.getChildren().add(emptyLabel);
-        } else {
-            // Add items
-            Map<String, Item> items = inventory.getInvetoryMap();
+
+    private static long versionOf(Inventory inventory) {
+        return inventory != null ? inventory.getVersion() : -1;
+    }
+
+    private static Map<String, Item> itemsOf(Inventory inventory) {
+        return inventory != null ? inventory.getInvetoryMap() : Map.of();
+    }
+
+    /**
+     * Brings a shown item list in line with an inventory, keyed by item name: items that left
+     * are removed, new items are appended, and every other item keeps its place (and its cell).
+     * Runs in time linear in the inventory size and fires at most one removal and one addition.
+     *
+     * @return the number of items added or removed
+     */
+    public static int reconcile(ObservableList<Item> shown, Map<String, Item> items) {
+        Set<Item> removed = new HashSet<>();
+        for (Item item : shown) {
+            if (items.get(item.getName()) != item) {
+                removed.add(item);
+            }
+        }
+        if (!removed.isEmpty()) {
+            shown.removeAll(removed);
+        }
+
+        // Every shown item is now in the inventory, so only a size difference means new items
+        List<Item> added = new ArrayList<>();
+        if (shown.size() != items.size()) {
+            Set<String> shownNames = new HashSet<>();
+            for (Item item : shown) {
+                shownNames.add(item.getName());
+            }
             for (Item item : items.values()) {
-                VBox itemBox = createItemDisplay(item, isRoomInventory);
-                itemsContainer.getChildren().add(itemBox);
+                if (!shownNames.contains(item.getName())) {
+                    added.add(item);
+                }
             }
+            shown.addAll(added);
         }
+        return removed.size() + added.size();
     }
     
-    private VBox createItemDisplay(Item item, boolean isRoomInventory) {
-        VBox itemBox = new VBox(8);
-        itemBox.setPadding(new Insets(10));
-        itemBox.setAlignment(Pos.TOP_CENTER);
-        itemBox.setStyle(
-            "-fx-background-color: rgba(50, 50, 50, 0.8); " +
-            "-fx-background-radius: 5; " +
-            "-fx-border-color: #666666; " +
-            "-fx-border-width: 1; " +
-            "-fx-border-radius: 5; " +
-            "-fx-cursor: hand;"
-        );
-        
-        // Add hover effect
-        itemBox.setOnMouseEntered(e -> {
-            itemBox.setStyle(
-                "-fx-background-color: rgba(70, 70, 70, 0.9); " +
-                "-fx-background-radius: 5; " +
-                "-fx-border-color: #4CAF50; " +
-                "-fx-border-width: 2; " +
-                "-fx-border-radius: 5; " +
-                "-fx-cursor: hand;"
-            );
-        });
-        
-        itemBox.setOnMouseExited(e -> {
-            itemBox.setStyle(
-                "-fx-background-color: rgba(50, 50, 50, 0.8); " +
-                "-fx-background-radius: 5; " +
-                "-fx-border-color: #666666; " +
-                "-fx-border-width: 1; " +
-                "-fx-border-radius: 5; " +
-                "-fx-cursor: hand;"
-            );
-        });
-        
-        // Click handler - move item between inventories
-        itemBox.setOnMouseClicked(e -> {
-            moveItem(item, isRoomInventory);
-        });
-        
-        // Try to load item image
-        ImageView itemImageView = new ImageView();
-        try {
-            String imagePath = "/com/ise/officeescape/assets/" + item.getName() + ".png";
-            Image itemImage = new Image(getClass().getResourceAsStream(imagePath));
-            itemImageView.setImage(itemImage);
+    /**
+     * List cell showing one item, built once and reused for whichever item scrolls into it.
+     */
+    private class ItemCell extends ListCell<Item> {
+        private final VBox itemBox = new VBox(8);
+        private final ImageView itemImageView = new ImageView();
+        private final Label nameLabel = new Label();
+        private final Label descLabel = new Label();
+
+        ItemCell(boolean isRoomInventory) {
+            setStyle("-fx-background-color: transparent; -fx-padding: 4 0 4 0;");
+            itemBox.setPadding(new Insets(10));
+            itemBox.setAlignment(Pos.TOP_CENTER);
+            itemBox.setStyle(ITEM_STYLE);
+            
+            // Add hover effect
+            itemBox.setOnMouseEntered(e -> itemBox.setStyle(ITEM_HOVER_STYLE));
+            itemBox.setOnMouseExited(e -> itemBox.setStyle(ITEM_STYLE));
+            
+            // Click handler - move item between inventories
+            itemBox.setOnMouseClicked(e -> {
+                if (getItem() != null) {
+                    moveItem(getItem(), isRoomInventory);
+                }
+            });
+            
             itemImageView.setPreserveRatio(true);
             itemImageView.setFitWidth(80);
             itemImageView.setFitHeight(80);
             itemImageView.setSmooth(true);
-        } catch (Exception ex) {
-            // Image not found - use placeholder or hide image view
-            itemImageView.setVisible(false);
+            
+            nameLabel.setStyle(
+                "-fx-font-size: 16px; " +
+                "-fx-text-fill: #ffffff; " +
+                "-fx-font-weight: bold;"
+            );
+            
+            descLabel.setStyle(
+                "-fx-font-size: 12px; " +
+                "-fx-text-fill: #cccccc; " +
+                "-fx-wrap-text: true;"
+            );
+            descLabel.setWrapText(true);
+            descLabel.setMaxWidth(300);
+            descLabel.setAlignment(Pos.CENTER);
+            
+            itemBox.getChildren().addAll(itemImageView, nameLabel, descLabel);
+        }
+
+        @Override
+        protected void updateItem(Item item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            // Hidden by the cache if the image cannot be decoded
+            ImageCache.getShared().loadThumbnailInto(itemImageView, item.getAssetId());
+            nameLabel.setText(item.getName());
+            descLabel.setText(item.getDescription());
+            itemBox.setStyle(itemBox.isHover() ? ITEM_HOVER_STYLE : ITEM_STYLE);
+            setGraphic(itemBox);
         }
-        
-        Label nameLabel = new Label(item.getName());
-        nameLabel.setStyle(
-            "-fx-font-size: 16px; " +
-            "-fx-text-fill: #ffffff; " +
-            "-fx-font-weight: bold;"
-        );
-        
-        Label descLabel = new Label(item.getDescription());
-        descLabel.setStyle(
-            "-fx-font-size: 12px; " +
-            "-fx-text-fill: #cccccc; " +
-            "-fx-wrap-text: true;"
-        );
-        descLabel.setWrapText(true);
-        descLabel.setMaxWidth(300);
-        descLabel.setAlignment(Pos.CENTER);
-        
-        itemBox.getChildren().addAll(itemImageView, nameLabel, descLabel);
-        return itemBox;
     }
     
     /**
@@ -268,17 +319,19 @@ public class InventoryView extends StackPane {
         if (fromRoomInventory) {
             // Moving from room to player
             if (roomInventory != null && roomInventory.hasItem(item)) {
-                roomInventory.removeItem(item.getName());
                 if (playerInventory != null) {
-                    playerInventory.addItem(item);
+                    roomInventory.moveItem(item.getName(), playerInventory);
+                } else {
+                    roomInventory.removeItem(item.getName());
                 }
             }
         } else {
             // Moving from player to room
             if (playerInventory != null && playerInventory.hasItem(item)) {
-                playerInventory.removeItem(item.getName());
                 if (roomInventory != null) {
-                    roomInventory.addItem(item);
+                    playerInventory.moveItem(item.getName(), roomInventory);
+                } else {
+                    playerInventory.removeItem(item.getName());
                 }
             }
         }
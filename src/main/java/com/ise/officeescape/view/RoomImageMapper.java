@@ -1,35 +1,40 @@
 package com.ise.officeescape.view;
 
 import com.ise.officeescape.model.Room;
+import com.ise.officeescape.service.RoomDataService;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Maps Room objects to their corresponding image assets.
  * This keeps rendering logic completely separate from the model.
  */
 public class RoomImageMapper {
-    
-    private static final String ASSETS_PATH = "/com/ise/officeescape/assets/";
-    
+
+    private final RoomDataService roomDataService = new RoomDataService(false);
+
     /**
-     * Gets the image path for a given room based on its description.
+     * Gets the id of the image asset for a given room: the background from its definition.
      * The model Room doesn't know about images - this class handles the mapping.
      */
-    public String getImagePath(Room room) {
-       return ASSETS_PATH + room.getName() + ".png";
+    public String getAssetId(Room room) {
+        return roomDataService.getBackgroundAssetId(room);
+    }
+
+    /**
+     * Loads the image for the given room from the shared image cache, decoding it in the
+     * background if needed. The future completes with null if the image cannot be decoded.
+     */
+    public CompletableFuture<Image> loadRoomImage(Room room) {
+        return ImageCache.getShared().load(getAssetId(room));
     }
-    
+
     /**
-     * Loads and returns an Image object for the given room.
-     * Returns null if image cannot be loaded (handled gracefully by view).
+     * Shows the image for the given room in an ImageView once it is decoded (see ImageCache.loadInto).
      */
-    public Image loadRoomImage(Room room) {
-        String imagePath = getImagePath(room);
-        try {
-            return new Image(getClass().getResourceAsStream(imagePath));
-        } catch (Exception e) {
-            System.err.println("Could not load image: " + imagePath);
-            return null;
-        }
+    public void loadRoomImageInto(ImageView view, Room room) {
+        ImageCache.getShared().loadInto(view, getAssetId(room));
     }
 }
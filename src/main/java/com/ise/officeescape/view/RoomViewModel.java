@@ -10,13 +10,13 @@ import java.util.List;
  */
 public class RoomViewModel {
     private Room room;
-    private String backgroundImagePath;
+    private String backgroundAssetId;
     private List<HotspotViewModel> hotspots;
     private List<AnimationViewModel> animations;
 
-    public RoomViewModel(Room room, String backgroundImagePath) {
+    public RoomViewModel(Room room, String backgroundAssetId) {
         this.room = room;
-        this.backgroundImagePath = backgroundImagePath;
+        this.backgroundAssetId = backgroundAssetId;
         this.hotspots = new ArrayList<>();
         this.animations = new ArrayList<>();
     }
@@ -25,8 +25,11 @@ public class RoomViewModel {
         return room;
     }
 
-    public String getBackgroundImagePath() {
-        return backgroundImagePath;
+    /**
+     * Gets the id of the background image in the AssetBundle.
+     */
+    public String getBackgroundAssetId() {
+        return backgroundAssetId;
     }
 
     public List<HotspotViewModel> getHotspots() {
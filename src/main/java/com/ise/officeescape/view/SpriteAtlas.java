@@ -0,0 +1,177 @@
+package com.ise.officeescape.view;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sprite frames of several animations packed into one image, so every sprite in a room
+ * draws from the same texture and an animation step only moves a viewport.
+ *
+ * Frames are packed in shelves (rows), tallest first, up to MAX_WIDTH pixels wide.
+ * A sprite asset is either a sequence of assets "id_0", "id_1", ... or one strip image of
+ * square frames side by side.
+ */
+public class SpriteAtlas {
+
+    public static final int MAX_WIDTH = 2048;
+    private static final int PADDING = 1; // Keeps smoothing from bleeding neighbouring frames in
+
+    private final WritableImage image;
+    private final Map<String, Rectangle2D[]> frames;
+
+    private SpriteAtlas(WritableImage image, Map<String, Rectangle2D[]> frames) {
+        this.image = image;
+        this.frames = frames;
+    }
+
+    /**
+     * Loads the frames of sprite assets through the image cache and packs them, all in the
+     * background: the future completes on a decoder thread, never blocking the caller.
+     * Sprites whose frames cannot be decoded are left out (and logged).
+     *
+     * @throws IllegalArgumentException if a sprite is not in the asset bundle
+     */
+    public static CompletableFuture<SpriteAtlas> load(List<String> assetIds, ImageCache imageCache) {
+        Map<String, CompletableFuture<List<Image>>> loading = new LinkedHashMap<>();
+        for (String assetId : assetIds) {
+            if (!loading.containsKey(assetId)) {
+                loading.put(assetId, loadFrames(assetId, imageCache));
+            }
+        }
+        return CompletableFuture.allOf(loading.values().toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<String, List<Image>> framesByAsset = new HashMap<>();
+            loading.forEach((assetId, frames) -> {
+                List<Image> assetFrames = frames.join(); // Already complete
+                if (assetFrames.isEmpty()) {
+                    System.err.println("[SpriteAtlas] No frames for sprite: " + assetId);
+                } else {
+                    framesByAsset.put(assetId, assetFrames);
+                }
+            });
+            return pack(framesByAsset);
+        });
+    }
+
+    private static CompletableFuture<List<Image>> loadFrames(String assetId, ImageCache imageCache) {
+        List<CompletableFuture<Image>> sequence = new ArrayList<>();
+        while (imageCache.exists(assetId + "_" + sequence.size())) {
+            sequence.add(imageCache.load(assetId + "_" + sequence.size()));
+        }
+        if (sequence.isEmpty()) {
+            return imageCache.load(assetId).thenApply(SpriteAtlas::splitStrip);
+        }
+        return CompletableFuture.allOf(sequence.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<Image> frames = new ArrayList<>(sequence.size());
+            for (CompletableFuture<Image> frame : sequence) {
+                Image image = frame.join();
+                if (image == null) {
+                    break; // Play the frames before one that cannot be decoded
+                }
+                frames.add(image);
+            }
+            return frames;
+        });
+    }
+
+    private static List<Image> splitStrip(Image strip) {
+        if (strip == null) {
+            return List.of();
+        }
+        int size = (int) strip.getHeight();
+        int count = size > 0 && (int) strip.getWidth() % size == 0 ? (int) strip.getWidth() / size : 1;
+        if (count == 1) {
+            return List.of(strip);
+        }
+        List<Image> stripFrames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stripFrames.add(new WritableImage(strip.getPixelReader(), i * size, 0, size, size));
+        }
+        return stripFrames;
+    }
+
+    /**
+     * Packs frames into one atlas.
+     *
+     * @param framesByAsset the frames of each sprite asset, in play order
+     */
+    public static SpriteAtlas pack(Map<String, List<Image>> framesByAsset) {
+        // Place every frame tallest first, filling a shelf before starting the next
+        List<Placement> placements = new ArrayList<>();
+        framesByAsset.forEach((assetId, assetFrames) -> {
+            for (int i = 0; i < assetFrames.size(); i++) {
+                placements.add(new Placement(assetId, i, assetFrames.get(i)));
+            }
+        });
+        placements.sort((a, b) -> Double.compare(b.image.getHeight(), a.image.getHeight()));
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int width = 1;
+        for (Placement placement : placements) {
+            int frameWidth = (int) placement.image.getWidth();
+            int frameHeight = (int) placement.image.getHeight();
+            if (frameWidth > MAX_WIDTH) {
+                throw new IllegalArgumentException("Sprite frame of " + placement.assetId + " is wider than "
+                    + MAX_WIDTH + " pixels");
+            }
+            if (x + frameWidth > MAX_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            placement.x = x;
+            placement.y = y;
+            x += frameWidth + PADDING;
+            shelfHeight = Math.max(shelfHeight, frameHeight);
+            width = Math.max(width, x);
+        }
+
+        WritableImage atlas = new WritableImage(width, Math.max(1, y + shelfHeight));
+        Map<String, Rectangle2D[]> frames = new HashMap<>();
+        framesByAsset.forEach((assetId, assetFrames) -> frames.put(assetId, new Rectangle2D[assetFrames.size()]));
+        for (Placement placement : placements) {
+            int frameWidth = (int) placement.image.getWidth();
+            int frameHeight = (int) placement.image.getHeight();
+            atlas.getPixelWriter().setPixels(placement.x, placement.y, frameWidth, frameHeight,
+                placement.image.getPixelReader(), 0, 0);
+            frames.get(placement.assetId)[placement.frame] =
+                new Rectangle2D(placement.x, placement.y, frameWidth, frameHeight);
+        }
+        return new SpriteAtlas(atlas, frames);
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Gets where each frame of a sprite is in the atlas, in play order.
+     *
+     * @return the frames, or null if the sprite is not in this atlas
+     */
+    public Rectangle2D[] getFrames(String assetId) {
+        return frames.get(assetId);
+    }
+
+    private static class Placement {
+        final String assetId;
+        final int frame;
+        final Image image;
+        int x;
+        int y;
+
+        Placement(String assetId, int frame, Image image) {
+            this.assetId = assetId;
+            this.frame = frame;
+            this.image = image;
+        }
+    }
+}
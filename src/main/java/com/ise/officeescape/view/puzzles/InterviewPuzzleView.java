@@ -4,13 +4,13 @@ import com.ise.officeescape.model.InteractionResult;
 import com.ise.officeescape.model.Item;
 import com.ise.officeescape.model.Puzzle;
 import com.ise.officeescape.model.puzzles.InterviewPuzzle;
+import com.ise.officeescape.view.ImageCache;
 import com.ise.officeescape.view.PuzzleView;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -352,17 +352,11 @@ public class InterviewPuzzleView extends PuzzleView {
         
         // Try to load item image
         ImageView itemImageView = new ImageView();
-        try {
-            String imagePath = "/com/ise/officeescape/assets/" + item.getName() + ".png";
-            Image itemImage = new Image(getClass().getResourceAsStream(imagePath));
-            itemImageView.setImage(itemImage);
-            itemImageView.setPreserveRatio(true);
-            itemImageView.setFitWidth(100);
-            itemImageView.setFitHeight(100);
-            itemImageView.setSmooth(true);
-        } catch (Exception ex) {
-            itemImageView.setVisible(false);
-        }
+        itemImageView.setPreserveRatio(true);
+        itemImageView.setFitWidth(100);
+        itemImageView.setFitHeight(100);
+        itemImageView.setSmooth(true);
+        ImageCache.getShared().loadThumbnailInto(itemImageView, item.getAssetId());
         
         Label nameLabel = new Label(item.getName());
         nameLabel.setStyle(
@@ -3,12 +3,12 @@ package com.ise.officeescape.view.puzzles;
 import com.ise.officeescape.model.InteractionResult;
 import com.ise.officeescape.model.Puzzle;
 import com.ise.officeescape.model.puzzles.TicketPuzzle;
+import com.ise.officeescape.view.ImageCache;
 import com.ise.officeescape.view.PuzzleView;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.*;
@@ -45,26 +45,18 @@ public class TicketMachinePuzzleView extends PuzzleView {
     }
 
     private void initializeQuiz() {
-        // Load ticket machine background image
+        // Ticket machine background image, shown once decoded so opening the puzzle never waits for it
         ImageView backgroundImage = new ImageView();
-        try {
-            Image bgImage = new Image(getClass().getResourceAsStream("/com/ise/officeescape/assets/ticketMachine.png"));
-            backgroundImage.setImage(bgImage);
-            backgroundImage.setSmooth(true);
-            
-        } catch (Exception e) {
-            System.err.println("Could not load ticket machine image: " + e.getMessage());
-        }
-        
-        if (backgroundImage.getImage() != null) {
-            // Use a StackPane to center the image properly
-            StackPane imageContainer = new StackPane();
-            imageContainer.setAlignment(Pos.CENTER);
-            imageContainer.prefWidthProperty().bind(widthProperty());
-            imageContainer.prefHeightProperty().bind(heightProperty());
-            imageContainer.getChildren().add(backgroundImage);
-            getChildren().add(imageContainer);
-        }
+        backgroundImage.setSmooth(true);
+        ImageCache.getShared().loadInto(backgroundImage, "ticketMachine");
+
+        // Use a StackPane to center the image properly
+        StackPane imageContainer = new StackPane();
+        imageContainer.setAlignment(Pos.CENTER);
+        imageContainer.prefWidthProperty().bind(widthProperty());
+        imageContainer.prefHeightProperty().bind(heightProperty());
+        imageContainer.getChildren().add(backgroundImage);
+        getChildren().add(imageContainer);
         
         // Main content container - centered
         StackPane centerContainer = new StackPane();
@@ -438,16 +430,11 @@ public class TicketMachinePuzzleView extends PuzzleView {
         
         // Load and display ticket item image
         ImageView ticketImageView = new ImageView();
-        try {
-            Image ticketImage = new Image(getClass().getResourceAsStream("/com/ise/officeescape/assets/ticketItem.png"));
-            ticketImageView.setImage(ticketImage);
-            ticketImageView.setPreserveRatio(true);
-            ticketImageView.setFitWidth(200);
-            ticketImageView.setFitHeight(200);
-            ticketImageView.setSmooth(true);
-        } catch (Exception e) {
-            System.err.println("Could not load ticket item image: " + e.getMessage());
-        }
+        ticketImageView.setPreserveRatio(true);
+        ticketImageView.setFitWidth(200);
+        ticketImageView.setFitHeight(200);
+        ticketImageView.setSmooth(true);
+        ImageCache.getShared().loadInto(ticketImageView, "ticketItem");
         
         // Label showing you got the ticket
         Label ticketLabel = new Label("Ticket Obtained!");
@@ -13,6 +13,12 @@ module com.ise.officeescape {
     exports com.ise.officeescape.controller;
     exports com.ise.officeescape.model;
     exports com.ise.officeescape.model.puzzles;
+    exports com.ise.officeescape.model.conditions;
+    exports com.ise.officeescape.model.state;
     exports com.ise.officeescape.eventSystem;
     exports com.ise.officeescape.service;
+    exports com.ise.officeescape.analysis;
+    exports com.ise.officeescape.simulation;
+    exports com.ise.officeescape.generation;
+    exports com.ise.officeescape.achievements;
 }
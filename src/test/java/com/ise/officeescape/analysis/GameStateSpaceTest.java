@@ -0,0 +1,149 @@
+package com.ise.officeescape.analysis;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.conditions.GateRule;
+import com.ise.officeescape.service.RoomDataService;
+import com.ise.officeescape.service.RoomDefinitions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateSpaceTest {
+
+    /**
+     * Builds start -> locked -> exit, with the key for the locked room lying in the start room.
+     * Padding items are never created, they only make the packed state wider.
+     */
+    private static GameStateSpace space(int paddingItems) {
+        Room start = new Room("stateSpaceStart", "the start");
+        Room locked = new Room("stateSpaceLocked", "a locked room");
+        Room exit = new Room("exit", "the exit");
+        start.setExit(Direction.forward, locked);
+        locked.setExit(Direction.backwards, start);
+        locked.setExit(Direction.forward, exit);
+        locked.setEntryRule(GateRule.of("hasItem(stateSpaceKey)", "Locked."));
+        start.getInventory().addItem(new Item("stateSpaceKey", "A key"));
+        RoomManager world = new RoomManager(List.of(start, locked, exit), start);
+
+        GameStateSpace.Builder builder = new GameStateSpace.Builder(RoomGraph.of(world), start, exit);
+        for (int i = 0; i < paddingItems; i++) {
+            builder.withCreatableItem(new Item("stateSpacePad" + i, "Padding"));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void wideStatesGiveTheSameResultsAsNarrowOnes() {
+        GameStateSpace narrow = space(0);
+        GameStateSpace wide = space(100);
+        assertEquals(1, narrow.getStateWords());
+        assertTrue(wide.getStateWords() >= 4);
+
+        SolvabilityChecker.Report narrowReport = new SolvabilityChecker(narrow).check();
+        SolvabilityChecker.Report wideReport = new SolvabilityChecker(wide).check();
+        assertEquals(narrowReport.reachableStates, wideReport.reachableStates);
+        assertEquals(narrowReport.transitions, wideReport.transitions);
+        assertEquals(narrowReport.goalStates, wideReport.goalStates);
+        // Leaving the key in the locked room and walking back out locks the player out
+        assertTrue(wideReport.softLockStates > 0);
+        assertEquals(narrowReport.softLockStates, wideReport.softLockStates);
+        assertEquals(narrowReport.softLockExamples, wideReport.softLockExamples);
+    }
+
+    @Test
+    void hintsPlanOverWideStates() {
+        GameStateSpace wide = space(100);
+        HintEngine hints = new HintEngine(wide, 16);
+        int[] plan = hints.plan(wide.initialState());
+        assertNotNull(plan);
+        assertEquals(3, plan.length);
+        assertEquals("take stateSpaceKey", wide.describeAction(plan[0]));
+        assertEquals("go forward", wide.describeAction(plan[1]));
+        assertEquals("go forward", wide.describeAction(plan[2]));
+    }
+
+    @Test
+    void searchesThatGiveUpAreNotCachedAsUnsolvable() {
+        GameStateSpace wide = space(100);
+        HintEngine hints = new HintEngine(wide, 16, 1);
+        assertEquals(HintEngine.Outcome.UNKNOWN, hints.getHint(wide.initialState()).outcome);
+        assertEquals(HintEngine.Outcome.UNKNOWN, hints.getHint(wide.initialState()).outcome);
+        assertEquals(2, hints.getSearches());
+        assertEquals(0, hints.getCacheHits());
+    }
+
+    @Test
+    void theGameSpaceStartsFromTheDefinitionsNotTheLiveState() {
+        RoomManager world = RoomDefinitions.getBuiltIn().createRoomManager();
+        RoomDataService roomDataService = new RoomDataService();
+        for (Room room : world.getAllRooms()) {
+            roomDataService.loadRoom(room);
+        }
+        Room room = world.getAllRooms().stream()
+            .filter(r -> !r.getInventory().getInvetoryMap().isEmpty())
+            .findFirst().orElseThrow();
+        String itemName = room.getInventory().getInvetoryMap().keySet().iterator().next();
+
+        // Mid-game: the player has picked the item up and is somewhere else
+        Player player = new Player("test", room);
+        room.getInventory().moveItem(room.getInventory().getInvetoryMap().get(itemName).getSymbol(), player.getInventory());
+        GameStateSpace space = GameStateSpace.Builder.forGame(world).build();
+
+        int item = -1;
+        for (int i = 0; i < space.getItemCount(); i++) {
+            if (space.getItemName(i).equals(itemName)) {
+                item = i;
+            }
+        }
+        int roomIndex = space.getGraph().indexOf(room);
+        long[] initial = space.initialState();
+        assertEquals(space.getGraph().indexOf(world.getStartRoom()), space.roomOf(initial, 0));
+        assertEquals(GameStateSpace.ROOM_BASE + roomIndex, space.itemLocation(initial, 0, item));
+        assertEquals(GameStateSpace.PLAYER, space.itemLocation(space.encode(player), 0, item));
+    }
+
+    @Test
+    void unsolvableStatesAreCached() {
+        Room start = new Room("stateSpaceSealed", "a sealed room");
+        Room exit = new Room("exit", "the exit");
+        start.setExit(Direction.forward, exit);
+        exit.setEntryRule(GateRule.of("hasItem(stateSpaceNowhere)", "Sealed."));
+        GameStateSpace space = new GameStateSpace.Builder(
+            RoomGraph.of(new RoomManager(List.of(start, exit), start)), start, exit).build();
+
+        HintEngine hints = new HintEngine(space, 16);
+        HintEngine.Hint hint = hints.getHint(space.initialState());
+        assertEquals(HintEngine.Outcome.UNSOLVABLE, hint.outcome);
+        assertFalse(hint.isSolvable());
+        assertEquals(HintEngine.Outcome.UNSOLVABLE, hints.getHint(space.initialState()).outcome);
+        assertEquals(1, hints.getSearches());
+        assertEquals(1, hints.getCacheHits());
+    }
+
+    @Test
+    void concurrentSetStoresTuples() {
+        ConcurrentLongSet set = new ConcurrentLongSet(3, 16);
+        long[] values = new long[3 * 1000];
+        for (int i = 0; i < 1000; i++) {
+            values[3 * i] = i;
+            values[3 * i + 1] = i % 7;
+            values[3 * i + 2] = -i;
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.add(values, 3 * i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(set.add(values, 3 * i));
+            assertTrue(set.contains(values, 3 * i));
+        }
+        assertFalse(set.contains(new long[] {1, 2, 3}, 0));
+        assertEquals(1000, set.size());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.view.AnimationEngine;
+import com.ise.officeescape.view.AnimationViewModel;
+import com.ise.officeescape.view.SpriteAtlas;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the per-frame cost of the animation engine with a room full of animated props,
+ * stepping it at 60 frames per second the way the shared AnimationTimer does.
+ * Props use different frame rates and frame counts, so on most frames only some of them move.
+ * Run with: java -cp target/classes:target/test-classes:<JavaFX jars> com.ise.officeescape.benchmark.AnimationEngineBenchmark
+ */
+public class AnimationEngineBenchmark {
+
+    private static final int PROPS = 48;
+    private static final int SPRITE_ASSETS = 8;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    private static final int WARMUP_FRAMES = 200_000;
+    private static final int MEASURED_FRAMES = 1_000_000;
+
+    public static void main(String[] args) {
+        // Synthetic sprites: 8 assets of 4 to 11 frames of 64 x 64 pixels
+        Map<String, List<Image>> framesByAsset = new HashMap<>();
+        for (int a = 0; a < SPRITE_ASSETS; a++) {
+            List<Image> frames = new ArrayList<>();
+            for (int f = 0; f < 4 + a; f++) {
+                frames.add(new WritableImage(64, 64));
+            }
+            framesByAsset.put("prop" + a, frames);
+        }
+        long packStart = System.nanoTime();
+        SpriteAtlas atlas = SpriteAtlas.pack(framesByAsset);
+        long packNanos = System.nanoTime() - packStart;
+
+        List<AnimationViewModel> animations = new ArrayList<>();
+        for (int p = 0; p < PROPS; p++) {
+            AnimationViewModel animation = new AnimationViewModel("prop-" + p, AnimationEngine.LOOPING_SPRITE,
+                "prop" + (p % SPRITE_ASSETS), (p % 8) * 70, (p / 8) * 70, 64, 64);
+            animation.setFrameRate(8 + p % 17);
+            animations.add(animation);
+        }
+        AnimationEngine engine = new AnimationEngine(false);
+        engine.show(animations, atlas);
+
+        run(engine, 0, WARMUP_FRAMES);
+        double frameNanos = run(engine, WARMUP_FRAMES, MEASURED_FRAMES);
+
+        System.out.println("[AnimationEngineBenchmark] Packed " + SPRITE_ASSETS + " sprites into a "
+            + (int) atlas.getImage().getWidth() + " x " + (int) atlas.getImage().getHeight() + " atlas in "
+            + String.format("%,.2f", packNanos / 1e6) + " ms");
+        System.out.println("[AnimationEngineBenchmark] " + engine.getPlayingCount() + " animations: "
+            + String.format("%,.0f", frameNanos) + " ns per frame ("
+            + String.format("%,.1f", frameNanos / PROPS) + " ns per animation)");
+    }
+
+    /**
+     * Steps the engine through consecutive 60 Hz frames.
+     *
+     * @return average nanoseconds per frame
+     */
+    private static double run(AnimationEngine engine, int firstFrame, int frames) {
+        long start = System.nanoTime();
+        for (int f = firstFrame; f < firstFrame + frames; f++) {
+            engine.tick(f * FRAME_NANOS);
+        }
+        return (System.nanoTime() - start) / (double) frames;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.view.InventoryView;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Measures InventoryView updates with a 1,000 item inventory: the keyed reconciliation
+ * of the shown item lists after an item moves between the player and the room, and after
+ * switching to a different room. The lists are the ones the virtualized ListViews observe,
+ * so the listener counts the changes that would reach the screen.
+ * Run with: java -cp target/classes:target/test-classes:<JavaFX jars> com.ise.officeescape.benchmark.InventoryViewBenchmark
+ */
+public class InventoryViewBenchmark {
+
+    private static final int ITEMS = 1_000;
+    private static final int WARMUP_MOVES = 50_000;
+    private static final int MEASURED_MOVES = 200_000;
+    private static final double FRAME_NANOS = 1e9 / 60;
+
+    private static long listChanges;
+
+    public static void main(String[] args) {
+        Inventory player = new Inventory();
+        Inventory room = new Inventory();
+        for (int i = 0; i < ITEMS; i++) {
+            player.addItem(new Item("item" + i, "Benchmark item " + i));
+        }
+        ObservableList<Item> shownPlayer = FXCollections.observableArrayList();
+        ObservableList<Item> shownRoom = FXCollections.observableArrayList();
+        ListChangeListener<Item> counter = change -> {
+            while (change.next()) {
+                listChanges++;
+            }
+        };
+        shownPlayer.addListener(counter);
+        shownRoom.addListener(counter);
+        InventoryView.reconcile(shownPlayer, player.getInvetoryMap());
+
+        moveBackAndForth(player, room, shownPlayer, shownRoom, WARMUP_MOVES);
+        listChanges = 0;
+        long start = System.nanoTime();
+        moveBackAndForth(player, room, shownPlayer, shownRoom, MEASURED_MOVES);
+        double moveNanos = (System.nanoTime() - start) / (double) MEASURED_MOVES;
+        double changesPerMove = listChanges / (double) MEASURED_MOVES;
+
+        // Entering another room replaces the whole room list
+        Inventory otherRoom = new Inventory();
+        for (int i = 0; i < ITEMS; i++) {
+            otherRoom.addItem(new Item("other" + i, "Benchmark item " + i));
+        }
+        long switchNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 200; i++) {
+            long switchStart = System.nanoTime();
+            InventoryView.reconcile(shownRoom, (i % 2 == 0 ? otherRoom : room).getInvetoryMap());
+            switchNanos = Math.min(switchNanos, System.nanoTime() - switchStart);
+        }
+
+        System.out.println("[InventoryViewBenchmark] Move one of " + ITEMS + " items: "
+            + String.format("%,.0f", moveNanos) + " ns per update of both lists ("
+            + String.format("%.1f", changesPerMove) + " list changes, "
+            + String.format("%.2f", moveNanos / FRAME_NANOS * 100) + "% of a 60 Hz frame)");
+        System.out.println("[InventoryViewBenchmark] Switch to a room of " + ITEMS + " items: "
+            + String.format("%,.0f", switchNanos / 1000.0) + " us ("
+            + String.format("%.1f", switchNanos / FRAME_NANOS * 100) + "% of a 60 Hz frame)");
+    }
+
+    /**
+     * Moves items from the player to the room and back, reconciling both lists after each move
+     * the way InventoryView.updateInventories does.
+     */
+    private static void moveBackAndForth(Inventory player, Inventory room, ObservableList<Item> shownPlayer,
+                                         ObservableList<Item> shownRoom, int moves) {
+        for (int m = 0; m < moves; m++) {
+            String name = "item" + (m / 2 % ITEMS);
+            if (m % 2 == 0) {
+                player.moveItem(name, room);
+            } else {
+                room.moveItem(name, player);
+            }
+            InventoryView.reconcile(shownPlayer, player.getInvetoryMap());
+            InventoryView.reconcile(shownRoom, room.getInvetoryMap());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.simulation.QueueSimulation;
+
+/**
+ * Measures how many queue simulation events can be processed per second.
+ * Run with: java -cp target/classes:target/test-classes com.ise.officeescape.benchmark.QueueSimulationBenchmark
+ */
+public class QueueSimulationBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final double SIMULATED_MINUTES = 500_000;
+
+    public static void main(String[] args) {
+        // A busy office: 2 arrivals per minute, 5 counters, ~2.4 minutes per customer
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(i);
+        }
+
+        long totalEvents = 0;
+        long totalNanos = 0;
+        QueueSimulation last = null;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            last = run(100 + i);
+            totalNanos += System.nanoTime() - start;
+            totalEvents += last.getEventsProcessed();
+        }
+
+        double seconds = totalNanos / 1e9;
+        System.out.println("[QueueSimulationBenchmark] Events processed: " + totalEvents);
+        System.out.println("[QueueSimulationBenchmark] Events per second: " + String.format("%,.0f", totalEvents / seconds));
+        System.out.println("[QueueSimulationBenchmark] Simulated minutes per wall-clock second: "
+            + String.format("%,.0f", SIMULATED_MINUTES * MEASURED_RUNS / seconds));
+        System.out.println("[QueueSimulationBenchmark] Final state: " + last);
+        System.out.println("[QueueSimulationBenchmark] Average wait: " + String.format("%.2f", last.getAverageWaitMinutes()) + " min");
+    }
+
+    private static QueueSimulation run(long seed) {
+        QueueSimulation simulation = new QueueSimulation(2.0, 5, 2.4, seed);
+        simulation.runUntil(SIMULATED_MINUTES);
+        return simulation;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.generation.WorldGenerator;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+
+import java.util.List;
+
+/**
+ * Measures the heap used per room of a generated world (rooms, exits, items,
+ * interactables, puzzles and entry rules).
+ * Run with: java -Xmx4g -cp target/classes:target/test-classes com.ise.officeescape.benchmark.RoomMemoryBenchmark [rooms]
+ */
+public class RoomMemoryBenchmark {
+
+    private static final int DEFAULT_ROOMS = 1_000_000;
+
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROOMS;
+        WorldGenerator generator = new WorldGenerator(42);
+        generator.build(1_000); // Warm-up, loads the classes involved
+
+        long before = usedHeap();
+        RoomManager world = generator.build(roomCount);
+        long after = usedHeap();
+
+        List<Room> rooms = world.getAllRooms();
+        long bytes = after - before;
+        System.out.println("[RoomMemoryBenchmark] Rooms: " + String.format("%,d", rooms.size()));
+        System.out.println("[RoomMemoryBenchmark] Heap used: " + String.format("%,d", bytes / (1024 * 1024)) + " MiB");
+        System.out.println("[RoomMemoryBenchmark] Bytes per room: " + String.format("%,d", bytes / rooms.size()));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.service.RoomDataService;
+import com.ise.officeescape.service.RoomDefinitions;
+import com.ise.officeescape.view.RoomViewModel;
+
+import java.util.List;
+
+/**
+ * Measures the model side of a room transition (loading the room's view model),
+ * walking back and forth through the built-in rooms.
+ * "Rebuild" sets the room up again on every entry, as before view models were cached;
+ * "cached" reuses one RoomDataService, so each room is only set up on its first entry.
+ * Run with: java -cp target/classes:target/test-classes com.ise.officeescape.benchmark.RoomTransitionBenchmark
+ */
+public class RoomTransitionBenchmark {
+
+    private static final int WARMUP_TRANSITIONS = 50_000;
+    private static final int MEASURED_TRANSITIONS = 200_000;
+
+    public static void main(String[] args) {
+        List<Room> rooms = RoomDefinitions.getBuiltIn().createRoomManager().getAllRooms();
+
+        run(rooms, WARMUP_TRANSITIONS, false);
+        run(rooms, WARMUP_TRANSITIONS, true);
+        double rebuildNanos = run(rooms, MEASURED_TRANSITIONS, false);
+        double cachedNanos = run(rooms, MEASURED_TRANSITIONS, true);
+
+        System.out.println("[RoomTransitionBenchmark] Rebuild on every entry: " + String.format("%,.0f", rebuildNanos) + " ns per transition");
+        System.out.println("[RoomTransitionBenchmark] Cached view models: " + String.format("%,.0f", cachedNanos) + " ns per transition");
+    }
+
+    /**
+     * Walks forward and back through the rooms, loading each one entered.
+     *
+     * @return average nanoseconds per transition
+     */
+    private static double run(List<Room> rooms, int transitions, boolean cached) {
+        RoomDataService shared = new RoomDataService(false);
+        int hotspots = 0;
+        int position = 0;
+        int step = 1;
+        long start = System.nanoTime();
+        for (int i = 0; i < transitions; i++) {
+            if (position + step < 0 || position + step >= rooms.size()) {
+                step = -step;
+            }
+            position += step;
+            RoomDataService service = cached ? shared : new RoomDataService(false);
+            RoomViewModel viewModel = service.loadRoom(rooms.get(position));
+            hotspots += viewModel.getHotspots().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (hotspots < 0) {
+            System.out.println(hotspots); // Keeps the loop from being optimised away
+        }
+        return (double) elapsed / transitions;
+    }
+}
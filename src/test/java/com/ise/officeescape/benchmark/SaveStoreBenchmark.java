@@ -0,0 +1,99 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.service.SaveService.PuzzleState;
+import com.ise.officeescape.service.SaveService.RoomState;
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+import com.ise.officeescape.service.SaveStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures the save store with many profiles: writing saves, reopening (index rebuild)
+ * with and without index files, and listing and loading random saves.
+ * Run with: java -cp target/classes:target/test-classes com.ise.officeescape.benchmark.SaveStoreBenchmark [profiles]
+ */
+public class SaveStoreBenchmark {
+
+    private static final int DEFAULT_PROFILES = 100_000;
+    private static final int LOOKUPS = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        int profileCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PROFILES;
+        Path root = Files.createTempDirectory("save-store");
+        try {
+            long start = System.nanoTime();
+            try (SaveStore store = SaveStore.open(root, false)) {
+                for (int i = 0; i < profileCount; i++) {
+                    store.save(profileName(i), 0, sampleSave(i));
+                    if (i % 4 == 0) {
+                        store.save(profileName(i), 1, sampleSave(i + 1));
+                    }
+                }
+            }
+            report("Wrote " + String.format("%,d", profileCount) + " profiles", start);
+
+            start = System.nanoTime();
+            try (SaveStore store = SaveStore.open(root, false)) {
+                report("Reopened with index files", start);
+                measureLookups(store, profileCount);
+            }
+
+            try (Stream<Path> files = Files.list(root)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".idx")).toList()) {
+                    Files.delete(file);
+                }
+            }
+            start = System.nanoTime();
+            try (SaveStore store = SaveStore.open(root, false)) {
+                report("Reopened by scanning the logs", start);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void measureLookups(SaveStore store, int profileCount) throws IOException {
+        Random random = new Random(42);
+        int slots = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            slots += store.listSlots(profileName(random.nextInt(profileCount))).size();
+        }
+        long listNanos = (System.nanoTime() - start) / LOOKUPS;
+
+        int rooms = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            rooms += store.load(profileName(random.nextInt(profileCount)), 0).rooms.size();
+        }
+        long loadNanos = (System.nanoTime() - start) / LOOKUPS;
+        System.out.println("[SaveStoreBenchmark] listSlots: " + listNanos + " ns, load: "
+            + String.format("%.1f", loadNanos / 1000.0) + " us (" + slots + " slots, " + rooms + " rooms seen)");
+    }
+
+    private static void report(String what, long start) {
+        System.out.println("[SaveStoreBenchmark] " + what + " in "
+            + String.format("%.1f", (System.nanoTime() - start) / 1e6) + " ms");
+    }
+
+    private static String profileName(int i) {
+        return "player-" + i;
+    }
+
+    private static SaveSnapshot sampleSave(int i) {
+        return new SaveSnapshot("queue", List.of("passport", "visaApplication", "ticketItem"), List.of(
+            new RoomState("ticket", List.of("bananaPeel"), List.of(new PuzzleState("ticketPuzzle", true, 0))),
+            new RoomState("queue", List.of(), List.of(new PuzzleState("queueGaurdPuzzle", i % 2 == 0, 2)))
+        ));
+    }
+}
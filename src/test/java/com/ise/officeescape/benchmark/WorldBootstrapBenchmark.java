@@ -0,0 +1,43 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.generation.WorldGenerator;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.service.BootstrappedWorld;
+import com.ise.officeescape.service.RoomDataService;
+import com.ise.officeescape.service.WorldBootstrapper;
+import com.ise.officeescape.model.Room;
+
+/**
+ * Compares setting up every room of a generated world serially (one loadRoom call per room,
+ * as when walking in) with the parallel WorldBootstrapper, and prints its per-phase timings.
+ * Run with: java -cp target/classes:target/test-classes com.ise.officeescape.benchmark.WorldBootstrapBenchmark [rooms]
+ */
+public class WorldBootstrapBenchmark {
+
+    private static final int DEFAULT_ROOMS = 100_000;
+
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROOMS;
+        WorldGenerator generator = new WorldGenerator(42);
+
+        // Warm-up
+        new WorldBootstrapper(generator.build(roomCount / 10)).bootstrap();
+
+        RoomManager serialWorld = generator.build(roomCount);
+        RoomDataService roomDataService = new RoomDataService(false);
+        long start = System.nanoTime();
+        for (Room room : serialWorld.getAllRooms()) {
+            roomDataService.loadRoom(room);
+        }
+        double serialMillis = (System.nanoTime() - start) / 1e6;
+
+        RoomManager parallelWorld = generator.build(roomCount);
+        start = System.nanoTime();
+        BootstrappedWorld world = new WorldBootstrapper(parallelWorld).bootstrap();
+        double parallelMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.println("[WorldBootstrapBenchmark] Serial loadRoom: " + String.format("%.1f", serialMillis) + " ms");
+        System.out.println("[WorldBootstrapBenchmark] Parallel bootstrap: " + String.format("%.1f", parallelMillis) + " ms");
+        System.out.println("[WorldBootstrapBenchmark] " + world.toString().replace("\n", "\n[WorldBootstrapBenchmark] "));
+    }
+}
@@ -0,0 +1,51 @@
+package com.ise.officeescape.benchmark;
+
+import com.ise.officeescape.generation.WorldGenerator;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.RoomManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how fast generated office buildings can be streamed to disk and built in memory.
+ * Run with: java -cp target/classes:target/test-classes com.ise.officeescape.benchmark.WorldGeneratorBenchmark [rooms]
+ */
+public class WorldGeneratorBenchmark {
+
+    private static final int DEFAULT_ROOMS = 1_000_000;
+    private static final int IN_MEMORY_ROOMS = 100_000;
+    private static final long SEED = 42;
+    private static final int WARM_UP_RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROOMS;
+        WorldGenerator generator = new WorldGenerator(SEED);
+
+        Path file = Files.createTempFile("office-building", ".tsv");
+        try {
+            for (int i = 0; i < WARM_UP_RUNS; i++) {
+                generator.write(roomCount, file); // Let the JIT compile the encoder first
+            }
+            long start = System.nanoTime();
+            generator.write(roomCount, file);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("[WorldGeneratorBenchmark] Streamed " + String.format("%,d", roomCount) + " rooms to disk in "
+                + String.format("%.2f", seconds) + "s (" + String.format("%,d", Files.size(file) / 1024) + " KiB, "
+                + String.format("%,.0f", roomCount / seconds) + " rooms/s)");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Built once, cold: a second build would find its symbols and progress flags already registered
+        int inMemory = Math.min(roomCount, IN_MEMORY_ROOMS);
+        long start = System.nanoTime();
+        RoomManager world = generator.build(inMemory);
+        RoomGraph graph = RoomGraph.of(world);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int[] nextHops = graph.nextHopsTowards(graph.getRoomCount() - 1);
+        System.out.println("[WorldGeneratorBenchmark] Built " + String.format("%,d", inMemory) + " rooms in memory in "
+            + String.format("%.2f", seconds) + "s, exit reachable from start: " + (nextHops[0] != RoomGraph.NO_ROOM));
+    }
+}
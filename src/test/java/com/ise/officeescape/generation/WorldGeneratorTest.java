@@ -0,0 +1,84 @@
+package com.ise.officeescape.generation;
+
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Puzzle;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.puzzles.QueueGaurdPuzzle;
+import com.ise.officeescape.service.SaveService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldGeneratorTest {
+
+    // Entrance, two blocks of six rooms, exit
+    private static final int ROOMS = 14;
+
+    @Test
+    void eachBlockHasItsOwnPuzzlesAndGates() {
+        RoomManager world = new WorldGenerator(7).build(ROOMS);
+        Room firstQueue = world.getRoom("queue-4");
+        Room secondQueue = world.getRoom("queue-10");
+        assertEquals("0", firstQueue.getScope());
+        assertEquals("1", secondQueue.getScope());
+
+        Puzzle firstGuard = firstQueue.getAllPuzzles().get(0);
+        Puzzle secondGuard = secondQueue.getAllPuzzles().get(0);
+        assertEquals("queueGaurdPuzzle-0", firstGuard.getId());
+        assertEquals("queueGaurdPuzzle-1", secondGuard.getId());
+        assertSame(firstGuard.getKind(), secondGuard.getKind());
+        assertEquals("popsicle-1", secondGuard.getConsumedItemName());
+        assertTrue(world.getRoom("ticket-9").getInventory().hasItem("popsicle-1"));
+
+        // The first block's ticket does not open the second block's queue
+        Player player = new Player("test", world.getStartRoom());
+        player.getInventory().addItem(SaveService.createItemFromName("ticketItem-0"));
+        assertTrue(firstQueue.canEnter(player));
+        assertFalse(secondQueue.canEnter(player));
+        player.getInventory().addItem(SaveService.createItemFromName("ticketItem-1"));
+        assertTrue(secondQueue.canEnter(player));
+
+        player.getProgress().markSolved(firstGuard.getId());
+        assertTrue(world.getRoom("security-5").canEnter(player));
+        assertFalse(world.getRoom("security-11").canEnter(player));
+
+        // The guards share one dialogue tree, but each offers the bribe for its own block's popsicle only
+        player.getInventory().addItem(SaveService.createItemFromName("popsicle-1"));
+        firstGuard.interact("selectOption", 1);
+        secondGuard.interact("selectOption", 1);
+        assertEquals(3, ((QueueGaurdPuzzle) firstGuard).getAvailableOptions(player).size());
+        assertEquals(4, ((QueueGaurdPuzzle) secondGuard).getAvailableOptions(player).size());
+    }
+
+    @Test
+    void writtenRoomsCarryTheirScopedIds(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("building.tsv");
+        new WorldGenerator(7).write(ROOMS, file);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(ROOMS + 1, lines.size()); // Header plus one line per room
+
+        // index, name, kind, scope, 4 exits, items, puzzle, gate
+        String[] ticket = lines.get(1 + 9).split("\t", -1);
+        assertEquals("ticket-9", ticket[1]);
+        assertEquals("1", ticket[3]);
+        assertEquals("bananaPeel-1,popsicle-1", ticket[8]);
+        assertEquals("ticketPuzzle-1", ticket[9]);
+        assertEquals("", ticket[10]);
+
+        String[] interview = lines.get(1 + 6).split("\t", -1);
+        assertEquals("interviewPuzzle-0", interview[9]);
+        assertEquals("solved(queueGaurdPuzzle-0) and solved(securityPuzzle-0)", interview[10]);
+
+        String[] entrance = lines.get(1).split("\t", -1);
+        assertEquals(11, entrance.length);
+        assertEquals("", entrance[3]);
+        assertEquals("", entrance[10]);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ise.officeescape.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryTest {
+
+    @Test
+    void replacingAnItemRemovesTheOldOneFirst() {
+        Inventory inventory = new Inventory();
+        List<String> events = record(inventory);
+        Item first = new Item("inventoryTestStamp", "The first stamp");
+        Item second = new Item("inventoryTestStamp", "Another stamp");
+
+        inventory.addItem(first);
+        inventory.addItem(first); // Already held: no event
+        inventory.addItem(second);
+        assertEquals(List.of("ADDED The first stamp", "REMOVED The first stamp", "ADDED Another stamp"), events);
+        assertSame(second, inventory.getItem(second.getSymbol()));
+    }
+
+    @Test
+    void movingOntoAnItemWithTheSameSymbolRemovesIt() {
+        Inventory room = new Inventory();
+        Inventory player = new Inventory();
+        Item found = new Item("inventoryTestBadge", "A badge from the floor");
+        Item carried = new Item("inventoryTestBadge", "The player's badge");
+        room.addItem(found);
+        player.addItem(carried);
+        List<String> events = record(player);
+
+        assertTrue(room.moveItem(found.getSymbol(), player));
+        assertEquals(List.of("REMOVED The player's badge", "MOVED A badge from the floor"), events);
+        assertFalse(room.hasItem(found.getSymbol()));
+        assertTrue(player.hasItem(found));
+        assertEquals(3, player.getVersion());
+    }
+
+    private static List<String> record(Inventory inventory) {
+        List<String> events = new ArrayList<>();
+        inventory.OnInventoryChanged.addListener((sender, args) ->
+            events.add(args.type + " " + args.item.getDescription()));
+        return events;
+    }
+}
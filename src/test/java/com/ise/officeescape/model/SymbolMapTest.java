@@ -0,0 +1,54 @@
+package com.ise.officeescape.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolMapTest {
+
+    @Test
+    void behavesLikeAHashMapUnderRandomChanges() {
+        SymbolMap<Integer> map = new SymbolMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String name = "symbolMapTest" + random.nextInt(64);
+            Symbol key = Symbol.of(name);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(name), map.remove(key));
+            } else {
+                assertEquals(expected.put(name, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map.asNameMap());
+    }
+
+    @Test
+    void nameViewDoesNotInternUnknownNames() {
+        SymbolMap<String> map = new SymbolMap<>();
+        map.put(Symbol.POPSICLE, "popsicle");
+        int symbols = Symbol.getCount();
+        assertNull(map.asNameMap().get("neverInternedSymbolMapTestName"));
+        assertEquals(symbols, Symbol.getCount());
+        assertEquals("popsicle", map.asNameMap().get("popsicle"));
+    }
+
+    @Test
+    void inventoryLooksItemsUpBySymbol() {
+        Inventory inventory = new Inventory();
+        Item popsicle = new Item("popsicle", "A popsicle");
+        inventory.addItem(popsicle);
+        assertTrue(inventory.hasItem(Symbol.POPSICLE));
+        assertTrue(inventory.hasItem(popsicle));
+        assertFalse(inventory.hasItem(new Item("popsicle", "Another popsicle")));
+        Inventory other = new Inventory();
+        assertTrue(inventory.moveItem(Symbol.POPSICLE, other));
+        assertSame(popsicle, other.getItem(Symbol.POPSICLE));
+        assertTrue(inventory.getInvetoryMap().isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ise.officeescape.model.conditions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionTest {
+
+    @Test
+    void testsFlagsBeyondTheFirstWord() {
+        // Register enough flags that the ones below land in later words
+        for (int i = 0; i < 200; i++) {
+            ProgressFlags.solvedFlag("conditionTestFiller" + i);
+        }
+        Condition condition = Condition.compile("solved(conditionTestA) and not hasItem(conditionTestB)");
+        int a = ProgressFlags.solvedFlag("conditionTestA");
+        int b = ProgressFlags.itemFlag("conditionTestB");
+        assertTrue(a >= 200 && b >= 200);
+
+        long[] state = new long[(Math.max(a, b) >>> 6) + 1];
+        assertFalse(condition.test(state));
+        assertEquals(FlagMask.of(a), condition.missingFlags(state));
+        state[a >>> 6] |= 1L << a;
+        assertTrue(condition.test(state));
+        assertTrue(condition.missingFlags(state).isEmpty());
+        state[b >>> 6] |= 1L << b;
+        assertFalse(condition.test(state));
+        // A shorter state array means the later flags are clear
+        assertFalse(condition.test(new long[1]));
+    }
+
+    @Test
+    void scopedNamesParse() {
+        Condition condition = Condition.compile("hasItem(ticketItem-12) or solved(queueGaurdPuzzle-12)");
+        assertEquals(2, condition.getClauseCount());
+        assertEquals(2, condition.referencedFlags().size());
+    }
+
+    @Test
+    void conditionsBindToAScope() {
+        Condition template = Condition.compile("solved(conditionTestJ) and not hasItem(conditionTestK)");
+        Condition scoped = Condition.compile("solved(conditionTestJ) and not hasItem(conditionTestK)", "7");
+        assertSame(template, Condition.compile("solved(conditionTestJ) and not hasItem(conditionTestK)", null));
+        assertEquals("solved(conditionTestJ-7) and not hasItem(conditionTestK-7)", scoped.getSource());
+        assertEquals("7", scoped.getScope());
+
+        int j = ProgressFlags.solvedFlag("conditionTestJ-7");
+        int k = ProgressFlags.itemFlag("conditionTestK-7");
+        assertEquals(FlagMask.of(j), scoped.getRequiredMask(0));
+        assertEquals(FlagMask.of(k), scoped.getForbiddenMask(0));
+        assertEquals(ProgressFlags.itemFlag("conditionTestK-7"), ProgressFlags.itemFlagIfKnown("conditionTestK-7"));
+        assertThrows(IllegalStateException.class, () -> scoped.inScope("8"));
+    }
+
+    @Test
+    void missingFlagsOfTheSameWord() {
+        Condition condition = Condition.compile("hasItem(conditionTestH) and hasItem(conditionTestI)");
+        int h = ProgressFlags.itemFlag("conditionTestH");
+        int i = ProgressFlags.itemFlag("conditionTestI");
+        long[] state = new long[(Math.max(h, i) >>> 6) + 1];
+        state[h >>> 6] |= 1L << h;
+        assertEquals(FlagMask.of(i), condition.missingFlags(state));
+        assertEquals(FlagMask.of(h).or(FlagMask.of(i)), condition.missingFlags(new long[0]));
+    }
+
+    @Test
+    void negationAndSimplification() {
+        Condition condition = Condition.compile("not (hasItem(conditionTestC) and hasItem(conditionTestD)) and hasItem(conditionTestC)");
+        int c = ProgressFlags.itemFlag("conditionTestC");
+        int d = ProgressFlags.itemFlag("conditionTestD");
+        assertEquals(1, condition.getClauseCount());
+        assertEquals(FlagMask.of(c), condition.getRequiredMask(0));
+        assertEquals(FlagMask.of(d), condition.getForbiddenMask(0));
+        assertEquals(0, Condition.compile("hasItem(conditionTestC) and not hasItem(conditionTestC)").getClauseCount());
+    }
+
+    @Test
+    void projectRenumbersAndDropsUnknownFlags() {
+        Condition condition = Condition.compile("solved(conditionTestE) and not hasItem(conditionTestF) or solved(conditionTestG)");
+        int e = ProgressFlags.solvedFlag("conditionTestE");
+        // Only E is known locally, as flag 0: the G clause cannot hold, F is always clear
+        Condition local = condition.project(flag -> flag == e ? 0 : -1);
+        assertEquals(1, local.getClauseCount());
+        assertTrue(local.test(new long[] {1L}));
+        assertFalse(local.test(new long[] {0L}));
+    }
+
+    @Test
+    void rejectsInvalidConditions() {
+        assertThrows(IllegalArgumentException.class, () -> Condition.compile("hasItem(x) and"));
+        assertThrows(IllegalArgumentException.class, () -> Condition.compile("owns(x)"));
+        assertThrows(IllegalArgumentException.class, () -> Condition.compile("(hasItem(x) or solved(y)"));
+        assertThrows(IllegalArgumentException.class, () -> Condition.compile("hasItem()"));
+        assertThrows(IllegalArgumentException.class, () -> Condition.compile(""));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> Condition.compile("hasItem(x) & solved(y)"));
+        assertTrue(error.getMessage().contains("position 11"), error.getMessage());
+    }
+}
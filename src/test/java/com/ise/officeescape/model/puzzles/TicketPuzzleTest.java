@@ -0,0 +1,81 @@
+package com.ise.officeescape.model.puzzles;
+
+import com.ise.officeescape.model.InteractionResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketPuzzleTest {
+
+    private static final int[] CORRECT_ANSWERS = {2, 2, 3, 1, 1};
+
+    @Test
+    void quizProgressSurvivesSaveState() {
+        TicketPuzzle puzzle = new TicketPuzzle();
+        puzzle.handleAnswer(CORRECT_ANSWERS[0]);
+        puzzle.nextQuestion();
+        puzzle.handleAnswer(CORRECT_ANSWERS[1]);
+        puzzle.nextQuestion();
+
+        TicketPuzzle restored = new TicketPuzzle();
+        restored.restoreSaveState(puzzle.getSaveState());
+        assertEquals(2, restored.getCurrentQuestionIndex());
+        assertEquals(2, restored.getCorrectAnswers());
+        assertFalse(restored.isTicketObtained());
+    }
+
+    @Test
+    void restoredPuzzleDoesNotHandOutASecondTicket() {
+        TicketPuzzle puzzle = new TicketPuzzle();
+        for (int i = 0; i < CORRECT_ANSWERS.length; i++) {
+            puzzle.handleAnswer(CORRECT_ANSWERS[i]);
+            puzzle.nextQuestion();
+        }
+        InteractionResult first = puzzle.interact("complete", null);
+        assertEquals(InteractionResult.ResultType.PUZZLE_SOLVED, first.getType());
+
+        TicketPuzzle restored = new TicketPuzzle();
+        restored.setSolved(puzzle.isSolved());
+        restored.restoreSaveState(puzzle.getSaveState());
+        assertTrue(restored.isTicketObtained());
+        assertEquals(InteractionResult.ResultType.MESSAGE, restored.interact("complete", null).getType());
+    }
+
+    @Test
+    void ticketNumberComesFromTheDispenserAndIsSaved() {
+        TicketPuzzle puzzle = new TicketPuzzle();
+        puzzle.setTicketDispenser(() -> 347);
+        for (int i = 0; i < CORRECT_ANSWERS.length; i++) {
+            puzzle.handleAnswer(CORRECT_ANSWERS[i]);
+            puzzle.nextQuestion();
+        }
+        InteractionResult result = puzzle.interact("complete", null);
+        assertEquals(347, puzzle.getTicketNumber());
+        assertTrue(result.getDialogueLines().contains("You got ticket number 347!"));
+
+        TicketPuzzle restored = new TicketPuzzle();
+        restored.restoreSaveState(puzzle.getSaveState());
+        assertEquals(347, restored.getTicketNumber());
+        assertEquals(CORRECT_ANSWERS.length, restored.getCorrectAnswers());
+    }
+
+    @Test
+    void solvedPuzzleFromAnOlderSaveCountsAsTicketObtained() {
+        TicketPuzzle restored = new TicketPuzzle();
+        restored.setSolved(true);
+        restored.restoreSaveState(0);
+        assertTrue(restored.isTicketObtained());
+    }
+
+    @Test
+    void changesAreReported() {
+        TicketPuzzle puzzle = new TicketPuzzle();
+        int[] changes = new int[1];
+        puzzle.OnStateChanged.addListener((sender, args) -> changes[0]++);
+        puzzle.handleAnswer(CORRECT_ANSWERS[0]);
+        puzzle.nextQuestion();
+        puzzle.resetQuiz();
+        assertEquals(3, changes[0]);
+        assertTrue(puzzle.isDirty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.ise.officeescape.model.state;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomGraph;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.model.puzzles.QueueGaurdPuzzle;
+import com.ise.officeescape.model.puzzles.TicketPuzzle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateTrackerTest {
+
+    private Room ticketRoom;
+    private Room queueRoom;
+    private Player player;
+    private GameStateTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        ticketRoom = new Room("ticket", "Ticket room");
+        queueRoom = new Room("queue", "Queue room");
+        ticketRoom.setExit(Direction.forward, queueRoom);
+        queueRoom.setExit(Direction.backwards, ticketRoom);
+        ticketRoom.addPuzzle(new TicketPuzzle());
+        ticketRoom.getInventory().addItem(new Item("popsicle", "A popsicle"));
+        player = new Player("Player", ticketRoom);
+        tracker = new GameStateTracker(RoomGraph.of(new RoomManager(List.of(ticketRoom, queueRoom), ticketRoom)));
+        tracker.reset(player);
+    }
+
+    @Test
+    void undoRestoresPuzzleProgress() {
+        TicketPuzzle puzzle = (TicketPuzzle) ticketRoom.getAllPuzzles().get(0);
+        puzzle.handleAnswer(2);
+        puzzle.nextQuestion();
+        tracker.checkpoint();
+        puzzle.setSolved(true);
+        tracker.checkpoint();
+
+        tracker.applyTo(tracker.undo(), player);
+        assertFalse(puzzle.isSolved());
+        assertEquals(1, puzzle.getCurrentQuestionIndex());
+        assertEquals(1, puzzle.getCorrectAnswers());
+
+        tracker.applyTo(tracker.undo(), player);
+        assertEquals(0, puzzle.getCurrentQuestionIndex());
+        assertFalse(tracker.canUndo());
+    }
+
+    @Test
+    void undoMovesOnlyTheItemsThatChanged() {
+        queueRoom.getInventory().addItem(new Item("bananaPeel", "A banana peel"));
+        tracker.track(queueRoom);
+        ticketRoom.getInventory().moveItem("popsicle", player.getInventory());
+        tracker.setItemHeld(player.getInventory().getInvetoryMap().get("popsicle"));
+        tracker.checkpoint();
+
+        int[] changes = new int[3];
+        player.getInventory().OnInventoryChanged.addListener((sender, args) -> changes[0]++);
+        ticketRoom.getInventory().OnInventoryChanged.addListener((sender, args) -> changes[1]++);
+        queueRoom.getInventory().OnInventoryChanged.addListener((sender, args) -> changes[2]++);
+        tracker.applyTo(tracker.undo(), player);
+
+        assertTrue(ticketRoom.getInventory().hasItem("popsicle"));
+        assertTrue(queueRoom.getInventory().hasItem("bananaPeel"));
+        assertArrayEquals(new int[] {1, 1, 0}, changes);
+    }
+
+    @Test
+    void undoKeepsItemsOfRoomsSetUpInTheBackground() {
+        // The queue room is set up by the bootstrap while the player is still in the ticket room
+        queueRoom.getInventory().addItem(new Item("bananaPeel", "A banana peel"));
+        Item passport = new Item("passport", "Your passport");
+        player.getInventory().addItem(passport);
+        tracker.setItemHeld(passport);
+        tracker.checkpoint();
+
+        player.getInventory().moveItem("passport", ticketRoom.getInventory());
+        tracker.setItemInRoom(passport, ticketRoom);
+        tracker.checkpoint();
+        tracker.applyTo(tracker.undo(), player);
+        assertTrue(queueRoom.getInventory().hasItem("bananaPeel")); // Not tracked yet, so left alone
+        assertTrue(ticketRoom.getInventory().hasItem("popsicle"));
+        assertTrue(player.getInventory().hasItem("passport"));
+
+        tracker.track(queueRoom);
+        tracker.applyTo(tracker.undo(), player);
+        assertTrue(queueRoom.getInventory().hasItem("bananaPeel"));
+        assertTrue(ticketRoom.getInventory().hasItem("popsicle"));
+        assertFalse(player.getInventory().hasItem("passport"));
+    }
+
+    @Test
+    void roomsSetUpLaterAreTrackedBackThroughHistory() {
+        Item ticket = new Item("ticketItem", "A ticket");
+        player.getInventory().addItem(ticket);
+        tracker.setItemHeld(ticket);
+        tracker.checkpoint();
+
+        // The queue room is set up only when first entered
+        QueueGaurdPuzzle guard = new QueueGaurdPuzzle();
+        queueRoom.addPuzzle(guard);
+        queueRoom.getInventory().addItem(new Item("bananaPeel", "A banana peel"));
+        player.setCurrentRoom(queueRoom);
+        tracker.setRoom(queueRoom);
+        tracker.track(queueRoom);
+        tracker.checkpoint();
+        guard.setSolved(true);
+        queueRoom.getInventory().moveItem("bananaPeel", player.getInventory());
+        tracker.setItemHeld(player.getInventory().getInvetoryMap().get("bananaPeel"));
+        tracker.checkpoint();
+
+        tracker.applyTo(tracker.undo(), player);
+        tracker.applyTo(tracker.undo(), player);
+        tracker.applyTo(tracker.undo(), player);
+        assertSame(ticketRoom, player.getCurrentRoom());
+        assertTrue(queueRoom.getInventory().hasItem("bananaPeel"));
+        assertFalse(player.getInventory().hasItem("ticketItem"));
+        assertFalse(guard.isSolved());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Inventory;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionJournalTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void entriesAreReadBack() throws Exception {
+        Path path = root.resolve("journal.log");
+        Inventory inventory = new Inventory();
+        try (ActionJournal journal = new ActionJournal(path, 0)) {
+            journal.watchPlayer(inventory);
+            journal.recordMove(new Room("ticket", "Ticket room"));
+            inventory.addItem(new Item("ticketItem", "A ticket"));
+            assertTrue(journal.sync(5_000));
+        }
+
+        List<ActionJournal.Entry> entries = ActionJournal.read(path);
+        assertEquals(2, entries.size());
+        assertEquals(ActionJournal.ActionType.MOVED, entries.get(0).type);
+        assertEquals("ticket", entries.get(0).roomName);
+        assertEquals(ActionJournal.ActionType.ITEM_ADDED, entries.get(1).type);
+        assertNull(entries.get(1).roomName); // The player's inventory
+        assertEquals("ticketItem", entries.get(1).name);
+        assertEquals(2, entries.get(1).sequence);
+    }
+
+    @Test
+    void tornTailIsDroppedAndCutOff() throws Exception {
+        Path path = root.resolve("journal.log");
+        long[] ends = writeMoves(path, "outside", "ticket", "queue");
+        Files.write(path, Arrays.copyOf(Files.readAllBytes(path), (int) ends[2] - 3));
+
+        List<ActionJournal.Entry> entries = ActionJournal.read(path);
+        assertEquals(List.of("outside", "ticket"), entries.stream().map(entry -> entry.roomName).toList());
+        assertEquals(ends[1], Files.size(path));
+    }
+
+    @Test
+    void damagedLastRecordIsDropped() throws Exception {
+        Path path = root.resolve("journal.log");
+        long[] ends = writeMoves(path, "outside", "ticket");
+        byte[] data = Files.readAllBytes(path);
+        data[(int) ends[1] - 1] ^= 0x5A; // Last byte of the second record's room name
+        Files.write(path, data);
+
+        assertEquals(1, ActionJournal.read(path).size());
+        assertEquals(ends[0], Files.size(path));
+    }
+
+    /**
+     * Journals a move to each room, waiting for each to be on disk.
+     *
+     * @return the journal size after each move
+     */
+    private static long[] writeMoves(Path path, String... roomNames) throws IOException, InterruptedException {
+        long[] ends = new long[roomNames.length];
+        try (ActionJournal journal = new ActionJournal(path, 0)) {
+            for (int i = 0; i < roomNames.length; i++) {
+                journal.recordMove(new Room(roomNames[i], roomNames[i]));
+                assertTrue(journal.sync(5_000));
+                ends[i] = Files.size(path);
+            }
+        }
+        return ends;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.model.Direction;
+import com.ise.officeescape.model.Item;
+import com.ise.officeescape.model.Player;
+import com.ise.officeescape.model.Room;
+import com.ise.officeescape.model.RoomManager;
+import com.ise.officeescape.service.RoomDefinition.AnimationDefinition;
+import com.ise.officeescape.service.RoomDefinition.ExitDefinition;
+import com.ise.officeescape.service.RoomDefinition.HotspotDefinition;
+import com.ise.officeescape.service.RoomDefinition.ItemDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomDefinitionCompilerTest {
+
+    private static final String WORLD = """
+        room hall
+          description "The hall"
+          start
+          exit forward vault
+        end
+
+        room vault   # Needs the key
+          exit backwards hall
+          gate "hasItem(vaultKey) and hasItem(vaultCard)" "The vault is locked."
+          whenMissing "hasItem(vaultCard)" "The vault needs a card too."
+          item gold "A pile of gold"
+          hotspot safe 10 20 30 40 OPEN_SAFE "Safe - Click to open"
+          animation glint OneShot glint 1 2 3 4 12
+        end
+        """;
+
+    @Test
+    void builtInRoomsSurviveEncoding() throws IOException {
+        List<RoomDefinition> parsed = RoomDefinitionCompiler.parse("rooms.def",
+            Files.readAllLines(Path.of("src/main/rooms/rooms.def")));
+        RoomDefinitions decoded = RoomDefinitions.decode(RoomDefinitions.encode(parsed));
+
+        assertEquals(parsed.size(), decoded.getRoomCount());
+        List<String> expected = parsed.stream().map(RoomDefinitionCompilerTest::describe).toList();
+        List<String> actual = decoded.getAll().stream().map(RoomDefinitionCompilerTest::describe).toList();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void definitionsBuildTheRoomGraph() {
+        List<RoomDefinition> parsed = RoomDefinitionCompiler.parse("world.def", WORLD.lines().toList());
+        RoomDefinition vault = parsed.get(1);
+        assertEquals("vault", vault.getDescription()); // Defaults to the name
+        assertEquals(List.of("hasItem(vaultCard)"), vault.getGate().missingFacts);
+
+        RoomManager rooms = RoomDefinitions.decode(RoomDefinitions.encode(parsed)).createRoomManager();
+        Room hall = rooms.getStartRoom();
+        assertEquals("hall", hall.getName());
+        assertEquals("The hall", hall.getDescription());
+        Room vaultRoom = hall.getExit(Direction.forward);
+        assertSame(rooms.getRoom("vault"), vaultRoom);
+        assertSame(hall, vaultRoom.getExit(Direction.backwards));
+
+        Player player = new Player("Player", hall);
+        assertFalse(vaultRoom.canEnter(player));
+        assertEquals("The vault is locked.", vaultRoom.getEntryBlockedMessage(player));
+        player.getInventory().addItem(new Item("vaultKey", "A key"));
+        assertEquals("The vault needs a card too.", vaultRoom.getEntryBlockedMessage(player));
+        player.getInventory().addItem(new Item("vaultCard", "A card"));
+        assertTrue(vaultRoom.canEnter(player));
+    }
+
+    @Test
+    void errorsNameTheLine() {
+        assertError("world.def:4: unknown direction 'up'", WORLD.replace("exit forward vault", "exit up vault"));
+        assertError("world.def:4: exit to unknown room 'cellar'", WORLD.replace("exit forward vault", "exit forward cellar"));
+        assertError("world.def:4: 'exit' takes 2 argument(s), got 3", WORLD.replace("exit forward vault", "exit forward vault hall"));
+        assertError("world.def:5: room 'hall' already has a forward exit",
+            WORLD.replace("exit forward vault", "exit forward vault\n  exit forward hall"));
+        assertError("world.def:9: Unknown condition 'and'", WORLD.replace("hasItem(vaultKey) and", "hasItem(vaultKey) and and"));
+        assertError("world.def:14: room 'vault' has 'whenMissing' without a 'gate'",
+            WORLD.replace("  gate \"hasItem(vaultKey) and hasItem(vaultCard)\" \"The vault is locked.\"", ""));
+        assertError("world.def:8: room 'hall' is already the start room", WORLD.replace("room vault   #", "room vault\n  start\n  #"));
+        assertError("world.def: no room is marked 'start'", WORLD.replace("  start\n", ""));
+        assertError("world.def:12: hotspot 'safe' must have a positive size", WORLD.replace("10 20 30 40", "10 20 0 40"));
+        assertError("world.def:13: unknown animation type 'Spin'", WORLD.replace("OneShot", "Spin"));
+        assertError("world.def:13: 'x' is not a number", WORLD.replace("glint 1 2", "glint x 2"));
+        assertError("world.def:6: room 'hall' is missing 'end'", WORLD.replace("  exit forward vault\nend", "  exit forward vault"));
+        assertError("world.def:2: unknown directive 'colour'", WORLD.replace("description", "colour"));
+    }
+
+    private static void assertError(String expectedStart, String source) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> RoomDefinitionCompiler.parse("world.def", source.lines().toList()));
+        assertTrue(error.getMessage().startsWith(expectedStart), error.getMessage());
+    }
+
+    /**
+     * Lists every field of a definition, so two can be compared.
+     */
+    private static String describe(RoomDefinition room) {
+        List<Object> fields = new ArrayList<>(List.of(room.getName(), room.getDescription(), room.isStart(),
+            room.getBackground(), room.getPuzzleIds()));
+        for (ExitDefinition exit : room.getExits()) {
+            fields.add(List.of(exit.direction, exit.room));
+        }
+        if (room.getGate() != null) {
+            fields.add(List.of(room.getGate().condition, room.getGate().message,
+                room.getGate().missingFacts, room.getGate().missingMessages));
+        }
+        for (ItemDefinition item : room.getItems()) {
+            fields.add(List.of(item.name, item.description));
+        }
+        for (HotspotDefinition hotspot : room.getHotspots()) {
+            fields.add(List.of(hotspot.id, hotspot.x, hotspot.y, hotspot.width, hotspot.height,
+                hotspot.interactionType, hotspot.hoverText));
+        }
+        for (AnimationDefinition animation : room.getAnimations()) {
+            fields.add(List.of(animation.id, animation.type, animation.assetId, animation.x, animation.y,
+                animation.width, animation.height, animation.frameRate));
+        }
+        return fields.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.service.SaveService.PuzzleState;
+import com.ise.officeescape.service.SaveService.RoomState;
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveFormatTest {
+
+    @Test
+    void snapshotSurvivesRoundTrip() {
+        // Ten puzzles so the solved bitset spans two bytes, and states that need multi-byte varints
+        List<PuzzleState> puzzles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            puzzles.add(new PuzzleState("puzzle" + i, i % 3 == 0, i == 9 ? 347 << 12 | 5 << 9 : i));
+        }
+        SaveSnapshot snapshot = new SaveSnapshot("queue", List.of("passport", "ticketItem"), List.of(
+            new RoomState("ticket", List.of("popsicle"), List.of(new PuzzleState("ticketPuzzle", true, 1))),
+            new RoomState("queue", List.of("passport"), puzzles), // Names shared with the player's items
+            new RoomState("kitchen-é", List.of(), List.of())
+        ));
+
+        byte[] data = SaveFormat.encode(snapshot);
+        assertTrue(SaveFormat.isBinary(data));
+        SaveSnapshot decoded = SaveFormat.decode(data);
+
+        assertEquals("queue", decoded.roomName);
+        assertEquals(snapshot.itemNames, decoded.itemNames);
+        assertEquals(3, decoded.rooms.size());
+        for (int r = 0; r < snapshot.rooms.size(); r++) {
+            RoomState expected = snapshot.rooms.get(r);
+            RoomState actual = decoded.rooms.get(r);
+            assertEquals(expected.roomName, actual.roomName);
+            assertEquals(expected.itemNames, actual.itemNames);
+            assertEquals(expected.puzzles.size(), actual.puzzles.size());
+            for (int p = 0; p < expected.puzzles.size(); p++) {
+                assertEquals(expected.puzzles.get(p).puzzleId, actual.puzzles.get(p).puzzleId);
+                assertEquals(expected.puzzles.get(p).solved, actual.puzzles.get(p).solved);
+                assertEquals(expected.puzzles.get(p).state, actual.puzzles.get(p).state);
+            }
+        }
+    }
+
+    @Test
+    void damagedSavesAreRejected() {
+        byte[] data = SaveFormat.encode(new SaveSnapshot("ticket", List.of("passport"), List.of()));
+
+        byte[] flipped = data.clone();
+        flipped[data.length / 2] ^= 0x01;
+        assertThrows(IllegalArgumentException.class, () -> SaveFormat.decode(flipped));
+        assertThrows(IllegalArgumentException.class, () -> SaveFormat.decode(Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> SaveFormat.decode("room=ticket\n".getBytes()));
+        assertFalse(SaveFormat.isBinary("room=ticket\n".getBytes()));
+    }
+
+    @Test
+    void newerVersionIsRejected() {
+        byte[] data = SaveFormat.encode(new SaveSnapshot("ticket", List.of(), List.of()));
+        data[Integer.BYTES] = (byte) (SaveFormat.VERSION + 1);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - Integer.BYTES);
+        int value = (int) crc.getValue();
+        for (int i = 0; i < Integer.BYTES; i++) {
+            data[data.length - Integer.BYTES + i] = (byte) (value >>> (24 - 8 * i));
+        }
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> SaveFormat.decode(data));
+        assertTrue(error.getMessage().contains("version"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.ise.officeescape.service;
+
+import com.ise.officeescape.service.SaveService.SaveSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveStoreTest {
+
+    private static final String PROFILE = "alice";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void savesSurviveReopening() throws IOException {
+        try (SaveStore store = SaveStore.open(root, false)) {
+            store.save(PROFILE, 0, snapshot("ticket", "ticketItem"));
+            store.save(PROFILE, 3, snapshot("queue", "popsicle"));
+            store.save(PROFILE, 0, snapshot("security"));
+            assertTrue(store.delete(PROFILE, 3));
+            store.save("bob", 1, snapshot("outside"));
+        }
+        try (SaveStore store = SaveStore.open(root, false)) {
+            assertEquals(List.of(0), store.listSlots(PROFILE));
+            assertEquals("security", store.load(PROFILE, 0).roomName);
+            assertNull(store.load(PROFILE, 3));
+            assertEquals("outside", store.load("bob", 1).roomName);
+        }
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        long[] ends = writeThreeSaves();
+        Path log = logOf(PROFILE);
+        truncate(log, ends[2] - 3);
+
+        try (SaveStore store = SaveStore.open(root, false)) {
+            assertEquals(List.of(0, 1), store.listSlots(PROFILE));
+            assertEquals("slot1", store.load(PROFILE, 1).roomName);
+        }
+        assertEquals(ends[1], Files.size(log));
+    }
+
+    @Test
+    void damagedRecordInTheMiddleIsSkipped() throws IOException {
+        long[] ends = writeThreeSaves();
+        Path log = logOf(PROFILE);
+        byte[] data = Files.readAllBytes(log);
+        data[(int) (ends[0] + ends[1]) / 2] ^= 0x5A; // Inside the body of the second record
+        Files.write(log, data);
+
+        try (SaveStore store = SaveStore.open(root, false)) {
+            assertEquals(List.of(0, 2), store.listSlots(PROFILE));
+            assertEquals("slot0", store.load(PROFILE, 0).roomName);
+            assertEquals("slot2", store.load(PROFILE, 2).roomName);
+        }
+        assertEquals(ends[2], Files.size(log));
+        assertEquals(ends[1] - ends[0], Files.size(log.resolveSibling(log.getFileName() + ".bad")));
+    }
+
+    @Test
+    void damagedLengthInTheMiddleIsSkipped() throws IOException {
+        long[] ends = writeThreeSaves();
+        Path log = logOf(PROFILE);
+        byte[] data = Files.readAllBytes(log);
+        data[(int) ends[0]] = 0x7F; // Length of the second record now runs past the end of the log
+        Files.write(log, data);
+
+        try (SaveStore store = SaveStore.open(root, false)) {
+            assertEquals(List.of(0, 2), store.listSlots(PROFILE));
+            assertEquals("slot2", store.load(PROFILE, 2).roomName);
+        }
+    }
+
+    /**
+     * Saves slots 0, 1 and 2 of one profile and closes the store without index files,
+     * so the next open scans the whole log.
+     *
+     * @return the log size after each save
+     */
+    private long[] writeThreeSaves() throws IOException {
+        long[] ends = new long[3];
+        try (SaveStore store = SaveStore.open(root, false)) {
+            for (int slot = 0; slot < 3; slot++) {
+                store.save(PROFILE, slot, snapshot("slot" + slot, "passport", "visaApplication"));
+                ends[slot] = Files.size(logOf(PROFILE));
+            }
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".idx")).toList()) {
+                Files.delete(file);
+            }
+        }
+        return ends;
+    }
+
+    private Path logOf(String profile) {
+        return root.resolve(String.format("shard-%02d.log", (profile.hashCode() & 0x7FFFFFFF) % 16));
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(data, (int) size));
+    }
+
+    private static SaveSnapshot snapshot(String roomName, String... itemNames) {
+        return new SaveSnapshot(roomName, List.of(itemNames), List.of());
+    }
+}